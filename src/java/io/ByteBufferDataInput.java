@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A <code>DataInput</code> that reads from a {@link ByteBuffer}.  Values
+ * are read from the buffer's position, which is advanced by the number of
+ * bytes read, using the buffer's relative <code>get</code> methods.  The
+ * buffer must have big-endian byte order, as every method of
+ * <code>DataInput</code> reads its value high byte first.
+ *
+ * <p> A method that reaches the buffer's limit before reading all the bytes
+ * of its value throws <code>EOFException</code>, leaving the position
+ * unchanged.  The bulk methods, such as {@link #readInts readInts}, check
+ * that all the values remain before reading any of them.
+ *
+ * <p> An instance is not safe for use by multiple concurrent threads, and
+ * the position of the buffer should not be changed by other code while the
+ * instance is in use, other than through {@link #buffer()}.
+ *
+ * @see     java.io.DataInputStream
+ * @see     java.io.ByteBufferDataOutput
+ * @since   1.8
+ */
+public final class ByteBufferDataInput implements DataInput {
+
+    private final ByteBuffer buf;
+
+    /**
+     * working array initialized on demand by readUTF
+     */
+    private char chararr[];
+
+    /**
+     * working array initialized on demand by readUTF, if the buffer is not
+     * backed by an accessible array
+     */
+    private byte bytearr[];
+
+    /**
+     * Creates a <code>ByteBufferDataInput</code> that reads from the
+     * given buffer, starting at its position.
+     *
+     * @param  buf   the buffer to read from
+     * @exception  IllegalArgumentException  if the byte order of the
+     *             buffer is not big-endian
+     */
+    public ByteBufferDataInput(ByteBuffer buf) {
+        if (buf.order() != ByteOrder.BIG_ENDIAN)
+            throw new IllegalArgumentException("Byte order is not big-endian");
+        this.buf = buf;
+    }
+
+    /**
+     * Returns the buffer read by this <code>ByteBufferDataInput</code>.
+     * Its position is the index of the next byte to be read.
+     *
+     * @return  the buffer
+     */
+    public ByteBuffer buffer() {
+        return buf;
+    }
+
+    public void readFully(byte b[]) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte b[], int off, int len) throws IOException {
+        try {
+            buf.get(b, off, len);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Skips over <code>n</code> bytes, or the bytes remaining in the buffer
+     * if there are fewer.
+     *
+     * @param      n   the number of bytes to be skipped.
+     * @return     the number of bytes actually skipped.
+     */
+    public int skipBytes(int n) {
+        if (n <= 0)
+            return 0;
+        n = Math.min(n, buf.remaining());
+        buf.position(buf.position() + n);
+        return n;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        try {
+            return buf.get();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xff;
+    }
+
+    public short readShort() throws IOException {
+        try {
+            return buf.getShort();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xffff;
+    }
+
+    public char readChar() throws IOException {
+        try {
+            return buf.getChar();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public int readInt() throws IOException {
+        try {
+            return buf.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public long readLong() throws IOException {
+        try {
+            return buf.getLong();
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
+        }
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads <code>len</code> <code>int</code> values into the array, through
+     * an <code>IntBuffer</code> view of the buffer.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  EOFException  if fewer than <code>4*len</code> bytes
+     *             remain, in which case no values are read.
+     */
+    public void readInts(int[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int pos = checkRemaining(len, 2);
+        buf.asIntBuffer().get(a, off, len);
+        buf.position(pos + (len << 2));
+    }
+
+    /**
+     * Reads <code>len</code> <code>long</code> values into the array,
+     * through a <code>LongBuffer</code> view of the buffer.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  EOFException  if fewer than <code>8*len</code> bytes
+     *             remain, in which case no values are read.
+     */
+    public void readLongs(long[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int pos = checkRemaining(len, 3);
+        buf.asLongBuffer().get(a, off, len);
+        buf.position(pos + (len << 3));
+    }
+
+    /**
+     * Reads <code>len</code> <code>double</code> values into the array,
+     * through a <code>DoubleBuffer</code> view of the buffer.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  EOFException  if fewer than <code>8*len</code> bytes
+     *             remain, in which case no values are read.
+     */
+    public void readDoubles(double[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int pos = checkRemaining(len, 3);
+        buf.asDoubleBuffer().get(a, off, len);
+        buf.position(pos + (len << 3));
+    }
+
+    /**
+     * Checks that <code>len</code> values of <code>1 &lt;&lt; shift</code>
+     * bytes remain, returning the position.
+     */
+    private int checkRemaining(int len, int shift) throws EOFException {
+        if (((long) len << shift) > buf.remaining())
+            throw new EOFException();
+        return buf.position();
+    }
+
+    /**
+     * See the general contract of the <code>readLine</code>
+     * method of <code>DataInput</code>.
+     *
+     * @return     the next line of text from the buffer, or null if no
+     *             bytes remain.
+     */
+    public String readLine() {
+        if (!buf.hasRemaining())
+            return null;
+        StringBuilder input = new StringBuilder();
+        while (buf.hasRemaining()) {
+            int c = buf.get() & 0xff;
+            if (c == '\n')
+                break;
+            if (c == '\r') {
+                if (buf.hasRemaining() && buf.get(buf.position()) == '\n')
+                    buf.get();
+                break;
+            }
+            input.append((char) c);
+        }
+        return input.toString();
+    }
+
+    /**
+     * See the general contract of the <code>readUTF</code>
+     * method of <code>DataInput</code>.  If the buffer is backed by an
+     * accessible array, the string is decoded directly from the array.
+     *
+     * @return     a Unicode string.
+     * @exception  EOFException  if the buffer reaches its limit before
+     *               reading all the bytes.
+     * @exception  UTFDataFormatException if the bytes do not represent a valid
+     *             modified UTF-8 encoding of a string.
+     */
+    public String readUTF() throws IOException {
+        int pos = buf.position();
+        int utflen = readUnsignedShort();
+        if (utflen > buf.remaining()) {
+            buf.position(pos);
+            throw new EOFException();
+        }
+        char[] ca = chararr;
+        if (ca == null || ca.length < utflen)
+            chararr = ca = new char[Math.max(utflen, 80)];
+        String str;
+        if (buf.hasArray()) {
+            str = DataInputStream.decodeUTF(buf.array(),
+                    buf.arrayOffset() + pos + 2, utflen, ca);
+            buf.position(pos + 2 + utflen);
+        } else {
+            byte[] ba = bytearr;
+            if (ba == null || ba.length < utflen)
+                bytearr = ba = new byte[Math.max(utflen, 80)];
+            buf.get(ba, 0, utflen);
+            str = DataInputStream.decodeUTF(ba, 0, utflen, ca);
+        }
+        return str;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A <code>DataOutput</code> that writes to a {@link ByteBuffer}.  Values
+ * are written at the buffer's position, which is advanced by the number of
+ * bytes written, using the buffer's relative <code>put</code> methods.  The
+ * buffer must have big-endian byte order, as every method of
+ * <code>DataOutput</code> writes its value high byte first.  The bytes
+ * written are those written by the same method of
+ * {@link DataOutputStream}.
+ *
+ * <p> A method for which there is insufficient space between the position
+ * and the limit of the buffer throws {@link BufferOverflowException},
+ * writing nothing.
+ *
+ * <p> An instance is not safe for use by multiple concurrent threads, and
+ * the position of the buffer should not be changed by other code while the
+ * instance is in use, other than through {@link #buffer()}.
+ *
+ * @see     java.io.DataOutputStream
+ * @see     java.io.ByteBufferDataInput
+ * @since   1.8
+ */
+public final class ByteBufferDataOutput implements DataOutput {
+
+    private final ByteBuffer buf;
+
+    /**
+     * working array initialized on demand by writeUTF, if the buffer is not
+     * backed by an accessible array
+     */
+    private byte bytearr[];
+
+    /**
+     * Creates a <code>ByteBufferDataOutput</code> that writes to the given
+     * buffer, starting at its position.
+     *
+     * @param  buf   the buffer to write to
+     * @exception  IllegalArgumentException  if the byte order of the
+     *             buffer is not big-endian
+     */
+    public ByteBufferDataOutput(ByteBuffer buf) {
+        if (buf.order() != ByteOrder.BIG_ENDIAN)
+            throw new IllegalArgumentException("Byte order is not big-endian");
+        this.buf = buf;
+    }
+
+    /**
+     * Returns the buffer written by this <code>ByteBufferDataOutput</code>.
+     * Its position is the index of the next byte to be written.
+     *
+     * @return  the buffer
+     */
+    public ByteBuffer buffer() {
+        return buf;
+    }
+
+    public void write(int b) {
+        buf.put((byte) b);
+    }
+
+    public void write(byte b[]) {
+        buf.put(b, 0, b.length);
+    }
+
+    public void write(byte b[], int off, int len) {
+        buf.put(b, off, len);
+    }
+
+    public void writeBoolean(boolean v) {
+        buf.put(v ? (byte) 1 : (byte) 0);
+    }
+
+    public void writeByte(int v) {
+        buf.put((byte) v);
+    }
+
+    public void writeShort(int v) {
+        buf.putShort((short) v);
+    }
+
+    public void writeChar(int v) {
+        buf.putChar((char) v);
+    }
+
+    public void writeInt(int v) {
+        buf.putInt(v);
+    }
+
+    public void writeLong(long v) {
+        buf.putLong(v);
+    }
+
+    /**
+     * Writes the <code>float</code> value converted to an <code>int</code>
+     * by <code>Float.floatToIntBits</code>.
+     */
+    public void writeFloat(float v) {
+        buf.putInt(Float.floatToIntBits(v));
+    }
+
+    /**
+     * Writes the <code>double</code> value converted to a <code>long</code>
+     * by <code>Double.doubleToLongBits</code>.
+     */
+    public void writeDouble(double v) {
+        buf.putLong(Double.doubleToLongBits(v));
+    }
+
+    /**
+     * Writes <code>len</code> <code>int</code> values from the array,
+     * through an <code>IntBuffer</code> view of the buffer.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     */
+    public void writeInts(int[] a, int off, int len) {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int pos = checkRemaining(len, 2);
+        buf.asIntBuffer().put(a, off, len);
+        buf.position(pos + (len << 2));
+    }
+
+    /**
+     * Writes <code>len</code> <code>long</code> values from the array,
+     * through a <code>LongBuffer</code> view of the buffer.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     */
+    public void writeLongs(long[] a, int off, int len) {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int pos = checkRemaining(len, 3);
+        buf.asLongBuffer().put(a, off, len);
+        buf.position(pos + (len << 3));
+    }
+
+    /**
+     * Writes <code>len</code> <code>double</code> values from the array,
+     * each converted by <code>Double.doubleToLongBits</code>, through a
+     * <code>LongBuffer</code> view of the buffer.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     */
+    public void writeDoubles(double[] a, int off, int len) {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int pos = checkRemaining(len, 3);
+        // not a DoubleBuffer view, which would not collapse NaN values
+        LongBuffer lb = buf.asLongBuffer();
+        for (int end = off + len; off < end; off++)
+            lb.put(Double.doubleToLongBits(a[off]));
+        buf.position(pos + (len << 3));
+    }
+
+    /**
+     * Checks that there is space for <code>len</code> values of
+     * <code>1 &lt;&lt; shift</code> bytes, returning the position.
+     */
+    private int checkRemaining(long len, int shift) {
+        if ((len << shift) > buf.remaining())
+            throw new BufferOverflowException();
+        return buf.position();
+    }
+
+    public void writeBytes(String s) {
+        int len = s.length();
+        int pos = checkRemaining(len, 0);
+        for (int i = 0 ; i < len ; i++) {
+            buf.put(pos + i, (byte)s.charAt(i));
+        }
+        buf.position(pos + len);
+    }
+
+    public void writeChars(String s) {
+        int len = s.length();
+        int pos = checkRemaining(len, 1);
+        for (int i = 0 ; i < len ; i++) {
+            buf.putChar(pos + (i << 1), s.charAt(i));
+        }
+        buf.position(pos + (len << 1));
+    }
+
+    /**
+     * See the general contract of the <code>writeUTF</code>
+     * method of <code>DataOutput</code>.  If the buffer is backed by an
+     * accessible array, the string is encoded directly into the array.
+     *
+     * @param      str   a string to be written.
+     * @exception  UTFDataFormatException  if the encoding of the string is
+     *             longer than 65535 bytes.
+     */
+    public void writeUTF(String str) throws IOException {
+        int utflen = DataOutputStream.utfLength(str);
+        int pos = checkRemaining(utflen + 2, 0);
+        if (buf.hasArray()) {
+            DataOutputStream.encodeUTF(str, utflen, buf.array(),
+                                       buf.arrayOffset() + pos);
+            buf.position(pos + utflen + 2);
+        } else {
+            byte[] ba = bytearr;
+            if (ba == null || ba.length < utflen + 2)
+                bytearr = ba = new byte[Math.max(utflen + 2, 80)];
+            DataOutputStream.encodeUTF(str, utflen, ba, 0);
+            buf.put(ba, 0, utflen + 2);
+        }
+    }
+}
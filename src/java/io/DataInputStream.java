@@ -58,6 +58,16 @@ class DataInputStream extends FilterInputStream implements DataInput {
     private byte bytearr[] = new byte[80];
     private char chararr[] = new char[80];
 
+    /**
+     * The size of the staging buffer used by the bulk read methods.
+     */
+    private static final int BULK_BUFFER_SIZE = 8192;
+
+    /**
+     * bulkBuffer is initialized on demand by the bulk read methods
+     */
+    private byte bulkBuffer[];
+
     /**
      * Reads some number of bytes from the contained input stream and
      * stores them into the buffer array <code>b</code>. The number of
@@ -468,6 +478,124 @@ class DataInputStream extends FilterInputStream implements DataInput {
         return Double.longBitsToDouble(readLong());
     }
 
+    /**
+     * Reads <code>len</code> <code>int</code> values, each in exactly
+     * the manner of the <code>readInt</code> method, and stores them into
+     * the array <code>a</code> starting at <code>a[off]</code>.
+     * <p>
+     * Bytes
+     * for this operation are read from the contained
+     * input stream a buffer at a time, four bytes to a value.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the values.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInputStream#readInt()
+     * @since      1.8
+     */
+    public void readInts(int[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 2);
+            readFully(buf, 0, n << 2);
+            for (int i = 0; i < n; i++)
+                a[off + i] = Bits.getInt(buf, i << 2);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads <code>len</code> <code>long</code> values, each in exactly
+     * the manner of the <code>readLong</code> method, and stores them into
+     * the array <code>a</code> starting at <code>a[off]</code>.
+     * <p>
+     * Bytes
+     * for this operation are read from the contained
+     * input stream a buffer at a time, eight bytes to a value.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the values.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInputStream#readLong()
+     * @since      1.8
+     */
+    public void readLongs(long[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            readFully(buf, 0, n << 3);
+            for (int i = 0; i < n; i++)
+                a[off + i] = Bits.getLong(buf, i << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads <code>len</code> <code>double</code> values, each in exactly
+     * the manner of the <code>readDouble</code> method, and stores them into
+     * the array <code>a</code> starting at <code>a[off]</code>.
+     * <p>
+     * Bytes
+     * for this operation are read from the contained
+     * input stream a buffer at a time, eight bytes to a value.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the values.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInputStream#readDouble()
+     * @since      1.8
+     */
+    public void readDoubles(double[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            readFully(buf, 0, n << 3);
+            for (int i = 0; i < n; i++)
+                a[off + i] = Bits.getDouble(buf, i << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private byte[] bulkBuffer() {
+        byte[] buf = bulkBuffer;
+        if (buf == null)
+            bulkBuffer = buf = new byte[BULK_BUFFER_SIZE];
+        return buf;
+    }
+
     private char lineBuffer[];
 
     /**
@@ -599,24 +727,44 @@ loop:   while (true) {
             bytearr = dis.bytearr;
         } else {
             bytearr = new byte[utflen];
-            chararr = new char[utflen];
         }
 
+        in.readFully(bytearr, 0, utflen);
+        return decodeUTF(bytearr, 0, utflen, chararr);
+    }
+
+    /**
+     * Decodes <code>utflen</code> bytes of
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * from the array at the offset. A string of ASCII characters is
+     * created directly from the bytes; otherwise the characters are
+     * decoded into <code>chararr</code>, or into a new array if it is
+     * null or shorter than <code>utflen</code>.
+     *
+     * @exception  UTFDataFormatException  if the bytes do not represent a
+     *               valid modified UTF-8 encoding of a Unicode string.
+     */
+    @SuppressWarnings("deprecation")
+    static String decodeUTF(byte[] bytearr, int off, int utflen,
+                            char[] chararr) throws UTFDataFormatException {
         int c, char2, char3;
         int count = 0;
         int chararr_count=0;
 
-        in.readFully(bytearr, 0, utflen);
-
-        while (count < utflen) {
-            c = (int) bytearr[count] & 0xff;
-            if (c > 127) break;
+        while (count < utflen && bytearr[off + count] >= 0)
             count++;
-            chararr[chararr_count++]=(char)c;
+        if (count == utflen)
+            return new String(bytearr, 0, off, utflen);
+
+        if (chararr == null || chararr.length < utflen)
+            chararr = new char[utflen];
+        while (chararr_count < count) {
+            chararr[chararr_count] = (char) bytearr[off + chararr_count];
+            chararr_count++;
         }
 
         while (count < utflen) {
-            c = (int) bytearr[count] & 0xff;
+            c = (int) bytearr[off + count] & 0xff;
             switch (c >> 4) {
                 case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
                     /* 0xxxxxxx*/
@@ -629,7 +777,7 @@ loop:   while (true) {
                     if (count > utflen)
                         throw new UTFDataFormatException(
                             "malformed input: partial character at end");
-                    char2 = (int) bytearr[count-1];
+                    char2 = (int) bytearr[off + count-1];
                     if ((char2 & 0xC0) != 0x80)
                         throw new UTFDataFormatException(
                             "malformed input around byte " + count);
@@ -642,8 +790,8 @@ loop:   while (true) {
                     if (count > utflen)
                         throw new UTFDataFormatException(
                             "malformed input: partial character at end");
-                    char2 = (int) bytearr[count-2];
-                    char3 = (int) bytearr[count-1];
+                    char2 = (int) bytearr[off + count-2];
+                    char3 = (int) bytearr[off + count-1];
                     if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80))
                         throw new UTFDataFormatException(
                             "malformed input around byte " + (count-1));
@@ -47,6 +47,16 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      */
     private byte[] bytearr = null;
 
+    /**
+     * The size of the staging buffer used by the bulk write methods.
+     */
+    private static final int BULK_BUFFER_SIZE = 8192;
+
+    /**
+     * bulkBuffer is initialized on demand by the bulk write methods
+     */
+    private byte[] bulkBuffer = null;
+
     /**
      * Creates a new data output stream to write data to the specified
      * underlying output stream. The counter <code>written</code> is
@@ -164,8 +174,9 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @see        java.io.FilterOutputStream#out
      */
     public final void writeShort(int v) throws IOException {
-        out.write((v >>> 8) & 0xFF);
-        out.write((v >>> 0) & 0xFF);
+        writeBuffer[0] = (byte)(v >>> 8);
+        writeBuffer[1] = (byte)(v >>> 0);
+        out.write(writeBuffer, 0, 2);
         incCount(2);
     }
 
@@ -179,8 +190,9 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @see        java.io.FilterOutputStream#out
      */
     public final void writeChar(int v) throws IOException {
-        out.write((v >>> 8) & 0xFF);
-        out.write((v >>> 0) & 0xFF);
+        writeBuffer[0] = (byte)(v >>> 8);
+        writeBuffer[1] = (byte)(v >>> 0);
+        out.write(writeBuffer, 0, 2);
         incCount(2);
     }
 
@@ -194,10 +206,11 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @see        java.io.FilterOutputStream#out
      */
     public final void writeInt(int v) throws IOException {
-        out.write((v >>> 24) & 0xFF);
-        out.write((v >>> 16) & 0xFF);
-        out.write((v >>>  8) & 0xFF);
-        out.write((v >>>  0) & 0xFF);
+        writeBuffer[0] = (byte)(v >>> 24);
+        writeBuffer[1] = (byte)(v >>> 16);
+        writeBuffer[2] = (byte)(v >>>  8);
+        writeBuffer[3] = (byte)(v >>>  0);
+        out.write(writeBuffer, 0, 4);
         incCount(4);
     }
 
@@ -259,6 +272,113 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
         writeLong(Double.doubleToLongBits(v));
     }
 
+    /**
+     * Writes <code>len</code> <code>int</code> values from the array
+     * <code>a</code> to the underlying output stream, each as four bytes,
+     * high byte first. The values are staged in an internal buffer so that
+     * the underlying stream is written a buffer at a time. If no exception
+     * is thrown, the counter <code>written</code> is incremented by
+     * <code>4*len</code>.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.DataOutputStream#writeInt(int)
+     * @since      1.8
+     */
+    public void writeInts(int[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 2);
+            for (int i = 0; i < n; i++)
+                Bits.putInt(buf, i << 2, a[off + i]);
+            out.write(buf, 0, n << 2);
+            incCount(n << 2);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes <code>len</code> <code>long</code> values from the array
+     * <code>a</code> to the underlying output stream, each as eight bytes,
+     * high byte first. The values are staged in an internal buffer so that
+     * the underlying stream is written a buffer at a time. If no exception
+     * is thrown, the counter <code>written</code> is incremented by
+     * <code>8*len</code>.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.DataOutputStream#writeLong(long)
+     * @since      1.8
+     */
+    public void writeLongs(long[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            for (int i = 0; i < n; i++)
+                Bits.putLong(buf, i << 3, a[off + i]);
+            out.write(buf, 0, n << 3);
+            incCount(n << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes <code>len</code> <code>double</code> values from the array
+     * <code>a</code> to the underlying output stream, each converted as by
+     * the <code>writeDouble</code> method to an 8-byte quantity, high byte
+     * first. The values are staged in an internal buffer so that the
+     * underlying stream is written a buffer at a time. If no exception is
+     * thrown, the counter <code>written</code> is incremented by
+     * <code>8*len</code>.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if <code>off</code> or
+     *             <code>len</code> is negative, or <code>off+len</code> is
+     *             greater than the length of the array <code>a</code>.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.DataOutputStream#writeDouble(double)
+     * @since      1.8
+     */
+    public void writeDoubles(double[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            for (int i = 0; i < n; i++)
+                Bits.putDouble(buf, i << 3, a[off + i]);
+            out.write(buf, 0, n << 3);
+            incCount(n << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private byte[] bulkBuffer() {
+        byte[] buf = bulkBuffer;
+        if (buf == null)
+            bulkBuffer = buf = new byte[BULK_BUFFER_SIZE];
+        return buf;
+    }
+
     /**
      * Writes out the string to the underlying output stream as a
      * sequence of bytes. Each character in the string is written out, in
@@ -344,39 +464,78 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @exception  IOException  if an I/O error occurs.
      */
     static int writeUTF(String str, DataOutput out) throws IOException {
+        int utflen = utfLength(str);
+
+        byte[] bytearr = null;
+        if (out instanceof DataOutputStream) {
+            DataOutputStream dos = (DataOutputStream)out;
+            if(dos.bytearr == null || (dos.bytearr.length < (utflen+2)))
+                dos.bytearr = new byte[(utflen*2) + 2];
+            bytearr = dos.bytearr;
+        } else {
+            bytearr = new byte[utflen+2];
+        }
+
+        encodeUTF(str, utflen, bytearr, 0);
+        out.write(bytearr, 0, utflen+2);
+        return utflen + 2;
+    }
+
+    /**
+     * Returns the number of bytes in the
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>
+     * encoding of the string, not counting the two length bytes.
+     *
+     * @exception  UTFDataFormatException  if the encoding is longer than
+     *             65535 bytes.
+     */
+    static int utfLength(String str) throws UTFDataFormatException {
         int strlen = str.length();
-        int utflen = 0;
-        int c, count = 0;
+        int utflen = strlen;
+        int c;
 
         /* use charAt instead of copying String to char array */
         for (int i = 0; i < strlen; i++) {
             c = str.charAt(i);
             if ((c >= 0x0001) && (c <= 0x007F)) {
-                utflen++;
+                continue;
             } else if (c > 0x07FF) {
-                utflen += 3;
-            } else {
                 utflen += 2;
+            } else {
+                utflen += 1;
             }
         }
 
         if (utflen > 65535)
             throw new UTFDataFormatException(
                 "encoded string too long: " + utflen + " bytes");
+        return utflen;
+    }
 
-        byte[] bytearr = null;
-        if (out instanceof DataOutputStream) {
-            DataOutputStream dos = (DataOutputStream)out;
-            if(dos.bytearr == null || (dos.bytearr.length < (utflen+2)))
-                dos.bytearr = new byte[(utflen*2) + 2];
-            bytearr = dos.bytearr;
-        } else {
-            bytearr = new byte[utflen+2];
-        }
+    /**
+     * Encodes the string in
+     * <a href="DataInput.html#modified-utf-8">modified UTF-8</a>,
+     * preceded by the two length bytes, into the array at the offset.
+     *
+     * @param      str      the string.
+     * @param      utflen   the encoded length, as returned by utfLength.
+     * @param      bytearr  the destination, with room for utflen+2 bytes.
+     * @param      off      the offset in the destination.
+     */
+    @SuppressWarnings("deprecation")
+    static void encodeUTF(String str, int utflen, byte[] bytearr, int off) {
+        int strlen = str.length();
+        int c, count = off;
 
         bytearr[count++] = (byte) ((utflen >>> 8) & 0xFF);
         bytearr[count++] = (byte) ((utflen >>> 0) & 0xFF);
 
+        if (utflen == strlen) {
+            /* every character is in the range 0x0001 to 0x007F */
+            str.getBytes(0, strlen, bytearr, count);
+            return;
+        }
+
         int i=0;
         for (i=0; i<strlen; i++) {
            c = str.charAt(i);
@@ -398,8 +557,6 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
                 bytearr[count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
             }
         }
-        out.write(bytearr, 0, utflen+2);
-        return utflen + 2;
     }
 
     /**
@@ -254,6 +254,12 @@ public class ObjectInputStream
             public ObjectInputFilter getObjectInputFilter(ObjectInputStream stream) {
                 return stream.getInternalObjectInputFilter();
             }
+
+            public void checkArray(ObjectInputStream stream, Class<?> arrayType, int arrayLength)
+                throws InvalidClassException
+            {
+                stream.checkArray(arrayType, arrayLength);
+            }
         });
     }
 
@@ -317,6 +323,21 @@ public class ObjectInputStream
      */
     private ObjectInputFilter serialFilter;
 
+    /**
+     * Process-wide limit of the estimated bytes of arrays allocated by each
+     * top-level read of a stream, from the "jdk.serialAllocationLimit"
+     * system property; unlimited if the property is not set.
+     */
+    private static final long DEFAULT_ALLOCATION_LIMIT =
+        java.security.AccessController.doPrivileged(
+            new sun.security.action.GetLongAction(
+                "jdk.serialAllocationLimit", Long.MAX_VALUE)).longValue();
+
+    /** limit of the estimated bytes of arrays allocated by this stream */
+    private long allocationLimit = DEFAULT_ALLOCATION_LIMIT;
+    /** estimated bytes of arrays allocated by the current top-level read */
+    private long allocatedBytes;
+
     /**
      * Creates an ObjectInputStream that reads from the specified InputStream.
      * A serialization stream header is read from the stream and verified.
@@ -418,6 +439,9 @@ public class ObjectInputStream
 
         // if nested read, passHandle contains handle of enclosing object
         int outerHandle = passHandle;
+        if (depth == 0) {
+            allocatedBytes = 0;
+        }
         try {
             Object obj = readObject0(false);
             handles.markDependency(outerHandle, passHandle);
@@ -508,6 +532,9 @@ public class ObjectInputStream
     public Object readUnshared() throws IOException, ClassNotFoundException {
         // if nested read, passHandle contains handle of enclosing object
         int outerHandle = passHandle;
+        if (depth == 0) {
+            allocatedBytes = 0;
+        }
         try {
             Object obj = readObject0(true);
             handles.markDependency(outerHandle, passHandle);
@@ -1210,6 +1237,136 @@ public class ObjectInputStream
         this.serialFilter = filter;
     }
 
+    /**
+     * Sets the allocation limit of this stream.  The limit bounds the total
+     * estimated size in bytes of the arrays created by each top-level call
+     * of {@code readObject} or {@code readUnshared}, including those created
+     * by the {@code readObject} methods of the collection classes of the
+     * platform.  Each
+     * array is counted before it is created, so that an array length read
+     * from the stream that would exceed the limit is rejected before any
+     * memory is allocated for it, and the active {@code readObject} or
+     * {@code readUnshared} throws {@link InvalidClassException}.
+     *
+     * <p>The size of an array is estimated as a fixed header plus its length
+     * times the size of its component type, references counting as 8 bytes.
+     * The total starts from zero with each top-level call, so that a
+     * long-lived stream reading many objects is not rejected for their sum.
+     * The limit is initialized to the value of the
+     * {@code jdk.serialAllocationLimit} system property, or
+     * {@code Long.MAX_VALUE}, which disables it, if it is not set.
+     *
+     * @param limit the maximum total estimated bytes of arrays, not negative
+     * @throws IllegalArgumentException if the limit is negative
+     * @throws SecurityException if there is security manager and the
+     *       {@code SerializablePermission("serialFilter")} is not granted
+     * @see #getAllocationLimit()
+     * @since 1.8
+     */
+    public final void setAllocationLimit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit: " + limit);
+        }
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new SerializablePermission("serialFilter"));
+        }
+        allocationLimit = limit;
+    }
+
+    /**
+     * Returns the allocation limit of this stream.
+     *
+     * @return the maximum total estimated bytes of arrays per top-level read
+     * @see #setAllocationLimit(long)
+     * @since 1.8
+     */
+    public final long getAllocationLimit() {
+        return allocationLimit;
+    }
+
+    /**
+     * Returns the total estimated bytes of the arrays created by the current
+     * or most recent top-level call of {@code readObject} or
+     * {@code readUnshared}, as counted against the allocation limit.
+     *
+     * @return the total estimated bytes of arrays allocated
+     * @see #setAllocationLimit(long)
+     * @since 1.8
+     */
+    public final long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Checks that an array of the given type and length may be created while
+     * reading from this stream.  Classes whose {@code readObject} method
+     * creates an array with a length read from the stream, rather than
+     * reading the array itself with {@link #readObject readObject}, call
+     * this method through {@code JavaOISAccess} first so that a hostile
+     * length is rejected before the array is allocated.
+     *
+     * <p>The serialization filter, if any, is invoked with the array type and
+     * length, and the estimated size of the array is counted against the
+     * {@linkplain #setAllocationLimit allocation limit}.
+     *
+     * @param arrayType the array type, not null
+     * @param arrayLength the length of the array to create
+     * @throws InvalidClassException if the filter rejects the array or the
+     *       allocation limit would be exceeded
+     * @throws NullPointerException if arrayType is null
+     * @throws IllegalArgumentException if arrayType is not an array type
+     * @throws NegativeArraySizeException if arrayLength is negative
+     */
+    private void checkArray(Class<?> arrayType, int arrayLength)
+            throws InvalidClassException {
+        if (!arrayType.isArray()) {
+            throw new IllegalArgumentException("not an array type");
+        }
+        if (arrayLength < 0) {
+            throw new NegativeArraySizeException();
+        }
+        filterCheck(arrayType, arrayLength);
+        allocationCheck(arrayType, arrayLength);
+    }
+
+    /**
+     * Counts the estimated size of an array against the allocation limit.
+     * If the limit would be exceeded, throws InvalidClassException.
+     *
+     * @param arrayType the array type
+     * @param arrayLength the array length requested
+     * @throws InvalidClassException if the allocation limit would be exceeded
+     */
+    private void allocationCheck(Class<?> arrayType, int arrayLength)
+            throws InvalidClassException {
+        Class<?> ccl = arrayType.getComponentType();
+        int scale;
+        if (!ccl.isPrimitive()) {
+            scale = 8;
+        } else if (ccl == Integer.TYPE || ccl == Float.TYPE) {
+            scale = 4;
+        } else if (ccl == Long.TYPE || ccl == Double.TYPE) {
+            scale = 8;
+        } else if (ccl == Short.TYPE || ccl == Character.TYPE) {
+            scale = 2;
+        } else {
+            scale = 1;
+        }
+        long bytes = 16 + (long) arrayLength * scale;
+        if (bytes > allocationLimit - allocatedBytes) {
+            if (Logging.infoLogger != null) {
+                Logging.infoLogger.info(
+                        "ObjectInputStream allocation limit {0} exceeded: {1}, array length: {2}, allocated: {3}",
+                        allocationLimit, arrayType, arrayLength, allocatedBytes);
+            }
+            throw new InvalidClassException(arrayType.getName(),
+                    "allocation limit exceeded: " + bytes + " bytes requested, " +
+                    allocatedBytes + " of " + allocationLimit + " allocated");
+        }
+        allocatedBytes += bytes;
+    }
+
     /**
      * Invoke the serialization filter if non-null.
      * If the filter rejects or an exception is thrown, throws InvalidClassException.
@@ -1224,9 +1381,11 @@ public class ObjectInputStream
         if (serialFilter != null) {
             RuntimeException ex = null;
             ObjectInputFilter.Status status;
+            // bin is null for subclasses created with the no-arg constructor
+            long bytesRead = (bin == null) ? 0 : bin.getBytesRead();
             try {
                 status = serialFilter.checkInput(new FilterValues(clazz, arrayLength,
-                        totalObjectRefs, depth, bin.getBytesRead()));
+                        totalObjectRefs, depth, bytesRead));
             } catch (RuntimeException e) {
                 // Preventive interception of an exception to log
                 status = ObjectInputFilter.Status.REJECTED;
@@ -1238,7 +1397,7 @@ public class ObjectInputStream
                 if (Logging.infoLogger != null) {
                     Logging.infoLogger.info(
                             "ObjectInputFilter {0}: {1}, array length: {2}, nRefs: {3}, depth: {4}, bytes: {5}, ex: {6}",
-                            status, clazz, arrayLength, totalObjectRefs, depth, bin.getBytesRead(),
+                            status, clazz, arrayLength, totalObjectRefs, depth, bytesRead,
                             Objects.toString(ex, "n/a"));
                 }
                 InvalidClassException ice = new InvalidClassException("filter status: " + status);
@@ -1249,7 +1408,7 @@ public class ObjectInputStream
                 if (Logging.traceLogger != null) {
                     Logging.traceLogger.finer(
                             "ObjectInputFilter {0}: {1}, array length: {2}, nRefs: {3}, depth: {4}, bytes: {5}, ex: {6}",
-                            status, clazz, arrayLength, totalObjectRefs, depth, bin.getBytesRead(),
+                            status, clazz, arrayLength, totalObjectRefs, depth, bytesRead,
                             Objects.toString(ex, "n/a"));
                 }
             }
@@ -1893,6 +2052,9 @@ public class ObjectInputStream
         Object array = null;
         Class<?> cl, ccl = null;
         if ((cl = desc.forClass()) != null) {
+            if (len >= 0) {
+                allocationCheck(cl, len);
+            }
             ccl = cl.getComponentType();
             array = Array.newInstance(ccl, len);
         }
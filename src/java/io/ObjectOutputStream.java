@@ -31,6 +31,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -191,6 +192,12 @@ public class ObjectOutputStream
     private final boolean enableOverride;
     /** if true, invoke replaceObject() */
     private boolean enableReplace;
+    /** if false, write objects other than classes as if unshared */
+    private boolean shareReferences = true;
+    /** handles of the objects currently being written, when not sharing */
+    private IdentityHashMap<Object, Integer> unsharedHandles;
+    /** replacements of the objects currently being written, when not sharing */
+    private IdentityHashMap<Object, Object> unsharedSubs;
 
     // values below valid only during upcalls to writeObject()/writeExternal()
     /**
@@ -503,6 +510,41 @@ public class ObjectOutputStream
         bout.setBlockDataMode(true);
     }
 
+    /**
+     * Enables or disables the sharing of references to objects.
+     *
+     * <p>By default an object written more than once to the stream is
+     * written once, and then as a reference to the first copy, so that the
+     * graph of objects read back has the same shape as the graph written.
+     * Doing so requires the stream to remember every object written.
+     *
+     * <p>When sharing is disabled, every object written by {@link
+     * #writeObject(Object)} and every object it refers to is written as if
+     * by {@link #writeUnshared(Object)}: each occurrence is written in full
+     * and no object is remembered by the stream once written.  Only a
+     * reference back to an object that is still being written, as in a
+     * cyclic graph, is written as a reference, and classes and class
+     * descriptors continue to be written once and shared.  This suits large
+     * graphs of small objects without shared references, which are read
+     * back as separate copies.  The stream remains readable by any
+     * ObjectInputStream.
+     *
+     * @param   enable true to share references to objects, false to write
+     *          every object in full
+     * @return  the previous setting
+     * @throws  IOException if invoked while serializing an object
+     * @see #writeUnshared(Object)
+     * @since 1.8
+     */
+    public boolean enableReferenceSharing(boolean enable) throws IOException {
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        boolean previous = shareReferences;
+        shareReferences = enable;
+        return previous;
+    }
+
     /**
      * Subclasses may implement this method to allow class data to be stored in
      * the stream. By default this method does nothing.  The corresponding
@@ -1107,13 +1149,14 @@ public class ObjectOutputStream
     {
         boolean oldMode = bout.setBlockDataMode(false);
         depth++;
+        Object replaced = null;
         try {
             // handle previously written and non-replaceable objects
             int h;
-            if ((obj = subs.lookup(obj)) == null) {
+            if ((obj = lookupReplacement(obj)) == null) {
                 writeNull();
                 return;
-            } else if (!unshared && (h = handles.lookup(obj)) != -1) {
+            } else if (!unshared && (h = lookupHandle(obj)) != -1) {
                 writeHandle(h);
                 return;
             } else if (obj instanceof Class) {
@@ -1151,11 +1194,20 @@ public class ObjectOutputStream
 
             // if object replaced, run through original checks a second time
             if (obj != orig) {
-                subs.assign(orig, obj);
+                if (shareReferences) {
+                    subs.assign(orig, obj);
+                } else if (obj != null) {
+                    // only remembered while the replacement is written
+                    if (unsharedSubs == null) {
+                        unsharedSubs = new IdentityHashMap<>();
+                    }
+                    unsharedSubs.put(orig, obj);
+                    replaced = orig;
+                }
                 if (obj == null) {
                     writeNull();
                     return;
-                } else if (!unshared && (h = handles.lookup(obj)) != -1) {
+                } else if (!unshared && (h = lookupHandle(obj)) != -1) {
                     writeHandle(h);
                     return;
                 } else if (obj instanceof Class) {
@@ -1168,6 +1220,7 @@ public class ObjectOutputStream
             }
 
             // remaining cases
+            unshared |= !shareReferences;
             if (obj instanceof String) {
                 writeString((String) obj, unshared);
             } else if (cl.isArray()) {
@@ -1185,11 +1238,30 @@ public class ObjectOutputStream
                 }
             }
         } finally {
+            if (replaced != null) {
+                unsharedSubs.remove(replaced);
+            }
             depth--;
             bout.setBlockDataMode(oldMode);
         }
     }
 
+    /**
+     * Returns the replacement written in place of the given object, or the
+     * object itself.  When references are not shared, only the replacements
+     * of objects currently being written are remembered.
+     */
+    private Object lookupReplacement(Object obj) {
+        if (shareReferences) {
+            return subs.lookup(obj);
+        }
+        Object rep;
+        if (unsharedSubs != null && (rep = unsharedSubs.get(obj)) != null) {
+            return rep;
+        }
+        return obj;
+    }
+
     /**
      * Writes null code to stream.
      */
@@ -1320,7 +1392,7 @@ public class ObjectOutputStream
     {
         bout.writeByte(TC_ARRAY);
         writeClassDesc(desc, false);
-        handles.assign(unshared ? null : array);
+        int handle = handles.assign(unshared ? null : array);
 
         Class<?> ccl = desc.forClass().getComponentType();
         if (ccl.isPrimitive()) {
@@ -1368,6 +1440,9 @@ public class ObjectOutputStream
                     "array (class \"" + array.getClass().getName() +
                     "\", size: " + len  + ")");
             }
+            if (!shareReferences) {
+                enterUnshared(array, handle);
+            }
             try {
                 for (int i = 0; i < len; i++) {
                     if (extendedDebugInfo) {
@@ -1383,6 +1458,9 @@ public class ObjectOutputStream
                     }
                 }
             } finally {
+                if (!shareReferences) {
+                    unsharedHandles.remove(array);
+                }
                 if (extendedDebugInfo) {
                     debugInfoStack.pop();
                 }
@@ -1390,6 +1468,34 @@ public class ObjectOutputStream
         }
     }
 
+    /**
+     * Returns the handle of the given object if it has been written and may
+     * be referred to, or -1.  When references are not shared, only classes
+     * and the objects currently being written may be referred to.
+     */
+    private int lookupHandle(Object obj) {
+        if (shareReferences || obj instanceof Class) {
+            return handles.lookup(obj);
+        }
+        Integer h;
+        if (unsharedHandles != null && (h = unsharedHandles.get(obj)) != null) {
+            return h;
+        }
+        return -1;
+    }
+
+    /**
+     * Records that the given object is being written with the given handle
+     * while references are not shared.  The caller removes the object once
+     * written.
+     */
+    private void enterUnshared(Object obj, int handle) {
+        if (unsharedHandles == null) {
+            unsharedHandles = new IdentityHashMap<>();
+        }
+        unsharedHandles.put(obj, handle);
+    }
+
     /**
      * Writes given enum constant to stream.
      */
@@ -1425,11 +1531,20 @@ public class ObjectOutputStream
 
             bout.writeByte(TC_OBJECT);
             writeClassDesc(desc, false);
-            handles.assign(unshared ? null : obj);
-            if (desc.isExternalizable() && !desc.isProxy()) {
-                writeExternalData((Externalizable) obj);
-            } else {
-                writeSerialData(obj, desc);
+            int handle = handles.assign(unshared ? null : obj);
+            if (!shareReferences) {
+                enterUnshared(obj, handle);
+            }
+            try {
+                if (desc.isExternalizable() && !desc.isProxy()) {
+                    writeExternalData((Externalizable) obj);
+                } else {
+                    writeSerialData(obj, desc);
+                }
+            } finally {
+                if (!shareReferences) {
+                    unsharedHandles.remove(obj);
+                }
             }
         } finally {
             if (extendedDebugInfo) {
@@ -2275,6 +2390,11 @@ public class ObjectOutputStream
             if (size >= next.length) {
                 growEntries();
             }
+            if (obj == null) {
+                // unshared, never looked up so not hashed
+                objs[size] = null;
+                return size++;
+            }
             if (size >= threshold) {
                 growSpine();
             }
@@ -2335,7 +2455,9 @@ public class ObjectOutputStream
             threshold = (int) (spine.length * loadFactor);
             Arrays.fill(spine, -1);
             for (int i = 0; i < size; i++) {
-                insert(objs[i], i);
+                if (objs[i] != null) {
+                    insert(objs[i], i);
+                }
             }
         }
 
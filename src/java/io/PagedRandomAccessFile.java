@@ -0,0 +1,686 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A random access file with a cache of fixed-size pages.  Reads and writes
+ * are made to pages cached in memory, at a file pointer of this object's
+ * own; a page is read from the file when it is first accessed, and written
+ * back when it is evicted to make room for another page, when the cache is
+ * {@link #flush flushed}, and when this file is closed.  When the cache is
+ * full, the least recently accessed page is evicted.
+ *
+ * <p> Only the bytes of a page that have been written are written back,
+ * using the {@linkplain RandomAccessFile#write(long, byte[], int, int)
+ * positional} write method of the underlying file, and pages are read with
+ * its positional read method, so that the file pointer of the underlying
+ * file is neither used nor changed.
+ *
+ * <p> While the file is in use through a <code>PagedRandomAccessFile</code>
+ * it must not be accessed through the underlying file or otherwise, as the
+ * cached pages would not reflect the changes.  Written data is not
+ * guaranteed to be in the file until {@link #flush} or {@link #close} has
+ * been invoked, and is not guaranteed to be on the storage device until it
+ * has additionally been synchronized by the file's descriptor or channel.
+ *
+ * <p> A <code>PagedRandomAccessFile</code> is not safe for use by multiple
+ * concurrent threads.
+ *
+ * @see     java.io.RandomAccessFile
+ * @since   1.8
+ */
+public class PagedRandomAccessFile implements DataOutput, DataInput, Closeable {
+
+    private static final int DEFAULT_PAGE_SIZE = 4096;
+    private static final int DEFAULT_MAX_PAGES = 256;
+
+    /**
+     * A cached page of the file.  The written bytes of the page, if any,
+     * are those from <code>dirtyFrom</code> to <code>dirtyTo</code>.
+     */
+    private static final class Page {
+        final long index;
+        final byte[] data;
+        int dirtyFrom;
+        int dirtyTo;
+
+        Page(long index, byte[] data) {
+            this.index = index;
+            this.data = data;
+            this.dirtyFrom = data.length;
+        }
+
+        boolean isDirty() {
+            return dirtyFrom < dirtyTo;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final int pageSize;
+    private final int pageShift;
+    private final int maxPages;
+
+    /**
+     * The cached pages, by index, in the order of access.
+     */
+    private final LinkedHashMap<Long,Page> pages;
+
+    /**
+     * The most recently accessed page, or null.
+     */
+    private Page current;
+
+    private long pointer;
+
+    /**
+     * The length of the file, including pages not yet written back.
+     */
+    private long length;
+
+    private boolean closed;
+
+    /**
+     * Working array for the primitive read and write methods that span a
+     * page boundary.
+     */
+    private final byte[] buffer = new byte[8];
+
+    /**
+     * Creates a paged random access file that caches up to 256 pages of
+     * 4096 bytes of the given file.
+     *
+     * @param      file   the underlying file
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public PagedRandomAccessFile(RandomAccessFile file) throws IOException {
+        this(file, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Creates a paged random access file that caches up to
+     * <code>maxPages</code> pages of <code>pageSize</code> bytes of the
+     * given file.
+     *
+     * @param      file       the underlying file
+     * @param      pageSize   the page size, a power of two
+     * @param      maxPages   the maximum number of pages cached
+     * @exception  IllegalArgumentException  if the page size is not a
+     *             positive power of two, or <code>maxPages</code> is not
+     *             positive.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public PagedRandomAccessFile(RandomAccessFile file, int pageSize,
+                                 int maxPages) throws IOException {
+        if (pageSize <= 0 || (pageSize & (pageSize - 1)) != 0)
+            throw new IllegalArgumentException("Page size is not a power of two");
+        if (maxPages <= 0)
+            throw new IllegalArgumentException("Maximum pages <= 0");
+        this.file = file;
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.maxPages = maxPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true);
+        this.length = file.length();
+    }
+
+    /**
+     * Returns the underlying file.
+     *
+     * @return  the underlying file
+     */
+    public final RandomAccessFile getFile() {
+        return file;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream Closed");
+    }
+
+    /**
+     * Returns the page of the given index, reading it if it is not cached.
+     */
+    private Page page(long index) throws IOException {
+        Page p = current;
+        if (p != null && p.index == index)
+            return p;
+        ensureOpen();
+        p = pages.get(index);
+        if (p == null) {
+            current = null;
+            byte[] data;
+            if (pages.size() >= maxPages) {
+                Iterator<Page> it = pages.values().iterator();
+                Page eldest = it.next();
+                writeBack(eldest);
+                it.remove();
+                data = eldest.data;
+            } else {
+                data = new byte[pageSize];
+            }
+            p = new Page(index, data);
+            load(p);
+            pages.put(index, p);
+        }
+        return current = p;
+    }
+
+    private void load(Page p) throws IOException {
+        long position = p.index << pageShift;
+        byte[] data = p.data;
+        int n = 0;
+        while (n < pageSize && position + n < length) {
+            int count = file.read(position + n, data, n, pageSize - n);
+            if (count < 0)
+                break;
+            n += count;
+        }
+        Arrays.fill(data, n, pageSize, (byte) 0);
+    }
+
+    private void writeBack(Page p) throws IOException {
+        if (p.isDirty()) {
+            file.write((p.index << pageShift) + p.dirtyFrom,
+                       p.data, p.dirtyFrom, p.dirtyTo - p.dirtyFrom);
+            p.dirtyFrom = pageSize;
+            p.dirtyTo = 0;
+        }
+    }
+
+    /**
+     * Marks the bytes of the page from <code>off</code> to <code>end</code>
+     * as written, extending the file if they end beyond it.
+     */
+    private void written(Page p, int off, int end) {
+        if (off < p.dirtyFrom)
+            p.dirtyFrom = off;
+        if (end > p.dirtyTo)
+            p.dirtyTo = end;
+        long newLength = (p.index << pageShift) + end;
+        if (newLength > length)
+            length = newLength;
+    }
+
+    /**
+     * Returns the offset in the current page of the <code>n</code> bytes at
+     * the file pointer, advancing the file pointer past them, or -1 if they
+     * are not all in one page before the end of the file.
+     */
+    private int readSpan(int n) throws IOException {
+        long pos = pointer;
+        int off = (int) pos & (pageSize - 1);
+        if (off > pageSize - n || pos > length - n)
+            return -1;
+        page(pos >>> pageShift);
+        pointer = pos + n;
+        return off;
+    }
+
+    /**
+     * Returns the offset in the current page at which to write the
+     * <code>n</code> bytes at the file pointer, marking them as written and
+     * advancing the file pointer past them, or -1 if they are not all in
+     * one page.
+     */
+    private int writeSpan(int n) throws IOException {
+        long pos = pointer;
+        int off = (int) pos & (pageSize - 1);
+        if (off > pageSize - n)
+            return -1;
+        Page p = page(pos >>> pageShift);
+        written(p, off, off + n);
+        pointer = pos + n;
+        return off;
+    }
+
+    // 'Read' primitives
+
+    /**
+     * Reads a byte of data from this file, as specified by {@link
+     * RandomAccessFile#read()}.
+     *
+     * @return     the next byte of data, or {@code -1} if the end of the
+     *             file has been reached.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public int read() throws IOException {
+        long pos = pointer;
+        if (pos >= length) {
+            ensureOpen();
+            return -1;
+        }
+        Page p = page(pos >>> pageShift);
+        pointer = pos + 1;
+        return p.data[(int) pos & (pageSize - 1)] & 0xff;
+    }
+
+    /**
+     * Reads up to {@code len} bytes of data from this file into an array
+     * of bytes, as specified by {@link RandomAccessFile#read(byte[], int,
+     * int)}.  The bytes read are those before the end of the current page,
+     * or before the end of the file if that is sooner.
+     *
+     * @param      b     the buffer into which the data is read.
+     * @param      off   the start offset in array {@code b}
+     *                   at which the data is written.
+     * @param      len   the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             the file has been reached.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public int read(byte b[], int off, int len) throws IOException {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        ensureOpen();
+        if (len == 0)
+            return 0;
+        long pos = pointer;
+        if (pos >= length)
+            return -1;
+        int poff = (int) pos & (pageSize - 1);
+        int n = (int) Math.min(Math.min(len, pageSize - poff), length - pos);
+        Page p = page(pos >>> pageShift);
+        System.arraycopy(p.data, poff, b, off, n);
+        pointer = pos + n;
+        return n;
+    }
+
+    /**
+     * Reads up to {@code b.length} bytes of data from this file into an
+     * array of bytes.
+     *
+     * @param      b   the buffer into which the data is read.
+     * @return     the total number of bytes read into the buffer, or
+     *             {@code -1} if there is no more data because the end of
+     *             this file has been reached.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public int read(byte b[]) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    public final void readFully(byte b[]) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public final void readFully(byte b[], int off, int len) throws IOException {
+        int n = 0;
+        do {
+            int count = read(b, off + n, len - n);
+            if (count < 0)
+                throw new EOFException();
+            n += count;
+        } while (n < len);
+    }
+
+    public int skipBytes(int n) throws IOException {
+        ensureOpen();
+        if (n <= 0)
+            return 0;
+        long pos = pointer;
+        long newpos = pos + n;
+        if (newpos > length)
+            newpos = length;
+        pointer = newpos;
+
+        /* return the actual number of bytes skipped */
+        return (int) (newpos - pos);
+    }
+
+    // 'Write' primitives
+
+    /**
+     * Writes the specified byte to this file at the file pointer.
+     *
+     * @param      b   the {@code byte} to be written.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public void write(int b) throws IOException {
+        long pos = pointer;
+        int off = (int) pos & (pageSize - 1);
+        Page p = page(pos >>> pageShift);
+        p.data[off] = (byte) b;
+        written(p, off, off + 1);
+        pointer = pos + 1;
+    }
+
+    /**
+     * Writes {@code b.length} bytes from the specified byte array to this
+     * file at the file pointer.
+     *
+     * @param      b   the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public void write(byte b[]) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    /**
+     * Writes {@code len} bytes from the specified byte array starting at
+     * offset {@code off} to this file at the file pointer.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public void write(byte b[], int off, int len) throws IOException {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        ensureOpen();
+        while (len > 0) {
+            long pos = pointer;
+            int poff = (int) pos & (pageSize - 1);
+            int n = Math.min(len, pageSize - poff);
+            Page p = page(pos >>> pageShift);
+            System.arraycopy(b, off, p.data, poff, n);
+            written(p, poff, poff + n);
+            pointer = pos + n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    // 'Random access' stuff
+
+    /**
+     * Returns the current offset in this file.
+     *
+     * @return     the offset from the beginning of the file, in bytes,
+     *             at which the next read or write occurs.
+     * @exception  IOException  if this file has been closed.
+     */
+    public long getFilePointer() throws IOException {
+        ensureOpen();
+        return pointer;
+    }
+
+    /**
+     * Sets the file-pointer offset, measured from the beginning of this
+     * file, at which the next read or write occurs, as specified by {@link
+     * RandomAccessFile#seek(long)}.
+     *
+     * @param      pos   the offset position, measured in bytes from the
+     *                   beginning of the file, at which to set the file
+     *                   pointer.
+     * @exception  IOException  if {@code pos} is less than
+     *                          {@code 0}, or if this file has been closed.
+     */
+    public void seek(long pos) throws IOException {
+        ensureOpen();
+        if (pos < 0)
+            throw new IOException("Negative seek offset");
+        pointer = pos;
+    }
+
+    /**
+     * Returns the length of this file, including any data written beyond
+     * the end of the underlying file that has not yet been written back.
+     *
+     * @return     the length of this file, measured in bytes.
+     * @exception  IOException  if this file has been closed.
+     */
+    public long length() throws IOException {
+        ensureOpen();
+        return length;
+    }
+
+    /**
+     * Sets the length of this file, as specified by {@link
+     * RandomAccessFile#setLength(long)}.  The cache is flushed, and the
+     * pages cached are discarded.
+     *
+     * @param      newLength    The desired length of the file
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void setLength(long newLength) throws IOException {
+        flush();
+        pages.clear();
+        current = null;
+        file.setLength(newLength);
+        length = newLength;
+        if (pointer > newLength)
+            pointer = newLength;
+    }
+
+    /**
+     * Writes the written bytes of the cached pages back to the file, in
+     * order of their position in the file.  The pages remain cached.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        List<Page> dirty = new ArrayList<>();
+        for (Page p : pages.values()) {
+            if (p.isDirty())
+                dirty.add(p);
+        }
+        dirty.sort((p1, p2) -> Long.compare(p1.index, p2.index));
+        for (Page p : dirty)
+            writeBack(p);
+    }
+
+    /**
+     * Flushes the cache and closes the underlying file.  Once closed, this
+     * file cannot be used.  Closing a previously closed file has no effect.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public void close() throws IOException {
+        if (closed)
+            return;
+        try (RandomAccessFile f = file) {
+            flush();
+        } finally {
+            closed = true;
+            pages.clear();
+            current = null;
+        }
+    }
+
+    //
+    //  Some "reading/writing Java data types" methods stolen from
+    //  RandomAccessFile, reading and writing within a page directly.
+    //
+
+    public final boolean readBoolean() throws IOException {
+        int ch = read();
+        if (ch < 0)
+            throw new EOFException();
+        return (ch != 0);
+    }
+
+    public final byte readByte() throws IOException {
+        int ch = read();
+        if (ch < 0)
+            throw new EOFException();
+        return (byte)(ch);
+    }
+
+    public final int readUnsignedByte() throws IOException {
+        int ch = read();
+        if (ch < 0)
+            throw new EOFException();
+        return ch;
+    }
+
+    public final short readShort() throws IOException {
+        int off = readSpan(2);
+        if (off >= 0)
+            return Bits.getShort(current.data, off);
+        readFully(buffer, 0, 2);
+        return Bits.getShort(buffer, 0);
+    }
+
+    public final int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    public final char readChar() throws IOException {
+        return (char) readShort();
+    }
+
+    public final int readInt() throws IOException {
+        int off = readSpan(4);
+        if (off >= 0)
+            return Bits.getInt(current.data, off);
+        readFully(buffer, 0, 4);
+        return Bits.getInt(buffer, 0);
+    }
+
+    public final long readLong() throws IOException {
+        int off = readSpan(8);
+        if (off >= 0)
+            return Bits.getLong(current.data, off);
+        readFully(buffer, 0, 8);
+        return Bits.getLong(buffer, 0);
+    }
+
+    public final float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public final double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public final String readLine() throws IOException {
+        StringBuilder input = new StringBuilder();
+        int c = -1;
+        boolean eol = false;
+
+        while (!eol) {
+            switch (c = read()) {
+            case -1:
+            case '\n':
+                eol = true;
+                break;
+            case '\r':
+                eol = true;
+                long cur = pointer;
+                if ((read()) != '\n') {
+                    pointer = cur;
+                }
+                break;
+            default:
+                input.append((char)c);
+                break;
+            }
+        }
+
+        if ((c == -1) && (input.length() == 0)) {
+            return null;
+        }
+        return input.toString();
+    }
+
+    public final String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    public final void writeBoolean(boolean v) throws IOException {
+        write(v ? 1 : 0);
+    }
+
+    public final void writeByte(int v) throws IOException {
+        write(v);
+    }
+
+    public final void writeShort(int v) throws IOException {
+        int off = writeSpan(2);
+        if (off >= 0) {
+            Bits.putShort(current.data, off, (short) v);
+        } else {
+            Bits.putShort(buffer, 0, (short) v);
+            write(buffer, 0, 2);
+        }
+    }
+
+    public final void writeChar(int v) throws IOException {
+        writeShort(v);
+    }
+
+    public final void writeInt(int v) throws IOException {
+        int off = writeSpan(4);
+        if (off >= 0) {
+            Bits.putInt(current.data, off, v);
+        } else {
+            Bits.putInt(buffer, 0, v);
+            write(buffer, 0, 4);
+        }
+    }
+
+    public final void writeLong(long v) throws IOException {
+        int off = writeSpan(8);
+        if (off >= 0) {
+            Bits.putLong(current.data, off, v);
+        } else {
+            Bits.putLong(buffer, 0, v);
+            write(buffer, 0, 8);
+        }
+    }
+
+    public final void writeFloat(float v) throws IOException {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    public final void writeDouble(double v) throws IOException {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    @SuppressWarnings("deprecation")
+    public final void writeBytes(String s) throws IOException {
+        int len = s.length();
+        byte[] b = new byte[len];
+        s.getBytes(0, len, b, 0);
+        write(b, 0, len);
+    }
+
+    public final void writeChars(String s) throws IOException {
+        int clen = s.length();
+        int blen = 2*clen;
+        byte[] b = new byte[blen];
+        char[] c = new char[clen];
+        s.getChars(0, clen, c, 0);
+        for (int i = 0, j = 0; i < clen; i++) {
+            b[j++] = (byte)(c[i] >>> 8);
+            b[j++] = (byte)(c[i] >>> 0);
+        }
+        write(b, 0, blen);
+    }
+
+    public final void writeUTF(String str) throws IOException {
+        DataOutputStream.writeUTF(str, this);
+    }
+}
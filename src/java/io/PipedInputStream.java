@@ -92,6 +92,12 @@ public class PipedInputStream extends InputStream {
      */
     protected int out = 0;
 
+    /**
+     * The size up to which the buffer grows when full, rather than the
+     * writer waiting for the reader.
+     */
+    private int maxPipeSize;
+
     /**
      * Creates a <code>PipedInputStream</code> so
      * that it is connected to the piped output
@@ -154,11 +160,64 @@ public class PipedInputStream extends InputStream {
         initPipe(pipeSize);
     }
 
+    /**
+     * Creates a <code>PipedInputStream</code> so that it is
+     * connected to the piped output stream
+     * <code>src</code> and uses a buffer of the specified pipe size,
+     * which grows as needed up to the specified maximum size.
+     * A writer waits for the reader only once the buffer has grown
+     * to the maximum size and is full.
+     * Data bytes written to <code>src</code> will then
+     * be available as input from this stream.
+     *
+     * @param      src   the stream to connect to.
+     * @param      pipeSize the initial size of the pipe's buffer.
+     * @param      maxPipeSize the maximum size of the pipe's buffer.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IllegalArgumentException if {@code pipeSize <= 0} or
+     *             {@code maxPipeSize < pipeSize}.
+     * @since      1.8
+     */
+    public PipedInputStream(PipedOutputStream src, int pipeSize,
+                            int maxPipeSize) throws IOException {
+         initPipe(pipeSize, maxPipeSize);
+         connect(src);
+    }
+
+    /**
+     * Creates a <code>PipedInputStream</code> so that it is not yet
+     * {@linkplain #connect(java.io.PipedOutputStream) connected} and
+     * uses a buffer of the specified pipe size, which grows as needed up
+     * to the specified maximum size.
+     * A writer waits for the reader only once the buffer has grown
+     * to the maximum size and is full.
+     * It must be {@linkplain java.io.PipedOutputStream#connect(
+     * java.io.PipedInputStream)
+     * connected} to a <code>PipedOutputStream</code> before being used.
+     *
+     * @param      pipeSize the initial size of the pipe's buffer.
+     * @param      maxPipeSize the maximum size of the pipe's buffer.
+     * @exception  IllegalArgumentException if {@code pipeSize <= 0} or
+     *             {@code maxPipeSize < pipeSize}.
+     * @since      1.8
+     */
+    public PipedInputStream(int pipeSize, int maxPipeSize) {
+        initPipe(pipeSize, maxPipeSize);
+    }
+
     private void initPipe(int pipeSize) {
+        initPipe(pipeSize, pipeSize);
+    }
+
+    private void initPipe(int pipeSize, int maxPipeSize) {
          if (pipeSize <= 0) {
             throw new IllegalArgumentException("Pipe Size <= 0");
          }
+         if (maxPipeSize < pipeSize) {
+            throw new IllegalArgumentException("Maximum Pipe Size < Pipe Size");
+         }
          buffer = new byte[pipeSize];
+         this.maxPipeSize = maxPipeSize;
     }
 
     /**
@@ -200,11 +259,13 @@ public class PipedInputStream extends InputStream {
     protected synchronized void receive(int b) throws IOException {
         checkStateForReceive();
         writeSide = Thread.currentThread();
-        if (in == out)
+        if (in == out && !growBuffer())
             awaitSpace();
         if (in < 0) {
             in = 0;
             out = 0;
+            /* was empty: wake any waiting reader */
+            notifyAll();
         }
         buffer[in++] = (byte)(b & 0xFF);
         if (in >= buffer.length) {
@@ -227,7 +288,7 @@ public class PipedInputStream extends InputStream {
         writeSide = Thread.currentThread();
         int bytesToTransfer = len;
         while (bytesToTransfer > 0) {
-            if (in == out)
+            if (in == out && !growBuffer())
                 awaitSpace();
             int nextTransferAmount = 0;
             if (out < in) {
@@ -236,6 +297,8 @@ public class PipedInputStream extends InputStream {
                 if (in == -1) {
                     in = out = 0;
                     nextTransferAmount = buffer.length - in;
+                    /* was empty: wake any waiting reader */
+                    notifyAll();
                 } else {
                     nextTransferAmount = out - in;
                 }
@@ -263,6 +326,26 @@ public class PipedInputStream extends InputStream {
         }
     }
 
+    /**
+     * Grows the full buffer, if it is smaller than the maximum pipe size,
+     * returning whether it has grown.
+     */
+    private boolean growBuffer() {
+        int length = buffer.length;
+        if (length >= maxPipeSize) {
+            return false;
+        }
+        int newLength = (length <= maxPipeSize - length) ?
+                length * 2 : maxPipeSize;
+        byte[] newBuffer = new byte[newLength];
+        System.arraycopy(buffer, out, newBuffer, 0, length - out);
+        System.arraycopy(buffer, 0, newBuffer, length - out, out);
+        buffer = newBuffer;
+        out = 0;
+        in = length;
+        return true;
+    }
+
     private void awaitSpace() throws IOException {
         while (in == out) {
             checkStateForReceive();
@@ -270,6 +353,8 @@ public class PipedInputStream extends InputStream {
             /* full: kick any waiting readers */
             notifyAll();
             try {
+                /* the reader notifies once there is space; the timeout
+                   only serves to detect a reader that has died */
                 wait(1000);
             } catch (InterruptedException ex) {
                 throw new java.io.InterruptedIOException();
@@ -323,11 +408,17 @@ public class PipedInputStream extends InputStream {
             /* might be a writer waiting */
             notifyAll();
             try {
+                /* the writer notifies once there is data; the timeout
+                   only serves to detect a writer that has died */
                 wait(1000);
             } catch (InterruptedException ex) {
                 throw new java.io.InterruptedIOException();
             }
         }
+        if (in == out) {
+            /* full: wake any writer waiting for space */
+            notifyAll();
+        }
         int ret = buffer[out++] & 0xFF;
         if (out >= buffer.length) {
             out = 0;
@@ -444,6 +535,8 @@ public class PipedInputStream extends InputStream {
         closedByReader = true;
         synchronized (this) {
             in = -1;
+            /* wake any writer waiting for space */
+            notifyAll();
         }
     }
 }
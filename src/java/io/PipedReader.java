@@ -69,6 +69,12 @@ public class PipedReader extends Reader {
      */
     int out = 0;
 
+    /**
+     * The size up to which the buffer grows when full, rather than the
+     * writer waiting for the reader.
+     */
+    private int maxPipeSize;
+
     /**
      * Creates a <code>PipedReader</code> so
      * that it is connected to the piped writer
@@ -127,11 +133,61 @@ public class PipedReader extends Reader {
         initPipe(pipeSize);
     }
 
+    /**
+     * Creates a <code>PipedReader</code> so that it is connected
+     * to the piped writer <code>src</code> and uses a buffer of the
+     * specified pipe size, which grows as needed up to the specified
+     * maximum size. A writer waits for the reader only once the buffer
+     * has grown to the maximum size and is full. Data written to
+     * <code>src</code> will then be available as input from this stream.
+     *
+     * @param      src          the stream to connect to.
+     * @param      pipeSize     the initial size of the pipe's buffer.
+     * @param      maxPipeSize  the maximum size of the pipe's buffer.
+     * @exception  IOException  if an I/O error occurs.
+     * @exception  IllegalArgumentException if {@code pipeSize <= 0} or
+     *             {@code maxPipeSize < pipeSize}.
+     * @since      1.8
+     */
+    public PipedReader(PipedWriter src, int pipeSize, int maxPipeSize)
+            throws IOException {
+        initPipe(pipeSize, maxPipeSize);
+        connect(src);
+    }
+
+    /**
+     * Creates a <code>PipedReader</code> so that it is not yet
+     * {@link #connect(java.io.PipedWriter) connected} and uses a buffer
+     * of the specified pipe size, which grows as needed up to the
+     * specified maximum size. A writer waits for the reader only once the
+     * buffer has grown to the maximum size and is full.
+     * It must be  {@linkplain java.io.PipedWriter#connect(
+     * java.io.PipedReader) connected} to a <code>PipedWriter</code>
+     * before being used.
+     *
+     * @param   pipeSize     the initial size of the pipe's buffer.
+     * @param   maxPipeSize  the maximum size of the pipe's buffer.
+     * @exception  IllegalArgumentException if {@code pipeSize <= 0} or
+     *             {@code maxPipeSize < pipeSize}.
+     * @since      1.8
+     */
+    public PipedReader(int pipeSize, int maxPipeSize) {
+        initPipe(pipeSize, maxPipeSize);
+    }
+
     private void initPipe(int pipeSize) {
+        initPipe(pipeSize, pipeSize);
+    }
+
+    private void initPipe(int pipeSize, int maxPipeSize) {
         if (pipeSize <= 0) {
             throw new IllegalArgumentException("Pipe size <= 0");
         }
+        if (maxPipeSize < pipeSize) {
+            throw new IllegalArgumentException("Maximum pipe size < pipe size");
+        }
         buffer = new char[pipeSize];
+        this.maxPipeSize = maxPipeSize;
     }
 
     /**
@@ -166,30 +222,15 @@ public class PipedReader extends Reader {
      * available.
      */
     synchronized void receive(int c) throws IOException {
-        if (!connected) {
-            throw new IOException("Pipe not connected");
-        } else if (closedByWriter || closedByReader) {
-            throw new IOException("Pipe closed");
-        } else if (readSide != null && !readSide.isAlive()) {
-            throw new IOException("Read end dead");
-        }
-
+        checkStateForReceive();
         writeSide = Thread.currentThread();
-        while (in == out) {
-            if ((readSide != null) && !readSide.isAlive()) {
-                throw new IOException("Pipe broken");
-            }
-            /* full: kick any waiting readers */
-            notifyAll();
-            try {
-                wait(1000);
-            } catch (InterruptedException ex) {
-                throw new java.io.InterruptedIOException();
-            }
-        }
+        if (in == out && !growBuffer())
+            awaitSpace();
         if (in < 0) {
             in = 0;
             out = 0;
+            /* was empty: wake any waiting reader */
+            notifyAll();
         }
         buffer[in++] = (char) c;
         if (in >= buffer.length) {
@@ -202,8 +243,81 @@ public class PipedReader extends Reader {
      * block until some input is available.
      */
     synchronized void receive(char c[], int off, int len)  throws IOException {
-        while (--len >= 0) {
-            receive(c[off++]);
+        checkStateForReceive();
+        writeSide = Thread.currentThread();
+        int charsToTransfer = len;
+        while (charsToTransfer > 0) {
+            if (in == out && !growBuffer())
+                awaitSpace();
+            int nextTransferAmount = 0;
+            if (out < in) {
+                nextTransferAmount = buffer.length - in;
+            } else if (in < out) {
+                if (in == -1) {
+                    in = out = 0;
+                    nextTransferAmount = buffer.length - in;
+                    /* was empty: wake any waiting reader */
+                    notifyAll();
+                } else {
+                    nextTransferAmount = out - in;
+                }
+            }
+            if (nextTransferAmount > charsToTransfer)
+                nextTransferAmount = charsToTransfer;
+            assert(nextTransferAmount > 0);
+            System.arraycopy(c, off, buffer, in, nextTransferAmount);
+            charsToTransfer -= nextTransferAmount;
+            off += nextTransferAmount;
+            in += nextTransferAmount;
+            if (in >= buffer.length) {
+                in = 0;
+            }
+        }
+    }
+
+    private void checkStateForReceive() throws IOException {
+        if (!connected) {
+            throw new IOException("Pipe not connected");
+        } else if (closedByWriter || closedByReader) {
+            throw new IOException("Pipe closed");
+        } else if (readSide != null && !readSide.isAlive()) {
+            throw new IOException("Read end dead");
+        }
+    }
+
+    /**
+     * Grows the full buffer, if it is smaller than the maximum pipe size,
+     * returning whether it has grown.
+     */
+    private boolean growBuffer() {
+        int length = buffer.length;
+        if (length >= maxPipeSize) {
+            return false;
+        }
+        int newLength = (length <= maxPipeSize - length) ?
+                length * 2 : maxPipeSize;
+        char[] newBuffer = new char[newLength];
+        System.arraycopy(buffer, out, newBuffer, 0, length - out);
+        System.arraycopy(buffer, 0, newBuffer, length - out, out);
+        buffer = newBuffer;
+        out = 0;
+        in = length;
+        return true;
+    }
+
+    private void awaitSpace() throws IOException {
+        while (in == out) {
+            checkStateForReceive();
+
+            /* full: kick any waiting readers */
+            notifyAll();
+            try {
+                /* the reader notifies once there is space; the timeout
+                   only serves to detect a reader that has died */
+                wait(1000);
+            } catch (InterruptedException ex) {
+                throw new java.io.InterruptedIOException();
+            }
         }
     }
 
@@ -253,11 +367,17 @@ public class PipedReader extends Reader {
             /* might be a writer waiting */
             notifyAll();
             try {
+                /* the writer notifies once there is data; the timeout
+                   only serves to detect a writer that has died */
                 wait(1000);
             } catch (InterruptedException ex) {
                 throw new java.io.InterruptedIOException();
             }
         }
+        if (in == out) {
+            /* full: wake any writer waiting for space */
+            notifyAll();
+        }
         int ret = buffer[out++];
         if (out >= buffer.length) {
             out = 0;
@@ -311,9 +431,25 @@ public class PipedReader extends Reader {
         }
         cbuf[off] =  (char)c;
         int rlen = 1;
-        while ((in >= 0) && (--len > 0)) {
-            cbuf[off + rlen] = buffer[out++];
-            rlen++;
+        while ((in >= 0) && (len > 1)) {
+
+            int available;
+
+            if (in > out) {
+                available = Math.min((buffer.length - out), (in - out));
+            } else {
+                available = buffer.length - out;
+            }
+
+            // A char is read beforehand outside the loop
+            if (available > (len - 1)) {
+                available = len - 1;
+            }
+            System.arraycopy(buffer, out, cbuf, off + rlen, available);
+            out += available;
+            rlen += available;
+            len -= available;
+
             if (out >= buffer.length) {
                 out = 0;
             }
@@ -356,7 +492,11 @@ public class PipedReader extends Reader {
      * @exception  IOException  if an I/O error occurs.
      */
     public void close()  throws IOException {
-        in = -1;
         closedByReader = true;
+        synchronized (this) {
+            in = -1;
+            /* wake any writer waiting for space */
+            notifyAll();
+        }
     }
 }
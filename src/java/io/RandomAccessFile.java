@@ -25,6 +25,7 @@
 
 package java.io;
 
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import sun.nio.ch.FileChannelImpl;
 
@@ -71,6 +72,24 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
     private Object closeLock = new Object();
     private volatile boolean closed = false;
 
+    /**
+     * The size of the staging buffer used by the bulk read and write
+     * methods.
+     */
+    private static final int BULK_BUFFER_SIZE = 8192;
+
+    /**
+     * Working array for the primitive read and write methods, so that each
+     * value is transferred by a single native call.
+     */
+    private final byte[] buffer = new byte[8];
+
+    /**
+     * bulkBuffer is initialized on demand by the bulk read and write
+     * methods
+     */
+    private byte[] bulkBuffer;
+
     private static final int O_RDONLY = 1;
     private static final int O_RDWR =   2;
     private static final int O_SYNC =   4;
@@ -440,6 +459,80 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
         } while (n < len);
     }
 
+    /**
+     * Reads up to {@code len} bytes of data from this file into an array of
+     * bytes, starting at the given file position.  The file pointer is not
+     * changed.
+     * <p>
+     * This method reads through the file's {@link #getChannel channel} as if
+     * by its {@link FileChannel#read(ByteBuffer, long) read(ByteBuffer,
+     * long)} method, and so may be invoked concurrently by multiple threads,
+     * with each other and with operations that use the file pointer.  As for
+     * the channel, if the thread is interrupted while reading then the file
+     * is closed.
+     *
+     * @param      position  the file position at which the read starts.
+     * @param      b         the buffer into which the data is read.
+     * @param      off       the start offset in array {@code b}
+     *                       at which the data is written.
+     * @param      len       the maximum number of bytes read.
+     * @return     the total number of bytes read into the buffer, possibly
+     *             zero, or {@code -1} if the position is greater than or
+     *             equal to the length of the file.
+     * @exception  IllegalArgumentException  if {@code position} is negative.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     *             {@code len} is negative, or {@code len} is greater than
+     *             {@code b.length - off}
+     * @exception  IOException  if an I/O error occurs.
+     * @since 1.8
+     */
+    public int read(long position, byte b[], int off, int len)
+        throws IOException
+    {
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        if (len == 0)
+            return 0;
+        return getChannel().read(ByteBuffer.wrap(b, off, len), position);
+    }
+
+    /**
+     * Reads exactly {@code len} bytes from this file into the byte array,
+     * starting at the given file position.  The file pointer is not
+     * changed.  This method reads as if by {@link #read(long, byte[], int,
+     * int)}, repeatedly until the requested number of bytes are read.
+     *
+     * @param      position  the file position at which the read starts.
+     * @param      b         the buffer into which the data is read.
+     * @param      off       the start offset of the data.
+     * @param      len       the number of bytes to read.
+     * @exception  EOFException  if the end of the file is reached before
+     *               reading all the bytes.
+     * @exception  IllegalArgumentException  if {@code position} is negative.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     *             {@code len} is negative, or {@code len} is greater than
+     *             {@code b.length - off}
+     * @exception  IOException   if an I/O error occurs.
+     * @since 1.8
+     */
+    public final void readFully(long position, byte b[], int off, int len)
+        throws IOException
+    {
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        int n = 0;
+        while (n < len) {
+            int count = read(position + n, b, off + n, len - n);
+            if (count < 0)
+                throw new EOFException();
+            n += count;
+        }
+    }
+
     /**
      * Attempts to skip over {@code n} bytes of input discarding the
      * skipped bytes.
@@ -525,6 +618,48 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
         writeBytes(b, off, len);
     }
 
+    /**
+     * Writes {@code len} bytes from the specified byte array starting at
+     * offset {@code off} to this file, starting at the given file position.
+     * The file pointer is not changed.  If the position is greater than the
+     * length of the file then the file is extended, the values of the bytes
+     * between the previous end of the file and the position being
+     * unspecified.
+     * <p>
+     * This method writes through the file's {@link #getChannel channel} as
+     * if by its {@link FileChannel#write(ByteBuffer, long) write(ByteBuffer,
+     * long)} method, and so may be invoked concurrently by multiple threads,
+     * with each other and with operations that use the file pointer.  As for
+     * the channel, if the thread is interrupted while writing then the file
+     * is closed.
+     *
+     * @param      position  the file position at which the write starts.
+     * @param      b         the data.
+     * @param      off       the start offset in the data.
+     * @param      len       the number of bytes to write.
+     * @exception  IllegalArgumentException  if {@code position} is negative.
+     * @exception  IndexOutOfBoundsException If {@code off} is negative,
+     *             {@code len} is negative, or {@code len} is greater than
+     *             {@code b.length - off}
+     * @exception  java.nio.channels.NonWritableChannelException  if this
+     *             file was opened for reading only.
+     * @exception  IOException  if an I/O error occurs.
+     * @since 1.8
+     */
+    public void write(long position, byte b[], int off, int len)
+        throws IOException
+    {
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        FileChannel fc = getChannel();
+        ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+        while (bb.hasRemaining()) {
+            position += fc.write(bb, position);
+        }
+    }
+
     // 'Random access' stuff
 
     /**
@@ -711,11 +846,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException   if an I/O error occurs.
      */
     public final short readShort() throws IOException {
-        int ch1 = this.read();
-        int ch2 = this.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (short)((ch1 << 8) + (ch2 << 0));
+        readFully(buffer, 0, 2);
+        return Bits.getShort(buffer, 0);
     }
 
     /**
@@ -739,11 +871,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException   if an I/O error occurs.
      */
     public final int readUnsignedShort() throws IOException {
-        int ch1 = this.read();
-        int ch2 = this.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (ch1 << 8) + (ch2 << 0);
+        readFully(buffer, 0, 2);
+        return Bits.getShort(buffer, 0) & 0xFFFF;
     }
 
     /**
@@ -767,11 +896,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException   if an I/O error occurs.
      */
     public final char readChar() throws IOException {
-        int ch1 = this.read();
-        int ch2 = this.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (char)((ch1 << 8) + (ch2 << 0));
+        readFully(buffer, 0, 2);
+        return Bits.getChar(buffer, 0);
     }
 
     /**
@@ -795,13 +921,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException   if an I/O error occurs.
      */
     public final int readInt() throws IOException {
-        int ch1 = this.read();
-        int ch2 = this.read();
-        int ch3 = this.read();
-        int ch4 = this.read();
-        if ((ch1 | ch2 | ch3 | ch4) < 0)
-            throw new EOFException();
-        return ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + (ch4 << 0));
+        readFully(buffer, 0, 4);
+        return Bits.getInt(buffer, 0);
     }
 
     /**
@@ -833,7 +954,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException   if an I/O error occurs.
      */
     public final long readLong() throws IOException {
-        return ((long)(readInt()) << 32) + (readInt() & 0xFFFFFFFFL);
+        readFully(buffer, 0, 8);
+        return Bits.getLong(buffer, 0);
     }
 
     /**
@@ -882,6 +1004,102 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
         return Double.longBitsToDouble(readLong());
     }
 
+    /**
+     * Reads {@code len} {@code int} values from this file, starting at
+     * the current file pointer, each as if by the {@code readInt}
+     * method, and stores them into the array {@code a} starting at
+     * {@code a[off]}.  The bytes are read a buffer at a time.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than the length
+     *             of the array {@code a}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all the values.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readInt()
+     * @since      1.8
+     */
+    public void readInts(int[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 2);
+            readFully(buf, 0, n << 2);
+            for (int i = 0; i < n; i++)
+                a[off + i] = Bits.getInt(buf, i << 2);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code long} values from this file, starting at
+     * the current file pointer, each as if by the {@code readLong}
+     * method, and stores them into the array {@code a} starting at
+     * {@code a[off]}.  The bytes are read a buffer at a time.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than the length
+     *             of the array {@code a}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all the values.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readLong()
+     * @since      1.8
+     */
+    public void readLongs(long[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            readFully(buf, 0, n << 3);
+            for (int i = 0; i < n; i++)
+                a[off + i] = Bits.getLong(buf, i << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code double} values from this file, starting at
+     * the current file pointer, each as if by the {@code readDouble}
+     * method, and stores them into the array {@code a} starting at
+     * {@code a[off]}.  The bytes are read a buffer at a time.
+     *
+     * @param      a     the array into which the values are read.
+     * @param      off   the index of the first value stored.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than the length
+     *             of the array {@code a}.
+     * @exception  EOFException  if this file reaches the end before reading
+     *             all the values.
+     * @exception  IOException   if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#readDouble()
+     * @since      1.8
+     */
+    public void readDoubles(double[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            readFully(buf, 0, n << 3);
+            for (int i = 0; i < n; i++)
+                a[off + i] = Bits.getDouble(buf, i << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
     /**
      * Reads the next line of text from this file.  This method successively
      * reads bytes from the file, starting at the current file pointer,
@@ -1000,8 +1218,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException  if an I/O error occurs.
      */
     public final void writeShort(int v) throws IOException {
-        write((v >>> 8) & 0xFF);
-        write((v >>> 0) & 0xFF);
+        Bits.putShort(buffer, 0, (short) v);
+        writeBytes(buffer, 0, 2);
         //written += 2;
     }
 
@@ -1014,8 +1232,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException  if an I/O error occurs.
      */
     public final void writeChar(int v) throws IOException {
-        write((v >>> 8) & 0xFF);
-        write((v >>> 0) & 0xFF);
+        Bits.putChar(buffer, 0, (char) v);
+        writeBytes(buffer, 0, 2);
         //written += 2;
     }
 
@@ -1027,10 +1245,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException  if an I/O error occurs.
      */
     public final void writeInt(int v) throws IOException {
-        write((v >>> 24) & 0xFF);
-        write((v >>> 16) & 0xFF);
-        write((v >>>  8) & 0xFF);
-        write((v >>>  0) & 0xFF);
+        Bits.putInt(buffer, 0, v);
+        writeBytes(buffer, 0, 4);
         //written += 4;
     }
 
@@ -1042,14 +1258,8 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
      * @exception  IOException  if an I/O error occurs.
      */
     public final void writeLong(long v) throws IOException {
-        write((int)(v >>> 56) & 0xFF);
-        write((int)(v >>> 48) & 0xFF);
-        write((int)(v >>> 40) & 0xFF);
-        write((int)(v >>> 32) & 0xFF);
-        write((int)(v >>> 24) & 0xFF);
-        write((int)(v >>> 16) & 0xFF);
-        write((int)(v >>>  8) & 0xFF);
-        write((int)(v >>>  0) & 0xFF);
+        Bits.putLong(buffer, 0, v);
+        writeBytes(buffer, 0, 8);
         //written += 8;
     }
 
@@ -1083,6 +1293,103 @@ public class RandomAccessFile implements DataOutput, DataInput, Closeable {
         writeLong(Double.doubleToLongBits(v));
     }
 
+    /**
+     * Writes {@code len} {@code int} values from the array {@code a},
+     * starting with {@code a[off]}, to the file, each as if by the
+     * {@code writeInt} method.  The write starts at the current position
+     * of the file pointer, and the bytes are written a buffer at a time.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than the length
+     *             of the array {@code a}.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeInt(int)
+     * @since      1.8
+     */
+    public void writeInts(int[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 2);
+            for (int i = 0; i < n; i++)
+                Bits.putInt(buf, i << 2, a[off + i]);
+            writeBytes(buf, 0, n << 2);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code long} values from the array {@code a},
+     * starting with {@code a[off]}, to the file, each as if by the
+     * {@code writeLong} method.  The write starts at the current position
+     * of the file pointer, and the bytes are written a buffer at a time.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than the length
+     *             of the array {@code a}.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeLong(long)
+     * @since      1.8
+     */
+    public void writeLongs(long[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            for (int i = 0; i < n; i++)
+                Bits.putLong(buf, i << 3, a[off + i]);
+            writeBytes(buf, 0, n << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code double} values from the array {@code a},
+     * starting with {@code a[off]}, to the file, each as if by the
+     * {@code writeDouble} method.  The write starts at the current position
+     * of the file pointer, and the bytes are written a buffer at a time.
+     *
+     * @param      a     the values.
+     * @param      off   the index of the first value written.
+     * @param      len   the number of values to write.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than the length
+     *             of the array {@code a}.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.RandomAccessFile#writeDouble(double)
+     * @since      1.8
+     */
+    public void writeDoubles(double[] a, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (a.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        byte[] buf = bulkBuffer();
+        while (len > 0) {
+            int n = Math.min(len, BULK_BUFFER_SIZE >> 3);
+            for (int i = 0; i < n; i++)
+                Bits.putDouble(buf, i << 3, a[off + i]);
+            writeBytes(buf, 0, n << 3);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private byte[] bulkBuffer() {
+        byte[] buf = bulkBuffer;
+        if (buf == null)
+            bulkBuffer = buf = new byte[BULK_BUFFER_SIZE];
+        return buf;
+    }
+
     /**
      * Writes the string to the file as a sequence of bytes. Each
      * character in the string is written out, in sequence, by discarding
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A pipe between exactly one writing thread and one reading thread,
+ * passing bytes through a fixed-size ring buffer without locking.  Bytes
+ * written to the {@linkplain #sink() sink} become available to the
+ * {@linkplain #source() source} in the order written.
+ *
+ * <p> Unlike {@link PipedInputStream} and {@link PipedOutputStream}, the
+ * two ends of a <code>RingPipe</code> never synchronize with each other.
+ * Each end publishes its progress through a volatile counter, and a thread
+ * that finds the ring empty (or full) spins briefly before parking until
+ * the other end has made progress.  A handoff between threads that are
+ * both running therefore costs no more than a few memory accesses.
+ *
+ * <p> At most one thread may write to the sink, and at most one thread
+ * may read from the source, at any one time.  Using either end from more
+ * than one thread concurrently without external synchronization leads to
+ * unspecified results.
+ *
+ * <p> Closing the sink signals the end of the stream; the source returns
+ * the bytes remaining in the ring and then <code>-1</code>.  Closing the
+ * source causes any further write to the sink to fail.
+ *
+ * @see     PipedInputStream
+ * @see     PipedOutputStream
+ * @since   1.8
+ */
+public final class RingPipe {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The number of times to check for progress before parking, when
+     * there is another processor on which the other end may be running.
+     */
+    private static final int SPINS =
+        (Runtime.getRuntime().availableProcessors() > 1) ? 64 : 0;
+
+    private final byte[] ring;
+    private final int mask;
+
+    /** The number of bytes read, written only by the reader. */
+    private volatile long head;
+
+    /** The number of bytes written, written only by the writer. */
+    private volatile long tail;
+
+    private volatile Thread waitingReader;
+    private volatile Thread waitingWriter;
+
+    private volatile boolean closedByWriter;
+    private volatile boolean closedByReader;
+
+    private final InputStream source = new Source();
+    private final OutputStream sink = new Sink();
+
+    /**
+     * Creates a pipe with a ring buffer of the default capacity.
+     */
+    public RingPipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pipe with a ring buffer of the given capacity.
+     *
+     * @param   capacity   the capacity of the ring buffer, a power of two.
+     * @exception IllegalArgumentException if <code>capacity</code> is not
+     *            a positive power of two.
+     */
+    public RingPipe(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException(
+                "Capacity not a power of two: " + capacity);
+        }
+        ring = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the capacity of the ring buffer.
+     *
+     * @return  the number of bytes the sink may write before the source
+     *          must read.
+     */
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Returns the input stream from which the reading thread reads the
+     * bytes written to the {@linkplain #sink() sink}.
+     *
+     * @return  the reading end of this pipe.
+     */
+    public InputStream source() {
+        return source;
+    }
+
+    /**
+     * Returns the output stream to which the writing thread writes the
+     * bytes to be read from the {@linkplain #source() source}.
+     *
+     * @return  the writing end of this pipe.
+     */
+    public OutputStream sink() {
+        return sink;
+    }
+
+    /**
+     * Waits until the ring is no longer empty or the writer has closed
+     * the pipe, returning the number of bytes available.
+     */
+    private int awaitData() throws IOException {
+        long h = head;
+        for (int spins = SPINS;;) {
+            if (closedByReader) {
+                throw new IOException("Pipe closed");
+            }
+            int n = (int) (tail - h);
+            if (n > 0 || closedByWriter) {
+                /* re-read tail in case the writer published and closed */
+                return (int) (tail - h);
+            }
+            if (spins > 0) {
+                spins--;
+                continue;
+            }
+            waitingReader = Thread.currentThread();
+            try {
+                /* re-check after registering, so that the writer either
+                   sees this thread waiting or this thread sees its data */
+                if (tail == h && !closedByWriter && !closedByReader) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                waitingReader = null;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    /**
+     * Waits until the ring is no longer full, returning the number of
+     * bytes that may be written.
+     */
+    private int awaitSpace() throws IOException {
+        long t = tail;
+        for (int spins = SPINS;;) {
+            if (closedByReader || closedByWriter) {
+                throw new IOException("Pipe closed");
+            }
+            int n = ring.length - (int) (t - head);
+            if (n > 0) {
+                return n;
+            }
+            if (spins > 0) {
+                spins--;
+                continue;
+            }
+            waitingWriter = Thread.currentThread();
+            try {
+                if (t - head == ring.length && !closedByReader) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                waitingWriter = null;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    private static void signal(Thread waiter) {
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private final class Source extends InputStream {
+
+        public int read() throws IOException {
+            if (awaitData() == 0) {
+                return -1;
+            }
+            long h = head;
+            int b = ring[(int) h & mask] & 0xFF;
+            head = h + 1;
+            signal(waitingWriter);
+            return b;
+        }
+
+        public int read(byte b[], int off, int len) throws IOException {
+            if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            }
+            int n = awaitData();
+            if (n == 0) {
+                return -1;
+            }
+            if (n > len) {
+                n = len;
+            }
+            long h = head;
+            int index = (int) h & mask;
+            int first = Math.min(n, ring.length - index);
+            System.arraycopy(ring, index, b, off, first);
+            System.arraycopy(ring, 0, b, off + first, n - first);
+            head = h + n;
+            signal(waitingWriter);
+            return n;
+        }
+
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            int avail = awaitData();
+            int skipped = (int) Math.min(n, avail);
+            head += skipped;
+            signal(waitingWriter);
+            return skipped;
+        }
+
+        public int available() throws IOException {
+            if (closedByReader) {
+                throw new IOException("Pipe closed");
+            }
+            return (int) (tail - head);
+        }
+
+        public void close() {
+            closedByReader = true;
+            signal(waitingWriter);
+        }
+    }
+
+    private final class Sink extends OutputStream {
+
+        public void write(int b) throws IOException {
+            awaitSpace();
+            long t = tail;
+            ring[(int) t & mask] = (byte) b;
+            tail = t + 1;
+            signal(waitingReader);
+        }
+
+        public void write(byte b[], int off, int len) throws IOException {
+            if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+                throw new IndexOutOfBoundsException();
+            }
+            while (len > 0) {
+                int n = Math.min(awaitSpace(), len);
+                long t = tail;
+                int index = (int) t & mask;
+                int first = Math.min(n, ring.length - index);
+                System.arraycopy(b, off, ring, index, first);
+                System.arraycopy(b, off + first, ring, 0, n - first);
+                tail = t + n;
+                signal(waitingReader);
+                off += n;
+                len -= n;
+            }
+        }
+
+        public void close() {
+            closedByWriter = true;
+            signal(waitingReader);
+        }
+    }
+}
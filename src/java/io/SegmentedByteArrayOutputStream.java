@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * An output stream that collects the data written to it in a list of
+ * fixed-size segments.  Unlike {@link ByteArrayOutputStream}, the stream
+ * never copies data already written in order to grow, so that the memory
+ * it needs is bounded by its content plus a single segment, and it never
+ * synchronizes.
+ *
+ * <p> The content can be handed on without copying, as read-only
+ * {@linkplain #toByteBuffers() byte buffers}, as an {@linkplain
+ * #toInputStream() input stream}, or by a {@linkplain
+ * #writeTo(GatheringByteChannel) gathering write} to a channel.  These
+ * views share the segments of the stream: they see the content as it was
+ * when the view was created, and remain valid until the stream is {@link
+ * #reset() reset} or {@link #close() closed}, after which the segments may
+ * be reused.
+ *
+ * <p> Segments may be recycled through a {@link SegmentPool} shared by
+ * several streams, which allows a stream that is repeatedly filled and
+ * reset, or a series of short-lived streams, to allocate no new segments
+ * once the pool is warm.
+ *
+ * <p> An instance must not be used by more than one thread at a time
+ * without external synchronization.
+ *
+ * @see     ByteArrayOutputStream
+ * @since   1.8
+ */
+public class SegmentedByteArrayOutputStream extends OutputStream {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 8192;
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in
+     * OutOfMemoryError: Requested array size exceeds VM limit
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * A pool of segments of one size, which may be shared by several
+     * {@code SegmentedByteArrayOutputStream}s and by several threads.  The
+     * pool retains at most a given number of segments that have been
+     * returned to it; further segments are left to the garbage collector.
+     *
+     * @since 1.8
+     */
+    public static final class SegmentPool {
+
+        private final int segmentSize;
+        private final int maxRetained;
+        private final ArrayDeque<byte[]> segments = new ArrayDeque<>();
+
+        /**
+         * Creates a pool of segments of the given size.
+         *
+         * @param   segmentSize   the size of each segment.
+         * @param   maxRetained   the maximum number of free segments the
+         *                        pool retains.
+         * @exception IllegalArgumentException if {@code segmentSize <= 0}
+         *            or {@code maxRetained < 0}.
+         */
+        public SegmentPool(int segmentSize, int maxRetained) {
+            if (segmentSize <= 0) {
+                throw new IllegalArgumentException("Segment size <= 0");
+            }
+            if (maxRetained < 0) {
+                throw new IllegalArgumentException("Negative maximum: "
+                                                   + maxRetained);
+            }
+            this.segmentSize = segmentSize;
+            this.maxRetained = maxRetained;
+        }
+
+        /**
+         * Returns the size of the segments in this pool.
+         *
+         * @return  the segment size.
+         */
+        public int segmentSize() {
+            return segmentSize;
+        }
+
+        /**
+         * Returns the number of free segments currently retained.
+         *
+         * @return  the number of free segments.
+         */
+        public synchronized int size() {
+            return segments.size();
+        }
+
+        synchronized byte[] acquire() {
+            byte[] segment = segments.pollLast();
+            return (segment != null) ? segment : new byte[segmentSize];
+        }
+
+        synchronized void release(ArrayList<byte[]> list) {
+            for (int i = list.size() - 1; i >= 0; i--) {
+                if (segments.size() >= maxRetained)
+                    break;
+                segments.addLast(list.get(i));
+            }
+        }
+    }
+
+    /**
+     * The pool from which segments are taken, or null.
+     */
+    private final SegmentPool pool;
+
+    private final int segmentSize;
+
+    /**
+     * The segments, all of which but the last are full.
+     */
+    private final ArrayList<byte[]> segments = new ArrayList<>();
+
+    /**
+     * The last segment, or null if there are no segments.
+     */
+    private byte[] current;
+
+    /**
+     * The number of valid bytes in the last segment.
+     */
+    private int count;
+
+    /**
+     * The number of valid bytes in the segments before the last.
+     */
+    private long filled;
+
+    private boolean closed;
+
+    /**
+     * Creates a new segmented byte array output stream with segments of
+     * the default size.
+     */
+    public SegmentedByteArrayOutputStream() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new segmented byte array output stream with segments of
+     * the specified size.
+     *
+     * @param   segmentSize   the size of each segment.
+     * @exception  IllegalArgumentException if {@code segmentSize <= 0}.
+     */
+    public SegmentedByteArrayOutputStream(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size <= 0");
+        }
+        this.pool = null;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Creates a new segmented byte array output stream that takes its
+     * segments from, and returns them to, the specified pool.
+     *
+     * @param   pool   the segment pool.
+     */
+    public SegmentedByteArrayOutputStream(SegmentPool pool) {
+        this.pool = pool;
+        this.segmentSize = pool.segmentSize();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+    }
+
+    /**
+     * Appends a new segment, making it the current one.
+     */
+    private void addSegment() {
+        if (current != null) {
+            filled += count;
+        }
+        current = (pool != null) ? pool.acquire() : new byte[segmentSize];
+        segments.add(current);
+        count = 0;
+    }
+
+    /**
+     * Writes the specified byte to this stream.
+     *
+     * @param   b   the byte to be written.
+     * @exception  IOException  if the stream has been closed.
+     */
+    public void write(int b) throws IOException {
+        if (current == null || count == current.length) {
+            ensureOpen();
+            addSegment();
+        }
+        current[count++] = (byte) b;
+    }
+
+    /**
+     * Writes <code>len</code> bytes from the specified byte array
+     * starting at offset <code>off</code> to this stream.
+     *
+     * @param   b     the data.
+     * @param   off   the start offset in the data.
+     * @param   len   the number of bytes to write.
+     * @exception  IOException  if the stream has been closed.
+     */
+    public void write(byte b[], int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (current == null || count == current.length) {
+                addSegment();
+            }
+            int n = Math.min(current.length - count, len);
+            System.arraycopy(b, off, current, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes the complete contents of this stream to the specified output
+     * stream, one segment at a time.
+     *
+     * @param   out   the output stream to which to write the data.
+     * @exception  IOException  if an I/O error occurs, or this stream has
+     *             been closed.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ensureOpen();
+        int last = segments.size() - 1;
+        for (int i = 0; i < last; i++) {
+            byte[] segment = segments.get(i);
+            out.write(segment, 0, segment.length);
+        }
+        if (last >= 0) {
+            out.write(current, 0, count);
+        }
+    }
+
+    /**
+     * Writes the complete contents of this stream to the specified
+     * channel by gathering writes directly from the segments.  This method
+     * returns once all of the content has been written, and so should be
+     * used only with a channel in blocking mode.
+     *
+     * @param   channel   the channel to which to write the data.
+     * @return  the number of bytes written.
+     * @exception  IOException  if an I/O error occurs, or this stream has
+     *             been closed.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        ByteBuffer[] buffers = toByteBuffers();
+        long remaining = size();
+        int offset = 0;
+        while (remaining > 0) {
+            remaining -= channel.write(buffers, offset,
+                                       buffers.length - offset);
+            while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+        return size();
+    }
+
+    /**
+     * Returns the contents of this stream as an array of read-only byte
+     * buffers, one for each segment, without copying.  Each buffer's
+     * position is zero and its limit is the number of bytes in its
+     * segment.  Bytes written to this stream after this method returns do
+     * not appear in the buffers.
+     *
+     * @return  the contents of this stream, as read-only byte buffers.
+     * @exception  IOException  if this stream has been closed.
+     */
+    public ByteBuffer[] toByteBuffers() throws IOException {
+        ensureOpen();
+        int n = segments.size();
+        ByteBuffer[] buffers = new ByteBuffer[n];
+        for (int i = 0; i < n - 1; i++) {
+            buffers[i] = ByteBuffer.wrap(segments.get(i)).asReadOnlyBuffer();
+        }
+        if (n > 0) {
+            buffers[n - 1] = ByteBuffer.wrap(current, 0, count)
+                                       .slice().asReadOnlyBuffer();
+        }
+        return buffers;
+    }
+
+    /**
+     * Returns an input stream that reads the contents of this stream
+     * directly from its segments, without copying them.  Bytes written to
+     * this stream after this method returns are not read by the returned
+     * input stream.
+     *
+     * @return  an input stream over the contents of this stream.
+     * @exception  IOException  if this stream has been closed.
+     */
+    public InputStream toInputStream() throws IOException {
+        ensureOpen();
+        int n = segments.size();
+        byte[][] parts = segments.toArray(new byte[n][]);
+        return new SegmentInputStream(parts, (n > 0) ? count : 0);
+    }
+
+    /**
+     * Creates a newly allocated byte array holding a copy of the contents
+     * of this stream.
+     *
+     * @return  the current contents of this stream, as a byte array.
+     * @exception  IOException  if this stream has been closed.
+     * @exception  OutOfMemoryError  if the contents are too large to be
+     *             held in an array.
+     */
+    public byte[] toByteArray() throws IOException {
+        ensureOpen();
+        long size = size();
+        if (size > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        byte[] result = new byte[(int) size];
+        int pos = 0;
+        int last = segments.size() - 1;
+        for (int i = 0; i < last; i++) {
+            byte[] segment = segments.get(i);
+            System.arraycopy(segment, 0, result, pos, segment.length);
+            pos += segment.length;
+        }
+        if (last >= 0) {
+            System.arraycopy(current, 0, result, pos, count);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes written to this stream since it was
+     * created or last reset.
+     *
+     * @return  the number of bytes in this stream.
+     */
+    public long size() {
+        return filled + count;
+    }
+
+    /**
+     * Discards the contents of this stream, returning its segments to the
+     * pool, if any.  Views of the contents created before the reset must
+     * no longer be used.
+     */
+    public void reset() {
+        if (pool != null) {
+            pool.release(segments);
+        }
+        segments.clear();
+        current = null;
+        count = 0;
+        filled = 0;
+    }
+
+    /**
+     * Closes this stream, discarding its contents and returning its
+     * segments to the pool, if any.  Views of the contents created before
+     * the stream was closed must no longer be used.  Closing a previously
+     * closed stream has no effect.
+     */
+    public void close() {
+        if (!closed) {
+            closed = true;
+            reset();
+        }
+    }
+
+    /**
+     * An input stream over a series of segments, all of which but the last
+     * are full.
+     */
+    private static final class SegmentInputStream extends InputStream {
+
+        private final byte[][] parts;
+        private final int lastCount;
+
+        /** The index of the current segment. */
+        private int index;
+
+        /** The position in the current segment. */
+        private int pos;
+
+        /** The remaining bytes. */
+        private long remaining;
+
+        SegmentInputStream(byte[][] parts, int lastCount) {
+            this.parts = parts;
+            this.lastCount = lastCount;
+            long total = lastCount;
+            for (int i = 0; i < parts.length - 1; i++) {
+                total += parts[i].length;
+            }
+            remaining = total;
+        }
+
+        private int limit() {
+            return (index == parts.length - 1) ? lastCount : parts[index].length;
+        }
+
+        public int read() {
+            if (remaining == 0) {
+                return -1;
+            }
+            if (pos == limit()) {
+                index++;
+                pos = 0;
+            }
+            remaining--;
+            return parts[index][pos++] & 0xff;
+        }
+
+        public int read(byte b[], int off, int len) {
+            if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            } else if (remaining == 0) {
+                return -1;
+            }
+            int n = 0;
+            while (n < len && remaining > 0) {
+                if (pos == limit()) {
+                    index++;
+                    pos = 0;
+                }
+                int cnt = Math.min(limit() - pos, len - n);
+                System.arraycopy(parts[index], pos, b, off + n, cnt);
+                pos += cnt;
+                n += cnt;
+                remaining -= cnt;
+            }
+            return n;
+        }
+
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            long k = Math.min(n, remaining);
+            long left = k;
+            while (left > 0) {
+                if (pos == limit()) {
+                    index++;
+                    pos = 0;
+                }
+                int cnt = (int) Math.min(limit() - pos, left);
+                pos += cnt;
+                left -= cnt;
+            }
+            remaining -= k;
+            return k;
+        }
+
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+/**
+ * A buffered output stream for use by a single thread.  An
+ * <code>UnsynchronizedBufferedOutputStream</code> has the same behavior as a
+ * {@link BufferedOutputStream}, except that none of its methods is
+ * synchronized, and it refuses further output once closed.
+ *
+ * <p> An instance must not be used by more than one thread at a time
+ * without external synchronization.
+ *
+ * <p> The buffer may be supplied by the caller, allowing buffers to be
+ * reused from one stream to the next.  The stream no longer refers to the
+ * supplied array once closed.
+ *
+ * @see     BufferedOutputStream
+ * @since   1.8
+ */
+public
+class UnsynchronizedBufferedOutputStream extends FilterOutputStream {
+
+    /**
+     * The buffer of a closed stream.
+     */
+    private static final byte[] CLOSED = new byte[0];
+
+    /**
+     * The buffer where data is stored, {@code CLOSED} once the stream is
+     * closed.
+     */
+    private byte[] buf;
+
+    /**
+     * The number of valid bytes in the buffer.
+     */
+    private int count;
+
+    /**
+     * Creates a new buffered output stream to write data to the
+     * specified underlying output stream.
+     *
+     * @param   out   the underlying output stream.
+     */
+    public UnsynchronizedBufferedOutputStream(OutputStream out) {
+        this(out, 8192);
+    }
+
+    /**
+     * Creates a new buffered output stream to write data to the
+     * specified underlying output stream with the specified buffer
+     * size.
+     *
+     * @param   out    the underlying output stream.
+     * @param   size   the buffer size.
+     * @exception IllegalArgumentException if size &lt;= 0.
+     */
+    public UnsynchronizedBufferedOutputStream(OutputStream out, int size) {
+        super(out);
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size <= 0");
+        }
+        buf = new byte[size];
+    }
+
+    /**
+     * Creates a new buffered output stream to write data to the
+     * specified underlying output stream, buffering it in the given array.
+     * The array is not copied; its contents are overwritten as the stream
+     * is written.
+     *
+     * @param   out   the underlying output stream.
+     * @param   buf   the buffer.
+     * @exception IllegalArgumentException if the buffer is empty.
+     */
+    public UnsynchronizedBufferedOutputStream(OutputStream out, byte[] buf) {
+        super(out);
+        if (buf.length == 0) {
+            throw new IllegalArgumentException("Buffer size <= 0");
+        }
+        this.buf = buf;
+    }
+
+    /** Flush the internal buffer */
+    private void flushBuffer() throws IOException {
+        if (buf == CLOSED) {
+            throw new IOException("Stream closed");
+        }
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Writes the specified byte to this buffered output stream.
+     *
+     * @param      b   the byte to be written.
+     * @exception  IOException  if an I/O error occurs, or the stream is
+     *                          closed.
+     */
+    public void write(int b) throws IOException {
+        if (count >= buf.length) {
+            flushBuffer();
+        }
+        buf[count++] = (byte)b;
+    }
+
+    /**
+     * Writes <code>len</code> bytes from the specified byte array
+     * starting at offset <code>off</code> to this buffered output stream,
+     * as specified by {@link BufferedOutputStream#write(byte[], int, int)}.
+     *
+     * @param      b     the data.
+     * @param      off   the start offset in the data.
+     * @param      len   the number of bytes to write.
+     * @exception  IOException  if an I/O error occurs, or the stream is
+     *                          closed.
+     */
+    public void write(byte b[], int off, int len) throws IOException {
+        if (len >= buf.length) {
+            /* If the request length exceeds the size of the output buffer,
+               flush the output buffer and then write the data directly.
+               In this way buffered streams will cascade harmlessly. */
+            flushBuffer();
+            out.write(b, off, len);
+            return;
+        }
+        if (len > buf.length - count) {
+            flushBuffer();
+        }
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /**
+     * Flushes this buffered output stream. This forces any buffered
+     * output bytes to be written out to the underlying output stream.
+     *
+     * @exception  IOException  if an I/O error occurs, or the stream is
+     *                          closed.
+     * @see        java.io.FilterOutputStream#out
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes this output stream, releasing the underlying
+     * stream and the reference to the buffer.  Closing a previously closed
+     * stream has no effect.
+     *
+     * @exception  IOException  if an I/O error occurs.
+     */
+    @SuppressWarnings("try")
+    public void close() throws IOException {
+        if (buf == CLOSED) {
+            return;
+        }
+        try (OutputStream ostream = out) {
+            flush();
+        } finally {
+            buf = CLOSED;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+/**
+ * A buffered character-output stream for use by a single thread.  An
+ * <code>UnsynchronizedBufferedWriter</code> has the same behavior as a
+ * {@link BufferedWriter}, except that it never synchronizes on its lock.
+ * The character-at-a-time {@link #write(int)} method reduces to an array
+ * store while there is room in the buffer, and character sequences are
+ * appended without first being converted to strings.
+ *
+ * <p> An instance must not be used by more than one thread at a time
+ * without external synchronization.
+ *
+ * <p> The buffer may be supplied by the caller, allowing buffers to be
+ * reused from one writer to the next.  The writer no longer refers to the
+ * supplied array once closed.
+ *
+ * @see BufferedWriter
+ * @since 1.8
+ */
+
+public class UnsynchronizedBufferedWriter extends Writer {
+
+    private Writer out;
+
+    private char cb[];
+    private int nChars, nextChar;
+
+    private static int defaultCharBufferSize = 8192;
+
+    /**
+     * Line separator string.  This is the value of the line.separator
+     * property at the moment that the stream was created.
+     */
+    private String lineSeparator;
+
+    /**
+     * Creates a buffered character-output stream that uses a default-sized
+     * output buffer.
+     *
+     * @param  out  A Writer
+     */
+    public UnsynchronizedBufferedWriter(Writer out) {
+        this(out, new char[defaultCharBufferSize]);
+    }
+
+    /**
+     * Creates a new buffered character-output stream that uses an output
+     * buffer of the given size.
+     *
+     * @param  out  A Writer
+     * @param  sz   Output-buffer size, a positive integer
+     *
+     * @exception  IllegalArgumentException  If {@code sz <= 0}
+     */
+    public UnsynchronizedBufferedWriter(Writer out, int sz) {
+        this(out, new char[checkSize(sz)]);
+    }
+
+    /**
+     * Creates a new buffered character-output stream that buffers output in
+     * the given array.  The array is not copied; its contents are
+     * overwritten as the stream is written.
+     *
+     * @param  out  A Writer
+     * @param  buf  Output buffer
+     *
+     * @exception  IllegalArgumentException  If the buffer is empty
+     */
+    public UnsynchronizedBufferedWriter(Writer out, char[] buf) {
+        super(out);
+        if (buf.length == 0)
+            throw new IllegalArgumentException("Buffer size <= 0");
+        this.out = out;
+        cb = buf;
+        nChars = buf.length;
+        nextChar = 0;
+
+        lineSeparator = java.security.AccessController.doPrivileged(
+            new sun.security.action.GetPropertyAction("line.separator"));
+    }
+
+    private static int checkSize(int sz) {
+        if (sz <= 0)
+            throw new IllegalArgumentException("Buffer size <= 0");
+        return sz;
+    }
+
+    /** Checks to make sure that the stream has not been closed */
+    private void ensureOpen() throws IOException {
+        if (out == null)
+            throw new IOException("Stream closed");
+    }
+
+    /**
+     * Flushes the output buffer to the underlying character stream, without
+     * flushing the stream itself.
+     */
+    private void flushBuffer() throws IOException {
+        ensureOpen();
+        if (nextChar == 0)
+            return;
+        out.write(cb, 0, nextChar);
+        nextChar = 0;
+    }
+
+    /**
+     * Writes a single character.
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void write(int c) throws IOException {
+        if (nextChar >= nChars) {
+            flushBuffer();
+        }
+        cb[nextChar++] = (char) c;
+    }
+
+    /**
+     * Writes a portion of an array of characters, as specified by {@link
+     * BufferedWriter#write(char[], int, int)}.
+     *
+     * @param  cbuf  A character array
+     * @param  off   Offset from which to start reading characters
+     * @param  len   Number of characters to write
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void write(char cbuf[], int off, int len) throws IOException {
+        ensureOpen();
+        if ((off < 0) || (off > cbuf.length) || (len < 0) ||
+            ((off + len) > cbuf.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return;
+        }
+
+        if (len >= nChars) {
+            /* If the request length exceeds the size of the output buffer,
+               flush the buffer and then write the data directly.  In this
+               way buffered streams will cascade harmlessly. */
+            flushBuffer();
+            out.write(cbuf, off, len);
+            return;
+        }
+
+        int b = off, t = off + len;
+        while (b < t) {
+            int d = Math.min(nChars - nextChar, t - b);
+            System.arraycopy(cbuf, b, cb, nextChar, d);
+            b += d;
+            nextChar += d;
+            if (nextChar >= nChars)
+                flushBuffer();
+        }
+    }
+
+    /**
+     * Writes a portion of a String.
+     *
+     * @param  s     String to be written
+     * @param  off   Offset from which to start reading characters
+     * @param  len   Number of characters to be written
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void write(String s, int off, int len) throws IOException {
+        ensureOpen();
+
+        int b = off, t = off + len;
+        while (b < t) {
+            int d = Math.min(nChars - nextChar, t - b);
+            s.getChars(b, b + d, cb, nextChar);
+            b += d;
+            nextChar += d;
+            if (nextChar >= nChars)
+                flushBuffer();
+        }
+    }
+
+    /**
+     * Appends the specified character sequence to this writer, copying the
+     * characters directly into the buffer.
+     *
+     * @param  csq  The character sequence to append.  If <tt>csq</tt> is
+     *         <tt>null</tt>, then the four characters <tt>"null"</tt> are
+     *         appended to this writer.
+     *
+     * @return  This writer
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public UnsynchronizedBufferedWriter append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            write("null");
+        } else {
+            append(csq, 0, csq.length());
+        }
+        return this;
+    }
+
+    /**
+     * Appends a subsequence of the specified character sequence to this
+     * writer, copying the characters directly into the buffer.
+     *
+     * @param  csq  The character sequence from which a subsequence will be
+     *         appended.  If <tt>csq</tt> is <tt>null</tt>, then characters
+     *         will be appended as if <tt>csq</tt> contained the four
+     *         characters <tt>"null"</tt>.
+     * @param  start  The index of the first character in the subsequence
+     * @param  end  The index of the character following the last character
+     *         in the subsequence
+     *
+     * @return  This writer
+     *
+     * @exception  IndexOutOfBoundsException
+     *          If <tt>start</tt> or <tt>end</tt> are negative, <tt>start</tt>
+     *          is greater than <tt>end</tt>, or <tt>end</tt> is greater than
+     *          <tt>csq.length()</tt>
+     * @exception  IOException  If an I/O error occurs
+     */
+    public UnsynchronizedBufferedWriter append(CharSequence csq, int start, int end)
+        throws IOException
+    {
+        if (csq == null) {
+            csq = "null";
+        }
+        if ((start < 0) || (start > end) || (end > csq.length())) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (csq instanceof String) {
+            write((String) csq, start, end - start);
+        } else if (csq instanceof StringBuilder || csq instanceof StringBuffer) {
+            ensureOpen();
+            int b = start;
+            while (b < end) {
+                int d = Math.min(nChars - nextChar, end - b);
+                if (csq instanceof StringBuilder)
+                    ((StringBuilder) csq).getChars(b, b + d, cb, nextChar);
+                else
+                    ((StringBuffer) csq).getChars(b, b + d, cb, nextChar);
+                b += d;
+                nextChar += d;
+                if (nextChar >= nChars)
+                    flushBuffer();
+            }
+        } else {
+            for (int i = start; i < end; i++) {
+                write(csq.charAt(i));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the specified character to this writer.
+     *
+     * @param  c  The 16-bit character to append
+     *
+     * @return  This writer
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public UnsynchronizedBufferedWriter append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Writes a line separator.  The line separator string is defined by the
+     * system property <tt>line.separator</tt>, and is not necessarily a single
+     * newline ('\n') character.
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void newLine() throws IOException {
+        write(lineSeparator);
+    }
+
+    /**
+     * Flushes the stream.
+     *
+     * @exception  IOException  If an I/O error occurs
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @SuppressWarnings("try")
+    public void close() throws IOException {
+        if (out == null) {
+            return;
+        }
+        try (Writer w = out) {
+            flushBuffer();
+        } finally {
+            out = null;
+            cb = null;
+            nChars = nextChar = 0;
+        }
+    }
+}
@@ -0,0 +1,697 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.text;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import sun.misc.FloatingDecimal;
+
+/**
+ * An immutable, thread-safe number formatter compiled from a {@link
+ * DecimalFormat}.
+ *
+ * <p> A <code>CompiledDecimalFormat</code> takes a snapshot of the pattern,
+ * symbols and settings of a <code>DecimalFormat</code> and formats numbers
+ * exactly as that <code>DecimalFormat</code> would.  Unlike
+ * <code>DecimalFormat</code> it can be shared by any number of threads
+ * without synchronization, and it appends to a <code>StringBuilder</code>
+ * instead of a <code>StringBuffer</code>:
+ *
+ * <blockquote><pre>
+ * static final CompiledDecimalFormat AMOUNT = CompiledDecimalFormat.compile(
+ *     "#,##0.00", DecimalFormatSymbols.getInstance(Locale.US));
+ * ...
+ * AMOUNT.format(invoice.total(), line);
+ * </pre></blockquote>
+ *
+ * <p> Patterns in fixed-point notation, which include the usual grouping
+ * and fixed-fraction patterns, are formatted directly from the binary value
+ * without the digit list, field positions and locking of
+ * <code>DecimalFormat</code>.  Patterns in exponential notation are
+ * formatted by a private copy of the <code>DecimalFormat</code>, one call
+ * at a time.
+ *
+ * <p> Field positions and parsing are not supported; use
+ * {@link #toDecimalFormat()} to obtain an equivalent
+ * <code>DecimalFormat</code> for those.
+ *
+ * @see DecimalFormat
+ * @since 1.8
+ */
+public final class CompiledDecimalFormat {
+
+    /**
+     * The format this formatter was compiled from, never modified and
+     * never exposed.  Numbers that are not compiled are formatted by it
+     * while holding its lock.
+     */
+    private final DecimalFormat prototype;
+
+    /**
+     * False if numbers are formatted by the prototype.
+     */
+    private final boolean compiled;
+
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final int multiplier;
+    private final BigInteger bigIntegerMultiplier;
+    private final BigDecimal bigDecimalMultiplier;
+
+    /**
+     * The grouping size, or zero if grouping is not used.
+     */
+    private final int groupingSize;
+    private final boolean decimalSeparatorAlwaysShown;
+    private final RoundingMode roundingMode;
+
+    private final char zero;
+    private final char grouping;
+    private final char decimal;
+    private final String nan;
+    private final String infinity;
+
+    // The digit limits for double and long values, and for BigDecimal and
+    // BigInteger values.
+    private final int maxIntDigits;
+    private final int minIntDigits;
+    private final int maxFraDigits;
+    private final int minFraDigits;
+    private final int bigMaxIntDigits;
+    private final int bigMinIntDigits;
+    private final int bigMaxFraDigits;
+    private final int bigMinFraDigits;
+
+    private CompiledDecimalFormat(DecimalFormat format) {
+        prototype = (DecimalFormat) format.clone();
+        compiled = !prototype.usesExponentialNotation();
+        positivePrefix = prototype.getPositivePrefix();
+        positiveSuffix = prototype.getPositiveSuffix();
+        negativePrefix = prototype.getNegativePrefix();
+        negativeSuffix = prototype.getNegativeSuffix();
+        multiplier = prototype.getMultiplier();
+        bigIntegerMultiplier = BigInteger.valueOf(multiplier);
+        bigDecimalMultiplier = new BigDecimal(multiplier);
+        groupingSize = prototype.isGroupingUsed() ? prototype.getGroupingSize() : 0;
+        decimalSeparatorAlwaysShown = prototype.isDecimalSeparatorAlwaysShown();
+        roundingMode = prototype.getRoundingMode();
+
+        DecimalFormatSymbols symbols = prototype.getDecimalFormatSymbols();
+        zero = symbols.getZeroDigit();
+        grouping = symbols.getGroupingSeparator();
+        decimal = prototype.isCurrencyFormat() ?
+            symbols.getMonetaryDecimalSeparator() :
+            symbols.getDecimalSeparator();
+        nan = symbols.getNaN();
+        infinity = symbols.getInfinity();
+
+        bigMaxIntDigits = prototype.getMaximumIntegerDigits();
+        bigMinIntDigits = prototype.getMinimumIntegerDigits();
+        bigMaxFraDigits = prototype.getMaximumFractionDigits();
+        bigMinFraDigits = prototype.getMinimumFractionDigits();
+        maxIntDigits = Math.min(bigMaxIntDigits, DecimalFormat.DOUBLE_INTEGER_DIGITS);
+        minIntDigits = Math.min(bigMinIntDigits, DecimalFormat.DOUBLE_INTEGER_DIGITS);
+        maxFraDigits = Math.min(bigMaxFraDigits, DecimalFormat.DOUBLE_FRACTION_DIGITS);
+        minFraDigits = Math.min(bigMinFraDigits, DecimalFormat.DOUBLE_FRACTION_DIGITS);
+    }
+
+    /**
+     * Compiles the given <code>DecimalFormat</code>.  Later changes to the
+     * format do not affect the returned formatter.
+     *
+     * @param format the format to compile
+     * @return a formatter equivalent to the format
+     * @exception NullPointerException if <code>format</code> is null
+     */
+    public static CompiledDecimalFormat of(DecimalFormat format) {
+        return new CompiledDecimalFormat(format);
+    }
+
+    /**
+     * Compiles the given pattern and symbols, as interpreted by
+     * {@link DecimalFormat#DecimalFormat(String, DecimalFormatSymbols)}.
+     *
+     * @param pattern a non-localized pattern string
+     * @param symbols the set of symbols to be used
+     * @return a formatter for the pattern and symbols
+     * @exception NullPointerException if any of the given arguments is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     */
+    public static CompiledDecimalFormat compile(String pattern,
+                                                DecimalFormatSymbols symbols) {
+        return new CompiledDecimalFormat(new DecimalFormat(pattern, symbols));
+    }
+
+    /**
+     * Returns a new <code>DecimalFormat</code> equivalent to this formatter.
+     *
+     * @return a copy of the format this formatter was compiled from
+     */
+    public DecimalFormat toDecimalFormat() {
+        return (DecimalFormat) prototype.clone();
+    }
+
+    /**
+     * Returns the pattern of this formatter.
+     *
+     * @return a pattern string
+     * @see DecimalFormat#toPattern()
+     */
+    public String toPattern() {
+        return prototype.toPattern();
+    }
+
+    /**
+     * Formats a long.
+     *
+     * @param number the long to format
+     * @return the formatted string
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public String format(long number) {
+        return format(number, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats a double.
+     *
+     * @param number the double to format
+     * @return the formatted string
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public String format(double number) {
+        return format(number, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats a number, as {@link DecimalFormat#format(Object, StringBuffer,
+     * FieldPosition)} does.
+     *
+     * @param number the number to format
+     * @param toAppendTo where the text is to be appended
+     * @return the value passed in as <code>toAppendTo</code>
+     * @exception IllegalArgumentException if <code>number</code> is null
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public StringBuilder format(Number number, StringBuilder toAppendTo) {
+        if (number instanceof Long || number instanceof Integer ||
+                   number instanceof Short || number instanceof Byte ||
+                   number instanceof AtomicInteger ||
+                   number instanceof AtomicLong ||
+                   (number instanceof BigInteger &&
+                    ((BigInteger)number).bitLength() < 64)) {
+            return format(number.longValue(), toAppendTo);
+        } else if (number instanceof BigDecimal) {
+            return format((BigDecimal)number, toAppendTo);
+        } else if (number instanceof BigInteger) {
+            return format((BigInteger)number, toAppendTo);
+        } else if (number != null) {
+            return format(number.doubleValue(), toAppendTo);
+        } else {
+            throw new IllegalArgumentException("Cannot format given Object as a Number");
+        }
+    }
+
+    /**
+     * Formats a double and appends the result to the given builder.
+     *
+     * @param number the double to format
+     * @param toAppendTo where the text is to be appended
+     * @return the value passed in as <code>toAppendTo</code>
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public StringBuilder format(double number, StringBuilder toAppendTo) {
+        if (!compiled)
+            return formatByPrototype(number, toAppendTo);
+
+        if (Double.isNaN(number) ||
+           (Double.isInfinite(number) && multiplier == 0)) {
+            return toAppendTo.append(nan);
+        }
+
+        // -0.0 formats with the negative affixes
+        boolean isNegative = ((number < 0.0) || (number == 0.0 && 1/number < 0.0)) ^ (multiplier < 0);
+
+        if (multiplier != 1) {
+            number *= multiplier;
+        }
+
+        if (Double.isInfinite(number)) {
+            return toAppendTo.append(isNegative ? negativePrefix : positivePrefix)
+                .append(infinity)
+                .append(isNegative ? negativeSuffix : positiveSuffix);
+        }
+
+        if (isNegative) {
+            number = -number;
+        }
+
+        char[] digits = new char[32];
+        int count = 0;
+        int decimalAt = 0;
+        FloatingDecimal.BinaryToASCIIConverter fdConverter =
+            FloatingDecimal.getBinaryToASCIIConverter(number);
+        boolean roundedUp = fdConverter.digitsRoundedUp();
+        boolean valueExactAsDecimal = fdConverter.decimalDigitsExact();
+        int nDigits = fdConverter.getDigits(digits);
+        if (digits[0] != '0') {
+            count = nDigits;
+            decimalAt = fdConverter.getDecimalExponent();
+            if (-decimalAt > maxFraDigits) {
+                // Underflow to zero
+                count = 0;
+            } else if (-decimalAt == maxFraDigits) {
+                // Rounding creates a digit in the least significant location.
+                // Below 1e-3 a single digit is written as "d.0E-n", the zero
+                // of which is seen by DigitList.
+                if (nDigits == 1 && decimalAt < -2) {
+                    digits[1] = '0';
+                    count = 2;
+                }
+                if (shouldRoundUp(digits, count, 0, isNegative,
+                                  roundedUp, valueExactAsDecimal)) {
+                    count = 1;
+                    ++decimalAt;
+                    digits[0] = '1';
+                } else {
+                    count = 0;
+                }
+            } else {
+                count = round(digits, trimTrailingZeros(digits, count),
+                              maxFraDigits + decimalAt, isNegative,
+                              roundedUp, valueExactAsDecimal);
+                if (count < 0) {
+                    count = 1;
+                    ++decimalAt;
+                }
+            }
+        }
+        return subformat(toAppendTo, digits, count, decimalAt, isNegative, false,
+                         maxIntDigits, minIntDigits, maxFraDigits, minFraDigits);
+    }
+
+    /**
+     * Formats a long and appends the result to the given builder.
+     *
+     * @param number the long to format
+     * @param toAppendTo where the text is to be appended
+     * @return the value passed in as <code>toAppendTo</code>
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public StringBuilder format(long number, StringBuilder toAppendTo) {
+        if (!compiled)
+            return formatByPrototype(number, toAppendTo);
+
+        boolean isNegative = (number < 0);
+        if (isNegative) {
+            number = -number;
+        }
+
+        // The multiplier can push the number outside the range of a long
+        boolean useBigInteger = false;
+        if (number < 0) { // This can only happen if number == Long.MIN_VALUE.
+            if (multiplier != 0) {
+                useBigInteger = true;
+            }
+        } else if (multiplier != 1 && multiplier != 0) {
+            long cutoff = Long.MAX_VALUE / multiplier;
+            if (cutoff < 0) {
+                cutoff = -cutoff;
+            }
+            useBigInteger = (number > cutoff);
+        }
+
+        if (useBigInteger) {
+            if (isNegative) {
+                number = -number;
+            }
+            return format(BigInteger.valueOf(number), toAppendTo, true);
+        }
+
+        number *= multiplier;
+        if (number == 0) {
+            isNegative = false;
+        } else {
+            if (multiplier < 0) {
+                number = -number;
+                isNegative = !isNegative;
+            }
+        }
+
+        char[] digits = new char[19];
+        int count = 0;
+        int decimalAt = 0;
+        if (number > 0) {
+            int left = 19;
+            while (number > 0) {
+                digits[--left] = (char)('0' + (number % 10));
+                number /= 10;
+            }
+            decimalAt = 19 - left;
+            int right = 18;
+            while (digits[right] == '0')
+                --right;
+            count = right - left + 1;
+            System.arraycopy(digits, left, digits, 0, count);
+        }
+        return subformat(toAppendTo, digits, count, decimalAt, isNegative, true,
+                         maxIntDigits, minIntDigits, maxFraDigits, minFraDigits);
+    }
+
+    /**
+     * Formats a BigDecimal and appends the result to the given builder.
+     *
+     * @param number the BigDecimal to format
+     * @param toAppendTo where the text is to be appended
+     * @return the value passed in as <code>toAppendTo</code>
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public StringBuilder format(BigDecimal number, StringBuilder toAppendTo) {
+        if (!compiled)
+            return formatByPrototype(number, toAppendTo);
+
+        if (multiplier != 1) {
+            number = number.multiply(bigDecimalMultiplier);
+        }
+        boolean isNegative = number.signum() == -1;
+        if (isNegative) {
+            number = number.negate();
+        }
+
+        BigInteger unscaled = number.unscaledValue();
+        char[] digits = unscaled.toString().toCharArray();
+        int count = (unscaled.signum() == 0) ? 0 : digits.length;
+        int decimalAt = count;
+        if (count != 0) {
+            decimalAt -= number.scale();
+            if (-decimalAt > bigMaxFraDigits) {
+                count = 0;
+            } else if (-decimalAt == bigMaxFraDigits) {
+                if (shouldRoundUp(digits, count, 0, isNegative, false, true)) {
+                    count = 1;
+                    ++decimalAt;
+                    digits[0] = '1';
+                } else {
+                    count = 0;
+                }
+            } else {
+                count = round(digits, trimTrailingZeros(digits, count),
+                              bigMaxFraDigits + decimalAt, isNegative, false, true);
+                if (count < 0) {
+                    count = 1;
+                    ++decimalAt;
+                }
+            }
+        }
+        return subformat(toAppendTo, digits, count, decimalAt, isNegative, false,
+                         bigMaxIntDigits, bigMinIntDigits,
+                         bigMaxFraDigits, bigMinFraDigits);
+    }
+
+    /**
+     * Formats a BigInteger and appends the result to the given builder.
+     *
+     * @param number the BigInteger to format
+     * @param toAppendTo where the text is to be appended
+     * @return the value passed in as <code>toAppendTo</code>
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public StringBuilder format(BigInteger number, StringBuilder toAppendTo) {
+        if (!compiled)
+            return formatByPrototype(number, toAppendTo);
+        return format(number, toAppendTo, false);
+    }
+
+    private StringBuilder format(BigInteger number, StringBuilder toAppendTo,
+                                 boolean formatLong) {
+        if (multiplier != 1) {
+            number = number.multiply(bigIntegerMultiplier);
+        }
+        boolean isNegative = number.signum() == -1;
+        if (isNegative) {
+            number = number.negate();
+        }
+
+        char[] digits = number.toString().toCharArray();
+        int decimalAt = (number.signum() == 0) ? 0 : digits.length;
+        int count = trimTrailingZeros(digits, decimalAt);
+        if (formatLong) {
+            return subformat(toAppendTo, digits, count, decimalAt, isNegative, true,
+                             maxIntDigits, minIntDigits, maxFraDigits, minFraDigits);
+        }
+        return subformat(toAppendTo, digits, count, decimalAt, isNegative, true,
+                         bigMaxIntDigits, bigMinIntDigits,
+                         bigMaxFraDigits, bigMinFraDigits);
+    }
+
+    /**
+     * Completes the formatting of a finite number in fixed-point notation,
+     * as DecimalFormat.subformat does.
+     */
+    private StringBuilder subformat(StringBuilder result, char[] digits,
+                                    int count, int decimalAt,
+                                    boolean isNegative, boolean isInteger,
+                                    int maxIntDigits, int minIntDigits,
+                                    int maxFraDigits, int minFraDigits) {
+        if (count == 0) {
+            decimalAt = 0;
+        }
+        int zeroDelta = zero - '0';
+
+        result.append(isNegative ? negativePrefix : positivePrefix);
+
+        // The integer digits, including leading zeros, of which only the
+        // least significant maxIntDigits are shown
+        int intCount = minIntDigits;
+        int digitIndex = 0;
+        if (decimalAt > 0 && intCount < decimalAt) {
+            intCount = decimalAt;
+        }
+        if (intCount > maxIntDigits) {
+            intCount = maxIntDigits;
+            digitIndex = decimalAt - intCount;
+        }
+
+        int sizeBeforeIntegerPart = result.length();
+        for (int i = intCount - 1; i >= 0; --i) {
+            if (i < decimalAt && digitIndex < count) {
+                result.append((char)(digits[digitIndex++] + zeroDelta));
+            } else {
+                result.append(zero);
+            }
+            if (groupingSize != 0 && i > 0 && (i % groupingSize == 0)) {
+                result.append(grouping);
+            }
+        }
+
+        boolean fractionPresent = (minFraDigits > 0) ||
+            (!isInteger && digitIndex < count);
+
+        // Print a zero if no digits would be printed at all
+        if (!fractionPresent && result.length() == sizeBeforeIntegerPart) {
+            result.append(zero);
+        }
+
+        if (decimalSeparatorAlwaysShown || fractionPresent) {
+            result.append(decimal);
+        }
+
+        for (int i = 0; i < maxFraDigits; ++i) {
+            if (i >= minFraDigits &&
+                (isInteger || digitIndex >= count)) {
+                break;
+            }
+            // Leading fractional zeros
+            if (-1-i > (decimalAt-1)) {
+                result.append(zero);
+                continue;
+            }
+            if (!isInteger && digitIndex < count) {
+                result.append((char)(digits[digitIndex++] + zeroDelta));
+            } else {
+                result.append(zero);
+            }
+        }
+
+        return result.append(isNegative ? negativeSuffix : positiveSuffix);
+    }
+
+    /**
+     * Formats a number that is not compiled with the prototype.
+     */
+    private StringBuilder formatByPrototype(Object number, StringBuilder toAppendTo) {
+        synchronized (prototype) {
+            return toAppendTo.append(prototype.format(number));
+        }
+    }
+
+    /**
+     * Returns a string identifying this formatter.
+     *
+     * @return a string representation of this formatter
+     */
+    @Override
+    public String toString() {
+        return "CompiledDecimalFormat[" + prototype.toPattern() + "]";
+    }
+
+    /*
+     * The digits of a number being formatted are kept in a char array local
+     * to one call, with the count of significant digits and the position of
+     * the decimal point: the value is 0.digits[0..count) * 10^decimalAt.
+     * Rounding follows DigitList.
+     */
+
+    /**
+     * Returns the count of digits without trailing zeros.
+     */
+    private static int trimTrailingZeros(char[] digits, int count) {
+        while (count > 1 && digits[count - 1] == '0') {
+            --count;
+        }
+        return count;
+    }
+
+    /**
+     * Rounds to the given number of digits and returns the new count of
+     * digits, or -1 if all digits were nines and rounded up to a single one,
+     * moving the decimal point one place to the right.
+     */
+    private int round(char[] digits, int count, int maximumDigits,
+                      boolean isNegative, boolean alreadyRounded,
+                      boolean valueExactAsDecimal) {
+        if (maximumDigits >= 0 && maximumDigits < count) {
+            if (shouldRoundUp(digits, count, maximumDigits, isNegative,
+                              alreadyRounded, valueExactAsDecimal)) {
+                for (;;) {
+                    --maximumDigits;
+                    if (maximumDigits < 0) {
+                        // All nines, increment to a single one
+                        digits[0] = '1';
+                        return -1;
+                    }
+                    ++digits[maximumDigits];
+                    if (digits[maximumDigits] <= '9') break;
+                }
+                ++maximumDigits;
+            }
+            return trimTrailingZeros(digits, maximumDigits);
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if truncating to the given number of digits must
+     * increment the last digit kept, see DigitList.shouldRoundUp.
+     */
+    private boolean shouldRoundUp(char[] digits, int count, int maximumDigits,
+                                  boolean isNegative, boolean alreadyRounded,
+                                  boolean valueExactAsDecimal) {
+        if (maximumDigits < count) {
+            switch(roundingMode) {
+            case UP:
+                for (int i=maximumDigits; i<count; ++i) {
+                    if (digits[i] != '0') {
+                        return true;
+                    }
+                }
+                break;
+            case DOWN:
+                break;
+            case CEILING:
+                for (int i=maximumDigits; i<count; ++i) {
+                    if (digits[i] != '0') {
+                        return !isNegative;
+                    }
+                }
+                break;
+            case FLOOR:
+                for (int i=maximumDigits; i<count; ++i) {
+                    if (digits[i] != '0') {
+                        return isNegative;
+                    }
+                }
+                break;
+            case HALF_UP:
+            case HALF_DOWN:
+                if (digits[maximumDigits] > '5') {
+                    return true;
+                } else if (digits[maximumDigits] == '5') {
+                    if (maximumDigits != (count - 1)) {
+                        return true;
+                    } else if (valueExactAsDecimal) {
+                        return roundingMode == RoundingMode.HALF_UP;
+                    } else {
+                        return !alreadyRounded;
+                    }
+                }
+                break;
+            case HALF_EVEN:
+                if (digits[maximumDigits] > '5') {
+                    return true;
+                } else if (digits[maximumDigits] == '5' ) {
+                    if (maximumDigits == (count - 1)) {
+                        if (alreadyRounded)
+                            return false;
+                        if (!valueExactAsDecimal)
+                            return true;
+                        return ((maximumDigits > 0) &&
+                                (digits[maximumDigits-1] % 2 != 0));
+                    } else {
+                        for (int i=maximumDigits+1; i<count; ++i) {
+                            if (digits[i] != '0')
+                                return true;
+                        }
+                    }
+                }
+                break;
+            case UNNECESSARY:
+                for (int i=maximumDigits; i<count; ++i) {
+                    if (digits[i] != '0') {
+                        throw new ArithmeticException(
+                            "Rounding needed with the rounding mode being set to RoundingMode.UNNECESSARY");
+                    }
+                }
+                break;
+            default:
+                assert false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.text;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+import sun.util.locale.LocaleObjectCache;
+
+/**
+ * An immutable, thread-safe message template compiled from a {@link
+ * MessageFormat}.
+ *
+ * <p> A <code>CompiledMessageFormat</code> parses its pattern once and keeps
+ * the literal text between the format elements together with a formatter
+ * for each element.  Formatting an array of arguments then appends the
+ * literal segments and the formatted arguments to a
+ * <code>StringBuilder</code>, exactly as {@link MessageFormat#format(Object[],
+ * StringBuffer, FieldPosition)} would, without reparsing the pattern or
+ * creating the default number and date formats again:
+ *
+ * <blockquote><pre>
+ * CompiledMessageFormat fmt = CompiledMessageFormat.compile(
+ *     "{0} files deleted on {1,date,long}.", Locale.US);
+ * String message = fmt.format(count, new Date());
+ * </pre></blockquote>
+ *
+ * <p> Number elements backed by a <code>DecimalFormat</code> are formatted
+ * by a shared {@link CompiledDecimalFormat}; choice elements share their
+ * <code>ChoiceFormat</code>, and a choice result that is itself a pattern is
+ * compiled and cached.  Other subformats, such as date formats, are copied
+ * for each use since they are not safe for use by multiple threads.
+ *
+ * <p> Field positions, attributed character iterators and parsing are not
+ * supported; use {@link #toMessageFormat()} to obtain an equivalent
+ * <code>MessageFormat</code> for those.
+ *
+ * @see MessageFormat
+ * @since 1.8
+ */
+public final class CompiledMessageFormat {
+
+    /**
+     * Cache of compiled patterns, keyed by pattern and locale.  Values are
+     * softly reachable.
+     */
+    private static final LocaleObjectCache<Key, CompiledMessageFormat> CACHE
+        = new LocaleObjectCache<Key, CompiledMessageFormat>() {
+            @Override
+            protected CompiledMessageFormat createObject(Key key) {
+                return new CompiledMessageFormat(
+                    new MessageFormat(key.pattern, key.locale));
+            }
+        };
+
+    /**
+     * The format this template was compiled from, never modified and
+     * never exposed.
+     */
+    private final MessageFormat prototype;
+
+    private final Locale locale;
+
+    /**
+     * The literal text, one more segment than there are elements.
+     */
+    private final String[] segments;
+
+    /**
+     * The argument numbers of the elements, in pattern order.
+     */
+    private final int[] argumentNumbers;
+
+    /**
+     * The formatter of each element: null if the element has no format
+     * type, a CompiledDecimalFormat or ChoiceFormat which is shared, or
+     * any other Format which is cloned before use.
+     */
+    private final Object[] formatters;
+
+    /**
+     * The formatters of elements without a format type, created when first
+     * needed.
+     */
+    private volatile Object defaultNumberFormatter;
+    private volatile DateFormat defaultDateFormat;
+
+    private CompiledMessageFormat(MessageFormat format) {
+        prototype = format;
+        locale = format.getLocale();
+        segments = format.getLiteralSegments();
+        argumentNumbers = format.getArgumentNumbers();
+        Format[] formats = format.getFormats();
+        formatters = new Object[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            formatters[i] = compileFormat(formats[i]);
+        }
+    }
+
+    /**
+     * Returns the shareable formatter for the given subformat.
+     */
+    private static Object compileFormat(Format format) {
+        if (format != null && format.getClass() == DecimalFormat.class) {
+            return CompiledDecimalFormat.of((DecimalFormat) format);
+        }
+        return format;
+    }
+
+    /**
+     * Returns a compiled template for the given pattern and locale.  The
+     * result may be a cached instance.
+     *
+     * @param pattern the pattern, as interpreted by {@link
+     *        MessageFormat#MessageFormat(String, Locale)}
+     * @param locale the locale for the template
+     * @return a template for the pattern and locale
+     * @exception NullPointerException if any of the given arguments is null
+     * @exception IllegalArgumentException if the pattern is invalid
+     */
+    public static CompiledMessageFormat compile(String pattern, Locale locale) {
+        return CACHE.get(new Key(Objects.requireNonNull(pattern),
+                                 Objects.requireNonNull(locale)));
+    }
+
+    /**
+     * Compiles the given <code>MessageFormat</code>.  Later changes to the
+     * format do not affect the returned template.
+     *
+     * @param format the format to compile
+     * @return a template equivalent to the format
+     * @exception NullPointerException if <code>format</code> is null
+     */
+    public static CompiledMessageFormat of(MessageFormat format) {
+        return new CompiledMessageFormat((MessageFormat) format.clone());
+    }
+
+    /**
+     * Returns the locale of this template.
+     *
+     * @return the locale used when creating subformats
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns a pattern representing this template.
+     *
+     * @return a pattern string
+     * @see MessageFormat#toPattern()
+     */
+    public String toPattern() {
+        return prototype.toPattern();
+    }
+
+    /**
+     * Returns a new <code>MessageFormat</code> equivalent to this template.
+     *
+     * @return a copy of the format this template was compiled from
+     */
+    public MessageFormat toMessageFormat() {
+        return (MessageFormat) prototype.clone();
+    }
+
+    /**
+     * Formats an array of objects.
+     *
+     * @param arguments the objects to be formatted and substituted
+     * @return the formatted string
+     * @exception IllegalArgumentException if an argument in the
+     *            <code>arguments</code> array is not of the type
+     *            expected by the format element(s) that use it.
+     */
+    public String format(Object... arguments) {
+        return format(arguments, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats an array of objects and appends the pattern, with format
+     * elements replaced by the formatted objects, to the given builder.
+     *
+     * @param arguments the objects to be formatted and substituted
+     * @param result where text is appended
+     * @return the value passed in as <code>result</code>
+     * @exception IllegalArgumentException if an argument in the
+     *            <code>arguments</code> array is not of the type
+     *            expected by the format element(s) that use it.
+     * @see MessageFormat#format(Object[], StringBuffer, FieldPosition)
+     */
+    public StringBuilder format(Object[] arguments, StringBuilder result) {
+        for (int i = 0; i < argumentNumbers.length; ++i) {
+            result.append(segments[i]);
+            int argumentNumber = argumentNumbers[i];
+            if (arguments == null || argumentNumber >= arguments.length) {
+                result.append('{').append(argumentNumber).append('}');
+                continue;
+            }
+            Object obj = arguments[argumentNumber];
+            Object formatter = formatters[i];
+            if (obj == null) {
+                result.append("null");
+            } else if (formatter instanceof ChoiceFormat) {
+                String arg = ((ChoiceFormat) formatter).format(obj);
+                if (arg.indexOf('{') >= 0) {
+                    nested(arg).format(arguments, result);
+                } else {
+                    result.append(arg);
+                }
+            } else if (formatter != null) {
+                formatWith(formatter, obj, result);
+            } else if (obj instanceof Number) {
+                formatWith(defaultNumberFormatter(), obj, result);
+            } else if (obj instanceof Date) {
+                result.append(((Format) defaultDateFormat().clone()).format(obj));
+            } else if (obj instanceof String) {
+                result.append((String) obj);
+            } else {
+                String arg = obj.toString();
+                result.append((arg == null) ? "null" : arg);
+            }
+        }
+        return result.append(segments[argumentNumbers.length]);
+    }
+
+    private static void formatWith(Object formatter, Object obj,
+                                   StringBuilder result) {
+        if (formatter instanceof CompiledDecimalFormat) {
+            if (!(obj instanceof Number)) {
+                throw new IllegalArgumentException("Cannot format given Object as a Number");
+            }
+            ((CompiledDecimalFormat) formatter).format((Number) obj, result);
+        } else {
+            result.append(((Format) ((Format) formatter).clone()).format(obj));
+        }
+    }
+
+    /**
+     * Returns the template for a choice result containing a pattern.
+     */
+    private CompiledMessageFormat nested(String pattern) {
+        if (locale == null) {
+            return new CompiledMessageFormat(new MessageFormat(pattern, null));
+        }
+        return compile(pattern, locale);
+    }
+
+    private Object defaultNumberFormatter() {
+        Object f = defaultNumberFormatter;
+        if (f == null) {
+            defaultNumberFormatter = f =
+                compileFormat(NumberFormat.getInstance(locale));
+        }
+        return f;
+    }
+
+    private DateFormat defaultDateFormat() {
+        DateFormat f = defaultDateFormat;
+        if (f == null) {
+            defaultDateFormat = f = DateFormat.getDateTimeInstance(
+                DateFormat.SHORT, DateFormat.SHORT, locale);
+        }
+        return f;
+    }
+
+    /**
+     * Returns a string identifying this template.
+     *
+     * @return a string representation of this template
+     */
+    @Override
+    public String toString() {
+        return "CompiledMessageFormat[" + toPattern() + "]";
+    }
+
+    /**
+     * The key of the cache of compiled patterns.
+     */
+    private static final class Key {
+        final String pattern;
+        final Locale locale;
+        final int hash;
+
+        Key(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.hash = pattern.hashCode() * 31 + locale.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return hash == other.hash && pattern.equals(other.pattern)
+                && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
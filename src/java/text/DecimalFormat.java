@@ -2120,6 +2120,22 @@ public class DecimalFormat extends NumberFormat {
     }
     private transient BigDecimal bigDecimalMultiplier;
 
+    /**
+     * Returns true if numbers are formatted in exponential notation.
+     * Used by CompiledDecimalFormat.
+     */
+    boolean usesExponentialNotation() {
+        return useExponentialNotation;
+    }
+
+    /**
+     * Returns true if the pattern contains the currency sign, in which case
+     * the monetary decimal separator is used.  Used by CompiledDecimalFormat.
+     */
+    boolean isCurrencyFormat() {
+        return isCurrencyFormat;
+    }
+
     private static final int STATUS_INFINITE = 0;
     private static final int STATUS_POSITIVE = 1;
     private static final int STATUS_LENGTH   = 2;
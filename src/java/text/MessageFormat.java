@@ -827,6 +827,9 @@ public class MessageFormat extends Format {
      * <blockquote>
      *     <code>(new {@link #MessageFormat(String) MessageFormat}(pattern)).{@link #format(java.lang.Object[], java.lang.StringBuffer, java.text.FieldPosition) format}(arguments, new StringBuffer(), null).toString()</code>
      * </blockquote>
+     * The compiled form of the pattern is cached for the default
+     * {@link java.util.Locale.Category#FORMAT FORMAT} locale, see
+     * {@link CompiledMessageFormat#compile CompiledMessageFormat.compile}.
      *
      * @param pattern   the pattern string
      * @param arguments object(s) to format
@@ -837,7 +840,8 @@ public class MessageFormat extends Format {
      *            that use it.
      */
     public static String format(String pattern, Object ... arguments) {
-        MessageFormat temp = new MessageFormat(pattern);
+        CompiledMessageFormat temp = CompiledMessageFormat.compile(pattern,
+            Locale.getDefault(Locale.Category.FORMAT));
         return temp.format(arguments);
     }
 
@@ -1220,6 +1224,30 @@ public class MessageFormat extends Format {
      */
     private int maxOffset = -1;
 
+    /**
+     * Returns the literal text of the pattern split at the format elements,
+     * one more segment than there are elements.  Used by
+     * CompiledMessageFormat.
+     */
+    String[] getLiteralSegments() {
+        String[] segments = new String[maxOffset + 2];
+        int lastOffset = 0;
+        for (int i = 0; i <= maxOffset; ++i) {
+            segments[i] = pattern.substring(lastOffset, offsets[i]);
+            lastOffset = offsets[i];
+        }
+        segments[maxOffset + 1] = pattern.substring(lastOffset);
+        return segments;
+    }
+
+    /**
+     * Returns the argument numbers of the format elements, in the order
+     * the elements occur in the pattern.  Used by CompiledMessageFormat.
+     */
+    int[] getArgumentNumbers() {
+        return Arrays.copyOf(argumentNumbers, maxOffset + 1);
+    }
+
     /**
      * Internal routine used by format. If <code>characterIterators</code> is
      * non-null, AttributedCharacterIterator will be created from the
@@ -1740,6 +1740,11 @@ public final class DateTimeFormatter {
     public void formatTo(TemporalAccessor temporal, Appendable appendable) {
         Objects.requireNonNull(temporal, "temporal");
         Objects.requireNonNull(appendable, "appendable");
+        int layout = isoLocalLayout();
+        if (layout != IsoLocalFormatter.NONE && appendable instanceof StringBuilder &&
+                IsoLocalFormatter.format(layout, temporal, (StringBuilder) appendable)) {
+            return;
+        }
         try {
             DateTimePrintContext context = new DateTimePrintContext(temporal, this);
             if (appendable instanceof StringBuilder) {
@@ -1755,6 +1760,65 @@ public final class DateTimeFormatter {
         }
     }
 
+    /**
+     * Formats a date-time object to a {@code char} array using this formatter.
+     * <p>
+     * This outputs the formatted date-time to the array starting at the specified offset.
+     * Nothing is written if the formatted text does not fit in the array.
+     * <p>
+     * When this formatter is {@link #ISO_LOCAL_DATE}, {@link #ISO_LOCAL_TIME} or
+     * {@link #ISO_LOCAL_DATE_TIME} and the temporal is a {@code LocalDate}, {@code LocalTime},
+     * {@code LocalDateTime}, {@code OffsetDateTime} or {@code ZonedDateTime}, the text
+     * is written directly to the array.
+     *
+     * @param temporal  the temporal object to format, not null
+     * @param dst  the array to write to, not null
+     * @param offset  the index in the array to write from
+     * @return the index in the array after the last character written
+     * @throws DateTimeException if an error occurs during formatting
+     * @throws IndexOutOfBoundsException if the offset is negative, or if the
+     *  formatted text does not fit in the array
+     * @since 1.8
+     */
+    public int formatTo(TemporalAccessor temporal, char[] dst, int offset) {
+        Objects.requireNonNull(temporal, "temporal");
+        Objects.requireNonNull(dst, "dst");
+        int layout = isoLocalLayout();
+        if (layout != IsoLocalFormatter.NONE) {
+            int end = IsoLocalFormatter.format(layout, temporal, dst, offset);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        String text = format(temporal);
+        int length = text.length();
+        if (offset < 0 || offset > dst.length - length) {
+            throw new IndexOutOfBoundsException("Formatted text of length " + length +
+                    " does not fit at offset " + offset + " in array of length " + dst.length);
+        }
+        text.getChars(0, length, dst, offset);
+        return offset + length;
+    }
+
+    /**
+     * Returns the layout of this formatter if it is one of the ISO local formatters.
+     * <p>
+     * The formatters are immutable, thus identity with the constant implies its layout,
+     * resolver style and chronology.
+     *
+     * @return the layout, {@code IsoLocalFormatter.NONE} if not an ISO local formatter
+     */
+    private int isoLocalLayout() {
+        if (this == ISO_LOCAL_DATE_TIME) {
+            return IsoLocalFormatter.DATE_TIME;
+        } else if (this == ISO_LOCAL_DATE) {
+            return IsoLocalFormatter.DATE;
+        } else if (this == ISO_LOCAL_TIME) {
+            return IsoLocalFormatter.TIME;
+        }
+        return IsoLocalFormatter.NONE;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Fully parses the text producing a temporal object.
@@ -1856,6 +1920,55 @@ public final class DateTimeFormatter {
         }
     }
 
+    /**
+     * Parses the text producing an object of the specified type, providing control
+     * over the text position.
+     * <p>
+     * This parses the text without requiring the parse to start from the beginning
+     * of the string or finish at the end, as {@link #parse(CharSequence, ParsePosition)},
+     * and then queries the resolved result, as {@link #parse(CharSequence, TemporalQuery)}.
+     * For example, a timestamp at the start of a log line can be parsed using:
+     * <pre>
+     *  ParsePosition pos = new ParsePosition(0);
+     *  LocalDateTime dt = DateTimeFormatter.ISO_LOCAL_DATE_TIME.parse(line, pos, LocalDateTime::from);
+     * </pre>
+     * <p>
+     * When this formatter is {@link #ISO_LOCAL_DATE}, {@link #ISO_LOCAL_TIME} or
+     * {@link #ISO_LOCAL_DATE_TIME}, text with a four digit year and two digit fields
+     * is parsed directly to the resolved date and time, without creating the intermediate
+     * parse context or resolving the parsed fields; the query sees the same result as it
+     * would from the general parser.
+     *
+     * @param <T> the type of the parsed date-time
+     * @param text  the text to parse, not null
+     * @param position  the position to parse from, updated with length parsed
+     *  and the index of any error, not null
+     * @param query  the query defining the type to parse to, not null
+     * @return the parsed date-time, not null
+     * @throws DateTimeParseException if unable to parse the requested result
+     * @throws IndexOutOfBoundsException if the position is invalid
+     * @since 1.8
+     */
+    public <T> T parse(CharSequence text, ParsePosition position, TemporalQuery<T> query) {
+        Objects.requireNonNull(text, "text");
+        Objects.requireNonNull(position, "position");
+        Objects.requireNonNull(query, "query");
+        try {
+            int layout = isoLocalLayout();
+            if (layout != IsoLocalFormatter.NONE) {
+                TemporalAccessor parsed = IsoLocalFormatter.parse(layout, text, position);
+                if (parsed != null) {
+                    return parsed.query(query);
+                }
+            }
+            return parseResolved0(text, position).query(query);
+        } catch (DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw createError(text, ex);
+        }
+    }
+
     /**
      * Fully parses the text producing an object of one of the specified types.
      * <p>
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.time.format;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.chrono.IsoChronology;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Direct formatting and parsing for the ISO local formatters.
+ * <p>
+ * The layouts of {@link DateTimeFormatter#ISO_LOCAL_DATE},
+ * {@link DateTimeFormatter#ISO_LOCAL_TIME} and {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}
+ * are fixed, as the formatters are immutable constants.
+ * This class prints the local date-time types in those layouts without a print context,
+ * and parses the common fixed width forms directly into the result without a parse
+ * context or the resolving of parsed fields.
+ * Anything else, including every error, is left to the general implementation.
+ *
+ * @implSpec
+ * This class is immutable and thread-safe.
+ *
+ * @since 1.8
+ */
+final class IsoLocalFormatter {
+
+    /**
+     * The layouts, the date-time layout being both the date and time.
+     */
+    static final int NONE = 0;
+    static final int DATE = 1;
+    static final int TIME = 2;
+    static final int DATE_TIME = DATE | TIME;
+
+    private IsoLocalFormatter() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Formats the temporal to the buffer.
+     *
+     * @param layout  the layout, not NONE
+     * @param temporal  the temporal to format, not null
+     * @param buf  the buffer to append to, not null
+     * @return false if the temporal is not a supported type, nothing having been appended
+     */
+    static boolean format(int layout, TemporalAccessor temporal, StringBuilder buf) {
+        LocalDate date = null;
+        LocalTime time = null;
+        if ((layout & DATE) != 0 && (date = toLocalDate(temporal)) == null) {
+            return false;
+        }
+        if ((layout & TIME) != 0 && (time = toLocalTime(temporal)) == null) {
+            return false;
+        }
+        if (date != null) {
+            int year = date.getYear();
+            if (year >= 10000) {
+                buf.append('+');
+            } else if (year < 0) {
+                buf.append('-');
+            }
+            int absYear = Math.abs(year);
+            for (int i = digits(absYear); i < 4; i++) {
+                buf.append('0');
+            }
+            buf.append(absYear).append('-');
+            appendTwoDigits(buf, date.getMonthValue()).append('-');
+            appendTwoDigits(buf, date.getDayOfMonth());
+        }
+        if (layout == DATE_TIME) {
+            buf.append('T');
+        }
+        if (time != null) {
+            appendTwoDigits(buf, time.getHour()).append(':');
+            appendTwoDigits(buf, time.getMinute()).append(':');
+            appendTwoDigits(buf, time.getSecond());
+            int nano = time.getNano();
+            if (nano != 0) {
+                int width = 9;
+                while (nano % 10 == 0) {
+                    nano /= 10;
+                    width--;
+                }
+                buf.append('.');
+                for (int i = digits(nano); i < width; i++) {
+                    buf.append('0');
+                }
+                buf.append(nano);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formats the temporal to the array.
+     *
+     * @param layout  the layout, not NONE
+     * @param temporal  the temporal to format, not null
+     * @param dst  the array to write to, not null
+     * @param offset  the index to write from
+     * @return the index after the last character written,
+     *  negative if the temporal is not a supported type
+     * @throws IndexOutOfBoundsException if the text does not fit, nothing having been written
+     */
+    static int format(int layout, TemporalAccessor temporal, char[] dst, int offset) {
+        LocalDate date = null;
+        LocalTime time = null;
+        if ((layout & DATE) != 0 && (date = toLocalDate(temporal)) == null) {
+            return -1;
+        }
+        if ((layout & TIME) != 0 && (time = toLocalTime(temporal)) == null) {
+            return -1;
+        }
+        int year = 0;
+        int yearWidth = 0;
+        int nano = 0;
+        int nanoWidth = 0;
+        int length = 0;
+        if (date != null) {
+            year = date.getYear();
+            yearWidth = Math.max(digits(Math.abs(year)), 4);
+            length += (year >= 10000 || year < 0 ? 1 : 0) + yearWidth + 6;
+        }
+        if (layout == DATE_TIME) {
+            length++;
+        }
+        if (time != null) {
+            length += 8;
+            nano = time.getNano();
+            if (nano != 0) {
+                nanoWidth = 9;
+                while (nano % 10 == 0) {
+                    nano /= 10;
+                    nanoWidth--;
+                }
+                length += 1 + nanoWidth;
+            }
+        }
+        if (offset < 0 || offset > dst.length - length) {
+            throw new IndexOutOfBoundsException("Formatted text of length " + length +
+                    " does not fit at offset " + offset + " in array of length " + dst.length);
+        }
+        int pos = offset;
+        if (date != null) {
+            if (year >= 10000) {
+                dst[pos++] = '+';
+            } else if (year < 0) {
+                dst[pos++] = '-';
+            }
+            pos = putDigits(dst, pos, Math.abs(year), yearWidth);
+            dst[pos++] = '-';
+            pos = putDigits(dst, pos, date.getMonthValue(), 2);
+            dst[pos++] = '-';
+            pos = putDigits(dst, pos, date.getDayOfMonth(), 2);
+        }
+        if (layout == DATE_TIME) {
+            dst[pos++] = 'T';
+        }
+        if (time != null) {
+            pos = putDigits(dst, pos, time.getHour(), 2);
+            dst[pos++] = ':';
+            pos = putDigits(dst, pos, time.getMinute(), 2);
+            dst[pos++] = ':';
+            pos = putDigits(dst, pos, time.getSecond(), 2);
+            if (nanoWidth > 0) {
+                dst[pos++] = '.';
+                pos = putDigits(dst, pos, nano, nanoWidth);
+            }
+        }
+        return pos;
+    }
+
+    private static LocalDate toLocalDate(TemporalAccessor temporal) {
+        if (temporal instanceof LocalDate) {
+            return (LocalDate) temporal;
+        } else if (temporal instanceof LocalDateTime) {
+            return ((LocalDateTime) temporal).toLocalDate();
+        } else if (temporal instanceof ZonedDateTime) {
+            return ((ZonedDateTime) temporal).toLocalDate();
+        } else if (temporal instanceof OffsetDateTime) {
+            return ((OffsetDateTime) temporal).toLocalDate();
+        }
+        return null;
+    }
+
+    private static LocalTime toLocalTime(TemporalAccessor temporal) {
+        if (temporal instanceof LocalTime) {
+            return (LocalTime) temporal;
+        } else if (temporal instanceof LocalDateTime) {
+            return ((LocalDateTime) temporal).toLocalTime();
+        } else if (temporal instanceof ZonedDateTime) {
+            return ((ZonedDateTime) temporal).toLocalTime();
+        } else if (temporal instanceof OffsetDateTime) {
+            return ((OffsetDateTime) temporal).toLocalTime();
+        }
+        return null;
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder buf, int value) {
+        return buf.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Writes the non-negative value padded with zeros to the width.
+     */
+    private static int putDigits(char[] dst, int pos, int value, int width) {
+        int end = pos + width;
+        for (int i = end - 1; i >= pos; i--) {
+            dst[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static int digits(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Parses the text from the position.
+     * <p>
+     * Only a four digit year, and a time with a two digit hour, minute and second if present,
+     * is handled; other text, invalid values and errors are left to the general parser.
+     * The result is resolved to the same date and time as by the general parser, so that
+     * it answers every query in the same way.
+     *
+     * @param layout  the layout, not NONE
+     * @param text  the text to parse, not null
+     * @param position  the position to parse from, updated with the index at the end
+     *  of parsing on success, not null
+     * @return the resolved result, null if the general parser must be used
+     */
+    static TemporalAccessor parse(int layout, CharSequence text, ParsePosition position) {
+        int pos = position.getIndex();
+        int length = text.length();
+        if (pos < 0 || pos > length) {
+            return null;
+        }
+        LocalDate date = null;
+        if ((layout & DATE) != 0) {
+            if (length - pos < 10 || text.charAt(pos + 4) != '-' || text.charAt(pos + 7) != '-') {
+                return null;
+            }
+            int high = twoDigits(text, pos);
+            int low = twoDigits(text, pos + 2);
+            int month = twoDigits(text, pos + 5);
+            int day = twoDigits(text, pos + 8);
+            if (high < 0 || low < 0 || month < 1 || month > 12 || day < 1) {
+                return null;
+            }
+            int year = high * 100 + low;
+            if (day > 28 && day > Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year))) {
+                return null;
+            }
+            date = LocalDate.of(year, month, day);
+            pos += 10;
+            if (layout == DATE) {
+                position.setIndex(pos);
+                return Parsed.ofResolved(date, null);
+            }
+            if (pos == length || (text.charAt(pos) != 'T' && text.charAt(pos) != 't')) {
+                return null;
+            }
+            pos++;
+        }
+        if (length - pos < 5 || text.charAt(pos + 2) != ':') {
+            return null;
+        }
+        int hour = twoDigits(text, pos);
+        int minute = twoDigits(text, pos + 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        pos += 5;
+        int second = 0;
+        int nano = 0;
+        if (pos < length && text.charAt(pos) == ':') {
+            second = (length - pos < 3 ? -1 : twoDigits(text, pos + 1));
+            if (second < 0 || second > 59) {
+                return null;
+            }
+            pos += 3;
+            if (pos < length && text.charAt(pos) == '.') {
+                pos++;
+                int end = Math.min(pos + 9, length);
+                int scale = 9;
+                while (pos < end) {
+                    char ch = text.charAt(pos);
+                    if (ch < '0' || ch > '9') {
+                        break;
+                    }
+                    nano = nano * 10 + (ch - '0');
+                    scale--;
+                    pos++;
+                }
+                while (scale-- > 0) {
+                    nano *= 10;
+                }
+            }
+        }
+        position.setIndex(pos);
+        return Parsed.ofResolved(date, LocalTime.of(hour, minute, second, nano));
+    }
+
+    /**
+     * Returns the value of the two ASCII digits at the index, negative if not digits.
+     */
+    private static int twoDigits(CharSequence text, int index) {
+        int tens = text.charAt(index) - '0';
+        int units = text.charAt(index + 1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+            return -1;
+        }
+        return tens * 10 + units;
+    }
+
+}
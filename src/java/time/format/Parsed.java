@@ -90,6 +90,7 @@ import java.time.chrono.ChronoLocalDate;
 import java.time.chrono.ChronoLocalDateTime;
 import java.time.chrono.ChronoZonedDateTime;
 import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalField;
@@ -162,6 +163,23 @@ final class Parsed implements TemporalAccessor {
     Parsed() {
     }
 
+    /**
+     * Creates an instance already resolved to an ISO date and time,
+     * as the resolving of the fields of the ISO local formatters produces.
+     *
+     * @param date  the resolved date, null if none
+     * @param time  the resolved time, null if none
+     * @return the resolved instance, not null
+     */
+    static Parsed ofResolved(LocalDate date, LocalTime time) {
+        Parsed parsed = new Parsed();
+        parsed.chrono = IsoChronology.INSTANCE;
+        parsed.resolverStyle = ResolverStyle.STRICT;
+        parsed.date = date;
+        parsed.time = time;
+        return parsed;
+    }
+
     /**
      * Creates a copy.
      */
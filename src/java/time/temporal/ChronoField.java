@@ -71,7 +71,10 @@ import static java.time.temporal.ChronoUnit.WEEKS;
 import static java.time.temporal.ChronoUnit.YEARS;
 
 import java.time.DayOfWeek;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
 import java.time.Year;
 import java.time.ZoneOffset;
 import java.time.chrono.ChronoLocalDate;
@@ -744,6 +747,213 @@ public enum ChronoField implements TemporalField {
         return (R) temporal.with(this, newValue);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the value of this field from each of an array of epoch-days.
+     * <p>
+     * This obtains, for each element, the value of this field in the ISO date
+     * with the epoch-day, as {@code LocalDate.ofEpochDay(epochDay).get(this)} would,
+     * without creating the dates.
+     * The {@code length} values starting at {@code srcPos} are read and the results
+     * written starting at {@code dstPos}.
+     * <p>
+     * Only date-based fields with values that fit in an {@code int} are supported.
+     *
+     * @param epochDays  the epoch-days, not null
+     * @param srcPos  the index of the first epoch-day
+     * @param dst  the array to write the values to, not null
+     * @param dstPos  the index to write the first value to
+     * @param length  the number of values
+     * @throws UnsupportedTemporalTypeException if the field is not supported
+     * @throws DateTimeException if an epoch-day is outside the range of {@code LocalDate}
+     * @throws IndexOutOfBoundsException if a range is outside its array
+     * @since 1.8
+     */
+    public void getFromEpochDays(long[] epochDays, int srcPos, int[] dst, int dstPos, int length) {
+        checkBulkRange(epochDays.length, srcPos, dst.length, dstPos, length);
+        if (isDateBased() == false) {
+            throw new UnsupportedTemporalTypeException("Unsupported field: " + this);
+        }
+        checkBulkIntValues();
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = getFromEpochDay(epochDays[srcPos + i]);
+        }
+    }
+
+    /**
+     * Gets the value of this field from each of an array of local epoch-seconds.
+     * <p>
+     * This obtains, for each element, the value of this field in the ISO date-time
+     * with the epoch-second, as {@code LocalDateTime.ofEpochSecond(epochSecond, 0,
+     * ZoneOffset.UTC).get(this)} would, without creating the date-times.
+     * Instants are converted to local epoch-seconds in a time-zone by
+     * {@link java.time.zone.ZoneRules#toLocalEpochSeconds ZoneRules.toLocalEpochSeconds}.
+     * The {@code length} values starting at {@code srcPos} are read and the results
+     * written starting at {@code dstPos}.
+     * <p>
+     * Only date-based and time-based fields with values that fit in an {@code int}
+     * are supported.
+     *
+     * @param epochSeconds  the local epoch-seconds, not null
+     * @param srcPos  the index of the first epoch-second
+     * @param dst  the array to write the values to, not null
+     * @param dstPos  the index to write the first value to
+     * @param length  the number of values
+     * @throws UnsupportedTemporalTypeException if the field is not supported
+     * @throws DateTimeException if an epoch-second is outside the range of {@code LocalDateTime}
+     * @throws IndexOutOfBoundsException if a range is outside its array
+     * @since 1.8
+     */
+    public void getFromEpochSeconds(long[] epochSeconds, int srcPos, int[] dst, int dstPos, int length) {
+        checkBulkRange(epochSeconds.length, srcPos, dst.length, dstPos, length);
+        if (isDateBased() == false && isTimeBased() == false) {
+            throw new UnsupportedTemporalTypeException("Unsupported field: " + this);
+        }
+        checkBulkIntValues();
+        boolean timeBased = isTimeBased();
+        for (int i = 0; i < length; i++) {
+            long epochSecond = epochSeconds[srcPos + i];
+            long epochDay = checkEpochSecond(epochSecond);
+            if (timeBased) {
+                dst[dstPos + i] = getFromSecondOfDay((int) Math.floorMod(epochSecond, SECONDS_PER_DAY));
+            } else {
+                dst[dstPos + i] = getFromEpochDay(epochDay);
+            }
+        }
+    }
+
+    /**
+     * Checks that the values of this field fit in an {@code int}.
+     */
+    private void checkBulkIntValues() {
+        if (range().isIntValue() == false) {
+            throw new UnsupportedTemporalTypeException("Invalid field '" + this + "' for int values");
+        }
+    }
+
+    /**
+     * Checks that the local epoch-second is within the range of {@code LocalDateTime}.
+     *
+     * @param epochSecond  the local epoch-second to check
+     * @return the epoch-day of the epoch-second
+     * @throws DateTimeException if the epoch-second is out of range
+     */
+    static long checkEpochSecond(long epochSecond) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            LocalDate.ofEpochDay(epochDay);  // throws the exception of LocalDate
+        }
+        return epochDay;
+    }
+
+    /**
+     * Checks that the ranges of a bulk operation are within the arrays.
+     */
+    static void checkBulkRange(int srcLength, int srcPos, int dstLength, int dstPos, int length) {
+        if (srcPos < 0 || dstPos < 0 || length < 0 ||
+                srcPos > srcLength - length || dstPos > dstLength - length) {
+            throw new IndexOutOfBoundsException("Range [" + srcPos + ", " + srcPos + " + " + length +
+                    ") of array of length " + srcLength + " to [" + dstPos + ", " + dstPos + " + " +
+                    length + ") of array of length " + dstLength + " is out of bounds");
+        }
+    }
+
+    /**
+     * The number of seconds per day.
+     */
+    private static final long SECONDS_PER_DAY = 86400;
+    /**
+     * The epoch-days of the minimum and maximum {@code LocalDate}.
+     */
+    private static final long MIN_EPOCH_DAY = -365243219162L;
+    private static final long MAX_EPOCH_DAY = 365241780471L;
+    /**
+     * The number of days in a 400 year cycle.
+     */
+    private static final int DAYS_PER_CYCLE = 146097;
+    /**
+     * The number of days from year zero to year 1970.
+     */
+    private static final long DAYS_0000_TO_1970 = (DAYS_PER_CYCLE * 5L) - (30L * 365L + 7L);
+
+    /**
+     * Gets the value of this time-based field at the second-of-day.
+     */
+    private int getFromSecondOfDay(int secondOfDay) {
+        switch (this) {
+            case NANO_OF_SECOND:
+            case MICRO_OF_SECOND:
+            case MILLI_OF_SECOND: return 0;
+            case MILLI_OF_DAY: return secondOfDay * 1000;
+            case SECOND_OF_MINUTE: return secondOfDay % 60;
+            case SECOND_OF_DAY: return secondOfDay;
+            case MINUTE_OF_HOUR: return (secondOfDay / 60) % 60;
+            case MINUTE_OF_DAY: return secondOfDay / 60;
+            case HOUR_OF_AMPM: return (secondOfDay / 3600) % 12;
+            case CLOCK_HOUR_OF_AMPM: int ham = (secondOfDay / 3600) % 12; return (ham == 0 ? 12 : ham);
+            case HOUR_OF_DAY: return secondOfDay / 3600;
+            case CLOCK_HOUR_OF_DAY: int hour = secondOfDay / 3600; return (hour == 0 ? 24 : hour);
+            case AMPM_OF_DAY: return secondOfDay / (12 * 3600);
+        }
+        throw new UnsupportedTemporalTypeException("Unsupported field: " + this);
+    }
+
+    /**
+     * Gets the value of this date-based field at the epoch-day.
+     * <p>
+     * The date is calculated as {@code LocalDate.ofEpochDay}.
+     */
+    private int getFromEpochDay(long epochDay) {
+        if (this == DAY_OF_WEEK && epochDay >= MIN_EPOCH_DAY && epochDay <= MAX_EPOCH_DAY) {
+            return (int) Math.floorMod(epochDay + 3, 7) + 1;
+        }
+        EPOCH_DAY.checkValidValue(epochDay);  // avoid overflow in the calculation
+        long zeroDay = epochDay + DAYS_0000_TO_1970;
+        // find the march-based year
+        zeroDay -= 60;  // adjust to 0000-03-01 so leap day is at end of four year cycle
+        long adjust = 0;
+        if (zeroDay < 0) {
+            // adjust negative years to positive for calculation
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            // fix estimate
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;  // reset any negative year
+        int marchDoy0 = (int) doyEst;
+
+        // convert march-based values back to january-based
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        int month = (marchMonth0 + 2) % 12 + 1;
+        int dom = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        yearEst += marchMonth0 / 10;
+
+        // check year now we are certain it is correct
+        int year = YEAR.checkValidIntValue(yearEst);
+        switch (this) {
+            case DAY_OF_MONTH: return dom;
+            case MONTH_OF_YEAR: return month;
+            case YEAR: return year;
+            case YEAR_OF_ERA: return (year >= 1 ? year : 1 - year);
+            case ERA: return (year >= 1 ? 1 : 0);
+            case ALIGNED_DAY_OF_WEEK_IN_MONTH: return ((dom - 1) % 7) + 1;
+            case ALIGNED_WEEK_OF_MONTH: return ((dom - 1) / 7) + 1;
+        }
+        int doy = Month.of(month).firstDayOfYear(Year.isLeap(year)) + dom - 1;
+        switch (this) {
+            case DAY_OF_YEAR: return doy;
+            case ALIGNED_DAY_OF_WEEK_IN_YEAR: return ((doy - 1) % 7) + 1;
+            case ALIGNED_WEEK_OF_YEAR: return ((doy - 1) / 7) + 1;
+        }
+        throw new UnsupportedTemporalTypeException("Unsupported field: " + this);
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public String toString() {
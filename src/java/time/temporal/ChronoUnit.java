@@ -56,6 +56,7 @@
  */
 package java.time.temporal;
 
+import java.time.DateTimeException;
 import java.time.Duration;
 
 /**
@@ -266,6 +267,48 @@ public enum ChronoUnit implements TemporalUnit {
         return (R) temporal.plus(amount, this);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Truncates each of an array of local epoch-seconds to this unit.
+     * <p>
+     * This obtains, for each element, the epoch-second of the ISO date-time with the
+     * epoch-second truncated to this unit, as {@code LocalDateTime.ofEpochSecond(epochSecond,
+     * 0, ZoneOffset.UTC).truncatedTo(this).toEpochSecond(ZoneOffset.UTC)} would,
+     * without creating the date-times.
+     * Units smaller than seconds leave the values unchanged.
+     * <p>
+     * The {@code length} values starting at {@code srcPos} are read and the results
+     * written starting at {@code dstPos}. The arrays may be the same array.
+     *
+     * @param epochSeconds  the local epoch-seconds, not null
+     * @param srcPos  the index of the first epoch-second
+     * @param dst  the array to write the truncated epoch-seconds to, not null
+     * @param dstPos  the index to write the first truncated epoch-second to
+     * @param length  the number of values
+     * @throws UnsupportedTemporalTypeException if the unit is longer than a day
+     *  or does not divide a day without remainder
+     * @throws DateTimeException if an epoch-second is outside the range of {@code LocalDateTime}
+     * @throws IndexOutOfBoundsException if a range is outside its array
+     * @since 1.8
+     */
+    public void truncateEpochSeconds(long[] epochSeconds, int srcPos, long[] dst, int dstPos, int length) {
+        ChronoField.checkBulkRange(epochSeconds.length, srcPos, dst.length, dstPos, length);
+        if (this.compareTo(DAYS) > 0) {
+            throw new UnsupportedTemporalTypeException("Unit is too large to be used for truncation");
+        }
+        long unitSeconds = duration.getSeconds();
+        if (unitSeconds == 0) {
+            unitSeconds = 1;  // smaller units leave the epoch-seconds unchanged
+        } else if (duration.getNano() != 0 || 86400 % unitSeconds != 0) {
+            throw new UnsupportedTemporalTypeException("Unit must divide into a standard day without remainder");
+        }
+        for (int i = 0; i < length; i++) {
+            long epochSecond = epochSeconds[srcPos + i];
+            ChronoField.checkEpochSecond(epochSecond);
+            dst[dstPos + i] = epochSecond - Math.floorMod(epochSecond, unitSeconds);
+        }
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public long between(Temporal temporal1Inclusive, Temporal temporal2Exclusive) {
@@ -67,6 +67,9 @@ import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -117,6 +120,19 @@ public final class ZoneRules implements Serializable {
      * The last year to have its transitions cached.
      */
     private static final int LAST_CACHED_YEAR = 2100;
+    /**
+     * The last year to have its transitions in the transition index, set by the
+     * system property {@code java.time.zone.transitionIndexEndYear}.
+     */
+    private static final int INDEX_END_YEAR;
+    static {
+        Integer year = AccessController.doPrivileged(new PrivilegedAction<Integer>() {
+            public Integer run() {
+                return Integer.getInteger("java.time.zone.transitionIndexEndYear", LAST_CACHED_YEAR);
+            }
+        });
+        INDEX_END_YEAR = Math.min(year, 9999);
+    }
 
     /**
      * The transitions between standard offsets (epoch seconds), sorted.
@@ -149,6 +165,10 @@ public final class ZoneRules implements Serializable {
      */
     private final transient ConcurrentMap<Integer, ZoneOffsetTransition[]> lastRulesCache =
                 new ConcurrentHashMap<Integer, ZoneOffsetTransition[]>();
+    /**
+     * The index of transitions up to {@code INDEX_END_YEAR}, created when first needed.
+     */
+    private transient volatile TransitionIndex transitionIndex;
     /**
      * The zero-length long array.
      */
@@ -162,6 +182,15 @@ public final class ZoneRules implements Serializable {
      * The zero-length ldt array.
      */
     private static final LocalDateTime[] EMPTY_LDT_ARRAY = new LocalDateTime[0];
+    /**
+     * The number of seconds per day.
+     */
+    private static final int SECONDS_PER_DAY = 86400;
+    /**
+     * The epoch-seconds of the minimum and maximum {@code Instant}.
+     */
+    private static final long MIN_INSTANT_SECOND = -31557014167219200L;
+    private static final long MAX_INSTANT_SECOND = 31556889864403199L;
 
     /**
      * Obtains an instance of a ZoneRules.
@@ -480,7 +509,94 @@ public final class ZoneRules implements Serializable {
         if (savingsInstantTransitions.length == 0) {
             return standardOffsets[0];
         }
-        long epochSec = instant.getEpochSecond();
+        return getOffset(instant.getEpochSecond());
+    }
+
+    /**
+     * Converts each of an array of instants, expressed as epoch-seconds,
+     * to the local epoch-second in these rules.
+     * <p>
+     * The local epoch-second is the epoch-second plus the offset applicable at
+     * the instant, as {@code LocalDateTime.ofInstant(instant, zone).toEpochSecond(ZoneOffset.UTC)}
+     * would calculate, without creating any objects.
+     * The result can be passed to {@link java.time.temporal.ChronoField#getFromEpochSeconds
+     * ChronoField.getFromEpochSeconds} to obtain local field values.
+     * <p>
+     * The {@code length} values starting at {@code srcPos} are read and the results
+     * written starting at {@code dstPos}. The arrays may be the same array.
+     *
+     * @param epochSeconds  the instants as epoch-seconds, not null
+     * @param srcPos  the index of the first epoch-second
+     * @param dst  the array to write the local epoch-seconds to, not null
+     * @param dstPos  the index to write the first local epoch-second to
+     * @param length  the number of values
+     * @throws DateTimeException if an epoch-second is outside the range of {@code Instant}
+     * @throws IndexOutOfBoundsException if a range is outside its array
+     * @since 1.8
+     */
+    public void toLocalEpochSeconds(long[] epochSeconds, int srcPos, long[] dst, int dstPos, int length) {
+        toLocal(epochSeconds, srcPos, dst, dstPos, length, 1);
+    }
+
+    /**
+     * Converts each of an array of instants, expressed as epoch-seconds,
+     * to the local epoch-day in these rules.
+     * <p>
+     * The local epoch-day is the epoch-day of the local date at the instant, as
+     * {@code LocalDate.from(instant.atZone(zone)).toEpochDay()} would calculate,
+     * without creating any objects.
+     * This is the natural key for bucketing instants by local day.
+     * <p>
+     * The {@code length} values starting at {@code srcPos} are read and the results
+     * written starting at {@code dstPos}. The arrays may be the same array.
+     *
+     * @param epochSeconds  the instants as epoch-seconds, not null
+     * @param srcPos  the index of the first epoch-second
+     * @param dst  the array to write the local epoch-days to, not null
+     * @param dstPos  the index to write the first local epoch-day to
+     * @param length  the number of values
+     * @throws DateTimeException if an epoch-second is outside the range of {@code Instant}
+     * @throws IndexOutOfBoundsException if a range is outside its array
+     * @since 1.8
+     */
+    public void toLocalEpochDays(long[] epochSeconds, int srcPos, long[] dst, int dstPos, int length) {
+        toLocal(epochSeconds, srcPos, dst, dstPos, length, SECONDS_PER_DAY);
+    }
+
+    /**
+     * Converts the epoch-seconds to local epoch-seconds divided by the unit.
+     */
+    private void toLocal(long[] epochSeconds, int srcPos, long[] dst, int dstPos, int length, int unitSeconds) {
+        if (srcPos < 0 || dstPos < 0 || length < 0 ||
+                srcPos > epochSeconds.length - length || dstPos > dst.length - length) {
+            throw new IndexOutOfBoundsException("Range [" + srcPos + ", " + srcPos + " + " + length +
+                    ") of array of length " + epochSeconds.length + " to [" + dstPos + ", " + dstPos +
+                    " + " + length + ") of array of length " + dst.length + " is out of bounds");
+        }
+        boolean fixed = (savingsInstantTransitions.length == 0);
+        int fixedOffset = standardOffsets[0].getTotalSeconds();
+        for (int i = 0; i < length; i++) {
+            long epochSec = epochSeconds[srcPos + i];
+            if (epochSec < MIN_INSTANT_SECOND || epochSec > MAX_INSTANT_SECOND) {
+                throw new DateTimeException("Instant exceeds minimum or maximum instant");
+            }
+            long localSec = epochSec + (fixed ? fixedOffset : getOffset(epochSec).getTotalSeconds());
+            dst[dstPos + i] = (unitSeconds == 1 ? localSec : Math.floorDiv(localSec, unitSeconds));
+        }
+    }
+
+    /**
+     * Gets the offset applicable at the epoch-second, only called when
+     * there are savings transitions.
+     *
+     * @param epochSec  the epoch-second
+     * @return the offset, not null
+     */
+    private ZoneOffset getOffset(long epochSec) {
+        TransitionIndex transIndex = getTransitionIndex();
+        if (epochSec < transIndex.instantEnd) {
+            return transIndex.getOffset(epochSec);
+        }
         // check if using last rules
         if (lastRules.length > 0 &&
                 epochSec > savingsInstantTransitions[savingsInstantTransitions.length - 1]) {
@@ -635,6 +751,11 @@ public final class ZoneRules implements Serializable {
         if (savingsInstantTransitions.length == 0) {
             return standardOffsets[0];
         }
+        TransitionIndex transIndex = getTransitionIndex();
+        long localSec = dt.toEpochSecond(ZoneOffset.UTC);
+        if (localSec < transIndex.localEnd) {
+            return transIndex.getOffsetInfo(localSec);
+        }
         // check if using last rules
         if (lastRules.length > 0 &&
                 dt.isAfter(savingsLocalTransitions[savingsLocalTransitions.length - 1])) {
@@ -735,6 +856,23 @@ public final class ZoneRules implements Serializable {
         return transArray;
     }
 
+    /**
+     * Gets the transition index, creating it if necessary.
+     * <p>
+     * Only called when there are savings transitions.
+     * Instances created concurrently are equivalent, thus the race is benign.
+     *
+     * @return the transition index, not null
+     */
+    private TransitionIndex getTransitionIndex() {
+        TransitionIndex index = transitionIndex;
+        if (index == null) {
+            index = new TransitionIndex(this);
+            transitionIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Gets the standard offset for the specified instant in this zone.
      * <p>
@@ -1025,4 +1163,162 @@ public final class ZoneRules implements Serializable {
         return "ZoneRules[currentStandardOffset=" + standardOffsets[standardOffsets.length - 1] + "]";
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * A primitive index of the transitions of the rules up to {@code INDEX_END_YEAR}.
+     * <p>
+     * The historic transitions are followed by those created from the last rules,
+     * so that instants and local date-times up to the end year are found by a
+     * binary search of {@code long} epoch seconds, without creating transitions or
+     * boxing years. The interval found by the previous lookup is tried first,
+     * which makes lookups of increasing times constant time.
+     */
+    private static final class TransitionIndex {
+        /**
+         * The transitions (epoch seconds), sorted.
+         */
+        private final long[] instants;
+        /**
+         * The wall offsets, one more than the transitions.
+         */
+        private final ZoneOffset[] offsets;
+        /**
+         * The transitions as local epoch seconds, paired as {@code savingsLocalTransitions}.
+         */
+        private final long[] locals;
+        /**
+         * The epoch second up to which, exclusive, instants are handled.
+         */
+        final long instantEnd;
+        /**
+         * The local epoch second up to which, exclusive, local date-times are handled.
+         */
+        final long localEnd;
+        /**
+         * The interval found by the last instant lookup, the number of transitions
+         * not after the instant. Racy, as any value is checked before use.
+         */
+        private int instantHint;
+        /**
+         * The index found by the last local lookup, racy.
+         */
+        private int localHint = -1;
+
+        TransitionIndex(ZoneRules rules) {
+            long[] savings = rules.savingsInstantTransitions;
+            ZoneOffset[] wallOffsets = rules.wallOffsets;
+            int historic = savings.length;
+            List<ZoneOffsetTransition> ruleTransitions = new ArrayList<>();
+            long instantEnd = Long.MAX_VALUE;
+            long localEnd = Long.MAX_VALUE;
+            if (rules.lastRules.length > 0) {
+                long lastSec = savings[historic - 1];
+                long lastLocal = rules.savingsLocalTransitions[2 * historic - 1].toEpochSecond(ZoneOffset.UTC);
+                ZoneOffset lastOffset = wallOffsets[historic];
+                int startYear = rules.findYear(lastSec, lastOffset);
+                int endYear = Math.max(INDEX_END_YEAR, startYear);
+                instantEnd = lastSec + 1;
+                localEnd = lastLocal + 1;
+                years:
+                for (int year = startYear; year <= endYear + 1; year++) {
+                    for (ZoneOffsetTransition trans : rules.findTransitionArray(year)) {
+                        long sec = trans.toEpochSecond();
+                        if (sec <= lastSec) {
+                            continue;
+                        }
+                        LocalDateTime before = trans.getDateTimeBefore();
+                        LocalDateTime after = trans.getDateTimeAfter();
+                        long lo = (trans.isGap() ? before : after).toEpochSecond(ZoneOffset.UTC);
+                        long hi = (trans.isGap() ? after : before).toEpochSecond(ZoneOffset.UTC);
+                        if (year > endYear || lo < lastLocal ||
+                                !trans.getOffsetBefore().equals(lastOffset)) {
+                            // end of the window, or not consistent with a single sequence
+                            instantEnd = sec;
+                            localEnd = Math.min(lo, LocalDate.of(year, 1, 1).toEpochDay() * 86400);
+                            break years;
+                        }
+                        ruleTransitions.add(trans);
+                        lastSec = sec;
+                        lastLocal = hi;
+                        lastOffset = trans.getOffsetAfter();
+                        instantEnd = lastSec + 1;
+                        localEnd = lastLocal + 1;
+                    }
+                }
+            }
+            int count = historic + ruleTransitions.size();
+            instants = Arrays.copyOf(savings, count);
+            offsets = Arrays.copyOf(wallOffsets, count + 1);
+            locals = new long[2 * count];
+            for (int i = 0; i < 2 * historic; i++) {
+                locals[i] = rules.savingsLocalTransitions[i].toEpochSecond(ZoneOffset.UTC);
+            }
+            for (int i = historic; i < count; i++) {
+                ZoneOffsetTransition trans = ruleTransitions.get(i - historic);
+                instants[i] = trans.toEpochSecond();
+                offsets[i + 1] = trans.getOffsetAfter();
+                LocalDateTime before = trans.getDateTimeBefore();
+                LocalDateTime after = trans.getDateTimeAfter();
+                locals[2 * i] = (trans.isGap() ? before : after).toEpochSecond(ZoneOffset.UTC);
+                locals[2 * i + 1] = (trans.isGap() ? after : before).toEpochSecond(ZoneOffset.UTC);
+            }
+            this.instantEnd = instantEnd;
+            this.localEnd = localEnd;
+        }
+
+        /**
+         * Gets the offset at the epoch second, which is before {@code instantEnd}.
+         */
+        ZoneOffset getOffset(long epochSec) {
+            long[] instants = this.instants;
+            int n = instants.length;
+            int hint = instantHint;
+            if ((hint == 0 || instants[hint - 1] <= epochSec) && (hint == n || epochSec < instants[hint])) {
+                return offsets[hint];
+            }
+            if (hint < n && instants[hint] <= epochSec && (hint + 1 == n || epochSec < instants[hint + 1])) {
+                hint++;
+            } else {
+                hint = Arrays.binarySearch(instants, epochSec);
+                hint = (hint < 0 ? -hint - 1 : hint + 1);
+            }
+            instantHint = hint;
+            return offsets[hint];
+        }
+
+        /**
+         * Gets the offset info at the local epoch second, which is before {@code localEnd},
+         * as {@code getOffsetInfo} for the historic rules.
+         */
+        Object getOffsetInfo(long localSec) {
+            long[] locals = this.locals;
+            int index = localHint;
+            if (index < -1 || index >= locals.length ||
+                    (index >= 0 && locals[index] > localSec) ||
+                    (index + 1 < locals.length && localSec >= locals[index + 1])) {
+                index = Arrays.binarySearch(locals, localSec);
+                if (index < 0) {
+                    // switch negative insert position to start of matched range
+                    index = -index - 2;
+                }
+                while (index + 1 < locals.length && locals[index + 1] == localSec) {
+                    // handle overlap immediately following gap
+                    index++;
+                }
+                localHint = index;
+            }
+            if (index == -1) {
+                // before first transition
+                return offsets[0];
+            }
+            if ((index & 1) == 0) {
+                // gap or overlap
+                int i = index / 2;
+                return new ZoneOffsetTransition(instants[i], offsets[i], offsets[i + 1]);
+            }
+            // normal (neither gap or overlap)
+            return offsets[index / 2 + 1];
+        }
+    }
+
 }
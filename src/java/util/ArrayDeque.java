@@ -36,6 +36,7 @@ package java.util;
 
 import java.io.Serializable;
 import java.util.function.Consumer;
+import sun.misc.SharedSecrets;
 
 /**
  * Resizable-array implementation of the {@link Deque} interface.  Array
@@ -879,6 +880,7 @@ public class ArrayDeque<E> extends AbstractCollection<E>
 
         // Read in size and allocate array
         int size = s.readInt();
+        SharedSecrets.getJavaOISAccess().checkArray(s, Object[].class, size);
         allocateElements(size);
         head = 0;
         tail = size;
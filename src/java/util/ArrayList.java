@@ -3,6 +3,7 @@ package java.util;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import sun.misc.SharedSecrets;
 
 /**
  * 1、ArrayList是可以动态增长和缩减的索引序列，它是基于数组实现的List类。
@@ -655,6 +656,7 @@ public class ArrayList<E> extends AbstractList<E>
 
         if (size > 0) {
             // 从输入流中将“所有的元素值”读出
+            SharedSecrets.getJavaOISAccess().checkArray(s, Object[].class, size);
             ensureCapacityInternal(size);
 
             Object[] a = elementData;
@@ -25,11 +25,17 @@
 
 package java.util;
 
+import java.io.BufferedInputStream;
 import java.io.FilterOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -227,6 +233,22 @@ public class Base64 {
             '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '_'
         };
 
+        /**
+         * Lookup tables that translate 12-bit positive integer index values
+         * into the two characters of the "Base64 Alphabet", and of the "URL
+         * and Filename safe Base64 Alphabet", that encode them, the first in
+         * the high byte, so that a 3-byte group is encoded with two lookups.
+         */
+        private static final char[] toBase64Pairs = pairs(toBase64);
+        private static final char[] toBase64URLPairs = pairs(toBase64URL);
+
+        private static char[] pairs(char[] base64) {
+            char[] pairs = new char[1 << 12];
+            for (int i = 0; i < pairs.length; i++)
+                pairs[i] = (char)(base64[i >> 6] << 8 | base64[i & 0x3f]);
+            return pairs;
+        }
+
         private static final int MIMELINEMAX = 76;
         private static final byte[] CRLF = new byte[] {'\r', '\n'};
 
@@ -260,7 +282,7 @@ public class Base64 {
         public byte[] encode(byte[] src) {
             int len = outLength(src.length);          // dst array size
             byte[] dst = new byte[len];
-            int ret = encode0(src, 0, src.length, dst);
+            int ret = encode0(src, 0, src.length, dst, 0);
             if (ret != dst.length)
                  return Arrays.copyOf(dst, ret);
             return dst;
@@ -290,7 +312,109 @@ public class Base64 {
             if (dst.length < len)
                 throw new IllegalArgumentException(
                     "Output byte array is too small for encoding all input bytes");
-            return encode0(src, 0, src.length, dst);
+            return encode0(src, 0, src.length, dst, 0);
+        }
+
+        /**
+         * Returns the number of bytes that encoding the specified number of
+         * bytes with this encoder results in.
+         *
+         * @param   len
+         *          the number of bytes to encode
+         * @return  The length of the encoded bytes
+         *
+         * @throws  IllegalArgumentException if {@code len} is negative
+         * @since   1.8
+         */
+        public int encodedLength(int len) {
+            if (len < 0)
+                throw new IllegalArgumentException("len < 0");
+            return outLength(len);
+        }
+
+        /**
+         * Encodes {@code len} bytes from the specified byte array, starting
+         * at offset {@code off}, using the {@link Base64} encoding scheme,
+         * writing the resulting bytes to the given output byte array,
+         * starting at offset {@code dstOff}.
+         *
+         * <p> No bytes will be written to the output byte array if it does
+         * not have enough space, from offset {@code dstOff}, for encoding all
+         * the input bytes; {@link #encodedLength} gives the space needed.
+         *
+         * @param   src
+         *          the byte array to encode
+         * @param   off
+         *          the start offset of the input bytes
+         * @param   len
+         *          the number of input bytes
+         * @param   dst
+         *          the output byte array
+         * @param   dstOff
+         *          the start offset in the output byte array
+         * @return  The number of bytes written to the output byte array
+         *
+         * @throws  IndexOutOfBoundsException if {@code off}, {@code len} or
+         *          {@code dstOff} is negative, or the input bytes extend
+         *          beyond the end of {@code src}, or {@code dstOff} is
+         *          greater than the length of {@code dst}
+         * @throws  IllegalArgumentException if {@code dst} does not have
+         *          enough space for encoding all input bytes.
+         * @since   1.8
+         */
+        public int encodeInto(byte[] src, int off, int len,
+                              byte[] dst, int dstOff) {
+            if (off < 0 || len < 0 || off > src.length - len ||
+                dstOff < 0 || dstOff > dst.length)
+                throw new IndexOutOfBoundsException();
+            if (dst.length - dstOff < outLength(len))
+                throw new IllegalArgumentException(
+                    "Output byte array is too small for encoding all input bytes");
+            return encode0(src, off, off + len, dst, dstOff);
+        }
+
+        /**
+         * Encodes all remaining bytes from the specified byte buffer using
+         * the {@link Base64} encoding scheme, writing the resulting bytes to
+         * the given output buffer.  Neither buffer need be backed by an
+         * array; the bytes of a direct buffer are read and written in place.
+         *
+         * <p> Upon return, the source buffer's position will be updated to
+         * its limit, and the output buffer's position will have been
+         * advanced by the number of resulting encoded bytes.  If the output
+         * buffer does not have enough space remaining for encoding all the
+         * input bytes, no bytes are written and neither position changes.
+         *
+         * @param   src
+         *          the source ByteBuffer to encode
+         * @param   dst
+         *          the output ByteBuffer
+         * @return  The number of bytes written to the output buffer
+         *
+         * @throws  IllegalArgumentException if {@code dst} does not have
+         *          enough space for encoding all input bytes.
+         * @throws  java.nio.ReadOnlyBufferException if {@code dst} is
+         *          read-only
+         * @since   1.8
+         */
+        public int encodeInto(ByteBuffer src, ByteBuffer dst) {
+            int sp = src.position();
+            int sl = src.limit();
+            int dp = dst.position();
+            if (dst.remaining() < outLength(sl - sp))
+                throw new IllegalArgumentException(
+                    "Output buffer is too small for encoding all input bytes");
+            int ret;
+            if (src.hasArray() && dst.hasArray()) {
+                ret = encode0(src.array(),
+                              src.arrayOffset() + sp, src.arrayOffset() + sl,
+                              dst.array(), dst.arrayOffset() + dp);
+            } else {
+                ret = encode0(bigEndian(src), sp, sl, bigEndian(dst), dp);
+            }
+            src.position(sl);
+            dst.position(dp + ret);
+            return ret;
         }
 
         /**
@@ -338,13 +462,13 @@ public class Base64 {
                 ret = encode0(buffer.array(),
                               buffer.arrayOffset() + buffer.position(),
                               buffer.arrayOffset() + buffer.limit(),
-                              dst);
-                buffer.position(buffer.limit());
+                              dst, 0);
             } else {
-                byte[] src = new byte[buffer.remaining()];
-                buffer.get(src);
-                ret = encode0(src, 0, src.length, dst);
+                ret = encode0(bigEndian(buffer),
+                              buffer.position(), buffer.limit(),
+                              ByteBuffer.wrap(dst), 0);
             }
+            buffer.position(buffer.limit());
             if (ret != dst.length)
                  dst = Arrays.copyOf(dst, ret);
             return ByteBuffer.wrap(dst);
@@ -366,8 +490,30 @@ public class Base64 {
          */
         public OutputStream wrap(OutputStream os) {
             Objects.requireNonNull(os);
-            return new EncOutputStream(os, isURL ? toBase64URL : toBase64,
-                                       newline, linemax, doPadding);
+            return new EncOutputStream(os, isURL, newline, linemax, doPadding);
+        }
+
+        /**
+         * Wraps a writable byte channel for encoding byte data using the
+         * {@link Base64} encoding scheme.  The encoded bytes are written to
+         * the underlying channel as each write completes, but for at most two
+         * bytes held until the next write or the channel is closed.
+         *
+         * <p> It is recommended to promptly close the returned channel after
+         * use, during which it will write all possible leftover bytes to the
+         * underlying channel. Closing the returned channel will close the
+         * underlying channel.  The underlying channel must not be in
+         * non-blocking mode.
+         *
+         * @param   ch
+         *          the writable byte channel
+         * @return  the channel for encoding the byte data into the
+         *          specified Base64 encoded format
+         * @since   1.8
+         */
+        public WritableByteChannel wrap(WritableByteChannel ch) {
+            Objects.requireNonNull(ch);
+            return new EncChannel(wrap(Channels.newOutputStream(ch)));
         }
 
         /**
@@ -388,25 +534,19 @@ public class Base64 {
             return new Encoder(isURL, newline, linemax, false);
         }
 
-        private int encode0(byte[] src, int off, int end, byte[] dst) {
+        private int encode0(byte[] src, int off, int end,
+                            byte[] dst, int doff) {
             char[] base64 = isURL ? toBase64URL : toBase64;
+            char[] pairs = isURL ? toBase64URLPairs : toBase64Pairs;
             int sp = off;
             int slen = (end - off) / 3 * 3;
             int sl = off + slen;
             if (linemax > 0 && slen  > linemax / 4 * 3)
                 slen = linemax / 4 * 3;
-            int dp = 0;
+            int dp = doff;
             while (sp < sl) {
                 int sl0 = Math.min(sp + slen, sl);
-                for (int sp0 = sp, dp0 = dp ; sp0 < sl0; ) {
-                    int bits = (src[sp0++] & 0xff) << 16 |
-                               (src[sp0++] & 0xff) <<  8 |
-                               (src[sp0++] & 0xff);
-                    dst[dp0++] = (byte)base64[(bits >>> 18) & 0x3f];
-                    dst[dp0++] = (byte)base64[(bits >>> 12) & 0x3f];
-                    dst[dp0++] = (byte)base64[(bits >>> 6)  & 0x3f];
-                    dst[dp0++] = (byte)base64[bits & 0x3f];
-                }
+                encodeBlock(src, sp, sl0, dst, dp, pairs);
                 int dlen = (sl0 - sp) / 3 * 4;
                 dp += dlen;
                 sp = sl0;
@@ -434,7 +574,145 @@ public class Base64 {
                     }
                 }
             }
-            return dp;
+            return dp - doff;
+        }
+
+        /*
+         * Same as the above, but reading and writing the bytes of buffers in
+         * big-endian order by absolute index, so that direct buffers are
+         * neither copied nor read a byte at a time.
+         */
+        private int encode0(ByteBuffer src, int off, int end,
+                            ByteBuffer dst, int doff) {
+            char[] base64 = isURL ? toBase64URL : toBase64;
+            char[] pairs = isURL ? toBase64URLPairs : toBase64Pairs;
+            int sp = off;
+            int slen = (end - off) / 3 * 3;
+            int sl = off + slen;
+            if (linemax > 0 && slen  > linemax / 4 * 3)
+                slen = linemax / 4 * 3;
+            int dp = doff;
+            while (sp < sl) {
+                int sl0 = Math.min(sp + slen, sl);
+                encodeBlock(src, sp, sl0, dst, dp, pairs);
+                int dlen = (sl0 - sp) / 3 * 4;
+                dp += dlen;
+                sp = sl0;
+                if (dlen == linemax && sp < end) {
+                    for (byte b : newline){
+                        dst.put(dp++, b);
+                    }
+                }
+            }
+            if (sp < end) {               // 1 or 2 leftover bytes
+                int b0 = src.get(sp++) & 0xff;
+                dst.put(dp++, (byte)base64[b0 >> 2]);
+                if (sp == end) {
+                    dst.put(dp++, (byte)base64[(b0 << 4) & 0x3f]);
+                    if (doPadding) {
+                        dst.put(dp++, (byte)'=');
+                        dst.put(dp++, (byte)'=');
+                    }
+                } else {
+                    int b1 = src.get(sp++) & 0xff;
+                    dst.put(dp++, (byte)base64[(b0 << 4) & 0x3f | (b1 >> 4)]);
+                    dst.put(dp++, (byte)base64[(b1 << 2) & 0x3f]);
+                    if (doPadding) {
+                        dst.put(dp++, (byte)'=');
+                    }
+                }
+            }
+            return dp - doff;
+        }
+
+        /*
+         * Encodes the 3-byte groups of src from sp to sl into dst from dp,
+         * two groups into a word of 8 characters at a time.
+         */
+        private static void encodeBlock(byte[] src, int sp, int sl,
+                                        byte[] dst, int dp, char[] pairs) {
+            int sl0 = sp + (sl - sp) / 6 * 6;
+            while (sp < sl0) {
+                int bits0 = (src[sp]     & 0xff) << 16 |
+                            (src[sp + 1] & 0xff) <<  8 |
+                            (src[sp + 2] & 0xff);
+                int bits1 = (src[sp + 3] & 0xff) << 16 |
+                            (src[sp + 4] & 0xff) <<  8 |
+                            (src[sp + 5] & 0xff);
+                char p0 = pairs[bits0 >>> 12];
+                char p1 = pairs[bits0 & 0xfff];
+                char p2 = pairs[bits1 >>> 12];
+                char p3 = pairs[bits1 & 0xfff];
+                dst[dp]     = (byte)(p0 >> 8);
+                dst[dp + 1] = (byte)p0;
+                dst[dp + 2] = (byte)(p1 >> 8);
+                dst[dp + 3] = (byte)p1;
+                dst[dp + 4] = (byte)(p2 >> 8);
+                dst[dp + 5] = (byte)p2;
+                dst[dp + 6] = (byte)(p3 >> 8);
+                dst[dp + 7] = (byte)p3;
+                sp += 6;
+                dp += 8;
+            }
+            if (sp < sl) {                // one group left
+                int bits = (src[sp]     & 0xff) << 16 |
+                           (src[sp + 1] & 0xff) <<  8 |
+                           (src[sp + 2] & 0xff);
+                char p0 = pairs[bits >>> 12];
+                char p1 = pairs[bits & 0xfff];
+                dst[dp]     = (byte)(p0 >> 8);
+                dst[dp + 1] = (byte)p0;
+                dst[dp + 2] = (byte)(p1 >> 8);
+                dst[dp + 3] = (byte)p1;
+            }
+        }
+
+        /*
+         * Same as the above for big-endian buffers, reading 8 bytes at a
+         * time, of which two groups are encoded, while as many remain, and
+         * writing 8 characters at a time unless dst is backed by an array.
+         */
+        private static void encodeBlock(ByteBuffer src, int sp, int sl,
+                                        ByteBuffer dst, int dp, char[] pairs) {
+            if (src.hasArray() && dst.hasArray()) {
+                encodeBlock(src.array(), src.arrayOffset() + sp,
+                            src.arrayOffset() + sl,
+                            dst.array(), dst.arrayOffset() + dp, pairs);
+                return;
+            }
+            byte[] da = dst.hasArray() ? dst.array() : null;
+            int doff = dst.hasArray() ? dst.arrayOffset() : 0;
+            while (sl - sp >= 8) {
+                long bits = src.getLong(sp);
+                char p0 = pairs[(int)(bits >>> 52)];
+                char p1 = pairs[(int)(bits >>> 40) & 0xfff];
+                char p2 = pairs[(int)(bits >>> 28) & 0xfff];
+                char p3 = pairs[(int)(bits >>> 16) & 0xfff];
+                if (da != null) {
+                    int i = doff + dp;
+                    da[i]     = (byte)(p0 >> 8);
+                    da[i + 1] = (byte)p0;
+                    da[i + 2] = (byte)(p1 >> 8);
+                    da[i + 3] = (byte)p1;
+                    da[i + 4] = (byte)(p2 >> 8);
+                    da[i + 5] = (byte)p2;
+                    da[i + 6] = (byte)(p3 >> 8);
+                    da[i + 7] = (byte)p3;
+                } else {
+                    dst.putLong(dp, (long)p0 << 48 | (long)p1 << 32 |
+                                    (long)p2 << 16 | p3);
+                }
+                sp += 6;
+                dp += 8;
+            }
+            while (sp < sl) {
+                int bits = (src.get(sp)     & 0xff) << 16 |
+                           (src.get(sp + 1) & 0xff) <<  8 |
+                           (src.get(sp + 2) & 0xff);
+                dst.putInt(dp, pairs[bits >>> 12] << 16 | pairs[bits & 0xfff]);
+                sp += 3;
+                dp += 4;
+            }
         }
     }
 
@@ -523,7 +801,7 @@ public class Base64 {
          */
         public byte[] decode(byte[] src) {
             byte[] dst = new byte[outLength(src, 0, src.length)];
-            int ret = decode0(src, 0, src.length, dst);
+            int ret = decode0(src, 0, src.length, dst, 0);
             if (ret != dst.length) {
                 dst = Arrays.copyOf(dst, ret);
             }
@@ -579,7 +857,106 @@ public class Base64 {
             if (dst.length < len)
                 throw new IllegalArgumentException(
                     "Output byte array is too small for decoding all input bytes");
-            return decode0(src, 0, src.length, dst);
+            return decode0(src, 0, src.length, dst, 0);
+        }
+
+        /**
+         * Decodes {@code len} bytes from the input byte array, starting at
+         * offset {@code off}, using the {@link Base64} encoding scheme,
+         * writing the results into the given output byte array, starting at
+         * offset {@code dstOff}.
+         *
+         * <p> No bytes will be written to the output byte array if it does
+         * not have enough space, from offset {@code dstOff}, for decoding all
+         * the input bytes.  If the input bytes are not in valid Base64
+         * encoding scheme then some bytes may have been written to the output
+         * byte array before IllegalArgumentException is thrown.
+         *
+         * @param   src
+         *          the byte array to decode
+         * @param   off
+         *          the start offset of the input bytes
+         * @param   len
+         *          the number of input bytes
+         * @param   dst
+         *          the output byte array
+         * @param   dstOff
+         *          the start offset in the output byte array
+         *
+         * @return  The number of bytes written to the output byte array
+         *
+         * @throws  IndexOutOfBoundsException if {@code off}, {@code len} or
+         *          {@code dstOff} is negative, or the input bytes extend
+         *          beyond the end of {@code src}, or {@code dstOff} is
+         *          greater than the length of {@code dst}
+         * @throws  IllegalArgumentException
+         *          if {@code src} is not in valid Base64 scheme, or {@code dst}
+         *          does not have enough space for decoding all input bytes.
+         * @since   1.8
+         */
+        public int decodeInto(byte[] src, int off, int len,
+                              byte[] dst, int dstOff) {
+            if (off < 0 || len < 0 || off > src.length - len ||
+                dstOff < 0 || dstOff > dst.length)
+                throw new IndexOutOfBoundsException();
+            if (dst.length - dstOff < outLength(src, off, off + len))
+                throw new IllegalArgumentException(
+                    "Output byte array is too small for decoding all input bytes");
+            return decode0(src, off, off + len, dst, dstOff);
+        }
+
+        /**
+         * Decodes all remaining bytes from the input byte buffer using the
+         * {@link Base64} encoding scheme, writing the results into the given
+         * output buffer.  Neither buffer need be backed by an array; the
+         * bytes of a direct buffer are read and written in place.
+         *
+         * <p> Upon return, the source buffer's position will be updated to
+         * its limit, and the output buffer's position will have been
+         * advanced by the number of resulting decoded bytes.  If the output
+         * buffer does not have enough space remaining for decoding all the
+         * input bytes, no bytes are written.  If the input buffer is not in
+         * valid Base64 encoding scheme then some bytes may have been written
+         * to the output buffer before IllegalArgumentException is thrown.
+         * Neither position changes if an exception is thrown.
+         *
+         * @param   src
+         *          the ByteBuffer to decode
+         * @param   dst
+         *          the output ByteBuffer
+         *
+         * @return  The number of bytes written to the output buffer
+         *
+         * @throws  IllegalArgumentException
+         *          if {@code src} is not in valid Base64 scheme, or {@code dst}
+         *          does not have enough space for decoding all input bytes.
+         * @throws  java.nio.ReadOnlyBufferException if {@code dst} is
+         *          read-only
+         * @since   1.8
+         */
+        public int decodeInto(ByteBuffer src, ByteBuffer dst) {
+            int sp = src.position();
+            int sl = src.limit();
+            int dp = dst.position();
+            int ret;
+            if (src.hasArray() && dst.hasArray()) {
+                byte[] sa = src.array();
+                int soff = src.arrayOffset();
+                if (dst.remaining() < outLength(sa, soff + sp, soff + sl))
+                    throw new IllegalArgumentException(
+                        "Output buffer is too small for decoding all input bytes");
+                ret = decode0(sa, soff + sp, soff + sl,
+                              dst.array(), dst.arrayOffset() + dp);
+            } else {
+                ByteBuffer bsrc = bigEndian(src);
+                if (dst.remaining() < outLength(bsrc, sp, sl))
+                    throw new IllegalArgumentException(
+                        "Output buffer is too small for decoding all input bytes");
+                ret = decode0(bsrc, sp, sl, bigEndian(dst), dp);
+            }
+            src.position(sl);
+            dst.position(dp + ret);
+            return ret;
         }
 
         /**
@@ -606,21 +983,22 @@ public class Base64 {
         public ByteBuffer decode(ByteBuffer buffer) {
             int pos0 = buffer.position();
             try {
-                byte[] src;
-                int sp, sl;
                 if (buffer.hasArray()) {
-                    src = buffer.array();
-                    sp = buffer.arrayOffset() + buffer.position();
-                    sl = buffer.arrayOffset() + buffer.limit();
+                    byte[] src = buffer.array();
+                    int sp = buffer.arrayOffset() + buffer.position();
+                    int sl = buffer.arrayOffset() + buffer.limit();
                     buffer.position(buffer.limit());
+                    byte[] dst = new byte[outLength(src, sp, sl)];
+                    return ByteBuffer.wrap(dst, 0, decode0(src, sp, sl, dst, 0));
                 } else {
-                    src = new byte[buffer.remaining()];
-                    buffer.get(src);
-                    sp = 0;
-                    sl = src.length;
+                    ByteBuffer src = bigEndian(buffer);
+                    int sp = buffer.position();
+                    int sl = buffer.limit();
+                    buffer.position(sl);
+                    byte[] dst = new byte[outLength(src, sp, sl)];
+                    return ByteBuffer.wrap(dst, 0,
+                        decode0(src, sp, sl, ByteBuffer.wrap(dst), 0));
                 }
-                byte[] dst = new byte[outLength(src, sp, sl)];
-                return ByteBuffer.wrap(dst, 0, decode0(src, sp, sl, dst));
             } catch (IllegalArgumentException iae) {
                 buffer.position(pos0);
                 throw iae;
@@ -647,6 +1025,29 @@ public class Base64 {
             return new DecInputStream(is, isURL ? fromBase64URL : fromBase64, isMIME);
         }
 
+        /**
+         * Returns a readable byte channel for decoding a {@link Base64}
+         * encoded byte stream read from the specified channel.
+         *
+         * <p> The {@code read} method of the returned channel will throw
+         * {@code IOException} when reading bytes that cannot be decoded.
+         *
+         * <p> Closing the returned channel will close the underlying
+         * channel.  The underlying channel must not be in non-blocking mode.
+         *
+         * @param   ch
+         *          the readable byte channel
+         *
+         * @return  the channel for decoding the specified Base64 encoded
+         *          byte stream
+         * @since   1.8
+         */
+        public ReadableByteChannel wrap(ReadableByteChannel ch) {
+            Objects.requireNonNull(ch);
+            return new DecChannel(wrap(new BufferedInputStream(
+                                           Channels.newInputStream(ch))));
+        }
+
         private int outLength(byte[] src, int sp, int sl) {
             int[] base64 = isURL ? fromBase64URL : fromBase64;
             int paddings = 0;
@@ -685,12 +1086,59 @@ public class Base64 {
             return 3 * ((len + 3) / 4) - paddings;
         }
 
-        private int decode0(byte[] src, int sp, int sl, byte[] dst) {
+        /*
+         * Same as the above, reading the bytes of a buffer by absolute index.
+         */
+        private int outLength(ByteBuffer src, int sp, int sl) {
+            int[] base64 = isURL ? fromBase64URL : fromBase64;
+            int paddings = 0;
+            int len = sl - sp;
+            if (len == 0)
+                return 0;
+            if (len < 2) {
+                if (isMIME && base64[0] == -1)
+                    return 0;
+                throw new IllegalArgumentException(
+                    "Input byte[] should at least have 2 bytes for base64 bytes");
+            }
+            if (isMIME) {
+                int n = 0;
+                while (sp < sl) {
+                    int b = src.get(sp++) & 0xff;
+                    if (b == '=') {
+                        len -= (sl - sp + 1);
+                        break;
+                    }
+                    if ((b = base64[b]) == -1)
+                        n++;
+                }
+                len -= n;
+            } else {
+                if (src.get(sl - 1) == '=') {
+                    paddings++;
+                    if (src.get(sl - 2) == '=')
+                        paddings++;
+                }
+            }
+            if (paddings == 0 && (len & 0x3) !=  0)
+                paddings = 4 - (len & 0x3);
+            return 3 * ((len + 3) / 4) - paddings;
+        }
+
+        private int decode0(byte[] src, int sp, int sl, byte[] dst, int doff) {
             int[] base64 = isURL ? fromBase64URL : fromBase64;
-            int dp = 0;
+            int dp = doff;
             int bits = 0;
             int shiftto = 18;       // pos of first byte of 4-byte atom
             while (sp < sl) {
+                if (shiftto == 18 && sl - sp >= 8) {
+                    // as many whole words of 8 valid characters as follow
+                    int n = decodeBlock(src, sp, sl, dst, dp, base64);
+                    sp += n;
+                    dp += n / 4 * 3;
+                    if (sp == sl)
+                        break;
+                }
                 int b = src[sp++] & 0xff;
                 if ((b = base64[b]) < 0) {
                     if (b == -2) {         // padding byte '='
@@ -737,15 +1185,170 @@ public class Base64 {
             // anything left is invalid, if is not MIME.
             // if MIME, ignore all non-base64 character
             while (sp < sl) {
-                if (isMIME && base64[src[sp++]] < 0)
+                if (isMIME && base64[src[sp++] & 0xff] < 0)
                     continue;
                 throw new IllegalArgumentException(
                     "Input byte array has incorrect ending byte at " + sp);
             }
-            return dp;
+            return dp - doff;
+        }
+
+        /*
+         * Same as the above, but reading and writing the bytes of buffers in
+         * big-endian order by absolute index, so that direct buffers are
+         * neither copied nor read a byte at a time.
+         */
+        private int decode0(ByteBuffer src, int sp, int sl,
+                            ByteBuffer dst, int doff) {
+            int[] base64 = isURL ? fromBase64URL : fromBase64;
+            int dp = doff;
+            int bits = 0;
+            int shiftto = 18;       // pos of first byte of 4-byte atom
+            while (sp < sl) {
+                if (shiftto == 18 && sl - sp >= 8) {
+                    int n = decodeBlock(src, sp, sl, dst, dp, base64);
+                    sp += n;
+                    dp += n / 4 * 3;
+                    if (sp == sl)
+                        break;
+                }
+                int b = src.get(sp++) & 0xff;
+                if ((b = base64[b]) < 0) {
+                    if (b == -2) {         // padding byte '='
+                        if (shiftto == 6 && (sp == sl || src.get(sp++) != '=') ||
+                            shiftto == 18) {
+                            throw new IllegalArgumentException(
+                                "Input byte array has wrong 4-byte ending unit");
+                        }
+                        break;
+                    }
+                    if (isMIME)    // skip if for rfc2045
+                        continue;
+                    else
+                        throw new IllegalArgumentException(
+                            "Illegal base64 character " +
+                            Integer.toString(src.get(sp - 1), 16));
+                }
+                bits |= (b << shiftto);
+                shiftto -= 6;
+                if (shiftto < 0) {
+                    dst.put(dp++, (byte)(bits >> 16));
+                    dst.put(dp++, (byte)(bits >>  8));
+                    dst.put(dp++, (byte)(bits));
+                    shiftto = 18;
+                    bits = 0;
+                }
+            }
+            if (shiftto == 6) {
+                dst.put(dp++, (byte)(bits >> 16));
+            } else if (shiftto == 0) {
+                dst.put(dp++, (byte)(bits >> 16));
+                dst.put(dp++, (byte)(bits >>  8));
+            } else if (shiftto == 12) {
+                throw new IllegalArgumentException(
+                    "Last unit does not have enough valid bits");
+            }
+            while (sp < sl) {
+                if (isMIME && base64[src.get(sp++) & 0xff] < 0)
+                    continue;
+                throw new IllegalArgumentException(
+                    "Input byte array has incorrect ending byte at " + sp);
+            }
+            return dp - doff;
+        }
+
+        /*
+         * Decodes the words of 8 characters of src from sp, up to sl, into
+         * 6 bytes each of dst from dp, looking up all 8 before checking that
+         * none is padding or outside the alphabet; stops at the first word
+         * that is not.  Returns the number of characters decoded.
+         */
+        private static int decodeBlock(byte[] src, int sp, int sl,
+                                       byte[] dst, int dp, int[] base64) {
+            int sp0 = sp;
+            while (sl - sp >= 8) {
+                int b0 = base64[src[sp]     & 0xff];
+                int b1 = base64[src[sp + 1] & 0xff];
+                int b2 = base64[src[sp + 2] & 0xff];
+                int b3 = base64[src[sp + 3] & 0xff];
+                int b4 = base64[src[sp + 4] & 0xff];
+                int b5 = base64[src[sp + 5] & 0xff];
+                int b6 = base64[src[sp + 6] & 0xff];
+                int b7 = base64[src[sp + 7] & 0xff];
+                if ((b0 | b1 | b2 | b3 | b4 | b5 | b6 | b7) < 0)
+                    break;
+                int bits0 = b0 << 18 | b1 << 12 | b2 << 6 | b3;
+                int bits1 = b4 << 18 | b5 << 12 | b6 << 6 | b7;
+                dst[dp]     = (byte)(bits0 >> 16);
+                dst[dp + 1] = (byte)(bits0 >>  8);
+                dst[dp + 2] = (byte)bits0;
+                dst[dp + 3] = (byte)(bits1 >> 16);
+                dst[dp + 4] = (byte)(bits1 >>  8);
+                dst[dp + 5] = (byte)bits1;
+                sp += 8;
+                dp += 6;
+            }
+            return sp - sp0;
+        }
+
+        /*
+         * Same as the above for big-endian buffers, reading each word of 8
+         * characters at once, and writing its 6 bytes at once unless dst is
+         * backed by an array.
+         */
+        private static int decodeBlock(ByteBuffer src, int sp, int sl,
+                                       ByteBuffer dst, int dp, int[] base64) {
+            if (src.hasArray() && dst.hasArray()) {
+                return decodeBlock(src.array(), src.arrayOffset() + sp,
+                                   src.arrayOffset() + sl,
+                                   dst.array(), dst.arrayOffset() + dp, base64);
+            }
+            byte[] da = dst.hasArray() ? dst.array() : null;
+            int doff = dst.hasArray() ? dst.arrayOffset() : 0;
+            int sp0 = sp;
+            while (sl - sp >= 8) {
+                long word = src.getLong(sp);
+                int b0 = base64[(int)(word >>> 56)];
+                int b1 = base64[(int)(word >>> 48) & 0xff];
+                int b2 = base64[(int)(word >>> 40) & 0xff];
+                int b3 = base64[(int)(word >>> 32) & 0xff];
+                int b4 = base64[(int)(word >>> 24) & 0xff];
+                int b5 = base64[(int)(word >>> 16) & 0xff];
+                int b6 = base64[(int)(word >>>  8) & 0xff];
+                int b7 = base64[(int)word & 0xff];
+                if ((b0 | b1 | b2 | b3 | b4 | b5 | b6 | b7) < 0)
+                    break;
+                int bits0 = b0 << 18 | b1 << 12 | b2 << 6 | b3;
+                int bits1 = b4 << 18 | b5 << 12 | b6 << 6 | b7;
+                if (da != null) {
+                    int i = doff + dp;
+                    da[i]     = (byte)(bits0 >> 16);
+                    da[i + 1] = (byte)(bits0 >>  8);
+                    da[i + 2] = (byte)bits0;
+                    da[i + 3] = (byte)(bits1 >> 16);
+                    da[i + 4] = (byte)(bits1 >>  8);
+                    da[i + 5] = (byte)bits1;
+                } else {
+                    dst.putShort(dp, (short)(bits0 >> 8));
+                    dst.putInt(dp + 2, bits0 << 24 | bits1);
+                }
+                sp += 8;
+                dp += 6;
+            }
+            return sp - sp0;
         }
     }
 
+    /*
+     * Returns the buffer, or a view of it, whose multi-byte values are
+     * read and written in big-endian byte order.
+     */
+    private static ByteBuffer bigEndian(ByteBuffer buffer) {
+        if (buffer.order() == ByteOrder.BIG_ENDIAN)
+            return buffer;
+        return buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+
     /*
      * An output stream for encoding bytes into the Base64.
      */
@@ -756,18 +1359,22 @@ public class Base64 {
         private boolean closed = false;
 
         private final char[] base64;    // byte->base64 mapping
+        private final char[] pairs;     // 12 bits->two base64 mapping
         private final byte[] newline;   // line separator, if needed
         private final int linemax;
         private final boolean doPadding;// whether or not to pad
         private int linepos = 0;
+        private final byte[] buf;       // encoded bytes, a line at most
 
-        EncOutputStream(OutputStream os, char[] base64,
+        EncOutputStream(OutputStream os, boolean isURL,
                         byte[] newline, int linemax, boolean doPadding) {
             super(os);
-            this.base64 = base64;
+            this.base64 = isURL ? Encoder.toBase64URL : Encoder.toBase64;
+            this.pairs = isURL ? Encoder.toBase64URLPairs : Encoder.toBase64Pairs;
             this.newline = newline;
             this.linemax = linemax;
             this.doPadding = doPadding;
+            this.buf = new byte[linemax <= 0 ? 8192 : linemax];
         }
 
         @Override
@@ -812,17 +1419,17 @@ public class Base64 {
             }
             int nBits24 = len / 3;
             leftover = len - (nBits24 * 3);
-            while (nBits24-- > 0) {
+            // encode as many groups as fit in the buffer, or on the line
+            while (nBits24 > 0) {
                 checkNewline();
-                int bits = (b[off++] & 0xff) << 16 |
-                           (b[off++] & 0xff) <<  8 |
-                           (b[off++] & 0xff);
-                out.write(base64[(bits >>> 18) & 0x3f]);
-                out.write(base64[(bits >>> 12) & 0x3f]);
-                out.write(base64[(bits >>> 6)  & 0x3f]);
-                out.write(base64[bits & 0x3f]);
-                linepos += 4;
-           }
+                int dl = linemax <= 0 ? buf.length : linemax - linepos;
+                int n = Math.min(nBits24, dl / 4);
+                Encoder.encodeBlock(b, off, off + n * 3, buf, 0, pairs);
+                out.write(buf, 0, n * 4);
+                off += n * 3;
+                linepos += n * 4;
+                nBits24 -= n;
+            }
             if (leftover == 1) {
                 b0 = b[off++] & 0xff;
             } else if (leftover == 2) {
@@ -858,6 +1465,102 @@ public class Base64 {
         }
     }
 
+    /*
+     * A channel for encoding bytes into the Base64, writing to an encoding
+     * output stream.
+     */
+    private static class EncChannel implements WritableByteChannel {
+
+        private final OutputStream os;
+        private byte[] buf;             // for the bytes of direct buffers
+        private boolean open = true;
+
+        EncChannel(OutputStream os) {
+            this.os = os;
+        }
+
+        @Override
+        public synchronized int write(ByteBuffer src) throws IOException {
+            if (!open)
+                throw new ClosedChannelException();
+            int n = src.remaining();
+            if (src.hasArray()) {
+                os.write(src.array(), src.arrayOffset() + src.position(), n);
+                src.position(src.limit());
+            } else {
+                if (buf == null)
+                    buf = new byte[8192];
+                while (src.hasRemaining()) {
+                    int len = Math.min(src.remaining(), buf.length);
+                    src.get(buf, 0, len);
+                    os.write(buf, 0, len);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public synchronized boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (open) {
+                open = false;
+                os.close();
+            }
+        }
+    }
+
+    /*
+     * A channel for decoding Base64 bytes, reading from a decoding input
+     * stream.
+     */
+    private static class DecChannel implements ReadableByteChannel {
+
+        private final InputStream is;
+        private byte[] buf;             // for the bytes of direct buffers
+        private boolean open = true;
+
+        DecChannel(InputStream is) {
+            this.is = is;
+        }
+
+        @Override
+        public synchronized int read(ByteBuffer dst) throws IOException {
+            if (!open)
+                throw new ClosedChannelException();
+            int n;
+            if (dst.hasArray()) {
+                n = is.read(dst.array(), dst.arrayOffset() + dst.position(),
+                            dst.remaining());
+                if (n > 0)
+                    dst.position(dst.position() + n);
+            } else {
+                if (buf == null)
+                    buf = new byte[8192];
+                n = is.read(buf, 0, Math.min(dst.remaining(), buf.length));
+                if (n > 0)
+                    dst.put(buf, 0, n);
+            }
+            return n;
+        }
+
+        @Override
+        public synchronized boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (open) {
+                open = false;
+                is.close();
+            }
+        }
+    }
+
     /*
      * An input stream for decoding Base64 bytes
      */
@@ -906,6 +1609,8 @@ public class Base64 {
                 } while (nextout >= 0);
                 bits = 0;
             }
+            if (eof)                  // the end of the final unit
+                return off - oldOff;
             while (len > 0) {
                 int v = is.read();
                 if (v == -1) {
@@ -479,7 +479,7 @@ public class Attributes implements Map<Object,Object>, Cloneable {
             return true;
         }
 
-        private static boolean isValid(char c) {
+        static boolean isValid(char c) {
             return isAlpha(c) || isDigit(c) || c == '_' || c == '-';
         }
 
@@ -29,6 +29,8 @@ import java.io.*;
 import java.lang.ref.SoftReference;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.zip.*;
@@ -61,6 +63,16 @@ import sun.security.util.SignatureFileVerifier;
  * {@link JarEntry#getCodeSigners()} to further determine if the signature
  * can be trusted.
  *
+ * <p> The results of processing the signature files of a jar file, and of
+ * verifying its entries, are shared with later <code>JarFile</code>
+ * instances opening the same path while the file has the same length,
+ * last modification time and manifest.  The number of jar files whose
+ * results are retained is given by the system property
+ * {@code java.util.jar.JarFile.verifierCacheSize} (by default 16); a
+ * value of 0 disables the sharing.  The signed entries of a jar file may
+ * also be verified all at once, on several threads, with {@link
+ * #verifyAll()}.
+ *
  * @author  David Connelly
  * @see     Manifest
  * @see     java.util.zip.ZipFile
@@ -75,6 +87,11 @@ class JarFile extends ZipFile {
     private boolean jvInitialized;
     private boolean verify;
 
+    // true if opened with OPEN_CONCURRENT, which has no native zip file
+    private final boolean concurrent;
+    // the "META-INF/" entry names, computed once if concurrent
+    private String[] metaInfNames;
+
     // indicates if Class-Path attribute present (only valid if hasCheckedSpecialAttributes true)
     private boolean hasClassPathAttribute;
     // true if manifest checked for special attributes
@@ -149,7 +166,8 @@ class JarFile extends ZipFile {
     /**
      * Creates a new <code>JarFile</code> to read from the specified
      * <code>File</code> object in the specified mode.  The mode argument
-     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>.
+     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>,
+     * either of which may also include <tt>OPEN_CONCURRENT</tt>.
      *
      * @param file the jar file to be opened for reading
      * @param verify whether or not to verify the jar file if
@@ -165,6 +183,7 @@ class JarFile extends ZipFile {
     public JarFile(File file, boolean verify, int mode) throws IOException {
         super(file, mode);
         this.verify = verify;
+        this.concurrent = (mode & OPEN_CONCURRENT) != 0;
     }
 
     /**
@@ -189,14 +208,11 @@ class JarFile extends ZipFile {
 
             // If found then load the manifest
             if (manEntry != null) {
-                if (verify) {
-                    byte[] b = getBytes(manEntry);
-                    man = new Manifest(new ByteArrayInputStream(b));
-                    if (!jvInitialized) {
-                        jv = new JarVerifier(b);
-                    }
-                } else {
-                    man = new Manifest(super.getInputStream(manEntry));
+                // the per-entry attributes are parsed as needed
+                byte[] b = getBytes(manEntry);
+                man = new Manifest(b);
+                if (verify && !jvInitialized) {
+                    jv = new JarVerifier(b);
                 }
                 manRef = new SoftReference<>(man);
             }
@@ -206,6 +222,29 @@ class JarFile extends ZipFile {
 
     private native String[] getMetaInfEntryNames();
 
+    /*
+     * Returns the names of the "META-INF/" entries, or null if there are
+     * none, scanning the entries if the native zip file is not open.
+     */
+    private String[] metaInfEntryNames() {
+        if (!concurrent) {
+            return getMetaInfEntryNames();
+        }
+        String[] names = metaInfNames;
+        if (names == null) {
+            List<String> list = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = super.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.regionMatches(true, 0, "META-INF/", 0, 9)) {
+                    list.add(name);
+                }
+            }
+            metaInfNames = names = list.toArray(new String[list.size()]);
+        }
+        return (names.length == 0) ? null : names.clone();
+    }
+
     /**
      * Returns the <code>JarEntry</code> for the given entry name or
      * <code>null</code> if not found.
@@ -330,7 +369,7 @@ class JarFile extends ZipFile {
         }
 
         if (verify) {
-            String[] names = getMetaInfEntryNames();
+            String[] names = metaInfEntryNames();
             if (names != null) {
                 for (int i = 0; i < names.length; i++) {
                     String name = names[i].toUpperCase(Locale.ENGLISH);
@@ -360,9 +399,21 @@ class JarFile extends ZipFile {
     private void initializeVerifier() {
         ManifestEntryVerifier mev = null;
 
+        // Share the state of the verifier of an earlier instance, if the
+        // jar file is unchanged since
+        JarVerifier shared = jv.getSharedVerifier(new File(getName()));
+        if (shared != null) {
+            jv = shared;
+            if (jv.nothingToVerify()) {
+                jv = null;
+                verify = false;
+            }
+            return;
+        }
+
         // Verify "META-INF/" entries...
         try {
-            String[] names = getMetaInfEntryNames();
+            String[] names = metaInfEntryNames();
             if (names != null) {
                 for (int i = 0; i < names.length; i++) {
                     String uname = names[i].toUpperCase(Locale.ENGLISH);
@@ -465,6 +516,103 @@ class JarFile extends ZipFile {
             jv);
     }
 
+    /**
+     * Verifies the signed entries of this jar file, reading them and
+     * computing their digests concurrently on the {@linkplain
+     * ForkJoinPool#commonPool() common pool}.  This is equivalent to
+     * {@code verifyAll(ForkJoinPool.commonPool())}.
+     *
+     * @throws SecurityException if any of the jar file entries
+     *         are incorrectly signed.
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @since 1.8
+     */
+    public void verifyAll() throws IOException {
+        verifyAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies the signed entries of this jar file, reading them and
+     * computing their digests concurrently on the specified pool, as if
+     * each were read through {@link #getInputStream}.  Once this method
+     * returns normally, the signers of each entry are available from
+     * {@link JarEntry#getCodeSigners()} without the entry being read.
+     * Entries already verified are not read again.  This method does
+     * nothing if the jar file is not signed or was opened without
+     * verification.
+     *
+     * <p> The jar file is best opened with {@link
+     * ZipFile#OPEN_CONCURRENT} if the entries are to be read concurrently.
+     *
+     * @param pool the pool on which to verify the entries
+     * @throws SecurityException if any of the jar file entries
+     *         are incorrectly signed.
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @since 1.8
+     */
+    public void verifyAll(ForkJoinPool pool) throws IOException {
+        Objects.requireNonNull(pool, "pool");
+        ensureInitialization();
+        JarVerifier jv = this.jv;
+        if (jv == null) {
+            return;
+        }
+        List<EntryVerifier> tasks = new ArrayList<>();
+        Enumeration<? extends ZipEntry> entries = super.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry ze = entries.nextElement();
+            if (!ze.isDirectory() && jv.needsVerification(ze.getName())) {
+                EntryVerifier task = new EntryVerifier(newEntry(ze));
+                pool.execute(task);
+                tasks.add(task);
+            }
+        }
+        // wait for all the entries, then report the first failure
+        for (EntryVerifier task : tasks) {
+            task.quietlyJoin();
+        }
+        for (EntryVerifier task : tasks) {
+            if (task.ioe != null) {
+                throw task.ioe;
+            }
+            Throwable ex = task.getException();
+            if (ex instanceof RuntimeException) {
+                throw (RuntimeException)ex;
+            } else if (ex instanceof Error) {
+                throw (Error)ex;
+            }
+        }
+    }
+
+    /*
+     * Reads an entry to the end through a verifier stream, so verifying
+     * its digest.
+     */
+    private final class EntryVerifier extends RecursiveAction {
+        private static final long serialVersionUID = 2906478735532453806L;
+
+        private final JarEntry entry;
+        IOException ioe;
+
+        EntryVerifier(JarEntry entry) {
+            this.entry = entry;
+        }
+
+        protected void compute() {
+            try (InputStream is = getInputStream(entry)) {
+                byte[] buf = new byte[8192];
+                while (is.read(buf, 0, buf.length) != -1)
+                    ;
+            } catch (IOException e) {
+                ioe = e;
+            }
+        }
+    }
+
     // Statics for hand-coded Boyer-Moore search
     private static final char[] CLASSPATH_CHARS = {'c','l','a','s','s','-','p','a','t','h'};
     // The bad character shift for "class-path"
@@ -495,7 +643,7 @@ class JarFile extends ZipFile {
             if (manEntry == null) {
                 // If not found, then iterate through all the "META-INF/"
                 // entries to find a match.
-                String[] names = getMetaInfEntryNames();
+                String[] names = metaInfEntryNames();
                 if (names != null) {
                     for (int i = 0; i < names.length; i++) {
                         if (MANIFEST_NAME.equals(
@@ -30,6 +30,7 @@ import java.net.URL;
 import java.util.*;
 import java.security.*;
 import java.security.cert.CertificateException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 
 import sun.misc.JarIndex;
@@ -93,6 +94,23 @@ class JarVerifier {
     /** collect -DIGEST-MANIFEST values for blacklist */
     private List<Object> manifestDigests;
 
+    /** the state shared with verifiers of other instances of the jar file */
+    private SharedState shared;
+
+    /* maximum number of jar files whose state is cached */
+    private static final int CACHE_SIZE = AccessController.doPrivileged(
+        new sun.security.action.GetIntegerAction(
+            "java.util.jar.JarFile.verifierCacheSize", 16));
+
+    /* the state of the most recently verified jar files, by path */
+    private static final Map<String, SharedState> stateCache =
+        new LinkedHashMap<String, SharedState>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, SharedState> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+
     public JarVerifier(byte rawBytes[]) {
         manifestRawBytes = rawBytes;
         sigFileSigners = new Hashtable<>();
@@ -103,6 +121,86 @@ class JarVerifier {
         manifestDigests = new ArrayList<>();
     }
 
+    /*
+     * Creates a verifier that is done with the META-INF entries, from the
+     * state shared by the verifier of another instance of the jar file.
+     */
+    private JarVerifier(SharedState state) {
+        sigFileSigners = new Hashtable<>(state.sigFileSigners);
+        verifiedSigners = new Hashtable<>(state.verifiedSigners);
+        manifestDigests = new ArrayList<>(state.manifestDigests);
+        parsingMeta = false;
+        anyToVerify = !sigFileSigners.isEmpty();
+        shared = state;
+    }
+
+    /**
+     * Returns a verifier that is done with the META-INF entries of the
+     * given jar file, sharing the state of the verifier of an earlier
+     * instance of the file if the file has the same length, modification
+     * time and manifest since, or null if there is none.  In that case
+     * this verifier, which must not have processed any entries, shares
+     * its own state with later instances once done with the META-INF
+     * entries.
+     */
+    JarVerifier getSharedVerifier(final File file) {
+        if (CACHE_SIZE <= 0 || !parsingMeta || manifestRawBytes == null) {
+            return null;
+        }
+        long[] stamp = AccessController.doPrivileged(
+            new PrivilegedAction<long[]>() {
+                public long[] run() {
+                    return new long[] { file.length(), file.lastModified() };
+                }
+            });
+        if (stamp[1] == 0L) {
+            // not a file, or an I/O error
+            return null;
+        }
+        String path = file.getPath();
+        SharedState state;
+        synchronized (stateCache) {
+            state = stateCache.get(path);
+        }
+        if (state != null && state.length == stamp[0] &&
+                state.lastModified == stamp[1] &&
+                Arrays.equals(state.manifestBytes, manifestRawBytes)) {
+            if (debug != null) {
+                debug.println("using shared state for " + path);
+            }
+            JarVerifier jv = new JarVerifier(state);
+            jv.eagerValidation = eagerValidation;
+            return jv;
+        }
+        shared = new SharedState(path, stamp[0], stamp[1], manifestRawBytes);
+        return null;
+    }
+
+    /*
+     * Takes the signers of the named entry from the shared state if a
+     * verifier of another instance of the jar file has verified the entry,
+     * returning them, or null.
+     */
+    private CodeSigner[] adopt(String name) {
+        if (shared != null) {
+            CodeSigner[] signers = shared.verified.get(name);
+            if (signers != null && sigFileSigners.containsKey(name)) {
+                verifiedSigners.put(name, signers);
+                sigFileSigners.remove(name);
+                return signers;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the named entry is signed but its digest has yet to
+     * be verified.
+     */
+    boolean needsVerification(String name) {
+        return sigFileSigners.get(name) != null && adopt(name) == null;
+    }
+
     /**
      * This method scans to see which entry we're parsing and
      * keeps various state information depending on what type of
@@ -179,8 +277,18 @@ class JarVerifier {
             name = name.substring(1);
 
         // only set the jev object for entries that have a signature
-        // (either verified or not)
+        // (either verified or not), unless another instance of the jar
+        // file has verified the entry already
         if (!name.equals(JarFile.MANIFEST_NAME)) {
+            if (name.equals(je.getName())) {
+                CodeSigner[] signers = adopt(name);
+                if (signers != null) {
+                    je.signers = signers;
+                    je.certs = mapSignersToCertArray(signers);
+                    mev.setEntry(null, je);
+                    return;
+                }
+            }
             if (sigFileSigners.get(name) != null ||
                     verifiedSigners.get(name) != null) {
                 mev.setEntry(name, je);
@@ -242,6 +350,11 @@ class JarVerifier {
             if ((je != null) && (je.signers == null)) {
                 je.signers = mev.verify(verifiedSigners, sigFileSigners);
                 je.certs = mapSignersToCertArray(je.signers);
+                String name = je.getName();
+                if (shared != null && je.signers != null &&
+                        !name.startsWith("./") && !name.startsWith("/")) {
+                    shared.verified.putIfAbsent(name, je.signers);
+                }
             }
         } else {
 
@@ -357,13 +470,14 @@ class JarVerifier {
      */
     public CodeSigner[] getCodeSigners(String name)
     {
-        return verifiedSigners.get(name);
+        CodeSigner[] signers = verifiedSigners.get(name);
+        return (signers != null) ? signers : adopt(name);
     }
 
     public CodeSigner[] getCodeSigners(JarFile jar, JarEntry entry)
     {
         String name = entry.getName();
-        if (eagerValidation && sigFileSigners.get(name) != null) {
+        if (eagerValidation && needsVerification(name)) {
             /*
              * Force a read of the entry data to generate the
              * verification hash.
@@ -434,6 +548,43 @@ class JarVerifier {
             CodeSigner[] codeSigners = sigFileSigners.remove(JarFile.MANIFEST_NAME);
             verifiedSigners.put(JarFile.MANIFEST_NAME, codeSigners);
         }
+        if (shared != null && shared.sigFileSigners == null) {
+            shared.sigFileSigners = new HashMap<>(sigFileSigners);
+            shared.verifiedSigners = new HashMap<>(verifiedSigners);
+            shared.manifestDigests = new ArrayList<>(manifestDigests);
+            synchronized (stateCache) {
+                stateCache.put(shared.path, shared);
+            }
+        }
+    }
+
+    /*
+     * The state of a verifier once done with the META-INF entries of a
+     * jar file, shared with the verifiers of later instances of the file
+     * while its length, modification time and manifest are unchanged, and
+     * the signers of the entries any of them has verified since.
+     */
+    private static final class SharedState {
+        final String path;
+        final long length;
+        final long lastModified;
+        final byte[] manifestBytes;
+
+        // set once done with the META-INF entries, before being cached
+        Map<String, CodeSigner[]> sigFileSigners;
+        Map<String, CodeSigner[]> verifiedSigners;
+        List<Object> manifestDigests;
+
+        final ConcurrentHashMap<String, CodeSigner[]> verified =
+            new ConcurrentHashMap<>();
+
+        SharedState(String path, long length, long lastModified,
+                    byte[] manifestBytes) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.manifestBytes = manifestBytes;
+        }
     }
 
     static class VerifierStream extends java.io.InputStream {
@@ -25,14 +25,17 @@
 
 package java.util.jar;
 
+import java.io.ByteArrayInputStream;
 import java.io.FilterInputStream;
 import java.io.DataOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 /**
  * The Manifest class is used to maintain Manifest entry names and their
@@ -53,6 +56,9 @@ public class Manifest implements Cloneable {
     // manifest entries
     private Map<String, Attributes> entries = new HashMap<>();
 
+    // entry sections not yet parsed, if read lazily
+    private volatile Sections sections;
+
     /**
      * Constructs a new, empty Manifest.
      */
@@ -69,6 +75,28 @@ public class Manifest implements Cloneable {
         read(is);
     }
 
+    /**
+     * Constructs a new Manifest from the specified bytes, parsing the main
+     * Attributes at once but the Attributes of each entry only when they
+     * are first needed.  The entries are checked to be well-formed as
+     * they would be by {@link #read}.
+     *
+     * @param b the manifest data, which must not be modified afterwards
+     * @throws IOException if an I/O error has occurred
+     */
+    Manifest(byte[] b) throws IOException {
+        FastInputStream fis = new FastInputStream(b, 0, b.length);
+        byte[] lbuf = new byte[512];
+        attr.read(fis, lbuf);
+        LinkedHashMap<String, int[]> index = indexSections(b, fis.pos);
+        if (index == null) {
+            // let read report the error
+            readEntries(fis, lbuf);
+        } else if (!index.isEmpty()) {
+            sections = new Sections(b, index);
+        }
+    }
+
     /**
      * Constructs a new Manifest that is a copy of the specified Manifest.
      *
@@ -97,7 +125,7 @@ public class Manifest implements Cloneable {
      * @return a Map of the entries contained in this Manifest
      */
     public Map<String,Attributes> getEntries() {
-        return entries;
+        return parsedEntries();
     }
 
     /**
@@ -123,6 +151,21 @@ public class Manifest implements Cloneable {
      * @return the Attributes for the specified entry name
      */
     public Attributes getAttributes(String name) {
+        Sections s = sections;
+        if (s != null) {
+            synchronized (s) {
+                if (sections != null) {
+                    int[] offsets = s.offsets.remove(name);
+                    if (offsets != null) {
+                        parseSections(s.bytes, name, offsets);
+                        if (s.offsets.isEmpty()) {
+                            sections = null;
+                        }
+                    }
+                    return entries.get(name);
+                }
+            }
+        }
         return getEntries().get(name);
     }
 
@@ -130,6 +173,7 @@ public class Manifest implements Cloneable {
      * Clears the main Attributes as well as the entries in this Manifest.
      */
     public void clear() {
+        sections = null;
         attr.clear();
         entries.clear();
     }
@@ -148,7 +192,8 @@ public class Manifest implements Cloneable {
         // Write out the main attributes for the manifest
         attr.writeMain(dos);
         // Now write out the pre-entry attributes
-        Iterator<Map.Entry<String, Attributes>> it = entries.entrySet().iterator();
+        Iterator<Map.Entry<String, Attributes>> it =
+            parsedEntries().entrySet().iterator();
         while (it.hasNext()) {
             Map.Entry<String, Attributes> e = it.next();
             StringBuffer buffer = new StringBuffer("Name: ");
@@ -191,12 +236,24 @@ public class Manifest implements Cloneable {
      * @exception IOException if an I/O error has occurred
      */
     public void read(InputStream is) throws IOException {
+        // Merge with all the entries read so far
+        parsedEntries();
         // Buffered input stream for reading manifest data
         FastInputStream fis = new FastInputStream(is);
         // Line buffer
         byte[] lbuf = new byte[512];
         // Read the main attributes for the manifest
         attr.read(fis, lbuf);
+        // Read the entries
+        readEntries(fis, lbuf);
+    }
+
+    /*
+     * Reads the entries following the main attributes.
+     */
+    private void readEntries(FastInputStream fis, byte[] lbuf)
+        throws IOException
+    {
         // Total number of entries, attributes read
         int ecount = 0, acount = 0;
         // Average size of entry attributes
@@ -261,6 +318,156 @@ public class Manifest implements Cloneable {
         }
     }
 
+    /*
+     * Returns the offsets of the sections of each entry in b, following the
+     * main attributes at offset off, by entry name in the order the entries
+     * first appear, without parsing their attributes; or null if the
+     * sections are not well-formed.  A line is checked as by read and
+     * Attributes.read.
+     */
+    private static LinkedHashMap<String, int[]> indexSections(byte[] b,
+                                                              int off)
+        throws IOException
+    {
+        LinkedHashMap<String, int[]> index = new LinkedHashMap<>();
+        int pos = off;
+        while (pos < b.length) {
+            int eol = endOfLine(b, pos);
+            if (eol < 0) {
+                return null;
+            }
+            int len = lineLength(b, pos, eol);
+            if (len == 0) {
+                pos = eol + 1;
+                continue;
+            }
+            // the name, which may be continued
+            if (len < 6 || (b[pos] | 0x20) != 'n' || (b[pos+1] | 0x20) != 'a' ||
+                (b[pos+2] | 0x20) != 'm' || (b[pos+3] | 0x20) != 'e' ||
+                b[pos+4] != ':' || b[pos+5] != ' ') {
+                return null;
+            }
+            byte[] nbuf = new byte[len - 6];
+            System.arraycopy(b, pos + 6, nbuf, 0, len - 6);
+            pos = eol + 1;
+            while (pos < b.length && b[pos] == ' ') {
+                eol = endOfLine(b, pos);
+                if (eol < 0) {
+                    return null;
+                }
+                len = lineLength(b, pos, eol);
+                byte[] buf = new byte[nbuf.length + len - 1];
+                System.arraycopy(nbuf, 0, buf, 0, nbuf.length);
+                System.arraycopy(b, pos + 1, buf, nbuf.length, len - 1);
+                nbuf = buf;
+                pos = eol + 1;
+            }
+            String name = new String(nbuf, 0, nbuf.length, "UTF8");
+            int[] offsets = index.get(name);
+            if (offsets == null) {
+                offsets = new int[] { pos };
+            } else {
+                offsets = Arrays.copyOf(offsets, offsets.length + 1);
+                offsets[offsets.length - 1] = pos;
+            }
+            index.put(name, offsets);
+            // the attributes, up to and including a blank line
+            boolean header = false;
+            while (pos < b.length) {
+                eol = endOfLine(b, pos);
+                if (eol < 0) {
+                    return null;
+                }
+                len = lineLength(b, pos, eol);
+                if (len == 0) {
+                    pos = eol + 1;
+                    break;
+                }
+                if (b[pos] == ' ') {
+                    if (!header) {
+                        return null;
+                    }
+                } else {
+                    int i = 0;
+                    while (i < len && b[pos + i] != ':') {
+                        if (i >= 70 || !Attributes.Name.isValid(
+                                (char)(b[pos + i] & 0xff))) {
+                            return null;
+                        }
+                        i++;
+                    }
+                    if (i == 0 || i + 1 >= len || b[pos + i + 1] != ' ') {
+                        return null;
+                    }
+                    header = true;
+                }
+                pos = eol + 1;
+            }
+        }
+        return index;
+    }
+
+    /*
+     * Returns the offset of the newline ending the line at offset pos, or
+     * -1 if there is none or the line is too long to be read.
+     */
+    private static int endOfLine(byte[] b, int pos) {
+        int max = Math.min(b.length, pos + 512);
+        for (int i = pos; i < max; i++) {
+            if (b[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the length of the line from offset pos to the newline at
+     * offset eol, without any carriage return.
+     */
+    private static int lineLength(byte[] b, int pos, int eol) {
+        return (eol > pos && b[eol - 1] == '\r') ? eol - 1 - pos : eol - pos;
+    }
+
+    /*
+     * Returns the entries, parsing first any sections not yet parsed.
+     */
+    private Map<String, Attributes> parsedEntries() {
+        Sections s = sections;
+        if (s != null) {
+            synchronized (s) {
+                if (sections != null) {
+                    for (Map.Entry<String, int[]> e : s.offsets.entrySet()) {
+                        parseSections(s.bytes, e.getKey(), e.getValue());
+                    }
+                    s.offsets.clear();
+                    sections = null;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /*
+     * Parses the sections of the named entry at the given offsets in b,
+     * which have been checked to be well-formed.
+     */
+    private void parseSections(byte[] b, String name, int[] offsets) {
+        Attributes attr = entries.get(name);
+        if (attr == null) {
+            attr = new Attributes();
+            entries.put(name, attr);
+        }
+        byte[] lbuf = new byte[512];
+        try {
+            for (int off : offsets) {
+                attr.read(new FastInputStream(b, off, b.length - off), lbuf);
+            }
+        } catch (IOException e) {
+            throw new InternalError(e);
+        }
+    }
+
     private String parseName(byte[] lbuf, int len) {
         if (toLower(lbuf[0]) == 'n' && toLower(lbuf[1]) == 'a' &&
             toLower(lbuf[2]) == 'm' && toLower(lbuf[3]) == 'e' &&
@@ -290,7 +497,7 @@ public class Manifest implements Cloneable {
         if (o instanceof Manifest) {
             Manifest m = (Manifest)o;
             return attr.equals(m.getMainAttributes()) &&
-                   entries.equals(m.getEntries());
+                   parsedEntries().equals(m.getEntries());
         } else {
             return false;
         }
@@ -300,7 +507,7 @@ public class Manifest implements Cloneable {
      * Returns the hash code for this Manifest.
      */
     public int hashCode() {
-        return attr.hashCode() + entries.hashCode();
+        return attr.hashCode() + parsedEntries().hashCode();
     }
 
     /**
@@ -315,6 +522,20 @@ public class Manifest implements Cloneable {
         return new Manifest(this);
     }
 
+    /*
+     * The bytes of a lazily read manifest, and the offsets of the sections
+     * of the entries not yet parsed, by entry name.
+     */
+    private static final class Sections {
+        final byte[] bytes;
+        final LinkedHashMap<String, int[]> offsets;
+
+        Sections(byte[] bytes, LinkedHashMap<String, int[]> offsets) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+        }
+    }
+
     /*
      * A fast buffered input stream for parsing manifest files.
      */
@@ -332,6 +553,17 @@ public class Manifest implements Cloneable {
             buf = new byte[size];
         }
 
+        /*
+         * Creates a stream that reads len bytes of b from offset off in
+         * place, without copying them.
+         */
+        FastInputStream(byte[] b, int off, int len) {
+            super(new ByteArrayInputStream(b, 0, 0));
+            buf = b;
+            pos = off;
+            count = off + len;
+        }
+
         public int read() throws IOException {
             if (pos >= count) {
                 fill();
@@ -0,0 +1,624 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <tt>Handler</tt> that queues requests and publishes them to a target
+ * <tt>Handler</tt> from a background thread.
+ * <p>
+ * The <tt>publish</tt> methods of handlers that write to a stream, such as
+ * <tt>FileHandler</tt> and <tt>ConsoleHandler</tt>, format each record and
+ * write it on the thread that logs it, while holding the handler's lock,
+ * and many of them flush after every record.  An <tt>AsyncHandler</tt>
+ * instead adds each <tt>LogRecord</tt> to a bounded queue, without
+ * locking, and returns.  A single writer thread takes the queued records
+ * in batches and publishes them to the target, which formats and writes
+ * them; the handlers of this package then flush once per batch rather
+ * than once per record.
+ * <p>
+ * Since the record is published later, on another thread, the source
+ * class and method of the record are inferred, if needed, before it is
+ * queued.  Parameters of the record are formatted by the target only
+ * when the record is published, so they should not be modified after
+ * they are logged.
+ * <p>
+ * When the queue is full, the <tt>OverflowPolicy</tt> of the handler
+ * determines whether the logging thread waits for room in the queue or
+ * the record is discarded.  The number of records waiting in the queue
+ * and the number discarded are available from the handler, and in total
+ * for all handlers from the {@code LoggingMXBean} returned by
+ * {@link LogManager#getLoggingMXBean}.
+ * <p>
+ * The <tt>flush</tt> method waits until the records queued before it was
+ * called have been published, and then flushes the target.  The
+ * <tt>close</tt> method publishes all queued records, stops the writer
+ * thread and closes the target.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * If no default value is defined then a RuntimeException is thrown.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.queueSize
+ *        defines the number of records the queue can hold
+ *        (defaults to 1024). </li>
+ * <li>   &lt;handler-name&gt;.batchSize
+ *        defines the most records published to the target at a time
+ *        (defaults to 64). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the <tt>OverflowPolicy</tt>, by name, applied when the
+ *        queue is full (defaults to <tt>BLOCK</tt>). </li>
+ * <li>   &lt;handler-name&gt;.dropLevel
+ *        defines the level below which records are discarded when the
+ *        queue is full, under the <tt>DROP_BELOW_LEVEL</tt> policy
+ *        (defaults to <tt>Level.INFO</tt>). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target <tt>Handler </tt> class.
+ *        (no default). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for {@code AsyncHandler} writing to a
+ * {@code FileHandler} would be:
+ * <ul>
+ * <li>   java.util.logging.AsyncHandler.target=java.util.logging.FileHandler </li>
+ * <li>   java.util.logging.AsyncHandler.queueSize=4096 </li>
+ * <li>   java.util.logging.AsyncHandler.overflow=DROP_BELOW_LEVEL </li>
+ * <li>   java.util.logging.AsyncHandler.dropLevel=WARNING </li>
+ * </ul>
+ * <p>
+ * @see MemoryHandler
+ * @since 1.8
+ */
+
+public class AsyncHandler extends Handler {
+
+    /**
+     * The policy applied when a record is published to an
+     * <tt>AsyncHandler</tt> whose queue is full.
+     *
+     * @since 1.8
+     */
+    public enum OverflowPolicy {
+        /**
+         * The logging thread waits until there is room in the queue.
+         * No records are discarded, but a thread logging faster than
+         * the target can write is slowed down to its pace.
+         */
+        BLOCK,
+
+        /**
+         * The record is discarded.
+         */
+        DROP,
+
+        /**
+         * The record is discarded if its level is below the drop level
+         * of the handler; otherwise the logging thread waits until there
+         * is room in the queue, as for <tt>BLOCK</tt>.
+         */
+        DROP_BELOW_LEVEL
+    }
+
+    private final static int DEFAULT_QUEUE_SIZE = 1024;
+    private final static int DEFAULT_BATCH_SIZE = 64;
+
+    // How long the writer thread and waiting loggers park before they
+    // look again, should a wakeup be missed.
+    private final static long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // The handlers open, for the totals reported by LoggingMXBean, and
+    // the number of records discarded by all handlers.
+    private final static CopyOnWriteArrayList<AsyncHandler> handlers =
+        new CopyOnWriteArrayList<>();
+    private final static AtomicLong totalDropped = new AtomicLong();
+
+    private Handler target;
+    private int queueSize;
+    private int batchSize;
+    private OverflowPolicy overflow;
+    private volatile Level dropLevel;
+
+    /*
+     * The queue is a ring of slots, indexed by sequence number modulo
+     * its size.  Loggers claim the next sequence number from tail,
+     * provided the slot has been emptied, and then fill the slot.  The
+     * writer thread alone takes records from the slots, in order from
+     * head, empties them and then advances head, and stops at the first
+     * slot not yet filled.
+     */
+    private AtomicReferenceArray<LogRecord> slots;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    // The sequence number up to which records have been published.
+    private volatile long published;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    // Set once the writer thread has stopped, normally or not, after which
+    // any record still in the queue is discarded.
+    private volatile boolean writerStopped;
+
+    // Whether the target is a handler of the platform, whose batch publish
+    // is consistent with its publish of a single record.
+    private boolean batched;
+
+    // Loggers waiting for room in the queue.
+    private final ConcurrentLinkedQueue<Thread> waiters =
+        new ConcurrentLinkedQueue<>();
+
+    // Private method to configure an AsyncHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        queueSize = manager.getIntProperty(cname + ".queueSize", DEFAULT_QUEUE_SIZE);
+        if (queueSize <= 0) {
+            queueSize = DEFAULT_QUEUE_SIZE;
+        }
+        batchSize = manager.getIntProperty(cname + ".batchSize", DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+        overflow = OverflowPolicy.BLOCK;
+        String policy = manager.getStringProperty(cname + ".overflow", null);
+        if (policy != null) {
+            try {
+                overflow = OverflowPolicy.valueOf(policy.trim().toUpperCase(java.util.Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                // we use the default
+            }
+        }
+        dropLevel = manager.getLevelProperty(cname + ".dropLevel", Level.INFO);
+        setLevel(manager.getLevelProperty(cname + ".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname + ".filter", null));
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt> and configure it based on
+     * <tt>LogManager</tt> configuration properties.
+     */
+    public AsyncHandler() {
+        sealed = false;
+        configure();
+        sealed = true;
+
+        LogManager manager = LogManager.getLogManager();
+        String handlerName = getClass().getName();
+        String targetName = manager.getProperty(handlerName+".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + handlerName
+                    + " does not specify a target");
+        }
+        Class<?> clz;
+        try {
+            clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            target = (Handler) clz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("AsyncHandler can't load handler target \"" + targetName + "\"" , e);
+        }
+        init();
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt>.
+     * <p>
+     * The <tt>AsyncHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given
+     * queue size and overflow policy, and the target <tt>Handler</tt>,
+     * are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param size    the number of records the queue can hold (must be greater than zero)
+     * @param overflow  the policy applied when the queue is full
+     *
+     * @throws NullPointerException if {@code target} or {@code overflow}
+     *                              is {@code null}
+     * @throws IllegalArgumentException if {@code size is <= 0}
+     */
+    public AsyncHandler(Handler target, int size, OverflowPolicy overflow) {
+        if (target == null || overflow == null) {
+            throw new NullPointerException();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException();
+        }
+        sealed = false;
+        configure();
+        sealed = true;
+        this.target = target;
+        this.queueSize = size;
+        this.overflow = overflow;
+        init();
+    }
+
+    // Initialize.  Creates the queue and starts the writer thread.
+    private void init() {
+        slots = new AtomicReferenceArray<>(queueSize);
+        // a subclass loaded by another loader may override publish(LogRecord)
+        batched = target.getClass().getClassLoader() == null;
+        writer = AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+            @Override
+            public Thread run() {
+                Thread t = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        writeLoop();
+                    }
+                }, "AsyncHandler writer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        handlers.add(this);
+        writer.start();
+    }
+
+    /**
+     * Queue a <tt>LogRecord</tt> to be published to the target
+     * <tt>Handler</tt>.
+     * <p>
+     * If the record is loggable, its source class and method are inferred
+     * if they have not been set, and the record is added to the queue.  If
+     * the queue is full, the overflow policy determines whether this
+     * method waits for room in the queue or discards the record.  Once the
+     * handler is closed, or its writer thread has stopped, the record is
+     * discarded.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || !isLoggable(record)) {
+            return;
+        }
+        if (closed) {
+            drop();
+            return;
+        }
+        // the caller can only be found from the logging thread
+        record.getSourceClassName();
+        if (offer(record)) {
+            return;
+        }
+        if (overflow == OverflowPolicy.DROP
+                || (overflow == OverflowPolicy.DROP_BELOW_LEVEL
+                    && record.getLevel().intValue() < dropLevel.intValue())
+                || Thread.currentThread() == writer) {
+            // the writer thread itself can never make room
+            drop();
+            return;
+        }
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (!offer(record)) {
+                if (closed) {
+                    drop();
+                    return;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    /*
+     * Adds a record to the queue, waking the writer thread if it is
+     * parked, or returns false if the queue is full.  A record added after
+     * the writer thread has stopped is taken back and discarded, unless
+     * the writer has already discarded it.
+     */
+    private boolean offer(LogRecord record) {
+        for (;;) {
+            long t = tail.get();
+            if (t - head >= queueSize || writerStopped) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                // a volatile write, so that a writer about to park sees it
+                int i = (int) (t % queueSize);
+                slots.set(i, record);
+                if (writerParked) {
+                    LockSupport.unpark(writer);
+                }
+                if (writerStopped && slots.compareAndSet(i, record, null)) {
+                    drop();
+                }
+                return true;
+            }
+        }
+    }
+
+    private void drop() {
+        dropped.incrementAndGet();
+        totalDropped.incrementAndGet();
+    }
+
+    /*
+     * Takes up to batch.length records from the queue, in order, and
+     * returns the number taken.  Invoked only by the writer thread.
+     */
+    private int drain(LogRecord[] batch) {
+        long h = head;
+        int n = 0;
+        while (n < batch.length) {
+            int i = (int) (h % queueSize);
+            LogRecord record = slots.get(i);
+            if (record == null) {
+                break;
+            }
+            slots.lazySet(i, null);
+            batch[n++] = record;
+            h++;
+        }
+        if (n > 0) {
+            head = h;
+        }
+        return n;
+    }
+
+    /*
+     * The body of the writer thread: publishes batches of records to the
+     * target until the handler is closed and the queue is empty, and
+     * flushes the target whenever the queue has been emptied.  Should the
+     * target throw an Error, the thread stops and the handler behaves as
+     * if closed.
+     */
+    private void writeLoop() {
+        try {
+            writeBatches();
+        } finally {
+            closed = true;
+            writerStopped = true;
+            for (int i = 0; i < queueSize; i++) {
+                if (slots.getAndSet(i, null) != null) {
+                    drop();
+                }
+            }
+            head = tail.get();
+            for (Thread t : waiters) {
+                LockSupport.unpark(t);
+            }
+        }
+    }
+
+    private void writeBatches() {
+        LogRecord[] batch = new LogRecord[batchSize];
+        boolean written = false;
+        for (;;) {
+            int n = drain(batch);
+            if (n > 0) {
+                if (!waiters.isEmpty()) {
+                    for (Thread t : waiters) {
+                        LockSupport.unpark(t);
+                    }
+                }
+                if (batched) {
+                    try {
+                        target.publish(batch, n);
+                    } catch (RuntimeException ex) {
+                        reportError(null, ex, ErrorManager.WRITE_FAILURE);
+                    }
+                } else {
+                    for (int i = 0; i < n; i++) {
+                        try {
+                            target.publish(batch[i]);
+                        } catch (RuntimeException ex) {
+                            reportError(null, ex, ErrorManager.WRITE_FAILURE);
+                        }
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    batch[i] = null;
+                }
+                published = head;
+                written = true;
+            } else if (tail.get() != head) {
+                // a logger has claimed a slot but not yet filled it
+                Thread.yield();
+            } else if (written) {
+                flushTarget();
+                written = false;
+            } else if (closed) {
+                return;
+            } else {
+                writerParked = true;
+                if (tail.get() == head && !closed) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                writerParked = false;
+            }
+        }
+    }
+
+    private void flushTarget() {
+        try {
+            target.flush();
+        } catch (RuntimeException ex) {
+            reportError(null, ex, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /**
+     * Waits until the records queued before this method was called have
+     * been published to the target <tt>Handler</tt>, and then causes a
+     * flush on the target.
+     */
+    @Override
+    public void flush() {
+        long t = tail.get();
+        if (Thread.currentThread() != writer) {
+            while (published < t && writer.isAlive()) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, PARK_NANOS / 10);
+            }
+        }
+        target.flush();
+    }
+
+    /**
+     * Close the <tt>Handler</tt> and free all associated resources.
+     * <p>
+     * The records in the queue are first published to the target
+     * <tt>Handler</tt>, and the writer thread stops.  This will also close
+     * the target <tt>Handler</tt>.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        closed = true;
+        handlers.remove(this);
+        if (Thread.currentThread() != writer) {
+            LockSupport.unpark(writer);
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Thread t : waiters) {
+            LockSupport.unpark(t);
+        }
+        target.close();
+        setLevel(Level.OFF);
+    }
+
+    /**
+     * Set the level below which records are discarded when the queue is
+     * full, under the <tt>DROP_BELOW_LEVEL</tt> overflow policy.
+     *
+     * @param newLevel the new value of the <tt>dropLevel</tt>
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setDropLevel(Level newLevel) throws SecurityException {
+        if (newLevel == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        dropLevel = newLevel;
+    }
+
+    /**
+     * Get the <tt>dropLevel</tt>.
+     *
+     * @return the value of the <tt>dropLevel</tt>
+     */
+    public Level getDropLevel() {
+        return dropLevel;
+    }
+
+    /**
+     * Get the policy applied when the queue is full.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflow;
+    }
+
+    /**
+     * Get the number of records the queue can hold.
+     *
+     * @return the size of the queue
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Get the number of records in the queue, waiting to be published to
+     * the target <tt>Handler</tt>.
+     *
+     * @return the number of records in the queue
+     */
+    public int getQueueDepth() {
+        if (writerStopped) {
+            return 0;
+        }
+        return (int) Math.max(0L, tail.get() - head);
+    }
+
+    /**
+     * Get the number of records this handler has discarded, whether
+     * because its queue was full, or because it was closed or its writer
+     * thread had stopped, including any records still queued then.
+     *
+     * @return the number of records discarded
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Package-private support for LoggingMXBean.
+    static long totalQueueDepth() {
+        long depth = 0;
+        for (AsyncHandler h : handlers) {
+            depth += h.getQueueDepth();
+        }
+        return depth;
+    }
+
+    static long totalDroppedCount() {
+        return totalDropped.get();
+    }
+}
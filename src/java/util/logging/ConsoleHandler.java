@@ -117,6 +117,12 @@ public class ConsoleHandler extends StreamHandler {
         flush();
     }
 
+    @Override
+    void publish(LogRecord[] records, int count) {
+        super.publish(records, count);
+        flush();
+    }
+
     /**
      * Override <tt>StreamHandler.close</tt> to do a flush but not
      * to close the output stream.  That is, we do <b>not</b>
@@ -697,6 +697,20 @@ public class FileHandler extends StreamHandler {
         }
     }
 
+    @Override
+    synchronized void publish(LogRecord[] records, int count) {
+        if (limit > 0) {
+            // the limit is checked against the output flushed after each
+            // record, so each must be published on its own
+            for (int i = 0; i < count; i++) {
+                publish(records[i]);
+            }
+        } else {
+            super.publish(records, count);
+            flush();
+        }
+    }
+
     /**
      * Close all the files.
      *
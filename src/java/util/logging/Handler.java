@@ -89,6 +89,16 @@ public abstract class Handler {
      */
     public abstract void publish(LogRecord record);
 
+    // Package-private support for AsyncHandler, which publishes the
+    // records it has queued in batches from its writer thread.  The
+    // handlers of this package that flush after every record override
+    // this to flush once for the whole batch.
+    void publish(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            publish(records[i]);
+        }
+    }
+
     /**
      * Flush any buffered output.
      */
@@ -851,6 +851,31 @@ public class Logger {
         doLog(lr);
     }
 
+    /**
+     * Log a message, with an array of object arguments which is only to
+     * be constructed if the logging level is such that the message will
+     * actually be logged.
+     * <p>
+     * If the logger is currently enabled for the given message
+     * level then the parameters are constructed by invoking the provided
+     * supplier function, and a corresponding LogRecord is created and
+     * forwarded to all the registered output Handler objects.
+     * <p>
+     * @param   level   One of the message level identifiers, e.g., SEVERE
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   paramsSupplier   A function, which when called, produces the
+     *                           array of parameters to the message
+     * @since 1.8
+     */
+    public void log(Level level, String msg, Supplier<Object[]> paramsSupplier) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        LogRecord lr = new LogRecord(level, msg);
+        lr.setParameters(paramsSupplier.get());
+        doLog(lr);
+    }
+
     /**
      * Log a message, with associated Throwable information.
      * <p>
@@ -1011,6 +1036,36 @@ public class Logger {
         doLog(lr);
     }
 
+    /**
+     * Log a message, specifying source class and method, with an array
+     * of object arguments which is only to be constructed if the logging
+     * level is such that the message will actually be logged.
+     * <p>
+     * If the logger is currently enabled for the given message
+     * level then the parameters are constructed by invoking the provided
+     * supplier function, and a corresponding LogRecord is created and
+     * forwarded to all the registered output Handler objects.
+     * <p>
+     * @param   level   One of the message level identifiers, e.g., SEVERE
+     * @param   sourceClass    name of class that issued the logging request
+     * @param   sourceMethod   name of method that issued the logging request
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   paramsSupplier   A function, which when called, produces the
+     *                           array of parameters to the message
+     * @since 1.8
+     */
+    public void logp(Level level, String sourceClass, String sourceMethod,
+                     String msg, Supplier<Object[]> paramsSupplier) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        LogRecord lr = new LogRecord(level, msg);
+        lr.setSourceClassName(sourceClass);
+        lr.setSourceMethodName(sourceMethod);
+        lr.setParameters(paramsSupplier.get());
+        doLog(lr);
+    }
+
     /**
      * Log a message, specifying source class and method,
      * with associated Throwable information.
@@ -1245,6 +1300,46 @@ public class Logger {
         doLog(lr, bundle);
     }
 
+    /**
+     * Log a message, specifying source class, method, and resource bundle,
+     * with message parameters which are only to be constructed if the
+     * logging level is such that the message will actually be logged.
+     * <p>
+     * If the logger is currently enabled for the given message
+     * level then the parameters are constructed by invoking the provided
+     * supplier function, and a corresponding LogRecord is created and
+     * forwarded to all the registered output Handler objects.
+     * <p>
+     * The {@code msg} string is localized using the given resource bundle.
+     * If the resource bundle is {@code null}, then the {@code msg} string is not
+     * localized.
+     * <p>
+     * @param   level   One of the message level identifiers, e.g., SEVERE
+     * @param   sourceClass    Name of the class that issued the logging request
+     * @param   sourceMethod   Name of the method that issued the logging request
+     * @param   bundle         Resource bundle to localize {@code msg},
+     *                         can be {@code null}.
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   paramsSupplier   A function, which when called, produces the
+     *                           parameters to the message (may be none)
+     * @since 1.8
+     */
+    public void logrb(Level level, String sourceClass, String sourceMethod,
+                      ResourceBundle bundle, String msg,
+                      Supplier<Object[]> paramsSupplier) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        LogRecord lr = new LogRecord(level, msg);
+        lr.setSourceClassName(sourceClass);
+        lr.setSourceMethodName(sourceMethod);
+        Object[] params = paramsSupplier.get();
+        if (params != null && params.length != 0) {
+            lr.setParameters(params);
+        }
+        doLog(lr, bundle);
+    }
+
     /**
      * Log a message, specifying source class, method, and resource bundle name,
      * with associated Throwable information.
@@ -1384,6 +1479,30 @@ public class Logger {
         logp(Level.FINER, sourceClass, sourceMethod, msg, params);
     }
 
+    /**
+     * Log a method entry, with an array of parameters which is only to be
+     * constructed if the logger is currently enabled for the FINER level.
+     * <p>
+     * This is a convenience method that can be used to log entry
+     * to a method.  A LogRecord with message "ENTRY" (followed by a
+     * format {N} indicator for each entry in the parameter array),
+     * log level FINER, and the given sourceMethod, sourceClass, and
+     * parameters is logged.
+     * <p>
+     * @param   sourceClass    name of class that issued the logging request
+     * @param   sourceMethod   name of method that is being entered
+     * @param   paramsSupplier   A function, which when called, produces the
+     *                           array of parameters to the method being entered
+     * @since 1.8
+     */
+    public void entering(String sourceClass, String sourceMethod,
+                         Supplier<Object[]> paramsSupplier) {
+        if (!isLoggable(Level.FINER)) {
+            return;
+        }
+        entering(sourceClass, sourceMethod, paramsSupplier.get());
+    }
+
     /**
      * Log a method return.
      * <p>
@@ -1717,7 +1836,10 @@ public class Logger {
      * @return  true if the given message level is currently being logged.
      */
     public boolean isLoggable(Level level) {
-        if (level.intValue() < levelValue || levelValue == offValue) {
+        // a single read of the effective level, which is published to
+        // each logger of the tree as the configuration changes
+        final int value = levelValue;
+        if (level.intValue() < value || value == offValue) {
             return false;
         }
         return true;
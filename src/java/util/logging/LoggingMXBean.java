@@ -136,4 +136,46 @@ public interface LoggingMXBean {
      *         is returned.
      */
     public String getParentLoggerName(String loggerName);
+
+    /**
+     * Returns the number of log records waiting in the queues of the
+     * {@link AsyncHandler}s that are currently open, to be published to
+     * their targets.
+     *
+     * <p>
+     * This method is available to callers of {@link LogManager#getLoggingMXBean}
+     * only.  It is not an attribute of the
+     * {@link java.lang.management.PlatformLoggingMXBean} registered in the
+     * platform {@code MBeanServer}.
+     *
+     * @return the number of log records queued by all open
+     *         <tt>AsyncHandler</tt>s.
+     *
+     * @see AsyncHandler#getQueueDepth
+     * @since 1.8
+     */
+    default long getAsyncQueueDepth() {
+        return AsyncHandler.totalQueueDepth();
+    }
+
+    /**
+     * Returns the number of log records that {@link AsyncHandler}s have
+     * discarded, whether because their queues were full or because they
+     * were closed or their writer threads had stopped.
+     *
+     * <p>
+     * This method is available to callers of {@link LogManager#getLoggingMXBean}
+     * only.  It is not an attribute of the
+     * {@link java.lang.management.PlatformLoggingMXBean} registered in the
+     * platform {@code MBeanServer}.
+     *
+     * @return the number of log records discarded by all
+     *         <tt>AsyncHandler</tt>s.
+     *
+     * @see AsyncHandler#getDroppedCount
+     * @since 1.8
+     */
+    default long getAsyncDroppedCount() {
+        return AsyncHandler.totalDroppedCount();
+    }
 }
@@ -203,4 +203,10 @@ public class SocketHandler extends StreamHandler {
         super.publish(record);
         flush();
     }
+
+    @Override
+    synchronized void publish(LogRecord[] records, int count) {
+        super.publish(records, count);
+        flush();
+    }
 }
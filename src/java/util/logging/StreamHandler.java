@@ -203,6 +203,18 @@ public class StreamHandler extends Handler {
      */
     @Override
     public synchronized void publish(LogRecord record) {
+        write(record);
+    }
+
+    @Override
+    synchronized void publish(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            write(records[i]);
+        }
+    }
+
+    // Formats and writes a record, if it is loggable, without flushing.
+    private void write(LogRecord record) {
         if (!isLoggable(record)) {
             return;
         }
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+
+/**
+ * An Aho-Corasick automaton over a set of literal strings, shared by
+ * {@link MultiLiteralPattern} and the literal alternations of
+ * {@link Pattern}.
+ *
+ * The trie is stored in compressed form: the edges of each state are
+ * sorted by character, the edges leaving the root are also indexed by
+ * ASCII character. State 0 is the root. Literals are numbered in the
+ * order they were given; a literal given twice is reported under its
+ * first index.
+ */
+final class AhoCorasick {
+
+    /**
+     * Case folding modes.
+     */
+    static final int CASE_SENSITIVE = 0;
+    static final int ASCII_CASE     = 1;
+    static final int UNICODE_CASE   = 2;
+
+    private final int fold;
+
+    // The edges of state s are at base[s] until base[s + 1]
+    private final int[] base;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] rootAscii;
+
+    // Per state: failure link, nearest terminal state reachable through
+    // failure links, literal ending at the state, depth, and the smallest
+    // literal ending strictly below the state.
+    private final int[] fail;
+    private final int[] dict;
+    private final int[] out;
+    private final int[] depth;
+    private final int[] minBelow;
+
+    private final int[] lengths;
+    final int minLength;
+    final int maxLength;
+
+    AhoCorasick(CharSequence[] literals, int fold) {
+        this.fold = fold;
+        int cap = 16;
+        int[] firstChild = new int[cap];
+        int[] sibling = new int[cap];
+        char[] label = new char[cap];
+        int[] out = new int[cap];
+        int[] depth = new int[cap];
+        int n = 1;
+        firstChild[0] = -1;
+        out[0] = -1;
+
+        lengths = new int[literals.length];
+        int minL = Integer.MAX_VALUE;
+        int maxL = 0;
+        for (int k = 0; k < literals.length; k++) {
+            CharSequence s = literals[k];
+            int len = s.length();
+            int state = 0;
+            for (int j = 0; j < len; j++) {
+                char c = fold(s.charAt(j));
+                int t = firstChild[state];
+                while (t >= 0 && label[t] != c)
+                    t = sibling[t];
+                if (t < 0) {
+                    if (n == cap) {
+                        cap <<= 1;
+                        firstChild = Arrays.copyOf(firstChild, cap);
+                        sibling = Arrays.copyOf(sibling, cap);
+                        label = Arrays.copyOf(label, cap);
+                        out = Arrays.copyOf(out, cap);
+                        depth = Arrays.copyOf(depth, cap);
+                    }
+                    t = n++;
+                    label[t] = c;
+                    firstChild[t] = -1;
+                    out[t] = -1;
+                    depth[t] = depth[state] + 1;
+                    sibling[t] = firstChild[state];
+                    firstChild[state] = t;
+                }
+                state = t;
+            }
+            if (out[state] < 0)
+                out[state] = k;
+            lengths[k] = len;
+            minL = Math.min(minL, len);
+            maxL = Math.max(maxL, len);
+        }
+        minLength = (literals.length == 0) ? 0 : minL;
+        maxLength = maxL;
+
+        // Compress the edges, sorted by character
+        base = new int[n + 1];
+        long[] edges = new long[n];
+        int e = 0;
+        for (int s = 0; s < n; s++) {
+            base[s] = e;
+            for (int t = firstChild[s]; t >= 0; t = sibling[t])
+                edges[e++] = ((long) label[t] << 32) | t;
+            Arrays.sort(edges, base[s], e);
+        }
+        base[n] = e;
+        labels = new char[e];
+        targets = new int[e];
+        for (int i = 0; i < e; i++) {
+            labels[i] = (char) (edges[i] >>> 32);
+            targets[i] = (int) edges[i];
+        }
+        rootAscii = new int[128];
+        Arrays.fill(rootAscii, -1);
+        for (int i = base[0]; i < base[1] && labels[i] < 128; i++)
+            rootAscii[labels[i]] = targets[i];
+
+        this.out = Arrays.copyOf(out, n);
+        this.depth = Arrays.copyOf(depth, n);
+        fail = new int[n];
+        dict = new int[n];
+        minBelow = new int[n];
+        dict[0] = -1;
+
+        // Breadth first, so that the links of shallower states are known
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int s = queue[head++];
+            for (int i = base[s]; i < base[s + 1]; i++) {
+                int t = targets[i];
+                int f = 0;
+                if (s != 0) {
+                    f = fail[s];
+                    int g;
+                    while ((g = edge(f, labels[i])) < 0 && f != 0)
+                        f = fail[f];
+                    f = (g < 0) ? 0 : g;
+                }
+                fail[t] = f;
+                dict[t] = (this.out[f] >= 0) ? f : dict[f];
+                queue[tail++] = t;
+            }
+        }
+        for (int q = n - 1; q >= 0; q--) {
+            int s = queue[q];
+            int min = Integer.MAX_VALUE;
+            for (int i = base[s]; i < base[s + 1]; i++) {
+                int t = targets[i];
+                min = Math.min(min, minBelow[t]);
+                if (this.out[t] >= 0)
+                    min = Math.min(min, this.out[t]);
+            }
+            minBelow[s] = min;
+        }
+    }
+
+    char fold(char c) {
+        switch (fold) {
+        case ASCII_CASE:
+            return (char) ASCII.toLower(c);
+        case UNICODE_CASE:
+            return Character.toLowerCase(Character.toUpperCase(c));
+        default:
+            return c;
+        }
+    }
+
+    private int edge(int state, char c) {
+        if (state == 0 && c < 128)
+            return rootAscii[c];
+        int lo = base[state];
+        int hi = base[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char l = labels[mid];
+            if (l < c)
+                lo = mid + 1;
+            else if (l > c)
+                hi = mid - 1;
+            else
+                return targets[mid];
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the trie child of the state for the character, or -1.
+     */
+    int child(int state, char c) {
+        return edge(state, fold(c));
+    }
+
+    /**
+     * Returns true if the state has no children.
+     */
+    boolean isLeaf(int state) {
+        return base[state] == base[state + 1];
+    }
+
+    /**
+     * Returns the literal ending at the state, or -1.
+     */
+    int output(int state) {
+        return out[state];
+    }
+
+    /**
+     * Returns the smallest literal that ends strictly below the state, or
+     * Integer.MAX_VALUE.
+     */
+    int minBelow(int state) {
+        return minBelow[state];
+    }
+
+    int length(int index) {
+        return lengths[index];
+    }
+
+    int size() {
+        return lengths.length;
+    }
+
+    /**
+     * Finds the leftmost occurrence of a literal in the given range,
+     * preferring the longest literal among those starting there.
+     *
+     * @return  the start of the occurrence in the high and the index of the
+     *          literal in the low 32 bits, or -1 if there is none
+     */
+    long find(CharSequence seq, int from, int to) {
+        int state = 0;
+        int bestStart = -1;
+        int bestState = -1;
+        for (int i = from; i < to; i++) {
+            char c = fold(seq.charAt(i));
+            int t;
+            while ((t = edge(state, c)) < 0 && state != 0)
+                state = fail[state];
+            state = (t < 0) ? 0 : t;
+            // The longest literal ending here starts first
+            int o = (out[state] >= 0) ? state : dict[state];
+            if (o >= 0) {
+                int start = i + 1 - depth[o];
+                if (bestStart < 0 || start < bestStart ||
+                    (start == bestStart && depth[o] > depth[bestState])) {
+                    bestStart = start;
+                    bestState = o;
+                }
+            }
+            // Every prefix still in progress starts past the best match
+            if (bestStart >= 0 && i + 1 - depth[state] > bestStart)
+                break;
+        }
+        if (bestStart < 0)
+            return -1;
+        return ((long) bestStart << 32) | out[bestState];
+    }
+
+    /**
+     * Returns true if the input from the given index to the end of the
+     * range is a proper prefix of some literal.
+     */
+    boolean isPartial(CharSequence seq, int from, int to) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            state = child(state, seq.charAt(i));
+            if (state < 0)
+                return false;
+        }
+        return !isLeaf(state);
+    }
+}
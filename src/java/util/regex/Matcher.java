@@ -25,6 +25,7 @@
 
 package java.util.regex;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -207,6 +208,18 @@ public final class Matcher implements MatchResult {
      */
     boolean anchoringBounds = true;
 
+    /**
+     * The thread lists used when the pattern is executed in linear time,
+     * allocated by the first such match operation.
+     */
+    Pattern.NFA.Threads nfaThreads;
+
+    /**
+     * The positions of the empty tokens held back by split, allocated on
+     * first use.
+     */
+    int[] heldEmpty;
+
     /**
      * No default constructor.
      */
@@ -329,6 +342,32 @@ public final class Matcher implements MatchResult {
         return reset();
     }
 
+    /**
+     * Resets this matcher with a new input sequence and sets its region.
+     *
+     * <p> This method works as if by invoking {@link #reset(CharSequence)
+     * reset(input)} followed by {@link #region region(start, end)}.  A
+     * matcher can so be reused across inputs without allocation.
+     *
+     * @param  input
+     *         The new input character sequence
+     * @param  start
+     *         The index to start searching at (inclusive)
+     * @param  end
+     *         The index to end searching at (exclusive)
+     * @throws  IndexOutOfBoundsException
+     *          If start or end is less than zero, if
+     *          start is greater than the length of the input sequence, if
+     *          end is greater than the length of the input sequence, or if
+     *          start is greater than end.
+     * @return  This matcher
+     * @since 1.8
+     */
+    public Matcher reset(CharSequence input, int start, int end) {
+        text = input;
+        return region(start, end);
+    }
+
     /**
      * Returns the start index of the previous match.
      *
@@ -796,10 +835,75 @@ public final class Matcher implements MatchResult {
         // If no match, return error
         if (first < 0)
             throw new IllegalStateException("No match available");
+        StringBuilder result = appendExpandedReplacement(
+            replacement, new StringBuilder());
+        // Append the intervening text
+        sb.append(text, lastAppendPosition, first);
+        // Append the match substitution
+        sb.append(result);
+
+        lastAppendPosition = last;
+        return this;
+    }
+
+    /**
+     * Implements a non-terminal append-and-replace step.
+     *
+     * <p> This method performs the same actions as {@link
+     * #appendReplacement(StringBuffer, String)}, with an unsynchronized
+     * string builder as the target. The substitution is expanded directly
+     * into the builder, which is left as it was if the replacement string
+     * is invalid.
+     *
+     * @param  sb
+     *         The target string builder
+     *
+     * @param  replacement
+     *         The replacement string
+     *
+     * @return  This matcher
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     *
+     * @throws  IllegalArgumentException
+     *          If the replacement string refers to a named-capturing
+     *          group that does not exist in the pattern
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the replacement string refers to a capturing group
+     *          that does not exist in the pattern
+     * @since 1.8
+     */
+    public Matcher appendReplacement(StringBuilder sb, String replacement) {
+        // If no match, return error
+        if (first < 0)
+            throw new IllegalStateException("No match available");
+        int mark = sb.length();
+        // Append the intervening text
+        sb.append(text, lastAppendPosition, first);
+        try {
+            appendExpandedReplacement(replacement, sb);
+        } catch (RuntimeException e) {
+            sb.setLength(mark);
+            throw e;
+        }
+        lastAppendPosition = last;
+        return this;
+    }
+
+    /**
+     * Processes replacement string to replace group references with
+     * groups, appending the result to the given builder.
+     */
+    private StringBuilder appendExpandedReplacement(
+        String replacement, StringBuilder result) {
+        if (replacement.indexOf('\\') < 0 && replacement.indexOf('$') < 0)
+            return result.append(replacement);
 
         // Process substitution string to replace group references with groups
         int cursor = 0;
-        StringBuilder result = new StringBuilder();
 
         while (cursor < replacement.length()) {
             char nextChar = replacement.charAt(cursor);
@@ -884,13 +988,7 @@ public final class Matcher implements MatchResult {
                 cursor++;
             }
         }
-        // Append the intervening text
-        sb.append(text, lastAppendPosition, first);
-        // Append the match substitution
-        sb.append(result);
-
-        lastAppendPosition = last;
-        return this;
+        return result;
     }
 
     /**
@@ -912,6 +1010,26 @@ public final class Matcher implements MatchResult {
         return sb;
     }
 
+    /**
+     * Implements a terminal append-and-replace step.
+     *
+     * <p> This method reads characters from the input sequence, starting at
+     * the append position, and appends them to the given string builder.  It
+     * is intended to be invoked after one or more invocations of the {@link
+     * #appendReplacement(StringBuilder, String) appendReplacement} method in
+     * order to copy the remainder of the input sequence.  </p>
+     *
+     * @param  sb
+     *         The target string builder
+     *
+     * @return  The target string builder
+     * @since 1.8
+     */
+    public StringBuilder appendTail(StringBuilder sb) {
+        sb.append(text, lastAppendPosition, getTextLength());
+        return sb;
+    }
+
     /**
      * Replaces every subsequence of the input sequence that matches the
      * pattern with the given replacement string.
@@ -950,7 +1068,7 @@ public final class Matcher implements MatchResult {
         reset();
         boolean result = find();
         if (result) {
-            StringBuffer sb = new StringBuffer();
+            StringBuilder sb = new StringBuilder();
             do {
                 appendReplacement(sb, replacement);
                 result = find();
@@ -1000,12 +1118,149 @@ public final class Matcher implements MatchResult {
         reset();
         if (!find())
             return text.toString();
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         appendReplacement(sb, replacement);
         appendTail(sb);
         return sb.toString();
     }
 
+    /**
+     * Receives the bounds of the tokens produced by the {@link
+     * Matcher#split(int, TokenConsumer) split} methods.
+     *
+     * @since 1.8
+     */
+    @FunctionalInterface
+    public interface TokenConsumer {
+        /**
+         * Accepts a token.
+         *
+         * @param  start
+         *         The index of the first character of the token
+         * @param  end
+         *         The index after the last character of the token
+         */
+        void accept(int start, int end);
+    }
+
+    /**
+     * Splits this matcher's region around matches of the pattern, storing
+     * the bounds of the tokens in the given array.
+     *
+     * <p> The tokens are those that {@link Pattern#split(CharSequence, int)}
+     * would return for the region of the input and the given limit, and are
+     * reported as indexes into the input rather than as strings: the start
+     * of the <i>k</i>th token is stored at index <tt>2*k</tt> of the array,
+     * its end at index <tt>2*k+1</tt>.  If the array is too small, the
+     * tokens that do not fit are counted but not stored.
+     *
+     * <p> Together with {@link #reset(CharSequence, int, int)}, this method
+     * lets a single matcher and array split any number of inputs without
+     * allocating.  Invoking this method changes this matcher's state and
+     * leaves its region unchanged.  </p>
+     *
+     * @param  limit
+     *         The result threshold, as described for {@link
+     *         Pattern#split(CharSequence, int)}
+     *
+     * @param  offsets
+     *         The array receiving the bounds of the tokens
+     *
+     * @return  The number of tokens
+     * @since 1.8
+     */
+    public int split(int limit, int[] offsets) {
+        return split(limit, Objects.requireNonNull(offsets), null);
+    }
+
+    /**
+     * Splits this matcher's region around matches of the pattern, passing
+     * the bounds of the tokens to the given consumer.
+     *
+     * <p> The tokens are those that {@link Pattern#split(CharSequence, int)}
+     * would return for the region of the input and the given limit.  When
+     * the limit is zero, empty tokens are only passed once a non-empty
+     * token follows them, so that trailing empty tokens are discarded.
+     * Invoking this method changes this matcher's state and leaves its
+     * region unchanged.  </p>
+     *
+     * @param  limit
+     *         The result threshold, as described for {@link
+     *         Pattern#split(CharSequence, int)}
+     *
+     * @param  action
+     *         The consumer of the bounds of the tokens
+     *
+     * @return  The number of tokens
+     * @since 1.8
+     */
+    public int split(int limit, TokenConsumer action) {
+        return split(limit, null, Objects.requireNonNull(action));
+    }
+
+    private int split(int limit, int[] offsets, TokenConsumer action) {
+        int start = from;
+        int end = to;
+        region(start, end);
+        boolean found = false;
+        int index = start;
+        int count = 0;
+        // Empty tokens held back until a non-empty token follows
+        int held = 0;
+        while (find()) {
+            // No empty leading token for a zero-width match at the beginning
+            if (!found && last == start)
+                continue;
+            found = true;
+            if (limit > 0 && count == limit - 1)
+                break;
+            if (limit == 0 && first == index) {
+                if (action == null) {
+                    token(count + held, index, index, offsets, null);
+                } else {
+                    if (heldEmpty == null)
+                        heldEmpty = new int[16];
+                    else if (held == heldEmpty.length)
+                        heldEmpty = Arrays.copyOf(heldEmpty, held * 2);
+                    heldEmpty[held] = index;
+                }
+                held++;
+            } else {
+                count = release(count, held, action);
+                held = 0;
+                token(count++, index, first, offsets, action);
+            }
+            index = last;
+        }
+        if (!found) {
+            token(0, start, end, offsets, action);
+            return 1;
+        }
+        if (limit != 0 || index != end) {
+            count = release(count, held, action);
+            token(count++, index, end, offsets, action);
+        }
+        return count;
+    }
+
+    private int release(int count, int held, TokenConsumer action) {
+        if (action != null) {
+            for (int i = 0; i < held; i++)
+                action.accept(heldEmpty[i], heldEmpty[i]);
+        }
+        return count + held;
+    }
+
+    private static void token(int k, int start, int end,
+                              int[] offsets, TokenConsumer action) {
+        if (action != null) {
+            action.accept(start, end);
+        } else if (2 * k + 1 < offsets.length) {
+            offsets[2 * k] = start;
+            offsets[2 * k + 1] = end;
+        }
+    }
+
     /**
      * Sets the limits of this matcher's region. The region is the part of the
      * input sequence that will be searched to find a match. Invoking this
@@ -1245,7 +1500,16 @@ public final class Matcher implements MatchResult {
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         acceptMode = NOANCHOR;
-        boolean result = parentPattern.root.match(this, from, text);
+        boolean result;
+        Pattern.NFA nfa = parentPattern.nfa;
+        int r = (nfa != null) ? nfa.search(this, from, text) : Pattern.NFA.UNSUPPORTED;
+        if (r != Pattern.NFA.UNSUPPORTED) {
+            result = r > 0;
+        } else {
+            this.hitEnd = false;
+            this.requireEnd = false;
+            result = parentPattern.root.match(this, from, text);
+        }
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
@@ -1267,7 +1531,16 @@ public final class Matcher implements MatchResult {
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         acceptMode = anchor;
-        boolean result = parentPattern.matchRoot.match(this, from, text);
+        boolean result;
+        Pattern.NFA nfa = parentPattern.nfa;
+        int r = (nfa != null) ? nfa.match(this, from, true, text) : Pattern.NFA.UNSUPPORTED;
+        if (r != Pattern.NFA.UNSUPPORTED) {
+            result = r > 0;
+        } else {
+            this.hitEnd = false;
+            this.requireEnd = false;
+            result = parentPattern.matchRoot.match(this, from, text);
+        }
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
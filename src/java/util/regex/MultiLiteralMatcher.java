@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.Objects;
+
+/**
+ * An engine that finds the occurrences of the literals of a {@link
+ * MultiLiteralPattern} in a character sequence.
+ *
+ * <p> A matcher is created from a pattern by invoking the pattern's {@link
+ * MultiLiteralPattern#matcher matcher} method. The {@link #find find} method
+ * scans the input for the next occurrence of any literal; the literal found
+ * is identified by its {@link #index index}, and its bounds are queried
+ * through the {@link MatchResult} methods. A multi-literal pattern has no
+ * capturing groups, so group zero is the only group.
+ *
+ * <p> Instances of this class are not safe for use by multiple concurrent
+ * threads.
+ *
+ * @see MultiLiteralPattern
+ * @since 1.8
+ */
+public final class MultiLiteralMatcher implements MatchResult {
+
+    private final MultiLiteralPattern pattern;
+
+    private CharSequence text;
+
+    /**
+     * The range of the last match, first is -1 if there is none.
+     */
+    private int first = -1;
+    private int last = 0;
+
+    /**
+     * The index of the literal found by the last match.
+     */
+    private int index = -1;
+
+    MultiLiteralMatcher(MultiLiteralPattern pattern, CharSequence text) {
+        this.pattern = pattern;
+        this.text = text;
+    }
+
+    /**
+     * Returns the pattern that is interpreted by this matcher.
+     *
+     * @return  The pattern for which this matcher was created
+     */
+    public MultiLiteralPattern pattern() {
+        return pattern;
+    }
+
+    /**
+     * Resets this matcher.
+     *
+     * @return  This matcher
+     */
+    public MultiLiteralMatcher reset() {
+        first = -1;
+        last = 0;
+        index = -1;
+        return this;
+    }
+
+    /**
+     * Resets this matcher with a new input sequence.
+     *
+     * @param  input
+     *         The new input character sequence
+     *
+     * @return  This matcher
+     */
+    public MultiLiteralMatcher reset(CharSequence input) {
+        text = Objects.requireNonNull(input);
+        return reset();
+    }
+
+    /**
+     * Attempts to find the next occurrence of a literal in the input,
+     * starting at the end of the previous match, or at the beginning of the
+     * input if there is none.
+     *
+     * @return  <tt>true</tt> if, and only if, a literal was found
+     */
+    public boolean find() {
+        return search(last);
+    }
+
+    /**
+     * Resets this matcher and then attempts to find the next occurrence of a
+     * literal in the input, starting at the specified index.
+     *
+     * @param  start
+     *         The index to start searching at
+     *
+     * @return  <tt>true</tt> if, and only if, a literal was found
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If start is less than zero or if start is greater than the
+     *          length of the input sequence.
+     */
+    public boolean find(int start) {
+        if ((start < 0) || (start > text.length()))
+            throw new IndexOutOfBoundsException("Illegal start index");
+        reset();
+        return search(start);
+    }
+
+    private boolean search(int from) {
+        long r = pattern.automaton.find(text, from, text.length());
+        if (r < 0) {
+            first = -1;
+            index = -1;
+            return false;
+        }
+        first = (int) (r >>> 32);
+        index = (int) r;
+        last = first + pattern.automaton.length(index);
+        return true;
+    }
+
+    /**
+     * Returns the index of the literal found by the previous match, in the
+     * order in which the literals were given to the pattern.
+     *
+     * @return  The index of the literal found
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     */
+    public int index() {
+        if (first < 0)
+            throw new IllegalStateException("No match available");
+        return index;
+    }
+
+    /**
+     * Returns the start index of the previous match.
+     *
+     * @return  The index of the first character matched
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     */
+    public int start() {
+        if (first < 0)
+            throw new IllegalStateException("No match available");
+        return first;
+    }
+
+    /**
+     * Returns the start index of the given group during the previous match.
+     * Group zero is the only group.
+     *
+     * @param  group
+     *         The index of a group
+     *
+     * @return  The index of the first character matched
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the group is not zero
+     */
+    public int start(int group) {
+        if (first < 0)
+            throw new IllegalStateException("No match available");
+        if (group != 0)
+            throw new IndexOutOfBoundsException("No group " + group);
+        return first;
+    }
+
+    /**
+     * Returns the offset after the last character matched.
+     *
+     * @return  The offset after the last character matched
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     */
+    public int end() {
+        if (first < 0)
+            throw new IllegalStateException("No match available");
+        return last;
+    }
+
+    /**
+     * Returns the offset after the last character of the given group during
+     * the previous match. Group zero is the only group.
+     *
+     * @param  group
+     *         The index of a group
+     *
+     * @return  The offset after the last character matched
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the group is not zero
+     */
+    public int end(int group) {
+        if (first < 0)
+            throw new IllegalStateException("No match available");
+        if (group != 0)
+            throw new IndexOutOfBoundsException("No group " + group);
+        return last;
+    }
+
+    /**
+     * Returns the input subsequence matched by the previous match. With case
+     * insensitive matching this may differ from the literal in case.
+     *
+     * @return  The subsequence matched by the previous match
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     */
+    public String group() {
+        return group(0);
+    }
+
+    /**
+     * Returns the input subsequence captured by the given group during the
+     * previous match. Group zero is the only group.
+     *
+     * @param  group
+     *         The index of a group
+     *
+     * @return  The subsequence matched by the previous match
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the group is not zero
+     */
+    public String group(int group) {
+        if (first < 0)
+            throw new IllegalStateException("No match found");
+        if (group != 0)
+            throw new IndexOutOfBoundsException("No group " + group);
+        return text.subSequence(first, last).toString();
+    }
+
+    /**
+     * Returns the number of capturing groups, which is always zero.
+     *
+     * @return  Zero
+     */
+    public int groupCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the string representation of this matcher.
+     *
+     * @return  The string representation of this matcher
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("java.util.regex.MultiLiteralMatcher")
+            .append("[pattern=").append(pattern.size()).append(" literals")
+            .append(" lastmatch=");
+        if (first >= 0)
+            sb.append(group());
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled set of literal strings, searched for simultaneously.
+ *
+ * <p> A multi-literal pattern finds occurrences of any of a large number of
+ * literals, such as keywords, in a single pass over the input. Its cost is
+ * proportional to the length of the input and does not depend on the
+ * number of literals, where the alternation <tt>k1|k2|...|kn</tt> of a
+ * {@link Pattern} tries every literal in turn at every position of the
+ * input.
+ *
+ * <pre>
+ * MultiLiteralPattern p = MultiLiteralPattern.compile(keywords);
+ * MultiLiteralMatcher m = p.matcher(message);
+ * while (m.find())
+ *     System.out.println(p.literal(m.index()) + " at " + m.start());</pre>
+ *
+ * <p> Matches are reported leftmost first: among the literals occurring in
+ * the input, the one starting at the smallest index is reported, and if
+ * several literals start there the longest one is chosen. Successive
+ * matches do not overlap.
+ *
+ * <p> Instances of this class are immutable and are safe for use by
+ * multiple concurrent threads. Instances of the {@link MultiLiteralMatcher}
+ * class are not safe for such use.
+ *
+ * @see Pattern
+ * @since 1.8
+ */
+public final class MultiLiteralPattern {
+
+    private final String[] literals;
+    private final int flags;
+    final AhoCorasick automaton;
+
+    private MultiLiteralPattern(String[] literals, int flags) {
+        this.literals = literals;
+        this.flags = flags;
+        int fold = AhoCorasick.CASE_SENSITIVE;
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            fold = ((flags & Pattern.UNICODE_CASE) != 0) ?
+                AhoCorasick.UNICODE_CASE : AhoCorasick.ASCII_CASE;
+        }
+        this.automaton = new AhoCorasick(literals, fold);
+    }
+
+    /**
+     * Compiles the given literals into a pattern.
+     *
+     * @param  literals
+     *         The literals to be searched for
+     *
+     * @return  the given literals compiled into a pattern
+     *
+     * @throws  IllegalArgumentException
+     *          If one of the literals is empty
+     */
+    public static MultiLiteralPattern compile(Collection<? extends CharSequence> literals) {
+        return compile(literals, 0);
+    }
+
+    /**
+     * Compiles the given literals into a pattern with the given flags.
+     *
+     * @param  literals
+     *         The literals to be searched for
+     *
+     * @param  flags
+     *         Match flags, a bit mask that may include
+     *         {@link Pattern#CASE_INSENSITIVE} and {@link Pattern#UNICODE_CASE}
+     *
+     * @return  the given literals compiled into a pattern with the given flags
+     *
+     * @throws  IllegalArgumentException
+     *          If bit values other than those corresponding to the defined
+     *          match flags are set in <tt>flags</tt>, or if one of the
+     *          literals is empty
+     */
+    public static MultiLiteralPattern compile(Collection<? extends CharSequence> literals,
+                                              int flags) {
+        if ((flags & ~(Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)) != 0)
+            throw new IllegalArgumentException("Unknown flag 0x"
+                                               + Integer.toHexString(flags));
+        String[] a = new String[literals.size()];
+        int n = 0;
+        for (CharSequence s : literals) {
+            if (s.length() == 0)
+                throw new IllegalArgumentException("Empty literal");
+            a[n++] = s.toString();
+        }
+        if (n != a.length)
+            a = Arrays.copyOf(a, n);
+        return new MultiLiteralPattern(a, flags);
+    }
+
+    /**
+     * Returns this pattern's match flags.
+     *
+     * @return  The match flags specified when this pattern was compiled
+     */
+    public int flags() {
+        return flags;
+    }
+
+    /**
+     * Returns the number of literals of this pattern.
+     *
+     * @return  The number of literals
+     */
+    public int size() {
+        return literals.length;
+    }
+
+    /**
+     * Returns the literal with the given index, in the order in which the
+     * literals were given when this pattern was compiled.
+     *
+     * @param  index
+     *         The index of a literal
+     *
+     * @return  The literal
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the index is negative or not less than {@link #size()}
+     */
+    public String literal(int index) {
+        return literals[index];
+    }
+
+    /**
+     * Returns an unmodifiable list of the literals of this pattern.
+     *
+     * @return  The literals, in the order in which they were given
+     */
+    public List<String> literals() {
+        return Collections.unmodifiableList(Arrays.asList(literals));
+    }
+
+    /**
+     * Creates a matcher that will match the given input against this pattern.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @return  A new matcher for this pattern
+     */
+    public MultiLiteralMatcher matcher(CharSequence input) {
+        return new MultiLiteralMatcher(this, input);
+    }
+
+    /**
+     * Tells whether any of the literals of this pattern occurs in the
+     * given input.
+     *
+     * @param  input
+     *         The character sequence to be searched
+     *
+     * @return  <tt>true</tt> if, and only if, one of the literals occurs in
+     *          the input
+     */
+    public boolean containedIn(CharSequence input) {
+        return automaton.find(input, 0, input.length()) >= 0;
+    }
+
+    /**
+     * Returns a string representation of this pattern, the literals joined
+     * as an alternation.
+     *
+     * @return  The string representation of this pattern
+     */
+    public String toString() {
+        return String.join("|", literals);
+    }
+}
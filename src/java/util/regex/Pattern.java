@@ -917,6 +917,53 @@ public final class Pattern
      */
     public static final int UNICODE_CHARACTER_CLASS = 0x100;
 
+    /**
+     * Requires this pattern to be matched in linear time.
+     *
+     * <p> When this flag is specified the pattern is executed by a
+     * Thompson NFA simulation instead of the backtracking matcher, so that
+     * the time spent by a match operation grows linearly with the length
+     * of the input regardless of the structure of the pattern.  The
+     * matched region is the same as with the backtracking matcher.
+     *
+     * <p> The captured groups are the same as well, except for a capturing
+     * group nested in the body of a group that is repeated by a quantifier
+     * with a maximum greater than one, such as group 1 of
+     * <tt>(?:([ab]))*b</tt> or group 2 of <tt>(?:(a|b)(.){1,3})*</tt>.  Such
+     * a group is reported as matched in the last repetition that is part of
+     * the match.  The backtracking matcher does not always restore it when it
+     * gives back repetitions, and may report it as matched in a repetition
+     * that was given back or in an earlier one: matching <tt>"ab"</tt>
+     * against <tt>(?:([ab]))*b</tt> captures <tt>"a"</tt> with this flag and
+     * <tt>"b"</tt> without it.  {@link Matcher#hitEnd hitEnd} and
+     * {@link Matcher#requireEnd requireEnd} may be reported conservatively,
+     * as alternatives are explored side by side.
+     *
+     * <p> Only the regular subset of the syntax can be executed this way.
+     * Back references, lookahead, lookbehind, independent groups, possessive
+     * quantifiers, <tt>\R</tt>, canonical equivalence and quantified
+     * expressions that can match the empty string are rejected with a
+     * {@link PatternSyntaxException} when this flag is given.
+     *
+     * <p> Without this flag a pattern is always matched by the backtracking
+     * matcher.
+     *
+     * <p> There is no embedded flag character for this mode.
+     * @since 1.8
+     */
+    public static final int LINEAR_TIME = 0x200;
+
+    /**
+     * Requires this pattern to be matched by the backtracking matcher.
+     *
+     * <p> This is also how a pattern is matched when neither this flag nor
+     * {@link #LINEAR_TIME} is given; the two flags may not be combined.
+     *
+     * <p> There is no embedded flag character for this mode.
+     * @since 1.8
+     */
+    public static final int BACKTRACKING = 0x400;
+
     /* Pattern has only two serialized components: The pattern string
      * and the flags, which are all that is needed to recompile the pattern
      * when it is deserialized.
@@ -984,6 +1031,12 @@ public final class Pattern
      */
     private transient int[] temp;
 
+    /**
+     * The linear-time program for this Pattern, or null if the pattern is
+     * matched by walking the node tree.
+     */
+    transient NFA nfa;
+
     /**
      * The number of capturing groups in this Pattern. Used by matchers to
      * allocate storage needed to perform a match.
@@ -1039,13 +1092,15 @@ public final class Pattern
      *         Match flags, a bit mask that may include
      *         {@link #CASE_INSENSITIVE}, {@link #MULTILINE}, {@link #DOTALL},
      *         {@link #UNICODE_CASE}, {@link #CANON_EQ}, {@link #UNIX_LINES},
-     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS}
-     *         and {@link #COMMENTS}
+     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS},
+     *         {@link #COMMENTS}, {@link #LINEAR_TIME}
+     *         and {@link #BACKTRACKING}
      *
      * @return the given regular expression compiled into a pattern with the given flags
      * @throws  IllegalArgumentException
      *          If bit values other than those corresponding to the defined
-     *          match flags are set in <tt>flags</tt>
+     *          match flags are set in <tt>flags</tt>, or if both
+     *          {@link #LINEAR_TIME} and {@link #BACKTRACKING} are set
      *
      * @throws  PatternSyntaxException
      *          If the expression's syntax is invalid
@@ -1273,6 +1328,67 @@ public final class Pattern
         return split(input, 0);
     }
 
+    /**
+     * Splits the given region of the input sequence around matches of this
+     * pattern, storing the bounds of the tokens in the given array.
+     *
+     * <p> This method works as if by invoking {@link Matcher#split(int, int[])
+     * split(0, offsets)} on a matcher for the input whose region is set to
+     * the given bounds.  The tokens are therefore those of {@link
+     * #split(CharSequence) split} applied to the region, reported as pairs
+     * of indexes into the input rather than as strings.  Callers splitting
+     * many inputs should reuse a matcher instead, see {@link
+     * Matcher#reset(CharSequence, int, int)}.
+     *
+     * @param  input
+     *         The character sequence to be split
+     * @param  start
+     *         The start of the region (inclusive)
+     * @param  end
+     *         The end of the region (exclusive)
+     * @param  offsets
+     *         The array receiving the bounds of the tokens, the start of the
+     *         <i>k</i>th token at index <tt>2*k</tt> and its end at index
+     *         <tt>2*k+1</tt>; tokens that do not fit are counted only
+     *
+     * @return  The number of tokens
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the region is not within the input sequence
+     * @since 1.8
+     */
+    public int split(CharSequence input, int start, int end, int[] offsets) {
+        return matcher(input).region(start, end).split(0, offsets);
+    }
+
+    /**
+     * Splits the given region of the input sequence around matches of this
+     * pattern, passing the bounds of the tokens to the given consumer.
+     *
+     * <p> This method works as if by invoking {@link
+     * Matcher#split(int, Matcher.TokenConsumer) split(0, action)} on a
+     * matcher for the input whose region is set to the given bounds.
+     *
+     * @param  input
+     *         The character sequence to be split
+     * @param  start
+     *         The start of the region (inclusive)
+     * @param  end
+     *         The end of the region (exclusive)
+     * @param  action
+     *         The consumer of the bounds of the tokens
+     *
+     * @return  The number of tokens
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the region is not within the input sequence
+     * @since 1.8
+     */
+    public int split(CharSequence input, int start, int end,
+                     Matcher.TokenConsumer action) {
+        return matcher(input).region(start, end).split(0, action);
+    }
+
     /**
      * Returns a literal pattern <code>String</code> for the specified
      * <code>String</code>.
@@ -1336,6 +1452,9 @@ public final class Pattern
      * only a Start node and a LastNode node.
      */
     private Pattern(String p, int f) {
+        if ((f & (LINEAR_TIME | BACKTRACKING)) == (LINEAR_TIME | BACKTRACKING))
+            throw new IllegalArgumentException(
+                "LINEAR_TIME and BACKTRACKING are mutually exclusive");
         pattern = p;
         flags = f;
 
@@ -1712,9 +1831,32 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
             }
         } else if (matchRoot instanceof Begin || matchRoot instanceof First) {
             root = matchRoot;
+        } else if (matchRoot instanceof LiteralBranch && !hasSupplementary) {
+            root = new StartLiterals((LiteralBranch) matchRoot);
         } else {
             root = hasSupplementary ? new StartS(matchRoot) : new Start(matchRoot);
         }
+        if (root instanceof Start && !(root instanceof StartLiterals)) {
+            Slice slice = requiredLiteral(matchRoot);
+            if (slice != null) {
+                Start start = (Start) root;
+                start.required = new String(slice.buffer, 0, slice.buffer.length);
+                start.leading = slice == matchRoot && !hasSupplementary;
+            }
+        }
+
+        // Select the matching engine. A set of literals is searched in
+        // linear time by its Aho-Corasick automaton.
+        boolean literalSet = root instanceof StartLiterals &&
+            ((LiteralBranch) matchRoot).conn.next == lastAccept;
+        if (has(LINEAR_TIME) && !literalSet) {
+            nfa = NFA.compile(this);
+            if (nfa == null) {
+                throw new PatternSyntaxException(
+                    "Pattern cannot be matched in linear time",
+                    normalizedPattern, -1);
+            }
+        }
 
         // Release temporary storage
         temp = null;
@@ -1724,6 +1866,31 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         compiled = true;
     }
 
+    /**
+     * Returns the longest case sensitive literal on the top level of the
+     * given node chain, which every match must contain, or null.
+     */
+    private static Slice requiredLiteral(Node node) {
+        Slice best = null;
+        while (node != null && node != accept && node != lastAccept) {
+            if (node.getClass() == Slice.class) {
+                Slice slice = (Slice) node;
+                if (best == null || slice.buffer.length > best.buffer.length)
+                    best = slice;
+            }
+            // Skip over alternatives and loop bodies, which may not be
+            // matched at all
+            if (node instanceof Branch)
+                node = ((Branch) node).conn;
+            else if (node instanceof LiteralBranch)
+                node = ((LiteralBranch) node).conn;
+            else if (node instanceof Prolog)
+                node = ((Prolog) node).loop;
+            node = node.next;
+        }
+        return best;
+    }
+
     Map<String, Integer> namedGroups() {
         if (namedGroups == null)
             namedGroups = new HashMap<>(2);
@@ -2027,6 +2194,8 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 }
             }
             if (peek() != '|') {
+                if (prev == branch)
+                    return LiteralBranch.optimize(branch);
                 return prev;
             }
             next();
@@ -3445,6 +3614,16 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      */
     static class Start extends Node {
         int minLength;
+        /**
+         * A literal every match contains, or null; the search fails at once
+         * if it does not occur in the rest of the region.
+         */
+        String required;
+        /**
+         * True if every match begins with the required literal, so that
+         * positions up to its next occurrence are skipped.
+         */
+        boolean leading;
         Start(Node node) {
             this.next = node;
             TreeInfo info = new TreeInfo();
@@ -3457,7 +3636,17 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 return false;
             }
             int guard = matcher.to - minLength;
+            if (required != null && !leading &&
+                indexOf(seq, required, i, matcher.to) < 0) {
+                matcher.hitEnd = true;
+                return false;
+            }
             for (; i <= guard; i++) {
+                if (leading) {
+                    i = indexOf(seq, required, i, matcher.to);
+                    if (i < 0 || i > guard)
+                        break;
+                }
                 if (next.match(matcher, i, seq)) {
                     matcher.first = i;
                     matcher.groups[0] = matcher.first;
@@ -3489,6 +3678,10 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 return false;
             }
             int guard = matcher.to - minLength;
+            if (required != null && indexOf(seq, required, i, matcher.to) < 0) {
+                matcher.hitEnd = true;
+                return false;
+            }
             while (i <= guard) {
                 //if ((ret = next.match(matcher, i, seq)) || i == guard)
                 if (next.match(matcher, i, seq)) {
@@ -3513,16 +3706,85 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
     }
 
+    /**
+     * StartLiterals is used for REs that begin with an alternation of many
+     * literals. The trie of the alternation is scanned as an Aho-Corasick
+     * automaton to find the positions where one of the literals occurs;
+     * only those are tried.
+     */
+    static final class StartLiterals extends Start {
+        final AhoCorasick literals;
+        StartLiterals(LiteralBranch node) {
+            super(node);
+            literals = node.literals;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            int to = matcher.to;
+            int guard = to - minLength;
+            while (i <= guard) {
+                long r = literals.find(seq, i, to);
+                if (r < 0)
+                    break;
+                int p = (int) (r >>> 32);
+                if (p > guard)
+                    break;
+                // The alternation at a skipped position can still have
+                // run into the end of the region
+                for (int q = Math.max(i, to - literals.maxLength + 1); q < p; q++) {
+                    if (literals.isPartial(seq, q, to))
+                        matcher.hitEnd = true;
+                }
+                if (next.match(matcher, p, seq)) {
+                    matcher.first = p;
+                    matcher.groups[0] = matcher.first;
+                    matcher.groups[1] = matcher.last;
+                    return true;
+                }
+                i = p + 1;
+            }
+            matcher.hitEnd = true;
+            return false;
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of the literal at or after
+     * from that ends within to, or -1.
+     */
+    static int indexOf(CharSequence seq, String literal, int from, int to) {
+        int len = literal.length();
+        int k;
+        if (seq instanceof String) {
+            k = ((String) seq).indexOf(literal, from);
+        } else {
+            char first = literal.charAt(0);
+            int max = to - len;
+            for (k = from; k <= max; k++) {
+                if (seq.charAt(k) != first)
+                    continue;
+                int j = 1;
+                while (j < len && seq.charAt(k + j) == literal.charAt(j))
+                    j++;
+                if (j == len)
+                    break;
+            }
+        }
+        return (k >= 0 && k + len <= to) ? k : -1;
+    }
+
     /**
      * Node to anchor at the beginning of input. This object implements the
      * match for a \A sequence, and the caret anchor will use this if not in
      * multiline mode.
      */
     static final class Begin extends Node {
-        boolean match(Matcher matcher, int i, CharSequence seq) {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
             int fromIndex = (matcher.anchoringBounds) ?
                 matcher.from : 0;
-            if (i == fromIndex && next.match(matcher, i, seq)) {
+            return i == fromIndex;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            if (check(matcher, i, seq) && next.match(matcher, i, seq)) {
                 matcher.first = i;
                 matcher.groups[0] = i;
                 matcher.groups[1] = matcher.last;
@@ -3538,15 +3800,18 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * should not match at the last newline before the end as $ will.
      */
     static final class End extends Node {
-        boolean match(Matcher matcher, int i, CharSequence seq) {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
             int endIndex = (matcher.anchoringBounds) ?
                 matcher.to : matcher.getTextLength();
             if (i == endIndex) {
                 matcher.hitEnd = true;
-                return next.match(matcher, i, seq);
+                return true;
             }
             return false;
         }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            return check(matcher, i, seq) && next.match(matcher, i, seq);
+        }
     }
 
     /**
@@ -3554,7 +3819,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * object to match for the multiline ^.
      */
     static final class Caret extends Node {
-        boolean match(Matcher matcher, int i, CharSequence seq) {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
             int startIndex = matcher.from;
             int endIndex = matcher.to;
             if (!matcher.anchoringBounds) {
@@ -3577,7 +3842,10 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 if (ch == '\r' && seq.charAt(i) == '\n')
                     return false;
             }
-            return next.match(matcher, i, seq);
+            return true;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            return check(matcher, i, seq) && next.match(matcher, i, seq);
         }
     }
 
@@ -3585,7 +3853,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * Node to anchor at the beginning of a line when in unixdot mode.
      */
     static final class UnixCaret extends Node {
-        boolean match(Matcher matcher, int i, CharSequence seq) {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
             int startIndex = matcher.from;
             int endIndex = matcher.to;
             if (!matcher.anchoringBounds) {
@@ -3603,7 +3871,10 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                     return false;
                 }
             }
-            return next.match(matcher, i, seq);
+            return true;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            return check(matcher, i, seq) && next.match(matcher, i, seq);
         }
     }
 
@@ -3612,10 +3883,11 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * This is used for the \G construct.
      */
     static final class LastMatch extends Node {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
+            return i == matcher.oldLast;
+        }
         boolean match(Matcher matcher, int i, CharSequence seq) {
-            if (i != matcher.oldLast)
-                return false;
-            return next.match(matcher, i, seq);
+            return check(matcher, i, seq) && next.match(matcher, i, seq);
         }
     }
 
@@ -3637,7 +3909,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         Dollar(boolean mul) {
             multiline = mul;
         }
-        boolean match(Matcher matcher, int i, CharSequence seq) {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
             int endIndex = (matcher.anchoringBounds) ?
                 matcher.to : matcher.getTextLength();
             if (!multiline) {
@@ -3667,11 +3939,11 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                      if (i > 0 && seq.charAt(i-1) == '\r')
                          return false;
                      if (multiline)
-                         return next.match(matcher, i, seq);
+                         return true;
                  } else if (ch == '\r' || ch == '\u0085' ||
                             (ch|1) == '\u2029') {
                      if (multiline)
-                         return next.match(matcher, i, seq);
+                         return true;
                  } else { // No line terminator, no match
                      return false;
                  }
@@ -3681,7 +3953,10 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
             // If a $ matches because of end of input, then more input
             // could cause it to fail!
             matcher.requireEnd = true;
-            return next.match(matcher, i, seq);
+            return true;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            return check(matcher, i, seq) && next.match(matcher, i, seq);
         }
         boolean study(TreeInfo info) {
             next.study(info);
@@ -3698,7 +3973,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         UnixDollar(boolean mul) {
             multiline = mul;
         }
-        boolean match(Matcher matcher, int i, CharSequence seq) {
+        boolean check(Matcher matcher, int i, CharSequence seq) {
             int endIndex = (matcher.anchoringBounds) ?
                 matcher.to : matcher.getTextLength();
             if (i < endIndex) {
@@ -3711,7 +3986,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                     // If multiline return next.match without setting
                     // matcher.hitEnd
                     if (multiline)
-                        return next.match(matcher, i, seq);
+                        return true;
                 } else {
                     return false;
                 }
@@ -3722,7 +3997,10 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
             // If a $ matches because of end of input, then more input
             // could cause it to fail!
             matcher.requireEnd = true;
-            return next.match(matcher, i, seq);
+            return true;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            return check(matcher, i, seq) && next.match(matcher, i, seq);
         }
         boolean study(TreeInfo info) {
             next.study(info);
@@ -4638,6 +4916,93 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
     }
 
+    /**
+     * Handles an alternation of many literals. The literals are kept in a
+     * trie and found with a single walk over the input; those that match
+     * are then tried in the order of the alternation, as Branch would.
+     */
+    static final class LiteralBranch extends Node {
+        /**
+         * The smallest alternation compiled into a trie.
+         */
+        static final int MIN_SIZE = 8;
+
+        final Branch branch;
+        final Node conn;
+        final AhoCorasick literals;
+
+        private LiteralBranch(Branch branch, String[] literals) {
+            this.branch = branch;
+            this.conn = branch.conn;
+            this.literals = new AhoCorasick(literals, AhoCorasick.CASE_SENSITIVE);
+        }
+
+        /**
+         * Returns a LiteralBranch for the given Branch if each of its
+         * alternatives is a case sensitive BMP literal, or the Branch itself.
+         */
+        static Node optimize(Branch branch) {
+            if (branch.size < MIN_SIZE)
+                return branch;
+            String[] literals = new String[branch.size];
+            for (int n = 0; n < branch.size; n++) {
+                Node atom = branch.atoms[n];
+                if (atom == null || atom.next != branch.conn)
+                    return branch;
+                if (atom.getClass() == Slice.class) {
+                    int[] buf = ((Slice) atom).buffer;
+                    literals[n] = new String(buf, 0, buf.length);
+                } else if (atom.getClass() == Single.class) {
+                    literals[n] = String.valueOf((char) ((Single) atom).c);
+                } else {
+                    return branch;
+                }
+            }
+            return new LiteralBranch(branch, literals);
+        }
+
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            AhoCorasick literals = this.literals;
+            int to = matcher.to;
+            // The first alternative that ran out of input, which sets
+            // hitEnd once the alternatives before it have been tried
+            int partial = Integer.MAX_VALUE;
+            int prev = -1;
+            for (;;) {
+                int best = Integer.MAX_VALUE;
+                int state = 0;
+                int j = i;
+                for (;;) {
+                    int o = literals.output(state);
+                    if (o > prev && o < best)
+                        best = o;
+                    if (j >= to) {
+                        partial = literals.minBelow(state);
+                        break;
+                    }
+                    state = literals.child(state, seq.charAt(j++));
+                    if (state < 0)
+                        break;
+                }
+                if (partial < best)
+                    matcher.hitEnd = true;
+                if (best == Integer.MAX_VALUE)
+                    return false;
+                if (conn.next.match(matcher, i + literals.length(best), seq))
+                    return true;
+                prev = best;
+            }
+        }
+
+        boolean study(TreeInfo info) {
+            info.minLength += literals.minLength;
+            info.maxLength += literals.maxLength;
+            conn.next.study(info);
+            info.deterministic = false;
+            return false;
+        }
+    }
+
     /**
      * The GroupHead saves the location where the group begins in the locals
      * and restores them when the match is done.
@@ -5537,6 +5902,601 @@ NEXT:       while (i <= last) {
         }
     }
 
+    /**
+     * A Thompson NFA for the regular subset of the pattern syntax, executed
+     * by simulating all threads in lock step (the "Pike VM"). Threads are
+     * kept in priority order so that the leftmost match preferred by the
+     * backtracking matcher, and except as described for LINEAR_TIME the
+     * groups it captures, are found without ever revisiting an input
+     * position.
+     * <p>
+     * The program is translated from the node tree built by the parser so
+     * that character classes and anchors keep their exact semantics. Nodes
+     * that need backtracking state (back references, lookaround, possessive
+     * and independent constructs) are not translated; for such patterns
+     * no program is built and the node tree is used.
+     */
+    static final class NFA {
+        // Instructions consuming one character; the argument of the
+        // character instructions is the literal, the others refer to the
+        // CharProperty node in nodes[].
+        static final int CHAR    = 0;
+        static final int CHARI   = 1;
+        static final int CHARU   = 2;
+        static final int BMPPROP = 3;
+        static final int PROP    = 4;
+        // Control instructions, followed within the same input position.
+        static final int SPLIT   = 5;
+        static final int JMP     = 6;
+        static final int SAVE    = 7;
+        static final int GROUP   = 8;
+        static final int ASSERT  = 9;
+        static final int MATCH   = 10;
+
+        // Assertion kinds, stored as the argument of ASSERT.
+        static final int BEGIN      = 0;
+        static final int END        = 1;
+        static final int CARET      = 2;
+        static final int UNIXCARET  = 3;
+        static final int DOLLAR     = 4;
+        static final int UNIXDOLLAR = 5;
+        static final int LASTMATCH  = 6;
+        static final int BOUND      = 7;
+
+        /**
+         * Returned by {@link #match} when the input cannot be handled in
+         * lock step and the caller must fall back to the node tree.
+         */
+        static final int UNSUPPORTED = -1;
+
+        /**
+         * The maximum number of instructions of a program; counted
+         * repetitions are expanded and may not grow a program beyond it.
+         */
+        static final int MAX_PROGRAM = 10000;
+
+        final int[] ops;
+        final int[] args;
+        final int[] alts;
+        final Node[] nodes;
+        final int length;
+
+        /**
+         * The number of capture slots of each thread: two per capturing
+         * group followed by one group start per group local.
+         */
+        final int ncap;
+
+        /**
+         * The number of slots copied to the matcher groups on a match.
+         */
+        final int ngroups;
+
+        /**
+         * True if a find only tries the starting position, as the root of a
+         * pattern beginning with an anchor does.
+         */
+        final boolean anchoredSearch;
+
+        /**
+         * The minimum length of a match; like Start, a find does not try
+         * positions closer than this to the end of the region.
+         */
+        final int minLength;
+
+        private NFA(Compiler c, int ngroups, int ncap, boolean anchoredSearch,
+                    int minLength) {
+            this.length = c.n;
+            this.ops = Arrays.copyOf(c.ops, length);
+            this.args = Arrays.copyOf(c.args, length);
+            this.alts = Arrays.copyOf(c.alts, length);
+            this.nodes = Arrays.copyOf(c.nodes, length);
+            this.ngroups = ngroups;
+            this.ncap = ncap;
+            this.anchoredSearch = anchoredSearch;
+            this.minLength = minLength;
+        }
+
+        /**
+         * Builds the program for the given pattern, or returns null if the
+         * pattern is not regular.
+         */
+        static NFA compile(Pattern p) {
+            if (p.has(CANON_EQ))
+                return null;
+            int ngroups = p.capturingGroupCount * 2;
+            Compiler c = new Compiler(ngroups);
+            c.emit(p.matchRoot, null, -1);
+            if (c.unsupported)
+                return null;
+            TreeInfo info = new TreeInfo();
+            p.matchRoot.study(info);
+            return new NFA(c, ngroups, ngroups + p.localCount,
+                           p.root == p.matchRoot, info.minLength);
+        }
+
+        /**
+         * Translates the node tree into instructions.
+         */
+        static final class Compiler {
+            int[] ops = new int[16];
+            int[] args = new int[16];
+            int[] alts = new int[16];
+            Node[] nodes = new Node[16];
+            int n;
+            final int localBase;
+            // set when a node cannot be translated or the program grows
+            // too long; the translation then stops and is discarded
+            boolean unsupported;
+
+            Compiler(int localBase) {
+                this.localBase = localBase;
+            }
+
+            int add(int op, int arg, int alt, Node node) {
+                if (n >= ops.length) {
+                    if (n >= MAX_PROGRAM) {
+                        unsupported = true;
+                        return 0;
+                    }
+                    int len = Math.min(n * 2, MAX_PROGRAM);
+                    ops = Arrays.copyOf(ops, len);
+                    args = Arrays.copyOf(args, len);
+                    alts = Arrays.copyOf(alts, len);
+                    nodes = Arrays.copyOf(nodes, len);
+                }
+                ops[n] = op;
+                args[n] = arg;
+                alts[n] = alt;
+                nodes[n] = node;
+                return n++;
+            }
+
+            /**
+             * Emits the chain starting at node until the end node, or until
+             * the GroupTail with the given local index, is reached.
+             */
+            void emit(Node node, Node end, int endLocal) {
+                while (node != end && !unsupported) {
+                    if (node == lastAccept) {
+                        add(MATCH, 0, 0, null);
+                        return;
+                    } else if (node instanceof GroupTail) {
+                        GroupTail tail = (GroupTail) node;
+                        if (tail.localIndex == endLocal)
+                            return;
+                        if (tail.groupIndex != 0)
+                            add(GROUP, tail.groupIndex, localBase + tail.localIndex, null);
+                    } else if (node instanceof GroupHead) {
+                        add(SAVE, localBase + ((GroupHead) node).localIndex, 0, null);
+                    } else if (node instanceof CharProperty) {
+                        add(node instanceof BmpCharProperty ? BMPPROP : PROP, 0, 0, node);
+                    } else if (node instanceof Slice) {
+                        slice(CHAR, ((Slice) node).buffer);
+                    } else if (node instanceof SliceU) {
+                        slice(CHARU, ((SliceU) node).buffer);
+                    } else if (node.getClass() == SliceI.class) {
+                        slice(CHARI, ((SliceI) node).buffer);
+                    } else if (node instanceof Branch) {
+                        Branch branch = (Branch) node;
+                        branch(branch);
+                        node = branch.conn;
+                    } else if (node instanceof LiteralBranch) {
+                        LiteralBranch branch = (LiteralBranch) node;
+                        branch(branch.branch);
+                        node = branch.conn;
+                    } else if (node instanceof BranchConn) {
+                        // Reached only through the end of a branch
+                    } else if (node instanceof Ques) {
+                        Ques ques = (Ques) node;
+                        if (ques.type != GREEDY && ques.type != LAZY) {
+                            unsupported = true;
+                            return;
+                        }
+                        int split = add(SPLIT, 0, 0, null);
+                        emit(ques.atom, accept, -1);
+                        prefer(split, split + 1, n, ques.type == LAZY);
+                    } else if (node instanceof Curly) {
+                        Curly curly = (Curly) node;
+                        if (curly.type != GREEDY && curly.type != LAZY) {
+                            unsupported = true;
+                            return;
+                        }
+                        repeat(curly.atom, accept, -1, -1,
+                               curly.cmin, curly.cmax, curly.type == LAZY);
+                    } else if (node instanceof GroupCurly) {
+                        GroupCurly curly = (GroupCurly) node;
+                        if (curly.type != GREEDY && curly.type != LAZY) {
+                            unsupported = true;
+                            return;
+                        }
+                        repeat(curly.atom, null, curly.localIndex,
+                               curly.capture ? curly.groupIndex : -1,
+                               curly.cmin, curly.cmax, curly.type == LAZY);
+                    } else if (node instanceof Prolog) {
+                        Loop loop = ((Prolog) node).loop;
+                        repeat(loop.body, loop, -1, -1,
+                               loop.cmin, loop.cmax, loop instanceof LazyLoop);
+                        node = loop;
+                    } else if (node instanceof Begin) {
+                        add(ASSERT, BEGIN, 0, node);
+                    } else if (node instanceof End) {
+                        add(ASSERT, END, 0, node);
+                    } else if (node instanceof Caret) {
+                        add(ASSERT, CARET, 0, node);
+                    } else if (node instanceof UnixCaret) {
+                        add(ASSERT, UNIXCARET, 0, node);
+                    } else if (node instanceof Dollar) {
+                        add(ASSERT, DOLLAR, 0, node);
+                    } else if (node instanceof UnixDollar) {
+                        add(ASSERT, UNIXDOLLAR, 0, node);
+                    } else if (node instanceof LastMatch) {
+                        add(ASSERT, LASTMATCH, 0, node);
+                    } else if (node instanceof Bound) {
+                        add(ASSERT, BOUND, 0, node);
+                    } else {
+                        unsupported = true;
+                        return;
+                    }
+                    node = node.next;
+                }
+            }
+
+            void slice(int op, int[] buf) {
+                for (int c : buf)
+                    add(op, c, 0, null);
+            }
+
+            void branch(Branch branch) {
+                int[] exits = new int[branch.size];
+                for (int k = 0; k < branch.size; k++) {
+                    int split = -1;
+                    if (k < branch.size - 1)
+                        split = add(SPLIT, 0, 0, null);
+                    if (branch.atoms[k] != null)
+                        emit(branch.atoms[k], branch.conn, -1);
+                    if (split >= 0) {
+                        exits[k] = add(JMP, 0, 0, null);
+                        prefer(split, split + 1, n, false);
+                    }
+                }
+                for (int k = 0; k < branch.size - 1; k++)
+                    args[exits[k]] = n;
+            }
+
+            /**
+             * Emits cmin mandatory copies of the body followed by the
+             * optional ones, or by a loop if the maximum is unbounded.
+             */
+            void repeat(Node body, Node end, int endLocal, int groupIndex,
+                        int cmin, int cmax, boolean lazy) {
+                // The repetition nodes leave a loop after an iteration
+                // matching the empty string, which depends on the history
+                // of a thread and cannot be simulated in lock step.
+                TreeInfo info = new TreeInfo();
+                body.study(info);
+                if (info.minLength == 0) {
+                    unsupported = true;
+                    return;
+                }
+                for (int j = 0; j < cmin && !unsupported; j++)
+                    iteration(body, end, endLocal, groupIndex);
+                if (cmax == MAX_REPS) {
+                    int split = add(SPLIT, 0, 0, null);
+                    iteration(body, end, endLocal, groupIndex);
+                    add(JMP, split, 0, null);
+                    prefer(split, split + 1, n, lazy);
+                } else if (cmax > cmin) {
+                    int[] splits = new int[cmax - cmin];
+                    for (int j = 0; j < splits.length && !unsupported; j++) {
+                        splits[j] = add(SPLIT, 0, 0, null);
+                        iteration(body, end, endLocal, groupIndex);
+                    }
+                    for (int split : splits)
+                        prefer(split, split + 1, n, lazy);
+                }
+            }
+
+            void iteration(Node body, Node end, int endLocal, int groupIndex) {
+                if (groupIndex >= 0)
+                    add(SAVE, groupIndex, 0, null);
+                emit(body, end, endLocal);
+                if (groupIndex >= 0)
+                    add(SAVE, groupIndex + 1, 0, null);
+            }
+
+            void prefer(int split, int first, int second, boolean swap) {
+                args[split] = swap ? second : first;
+                alts[split] = swap ? first : second;
+            }
+        }
+
+        /**
+         * The per-matcher state of the simulation, allocated on first use
+         * and reused by every subsequent match operation.
+         */
+        static final class Threads {
+            final NFA nfa;
+            ThreadList clist;
+            ThreadList nlist;
+            final ThreadList visited;
+            final int[] stack;
+            final int[] work;
+            final int[] matched;
+
+            Threads(NFA nfa) {
+                this.nfa = nfa;
+                this.clist = new ThreadList(nfa.length, nfa.ncap);
+                this.nlist = new ThreadList(nfa.length, nfa.ncap);
+                this.visited = new ThreadList(nfa.length, 0);
+                this.stack = new int[nfa.length * 5 + 2];
+                this.work = new int[nfa.ncap];
+                this.matched = new int[nfa.ncap];
+            }
+        }
+
+        /**
+         * A sparse set of program counters in insertion order, with the
+         * capture slots of each thread.
+         */
+        static final class ThreadList {
+            final int[] sparse;
+            final int[] dense;
+            final int[] caps;
+            int size;
+
+            ThreadList(int length, int ncap) {
+                sparse = new int[length];
+                dense = new int[length];
+                caps = new int[length * ncap];
+            }
+
+            boolean add(int pc) {
+                int j = sparse[pc];
+                if (j < size && dense[j] == pc)
+                    return false;
+                sparse[pc] = size;
+                dense[size++] = pc;
+                return true;
+            }
+        }
+
+        /**
+         * Performs the find operation of the root node.
+         *
+         * @return 1 on a match, 0 on no match, or UNSUPPORTED
+         */
+        int search(Matcher matcher, int from, CharSequence seq) {
+            Node root = matcher.parentPattern.root;
+            if (root instanceof Start) {
+                String required = ((Start) root).required;
+                if (required != null &&
+                    indexOf(seq, required, from, matcher.to) < 0) {
+                    matcher.hitEnd = true;
+                    return 0;
+                }
+            }
+            if (anchoredSearch)
+                return match(matcher, from, true, seq);
+            int result = match(matcher, from, false, seq);
+            if (result == 0)
+                matcher.hitEnd = true;
+            return result;
+        }
+
+        /**
+         * Attempts a match starting at from, or at any later position if
+         * the match is not anchored. On success the matcher's first, last
+         * and groups are set.
+         * <p>
+         * The list of each position holds the threads that consumed the
+         * previous character, in priority order. Their closures are only
+         * followed when the position is reached, so that, as with the node
+         * tree, nothing is evaluated past the preferred match; a thread
+         * starting at the position comes last.
+         *
+         * @return 1 on a match, 0 on no match, or UNSUPPORTED
+         */
+        int match(Matcher matcher, int from, boolean anchored, CharSequence seq) {
+            Threads t = matcher.nfaThreads;
+            if (t == null || t.nfa != this)
+                matcher.nfaThreads = t = new Threads(this);
+            int[] work = t.work;
+            int to = matcher.to;
+            int textLength = seq.length();
+            boolean found = false;
+            int end = -1;
+            t.clist.size = 0;
+            for (int i = from; ; ) {
+                ThreadList clist = t.clist;
+                ThreadList nlist = t.nlist;
+                boolean atEnd = i >= to;
+                int ch = 0;
+                int count = 1;
+                if (!atEnd) {
+                    ch = seq.charAt(i);
+                    if (Character.isHighSurrogate((char) ch) && i + 1 < textLength) {
+                        char lo = seq.charAt(i + 1);
+                        if (Character.isLowSurrogate(lo)) {
+                            // A pair straddling the region end would be
+                            // consumed past it by the node tree
+                            if (i + 2 > to)
+                                return UNSUPPORTED;
+                            ch = Character.toCodePoint((char) ch, lo);
+                            count = 2;
+                        }
+                    }
+                }
+                nlist.size = 0;
+                t.visited.size = 0;
+                boolean started = found || (anchored ? i != from
+                                            : i > to - minLength);
+                for (int k = 0; ; k++) {
+                    int pc;
+                    if (k < clist.size) {
+                        pc = clist.dense[k];
+                        System.arraycopy(clist.caps, pc * ncap, work, 0, ncap);
+                    } else if (!started) {
+                        started = true;
+                        pc = 0;
+                        Arrays.fill(work, -1);
+                        work[0] = i;
+                    } else {
+                        break;
+                    }
+                    int r = step(t, pc, i, ch, count, atEnd, matcher, seq);
+                    if (r == UNSUPPORTED)
+                        return UNSUPPORTED;
+                    if (r > 0) {
+                        // Threads of lower priority are cut off
+                        found = true;
+                        end = i;
+                        break;
+                    }
+                }
+                if (atEnd || (nlist.size == 0 && (found || anchored)))
+                    break;
+                t.clist = nlist;
+                t.nlist = clist;
+                i += count;
+            }
+            if (!found)
+                return 0;
+            int[] groups = matcher.groups;
+            System.arraycopy(t.matched, 0, groups, 0, ngroups);
+            matcher.first = groups[0];
+            matcher.last = end;
+            groups[1] = end;
+            return 1;
+        }
+
+        /**
+         * Follows the closure of the thread at pc, with the capture slots
+         * in work, depth first in priority order. Threads waiting at
+         * consuming instructions are advanced over the character at i into
+         * the next list; saved slots are restored through the stack when a
+         * branch is done.
+         *
+         * @return 1 if a MATCH was reached, 0 if not, or UNSUPPORTED
+         */
+        private int step(Threads t, int pc, int i, int ch, int count,
+                         boolean atEnd, Matcher matcher, CharSequence seq) {
+            int[] stack = t.stack;
+            int[] work = t.work;
+            ThreadList visited = t.visited;
+            int sp = 0;
+            stack[sp++] = pc;
+            while (sp > 0) {
+                pc = stack[--sp];
+                if (pc < 0) {
+                    work[~pc] = stack[--sp];
+                    continue;
+                }
+                if (!visited.add(pc))
+                    continue;
+                int op = ops[pc];
+                switch (op) {
+                case JMP:
+                    stack[sp++] = args[pc];
+                    continue;
+                case SPLIT:
+                    stack[sp++] = alts[pc];
+                    stack[sp++] = args[pc];
+                    continue;
+                case SAVE: {
+                    int slot = args[pc];
+                    stack[sp++] = work[slot];
+                    stack[sp++] = ~slot;
+                    stack[sp++] = pc + 1;
+                    work[slot] = i;
+                    continue;
+                }
+                case GROUP: {
+                    int slot = args[pc];
+                    stack[sp++] = work[slot];
+                    stack[sp++] = ~slot;
+                    stack[sp++] = work[slot + 1];
+                    stack[sp++] = ~(slot + 1);
+                    stack[sp++] = pc + 1;
+                    work[slot] = work[alts[pc]];
+                    work[slot + 1] = i;
+                    continue;
+                }
+                case ASSERT:
+                    if (check(args[pc], nodes[pc], matcher, i, seq))
+                        stack[sp++] = pc + 1;
+                    continue;
+                case MATCH:
+                    if (matcher.acceptMode == Matcher.ENDANCHOR &&
+                        i != matcher.to)
+                        continue;
+                    System.arraycopy(work, 0, t.matched, 0, ncap);
+                    return 1;
+                }
+                if (atEnd) {
+                    matcher.hitEnd = true;
+                    continue;
+                }
+                boolean bmp = true;
+                boolean ok;
+                int c;
+                switch (op) {
+                case CHAR:
+                    ok = args[pc] == seq.charAt(i);
+                    break;
+                case CHARI:
+                    c = seq.charAt(i);
+                    ok = args[pc] == c || args[pc] == ASCII.toLower(c);
+                    break;
+                case CHARU:
+                    c = seq.charAt(i);
+                    ok = args[pc] == c ||
+                        args[pc] == Character.toLowerCase(Character.toUpperCase(c));
+                    break;
+                case BMPPROP:
+                    ok = ((CharProperty) nodes[pc]).isSatisfiedBy(seq.charAt(i));
+                    break;
+                default:
+                    ok = ((CharProperty) nodes[pc]).isSatisfiedBy(ch);
+                    bmp = false;
+                }
+                if (ok) {
+                    // Threads must stay in lock step, which a single char
+                    // step into a surrogate pair would break
+                    if (bmp && count != 1)
+                        return UNSUPPORTED;
+                    ThreadList nlist = t.nlist;
+                    if (nlist.add(pc + 1))
+                        System.arraycopy(work, 0, nlist.caps, (pc + 1) * ncap, ncap);
+                }
+            }
+            return 0;
+        }
+
+        private static boolean check(int kind, Node node, Matcher matcher,
+                                     int i, CharSequence seq) {
+            switch (kind) {
+            case BEGIN:
+                return ((Begin) node).check(matcher, i, seq);
+            case END:
+                return ((End) node).check(matcher, i, seq);
+            case CARET:
+                return ((Caret) node).check(matcher, i, seq);
+            case UNIXCARET:
+                return ((UnixCaret) node).check(matcher, i, seq);
+            case DOLLAR:
+                return ((Dollar) node).check(matcher, i, seq);
+            case UNIXDOLLAR:
+                return ((UnixDollar) node).check(matcher, i, seq);
+            case LASTMATCH:
+                return ((LastMatch) node).check(matcher, i, seq);
+            default:
+                Bound bound = (Bound) node;
+                return (bound.check(matcher, i, seq) & bound.type) > 0;
+            }
+        }
+    }
+
 ///////////////////////////////////////////////////////////////////////////////
 ///////////////////////////////////////////////////////////////////////////////
 
@@ -5825,11 +6785,13 @@ NEXT:       while (i <= last) {
                     return false;
 
                 // Consume the next matching element
-                // Count sequence of matching empty elements
+                // Count sequence of matching empty elements, which are
+                // compared by index and never materialized
                 while (matcher.find()) {
-                    nextElement = input.subSequence(current, matcher.start()).toString();
+                    int start = current;
                     current = matcher.end();
-                    if (!nextElement.isEmpty()) {
+                    if (matcher.start() != start) {
+                        nextElement = input.subSequence(start, matcher.start()).toString();
                         return true;
                     } else if (current > 0) { // no empty leading substring for zero-width
                                               // match at the beginning of the input
@@ -5838,14 +6800,14 @@ NEXT:       while (i <= last) {
                 }
 
                 // Consume last matching element
-                nextElement = input.subSequence(current, input.length()).toString();
+                int start = current;
                 current = input.length();
-                if (!nextElement.isEmpty()) {
+                if (start != current) {
+                    nextElement = input.subSequence(start, current).toString();
                     return true;
                 } else {
                     // Ignore a terminal sequence of matching empty elements
                     emptyElementCount = 0;
-                    nextElement = null;
                     return false;
                 }
             }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A class that can be used to compute the CRC-32C of a data stream.
+ *
+ * <p> The CRC-32C uses the Castagnoli polynomial 0x1EDC6F41, as specified
+ * in RFC 3720 (iSCSI), and is computed in the same way as the CRC-32 of
+ * {@link CRC32}: bit-reflected, with its register preset to and finally
+ * complemented with all ones.  Its error detection is better than the
+ * CRC-32's for the block sizes typical of storage, which is why many
+ * storage and network protocols use it.
+ *
+ * <p> Passing a {@code null} argument to a method in this class will cause
+ * a {@link NullPointerException} to be thrown.
+ *
+ * @see         Checksum
+ * @since       1.8
+ */
+public final class CRC32C implements Checksum {
+
+    /*
+     * The reversed Castagnoli polynomial.
+     */
+    private static final int REVERSED_POLY = 0x82f63b78;
+
+    /*
+     * Tables for slicing-by-8: BYTE_TABLES[k][b] is the CRC contribution
+     * of byte b followed by k zero bytes.
+     */
+    private static final int[][] BYTE_TABLES = new int[8][256];
+
+    static {
+        int[] t0 = BYTE_TABLES[0];
+        for (int i = 0; i < 256; i++) {
+            int r = i;
+            for (int j = 0; j < 8; j++) {
+                r = ((r & 1) != 0) ? (r >>> 1) ^ REVERSED_POLY : r >>> 1;
+            }
+            t0[i] = r;
+        }
+        for (int k = 1; k < 8; k++) {
+            int[] prev = BYTE_TABLES[k - 1];
+            int[] t = BYTE_TABLES[k];
+            for (int i = 0; i < 256; i++) {
+                t[i] = (prev[i] >>> 8) ^ t0[prev[i] & 0xff];
+            }
+        }
+    }
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    private static final boolean LITTLE_ENDIAN =
+        ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final long ARRAY_BASE = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+
+    /*
+     * The register, complemented.
+     */
+    private int crc = 0xffffffff;
+
+    /**
+     * Creates a new CRC32C object.
+     */
+    public CRC32C() {
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified byte (the low
+     * eight bits of the argument b).
+     *
+     * @param b the byte to update the checksum with
+     */
+    public void update(int b) {
+        crc = (crc >>> 8) ^ BYTE_TABLES[0][(crc ^ b) & 0xff];
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @throws  ArrayIndexOutOfBoundsException
+     *          if {@code off} is negative, or {@code len} is negative,
+     *          or {@code off+len} is greater than the length of the
+     *          array {@code b}
+     */
+    public void update(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        }
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        crc = update(crc, b, ARRAY_BASE + off, len);
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @param b the array of bytes to update the checksum with
+     */
+    public void update(byte[] b) {
+        crc = update(crc, b, ARRAY_BASE, b.length);
+    }
+
+    /**
+     * Updates the checksum with the bytes from the specified buffer.
+     *
+     * The checksum is updated using
+     * buffer.{@link java.nio.Buffer#remaining() remaining()}
+     * bytes starting at
+     * buffer.{@link java.nio.Buffer#position() position()}
+     * Upon return, the buffer's position will
+     * be updated to its limit; its limit will not have been changed.
+     *
+     * @param buffer the ByteBuffer to update the checksum with
+     */
+    public void update(ByteBuffer buffer) {
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        assert (pos <= limit);
+        int rem = limit - pos;
+        if (rem <= 0)
+            return;
+        if (buffer instanceof DirectBuffer) {
+            crc = update(crc, null, ((DirectBuffer)buffer).address() + pos, rem);
+        } else if (buffer.hasArray()) {
+            crc = update(crc, buffer.array(),
+                         ARRAY_BASE + buffer.arrayOffset() + pos, rem);
+        } else {
+            byte[] b = new byte[rem];
+            buffer.get(b);
+            crc = update(crc, b, ARRAY_BASE, b.length);
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Resets CRC-32C to initial value.
+     */
+    public void reset() {
+        crc = 0xffffffff;
+    }
+
+    /**
+     * Returns CRC-32C value.
+     */
+    public long getValue() {
+        return (long)(~crc) & 0xffffffffL;
+    }
+
+    /**
+     * Returns the CRC-32C of the concatenation of two sequences of bytes,
+     * given the CRC-32C of each and the length of the second.  This allows
+     * the CRC-32C of data to be computed in parts, for example concurrently,
+     * and then combined.
+     *
+     * @param crc1 the CRC-32C of the first sequence
+     * @param crc2 the CRC-32C of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32C of the first sequence followed by the second
+     * @throws IllegalArgumentException if {@code len2} is negative
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        return ZipUtils.crc32Combine(REVERSED_POLY, crc1, crc2, len2);
+    }
+
+    /*
+     * Updates the register with len bytes at the given offset from the
+     * given base object, or at the given address if the object is null,
+     * eight bytes at a time once the address is aligned.
+     */
+    private static int update(int crc, Object base, long offset, int len) {
+        int[] t0 = BYTE_TABLES[0];
+        long end = offset + len;
+
+        // process bytes up to an eight-byte boundary
+        while (offset < end && (offset & 7) != 0) {
+            crc = (crc >>> 8) ^ t0[(crc ^ UNSAFE.getByte(base, offset)) & 0xff];
+            offset++;
+        }
+
+        int[] t1 = BYTE_TABLES[1];
+        int[] t2 = BYTE_TABLES[2];
+        int[] t3 = BYTE_TABLES[3];
+        int[] t4 = BYTE_TABLES[4];
+        int[] t5 = BYTE_TABLES[5];
+        int[] t6 = BYTE_TABLES[6];
+        int[] t7 = BYTE_TABLES[7];
+        for (; offset <= end - 8; offset += 8) {
+            long value = UNSAFE.getLong(base, offset);
+            if (!LITTLE_ENDIAN) {
+                value = Long.reverseBytes(value);
+            }
+            int lo = crc ^ (int)value;
+            int hi = (int)(value >>> 32);
+            crc = t7[lo & 0xff] ^ t6[(lo >>> 8) & 0xff]
+                ^ t5[(lo >>> 16) & 0xff] ^ t4[lo >>> 24]
+                ^ t3[hi & 0xff] ^ t2[(hi >>> 8) & 0xff]
+                ^ t1[(hi >>> 16) & 0xff] ^ t0[hi >>> 24];
+        }
+
+        while (offset < end) {
+            crc = (crc >>> 8) ^ t0[(crc ^ UNSAFE.getByte(base, offset)) & 0xff];
+            offset++;
+        }
+        return crc;
+    }
+}
@@ -82,6 +82,20 @@ class Deflater {
     private long bytesRead;
     private long bytesWritten;
 
+    /*
+     * The compression level with which this deflater was created, and
+     * whether the zlib header and checksum fields are not used.
+     */
+    final int initLevel;
+    final boolean nowrap;
+
+    /*
+     * Whether this deflater is idle in the ZStreamPool, guarded by the
+     * pool's queue, and whether the pool counts it.
+     */
+    boolean idle;
+    volatile boolean pooled;
+
     /**
      * Compression method for the deflate algorithm (the only one currently
      * supported).
@@ -169,6 +183,8 @@ class Deflater {
         this.level = level;
         this.strategy = DEFAULT_STRATEGY;
         this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap));
+        this.initLevel = level;
+        this.nowrap = nowrap;
     }
 
     /**
@@ -542,6 +558,8 @@ class Deflater {
             if (addr != 0) {
                 end(addr);
                 buf = null;
+                if (pooled)
+                    ZStreamPool.ended(this);
             }
         }
     }
@@ -559,6 +577,12 @@ class Deflater {
             throw new NullPointerException("Deflater has been closed");
     }
 
+    boolean ended() {
+        synchronized (zsRef) {
+            return zsRef.address() == 0;
+        }
+    }
+
     private static native void initIDs();
     private native static long init(int level, int strategy, boolean nowrap);
     private native static void setDictionary(long addr, byte[] b, int off, int len);
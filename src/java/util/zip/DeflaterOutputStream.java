@@ -144,6 +144,9 @@ class DeflaterOutputStream extends FilterOutputStream {
 
     boolean usesDefaultDeflater = false;
 
+    // set once the default deflater has been returned to the pool
+    boolean released = false;
+
 
     /**
      * Creates a new output stream with a default compressor, a default
@@ -159,7 +162,8 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @since 1.7
      */
     public DeflaterOutputStream(OutputStream out, boolean syncFlush) {
-        this(out, new Deflater(), 512, syncFlush);
+        this(out, ZStreamPool.getDeflater(Deflater.DEFAULT_COMPRESSION, false),
+             512, syncFlush);
         usesDefaultDeflater = true;
     }
 
@@ -197,7 +201,7 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        if (def.finished()) {
+        if (released || def.finished()) {
             throw new IOException("write beyond end of stream");
         }
         if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
@@ -220,7 +224,7 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void finish() throws IOException {
-        if (!def.finished()) {
+        if (!released && !def.finished()) {
             def.finish();
             while (!def.finished()) {
                 deflate();
@@ -236,8 +240,13 @@ class DeflaterOutputStream extends FilterOutputStream {
     public void close() throws IOException {
         if (!closed) {
             finish();
-            if (usesDefaultDeflater)
-                def.end();
+            if (usesDefaultDeflater && !released) {
+                // the pool may hand the deflater to another stream
+                Deflater d = def;
+                def = ZStreamPool.ENDED_DEFLATER;
+                released = true;
+                ZStreamPool.releaseDeflater(d);
+            }
             out.close();
             closed = true;
         }
@@ -270,7 +279,7 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @since 1.7
      */
     public void flush() throws IOException {
-        if (syncFlush && !def.finished()) {
+        if (syncFlush && !released && !def.finished()) {
             int len = 0;
             while ((len = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0)
             {
@@ -81,6 +81,18 @@ class Inflater {
     private long bytesRead;
     private long bytesWritten;
 
+    /*
+     * Whether the zlib header and checksum fields are not used.
+     */
+    final boolean nowrap;
+
+    /*
+     * Whether this inflater is idle in the ZStreamPool, guarded by the
+     * pool's queue, and whether the pool counts it.
+     */
+    boolean idle;
+    volatile boolean pooled;
+
     private static final byte[] defaultBuf = new byte[0];
 
     static {
@@ -101,6 +113,7 @@ class Inflater {
      */
     public Inflater(boolean nowrap) {
         zsRef = new ZStreamRef(init(nowrap));
+        this.nowrap = nowrap;
     }
 
     /**
@@ -372,6 +385,8 @@ class Inflater {
             if (addr != 0) {
                 end(addr);
                 buf = null;
+                if (pooled)
+                    ZStreamPool.ended(this);
             }
         }
     }
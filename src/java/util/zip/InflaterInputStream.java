@@ -63,7 +63,7 @@ class InflaterInputStream extends FilterInputStream {
      * Check to make sure that this stream has not been closed
      */
     private void ensureOpen() throws IOException {
-        if (closed) {
+        if (closed || released) {
             throw new IOException("Stream closed");
         }
     }
@@ -100,12 +100,15 @@ class InflaterInputStream extends FilterInputStream {
 
     boolean usesDefaultInflater = false;
 
+    // set once the default inflater has been returned to the pool
+    private boolean released = false;
+
     /**
      * Creates a new input stream with a default decompressor and buffer size.
      * @param in the input stream
      */
     public InflaterInputStream(InputStream in) {
-        this(in, new Inflater());
+        this(in, ZStreamPool.getInflater(false));
         usesDefaultInflater = true;
     }
 
@@ -222,8 +225,13 @@ class InflaterInputStream extends FilterInputStream {
      */
     public void close() throws IOException {
         if (!closed) {
-            if (usesDefaultInflater)
-                inf.end();
+            if (usesDefaultInflater && !released) {
+                // the pool may hand the inflater to another stream
+                Inflater i = inf;
+                inf = ZStreamPool.ENDED_INFLATER;
+                released = true;
+                ZStreamPool.releaseInflater(i);
+            }
             in.close();
             closed = true;
         }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class consists of static methods that compute the CRC-32, CRC-32C
+ * or Adler-32 checksum of a large array or buffer using several threads.
+ * The data is divided into parts which are checksummed concurrently on the
+ * {@linkplain ForkJoinPool#commonPool() common pool}, and the checksums of
+ * the parts are then combined, as by {@link CRC32#combine CRC32.combine},
+ * {@link CRC32C#combine CRC32C.combine} and {@link Adler32#combine
+ * Adler32.combine}.  The result is the same as that of a single
+ * {@link Checksum} updated with all of the data.
+ *
+ * <p> Data smaller than a few parts is checksummed on the calling thread.
+ *
+ * <p> Unless otherwise noted, passing a {@code null} argument to a method
+ * in this class will cause a {@link NullPointerException} to be thrown.
+ *
+ * @since 1.8
+ */
+public final class ParallelChecksum {
+
+    private ParallelChecksum() {}
+
+    /*
+     * The checksum algorithms.
+     */
+    private static final int KIND_CRC32 = 0;
+    private static final int KIND_CRC32C = 1;
+    private static final int KIND_ADLER32 = 2;
+
+    /*
+     * The smallest part checksummed by a single task.
+     */
+    private static final int MIN_PART_SIZE = 1 << 20;
+
+    /**
+     * Returns the CRC-32 of the specified range of an array.
+     *
+     * @param b the array
+     * @param off the start offset of the data
+     * @param len the number of bytes
+     * @return the CRC-32 of the data
+     * @throws ArrayIndexOutOfBoundsException if {@code off} is negative,
+     *         or {@code len} is negative, or {@code off+len} is greater
+     *         than the length of the array {@code b}
+     */
+    public static long crc32(byte[] b, int off, int len) {
+        return checksum(KIND_CRC32, b, off, len);
+    }
+
+    /**
+     * Returns the CRC-32 of the bytes remaining in the specified buffer,
+     * which may be a {@link java.nio.MappedByteBuffer}.  The position of
+     * the buffer is not changed.
+     *
+     * @param buffer the buffer
+     * @return the CRC-32 of the bytes remaining
+     */
+    public static long crc32(ByteBuffer buffer) {
+        return checksum(KIND_CRC32, buffer);
+    }
+
+    /**
+     * Returns the CRC-32C of the specified range of an array.
+     *
+     * @param b the array
+     * @param off the start offset of the data
+     * @param len the number of bytes
+     * @return the CRC-32C of the data
+     * @throws ArrayIndexOutOfBoundsException if {@code off} is negative,
+     *         or {@code len} is negative, or {@code off+len} is greater
+     *         than the length of the array {@code b}
+     */
+    public static long crc32c(byte[] b, int off, int len) {
+        return checksum(KIND_CRC32C, b, off, len);
+    }
+
+    /**
+     * Returns the CRC-32C of the bytes remaining in the specified buffer,
+     * which may be a {@link java.nio.MappedByteBuffer}.  The position of
+     * the buffer is not changed.
+     *
+     * @param buffer the buffer
+     * @return the CRC-32C of the bytes remaining
+     */
+    public static long crc32c(ByteBuffer buffer) {
+        return checksum(KIND_CRC32C, buffer);
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the specified range of an array.
+     *
+     * @param b the array
+     * @param off the start offset of the data
+     * @param len the number of bytes
+     * @return the Adler-32 checksum of the data
+     * @throws ArrayIndexOutOfBoundsException if {@code off} is negative,
+     *         or {@code len} is negative, or {@code off+len} is greater
+     *         than the length of the array {@code b}
+     */
+    public static long adler32(byte[] b, int off, int len) {
+        return checksum(KIND_ADLER32, b, off, len);
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the bytes remaining in the
+     * specified buffer, which may be a {@link java.nio.MappedByteBuffer}.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer the buffer
+     * @return the Adler-32 checksum of the bytes remaining
+     */
+    public static long adler32(ByteBuffer buffer) {
+        return checksum(KIND_ADLER32, buffer);
+    }
+
+    private static long checksum(int kind, byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        return checksum(kind, ByteBuffer.wrap(b, off, len));
+    }
+
+    private static long checksum(int kind, ByteBuffer buffer) {
+        ByteBuffer bb = buffer.duplicate();
+        int len = bb.remaining();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int partSize = Math.max(MIN_PART_SIZE,
+                                len / (4 * pool.getParallelism()));
+        if (len < 2 * partSize) {
+            return checksumPart(kind, bb);
+        }
+        return pool.invoke(new Part(kind, bb, bb.position(), bb.limit(),
+                                    partSize));
+    }
+
+    private static long checksumPart(int kind, ByteBuffer bb) {
+        switch (kind) {
+        case KIND_CRC32:
+            CRC32 crc = new CRC32();
+            crc.update(bb);
+            return crc.getValue();
+        case KIND_CRC32C:
+            CRC32C crc32c = new CRC32C();
+            crc32c.update(bb);
+            return crc32c.getValue();
+        default:
+            Adler32 adler = new Adler32();
+            adler.update(bb);
+            return adler.getValue();
+        }
+    }
+
+    private static long combine(int kind, long cs1, long cs2, long len2) {
+        switch (kind) {
+        case KIND_CRC32:
+            return CRC32.combine(cs1, cs2, len2);
+        case KIND_CRC32C:
+            return CRC32C.combine(cs1, cs2, len2);
+        default:
+            return Adler32.combine(cs1, cs2, len2);
+        }
+    }
+
+    /**
+     * Checksums a range of a buffer, dividing it in two while it is larger
+     * than the part size.
+     */
+    private static final class Part extends RecursiveTask<Long> {
+        private static final long serialVersionUID = -2877046392532014356L;
+
+        private final int kind;
+        private final ByteBuffer buffer;
+        private final int lo;
+        private final int hi;
+        private final int partSize;
+
+        Part(int kind, ByteBuffer buffer, int lo, int hi, int partSize) {
+            this.kind = kind;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.partSize = partSize;
+        }
+
+        protected Long compute() {
+            if (hi - lo <= partSize) {
+                ByteBuffer bb = buffer.duplicate();
+                bb.limit(hi).position(lo);
+                return checksumPart(kind, bb);
+            }
+            int mid = (lo + hi) >>> 1;
+            Part left = new Part(kind, buffer, lo, mid, partSize);
+            left.fork();
+            long right = new Part(kind, buffer, mid, hi, partSize).compute();
+            return combine(kind, left.join(), right, hi - mid);
+        }
+    }
+}
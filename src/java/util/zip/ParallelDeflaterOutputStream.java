@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class implements an output stream filter for compressing data in
+ * the raw "deflate" compression format, as produced by a {@link Deflater}
+ * created with <code>nowrap</code> set, using several threads.
+ *
+ * <p> The data written to the stream is divided into blocks of a fixed
+ * size, which are compressed concurrently on a {@link ForkJoinPool}.  Each
+ * block is compressed by its own {@code Deflater}, primed with the last
+ * 32K bytes of the preceding block as a preset dictionary, so that
+ * matches may still refer back across block boundaries, and each but the
+ * last block ends with a {@link Deflater#SYNC_FLUSH sync flush}, so that
+ * the compressed blocks can simply be concatenated.  The result is a
+ * single deflate stream which any inflater can decompress, slightly
+ * larger than a stream compressed on one thread.
+ *
+ * <p> The number of blocks being compressed or waiting to be written is
+ * bounded, so that a writer that produces data faster than it can be
+ * compressed waits for earlier blocks to be written.
+ *
+ * <p> The methods of this class must not be invoked by more than one
+ * thread at a time without external synchronization.
+ *
+ * @see         DeflaterOutputStream
+ * @see         ParallelGZIPOutputStream
+ * @since       1.8
+ */
+public
+class ParallelDeflaterOutputStream extends FilterOutputStream {
+
+    /*
+     * Default size of the blocks compressed concurrently.
+     */
+    static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /*
+     * Size of the deflate window, the most that a preset dictionary can
+     * usefully hold.
+     */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private final int level;
+    private final int blockSize;
+    private final ForkJoinPool pool;
+
+    /*
+     * Maximum number of blocks submitted but not yet written.
+     */
+    private final int maxPending;
+
+    /*
+     * Whether each block also computes the CRC-32 of its data.
+     */
+    private final boolean checksum;
+
+    /*
+     * Compressors not in use by any block.
+     */
+    private final ConcurrentLinkedQueue<Deflater> deflaters =
+        new ConcurrentLinkedQueue<>();
+
+    /*
+     * Blocks submitted for compression, in the order written.
+     */
+    private final ArrayDeque<Block> pending = new ArrayDeque<>();
+
+    /*
+     * The block being filled, and the number of bytes in it.
+     */
+    private byte[] block;
+    private int count;
+
+    /*
+     * The last block submitted, and the number of bytes in it, which
+     * provides the dictionary for the next one.
+     */
+    private byte[] previous;
+    private int previousCount;
+
+    private long totalIn;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new output stream that compresses at the specified level,
+     * in blocks of the specified size, on the specified pool.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param blockSize the size of the blocks compressed concurrently
+     * @param pool the pool on which to compress blocks
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid, or {@code blockSize <= 0}
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level,
+                                        int blockSize, ForkJoinPool pool) {
+        this(out, level, blockSize, pool, false);
+    }
+
+    /*
+     * Creates a new output stream, whose blocks compute the CRC-32 of
+     * their data if checksum is set.
+     */
+    ParallelDeflaterOutputStream(OutputStream out, int level, int blockSize,
+                                 ForkJoinPool pool, boolean checksum) {
+        super(out);
+        if (out == null || pool == null) {
+            throw new NullPointerException();
+        } else if (blockSize <= 0) {
+            throw new IllegalArgumentException("block size <= 0");
+        }
+        // fails if the level is invalid
+        deflaters.add(new Deflater(level, true));
+        this.level = level;
+        this.blockSize = blockSize;
+        this.pool = pool;
+        this.maxPending = 2 * pool.getParallelism();
+        this.block = new byte[blockSize];
+        this.checksum = checksum;
+    }
+
+    /**
+     * Creates a new output stream that compresses at the specified level
+     * on the {@linkplain ForkJoinPool#commonPool() common pool}, in blocks
+     * of a default size.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level) {
+        this(out, level, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream that compresses at the default level on
+     * the {@linkplain ForkJoinPool#commonPool() common pool}, in blocks of
+     * a default size.
+     *
+     * @param out the output stream
+     */
+    public ParallelDeflaterOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        } else if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+    }
+
+    /**
+     * Writes a byte to the compressed output stream.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(int b) throws IOException {
+        if (count == blockSize) {
+            ensureOpen();
+            submit(false);
+        } else if (finished || closed) {
+            ensureOpen();
+        }
+        block[count++] = (byte) b;
+        totalIn++;
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream. This
+     * method may block while earlier blocks are compressed and written.
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        totalIn += len;
+        while (len > 0) {
+            if (count == blockSize) {
+                submit(false);
+            }
+            int n = Math.min(blockSize - count, len);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Compresses the current block, ending it with a sync flush, writes
+     * all compressed data to the output stream, and flushes the output
+     * stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void flush() throws IOException {
+        if (!closed && !finished) {
+            if (count > 0) {
+                submit(false);
+            }
+            while (!pending.isEmpty()) {
+                writeBlock(pending.poll());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream, waiting for all blocks to be compressed. Use
+     * this method when applying multiple filters in succession to the same
+     * output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            ensureOpen();
+            submit(true);
+            while (!pending.isEmpty()) {
+                writeBlock(pending.poll());
+            }
+            finished = true;
+        }
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream, releasing the compressors.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                // blocks still in flight use compressors; let them finish
+                for (Block b : pending) {
+                    b.quietlyJoin();
+                }
+                pending.clear();
+                Deflater def;
+                while ((def = deflaters.poll()) != null) {
+                    def.end();
+                }
+                out.close();
+            }
+        }
+    }
+
+    /*
+     * Returns whether the stream has been finished.
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    /*
+     * Returns the total number of uncompressed bytes written.
+     */
+    long totalIn() {
+        return totalIn;
+    }
+
+    /*
+     * Invoked as each block is written, in order, with the CRC-32 of its
+     * data if blocks compute it, and the number of bytes in it.
+     */
+    void blockWritten(long crc, int length) {
+    }
+
+    /*
+     * Submits the current block for compression, writing earlier blocks
+     * as needed to bound the number pending.
+     */
+    private void submit(boolean last) throws IOException {
+        Block b = new Block(block, count, previous, previousCount, last);
+        pool.execute(b);
+        pending.add(b);
+        previous = block;
+        previousCount = count;
+        block = last ? null : new byte[blockSize];
+        count = 0;
+        while (pending.size() > maxPending) {
+            writeBlock(pending.poll());
+        }
+    }
+
+    /*
+     * Waits for a block to be compressed and writes it.
+     */
+    private void writeBlock(Block b) throws IOException {
+        b.join();
+        out.write(b.output, 0, b.outputLength);
+        blockWritten(b.crc, b.length);
+    }
+
+    /*
+     * Takes a compressor from the free list, or creates one.
+     */
+    private Deflater deflater() {
+        Deflater def = deflaters.poll();
+        return (def != null) ? def : new Deflater(level, true);
+    }
+
+    /**
+     * A block of data compressed as a task.
+     */
+    private final class Block extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 5166291016340557618L;
+
+        private final byte[] data;
+        private final int length;
+        private final byte[] dictionary;
+        private final int dictionaryLength;
+        private final boolean last;
+
+        byte[] output;
+        int outputLength;
+        long crc;
+
+        Block(byte[] data, int length,
+              byte[] dictionary, int dictionaryLength, boolean last) {
+            this.data = data;
+            this.length = length;
+            this.dictionary = dictionary;
+            this.dictionaryLength = dictionaryLength;
+            this.last = last;
+        }
+
+        protected Void compute() {
+            if (checksum) {
+                CRC32 c = new CRC32();
+                c.update(data, 0, length);
+                crc = c.getValue();
+            }
+            Deflater def = deflater();
+            try {
+                if (dictionaryLength > 0) {
+                    int n = Math.min(dictionaryLength, DICTIONARY_SIZE);
+                    def.setDictionary(dictionary, dictionaryLength - n, n);
+                }
+                def.setInput(data, 0, length);
+                if (last) {
+                    def.finish();
+                }
+                // room for stored blocks, should the data not compress
+                byte[] buf = new byte[length + (length >>> 6) + 64];
+                int n = 0;
+                for (;;) {
+                    n += def.deflate(buf, n, buf.length - n,
+                                     last ? Deflater.NO_FLUSH
+                                          : Deflater.SYNC_FLUSH);
+                    if (last ? def.finished() : n < buf.length) {
+                        break;
+                    }
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                }
+                output = buf;
+                outputLength = n;
+            } finally {
+                def.reset();
+                deflaters.add(def);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing blocks of the data concurrently as
+ * described in {@link ParallelDeflaterOutputStream}.  The stream written
+ * is a single standard GZIP member, which can be read by
+ * {@link GZIPInputStream}.
+ *
+ * @see         GZIPOutputStream
+ * @since       1.8
+ */
+public
+class ParallelGZIPOutputStream extends ParallelDeflaterOutputStream {
+    /*
+     * CRC-32 of the uncompressed data written out so far, combined from
+     * the CRC-32 of each block.
+     */
+    private long crc;
+
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * Trailer size in bytes.
+     *
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    /**
+     * Creates a new output stream that compresses at the specified level,
+     * in blocks of the specified size, on the specified pool.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param blockSize the size of the blocks compressed concurrently
+     * @param pool the pool on which to compress blocks
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid, or {@code blockSize <= 0}
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int level,
+                                    int blockSize, ForkJoinPool pool)
+        throws IOException
+    {
+        super(out, level, blockSize, pool, true);
+        writeHeader();
+    }
+
+    /**
+     * Creates a new output stream that compresses at the specified level
+     * on the {@linkplain ForkJoinPool#commonPool() common pool}, in blocks
+     * of a default size.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int level)
+        throws IOException
+    {
+        this(out, level, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream that compresses at the default level on
+     * the {@linkplain ForkJoinPool#commonPool() common pool}, in blocks of
+     * a default size.
+     *
+     * @param out the output stream
+     * @exception IOException If an I/O error has occurred.
+     */
+    public ParallelGZIPOutputStream(OutputStream out) throws IOException {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        if (!isFinished()) {
+            super.finish();
+            byte[] trailer = new byte[TRAILER_SIZE];
+            writeTrailer(trailer, 0);
+            out.write(trailer);
+        }
+    }
+
+    void blockWritten(long blockCrc, int length) {
+        crc = CRC32.combine(crc, blockCrc, length);
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes GZIP member trailer to a byte array, starting at a given
+     * offset.
+     */
+    private void writeTrailer(byte[] buf, int offset) {
+        writeInt((int)crc, buf, offset);            // CRC-32 of uncompr. data
+        writeInt((int)totalIn(), buf, offset + 4);  // Number of uncompr. bytes
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private void writeInt(int i, byte[] buf, int offset) {
+        buf[offset] = (byte)i;
+        buf[offset + 1] = (byte)(i >> 8);
+        buf[offset + 2] = (byte)(i >> 16);
+        buf[offset + 3] = (byte)(i >> 24);
+    }
+}
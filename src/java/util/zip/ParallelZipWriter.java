@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SegmentedByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class writes a file in the ZIP file format whose entries are
+ * compressed concurrently.
+ *
+ * <p> Entries may be added by several threads at once.  The data of each
+ * entry is read and compressed on a {@link ForkJoinPool} into a temporary
+ * buffer in memory, and the entries are written to the output stream in
+ * the order in which they were added, each with its size, compressed size
+ * and CRC-32 in its local header, and with ZIP64 extensions where needed,
+ * as by {@link ZipOutputStream}.  Entries can also be copied from a
+ * {@link ZipFile} as they are stored in it, without being decompressed and
+ * compressed again.
+ *
+ * <p> An entry is compressed by the method set for it, {@link
+ * ZipEntry#STORED STORED} or {@link ZipEntry#DEFLATED DEFLATED}, or by
+ * default {@code DEFLATED}.  Its size, CRC-32 and compressed size are
+ * computed, and need not be set even for a {@code STORED} entry; if the
+ * size or CRC-32 is set, it must match the data.  The current time is used
+ * if the entry has no set modification time.
+ *
+ * <p> The number of entries being compressed or waiting to be written is
+ * bounded, so that threads that add entries faster than they can be
+ * compressed wait for earlier entries to be written.  An error in reading
+ * or compressing the data of an entry is reported by the method that
+ * writes the entry, which may be a later invocation, by this or another
+ * thread, of {@code putEntry}, {@code copyEntry}, {@code flush}, {@code
+ * finish} or {@code close}; the entry is then left out of the file.
+ *
+ * @see         ZipOutputStream
+ * @see         ParallelDeflaterOutputStream
+ * @since       1.8
+ */
+public
+class ParallelZipWriter implements Closeable, Flushable {
+
+    /*
+     * Size of the buffers used to read and compress the data of an entry,
+     * and of the segments of the temporary buffers.
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final ZipOutputStream zos;
+    private final int level;
+    private final ForkJoinPool pool;
+
+    /*
+     * Maximum number of entries submitted but not yet written.
+     */
+    private final int maxPending;
+
+    /*
+     * Segments of the temporary buffers, shared by all entries.
+     */
+    private final SegmentedByteArrayOutputStream.SegmentPool segments;
+
+    /*
+     * Entries submitted for compression, in the order added.  Guarded by
+     * this writer, as is the ZipOutputStream.
+     */
+    private final ArrayDeque<EntryTask> pending = new ArrayDeque<>();
+
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new ZIP writer, which encodes entry names and comments in
+     * the specified charset, compresses entries at the specified level,
+     * and compresses them on the specified pool.
+     *
+     * @param out the actual output stream
+     * @param charset the {@linkplain java.nio.charset.Charset charset}
+     *        to be used to encode the entry names and comments
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param pool the pool on which to compress entries
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid
+     */
+    public ParallelZipWriter(OutputStream out, Charset charset, int level,
+                             ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        // fails if the level is invalid
+        ZStreamPool.releaseDeflater(ZStreamPool.getDeflater(level, true));
+        this.zos = new ZipOutputStream(out, charset);
+        this.level = level;
+        this.pool = pool;
+        this.maxPending = 2 * pool.getParallelism();
+        this.segments = new SegmentedByteArrayOutputStream.SegmentPool(
+            BUFFER_SIZE, 16 * maxPending);
+    }
+
+    /**
+     * Creates a new ZIP writer, which encodes entry names and comments in
+     * UTF-8, and compresses entries at the default level on the
+     * {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out the actual output stream
+     */
+    public ParallelZipWriter(OutputStream out) {
+        this(out, StandardCharsets.UTF_8, Deflater.DEFAULT_COMPRESSION,
+             ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sets the ZIP file comment.
+     * @param comment the comment string
+     * @exception IllegalArgumentException if the length of the specified
+     *            ZIP file comment is greater than 0xFFFF bytes
+     */
+    public synchronized void setComment(String comment) {
+        zos.setComment(comment);
+    }
+
+    /**
+     * Adds an entry with the specified data, which is compressed
+     * concurrently.  The data is not copied, and must not be modified until
+     * the entry has been written, at the latest when {@code flush},
+     * {@code finish} or {@code close} returns.
+     *
+     * @param e the ZIP entry to be written
+     * @param b the data of the entry
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public void putEntry(ZipEntry e, byte[] b, int off, int len)
+        throws IOException
+    {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        submit(new EntryTask(checkEntry(e), b, off, len, null, null));
+    }
+
+    /**
+     * Adds an entry whose data is read from the specified input stream,
+     * which is read to its end and closed, concurrently and perhaps by
+     * another thread.
+     *
+     * @param e the ZIP entry to be written
+     * @param in the input stream holding the data of the entry
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public void putEntry(ZipEntry e, InputStream in) throws IOException {
+        if (in == null) {
+            throw new NullPointerException();
+        }
+        submit(new EntryTask(checkEntry(e), null, 0, 0, in, null));
+    }
+
+    /**
+     * Adds the entry of the specified ZIP file that has the name of the
+     * specified entry, copying its data as it is stored in the ZIP file,
+     * without decompressing it.  The new entry has the name, times, size,
+     * compressed size, CRC-32, compression method, extra field data and
+     * comment of the entry in the ZIP file, which must remain open until
+     * the entry has been written.
+     *
+     * @param zip the ZIP file
+     * @param e the ZIP entry to be copied
+     * @exception ZipException if the ZIP file has no entry of that name, or
+     *            the entry is encrypted, or a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalStateException if the ZIP file has been closed
+     */
+    public void copyEntry(ZipFile zip, ZipEntry e) throws IOException {
+        ZipEntry src = zip.getEntry(e.getName());
+        if (src == null || !src.getName().equals(e.getName())) {
+            throw new ZipException("entry not found: " + e.getName());
+        }
+        if ((src.flag & 1) != 0) {
+            throw new ZipException("encrypted entry: " + e.getName());
+        }
+        submit(new EntryTask(new ZipEntry(src), null, 0, 0, null, zip));
+    }
+
+    /**
+     * Writes all entries added so far to the output stream, waiting for
+     * them to be compressed, and flushes the output stream.
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty()) {
+            writeEntry(pending.poll());
+        }
+        zos.flush();
+    }
+
+    /**
+     * Writes all entries added so far and the central directory to the
+     * output stream, without closing it.  No entries can be added once the
+     * writer has been finished.
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void finish() throws IOException {
+        if (!finished) {
+            ensureOpen();
+            while (!pending.isEmpty()) {
+                writeEntry(pending.poll());
+            }
+            zos.finish();
+            finished = true;
+        }
+    }
+
+    /**
+     * Finishes writing the ZIP file and closes the output stream.
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                // entries still in flight use buffers; let them finish
+                for (EntryTask t : pending) {
+                    t.quietlyJoin();
+                    if (t.data != null) {
+                        t.data.close();
+                    }
+                }
+                pending.clear();
+                zos.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        } else if (finished) {
+            throw new ZipException("ZIP file finished");
+        }
+    }
+
+    /*
+     * Checks the compression method of an entry added with its data,
+     * defaulting it, and its modification time.
+     */
+    private static ZipEntry checkEntry(ZipEntry e) throws ZipException {
+        if (e.method == -1) {
+            e.method = ZipEntry.DEFLATED;
+        } else if (e.method != ZipEntry.DEFLATED &&
+                   e.method != ZipEntry.STORED) {
+            throw new ZipException("unsupported compression method");
+        }
+        if (e.xdostime == -1) {
+            e.setTime(System.currentTimeMillis());
+        }
+        return e;
+    }
+
+    /*
+     * Submits an entry for compression, writing earlier entries as needed
+     * to bound the number pending.
+     */
+    private synchronized void submit(EntryTask t) throws IOException {
+        ensureOpen();
+        pool.execute(t);
+        pending.add(t);
+        while (pending.size() > maxPending) {
+            writeEntry(pending.poll());
+        }
+    }
+
+    /*
+     * Waits for an entry to be compressed and writes it.
+     */
+    private void writeEntry(EntryTask t) throws IOException {
+        t.join();
+        try {
+            if (t.exception != null) {
+                throw t.exception;
+            }
+            zos.writeRawEntry(t.entry, t.data.toInputStream());
+        } finally {
+            if (t.data != null) {
+                t.data.close();
+            }
+        }
+    }
+
+    /**
+     * An entry whose data is read and compressed, or copied, as a task.
+     */
+    private final class EntryTask extends RecursiveTask<Void> {
+        private static final long serialVersionUID = -2474466131541520312L;
+
+        final ZipEntry entry;
+        private final byte[] b;
+        private final int off;
+        private final int len;
+        private final InputStream in;
+        private final ZipFile zip;
+
+        SegmentedByteArrayOutputStream data;
+        IOException exception;
+
+        EntryTask(ZipEntry entry, byte[] b, int off, int len,
+                  InputStream in, ZipFile zip) {
+            this.entry = entry;
+            this.b = b;
+            this.off = off;
+            this.len = len;
+            this.in = in;
+            this.zip = zip;
+        }
+
+        protected Void compute() {
+            data = new SegmentedByteArrayOutputStream(segments);
+            try {
+                if (zip != null) {
+                    copy();
+                } else if (in != null) {
+                    try (InputStream is = in) {
+                        compress();
+                    }
+                } else {
+                    compress();
+                }
+            } catch (IOException x) {
+                exception = x;
+            }
+            return null;
+        }
+
+        /*
+         * Copies the data of the entry as it is stored in the ZIP file.
+         */
+        private void copy() throws IOException {
+            try (InputStream is = zip.getRawInputStream(entry)) {
+                if (is == null) {
+                    throw new ZipException("entry not found: " + entry.name);
+                }
+                byte[] buf = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = is.read(buf, 0, buf.length)) != -1) {
+                    data.write(buf, 0, n);
+                }
+            }
+            if (data.size() != entry.csize) {
+                throw new ZipException(
+                    "invalid entry compressed size (expected " + entry.csize +
+                    " but got " + data.size() + " bytes)");
+            }
+        }
+
+        /*
+         * Compresses the data of the entry by its method, computing its
+         * size, CRC-32 and compressed size.
+         */
+        private void compress() throws IOException {
+            CRC32 crc = new CRC32();
+            long size = 0;
+            Deflater def = (entry.method == ZipEntry.DEFLATED)
+                ? ZStreamPool.getDeflater(level, true) : null;
+            try {
+                byte[] outbuf = (def != null) ? new byte[BUFFER_SIZE] : null;
+                if (in == null) {
+                    crc.update(b, off, len);
+                    size = len;
+                    if (def != null) {
+                        def.setInput(b, off, len);
+                    } else {
+                        data.write(b, off, len);
+                    }
+                } else {
+                    byte[] inbuf = new byte[BUFFER_SIZE];
+                    int n;
+                    while ((n = in.read(inbuf, 0, inbuf.length)) != -1) {
+                        crc.update(inbuf, 0, n);
+                        size += n;
+                        if (def != null) {
+                            def.setInput(inbuf, 0, n);
+                            while (!def.needsInput()) {
+                                int m = def.deflate(outbuf, 0, outbuf.length);
+                                data.write(outbuf, 0, m);
+                            }
+                        } else {
+                            data.write(inbuf, 0, n);
+                        }
+                    }
+                }
+                if (def != null) {
+                    def.finish();
+                    while (!def.finished()) {
+                        int m = def.deflate(outbuf, 0, outbuf.length);
+                        data.write(outbuf, 0, m);
+                    }
+                }
+            } finally {
+                if (def != null) {
+                    ZStreamPool.releaseDeflater(def);
+                }
+            }
+            if (entry.size != -1 && entry.size != size) {
+                throw new ZipException(
+                    "invalid entry size (expected " + entry.size +
+                    " but got " + size + " bytes)");
+            }
+            if (entry.crc != -1 && entry.crc != crc.getValue()) {
+                throw new ZipException(
+                    "invalid entry CRC-32 (expected 0x" +
+                    Long.toHexString(entry.crc) + " but got 0x" +
+                    Long.toHexString(crc.getValue()) + ")");
+            }
+            entry.size = size;
+            entry.crc = crc.getValue();
+            entry.csize = data.size();
+        }
+    }
+}
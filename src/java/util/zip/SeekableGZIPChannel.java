@@ -0,0 +1,991 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A read-only {@link SeekableByteChannel} over the uncompressed contents
+ * of a file in the GZIP file format, which can be read from any position
+ * without inflating all of the data before it.
+ *
+ * <p> The channel relies on an {@link Index} of <i>access points</i>:
+ * offsets in the compressed data at which inflation can restart, together
+ * with the uncompressed offset and the last 32K bytes of data that a
+ * restarted {@link Inflater} needs as its dictionary.  A read at a given
+ * position restarts inflation at the nearest access point before it,
+ * unless the data already being inflated is nearer.  The index is built
+ * by a single sequential pass over the file, which also checks the CRC-32
+ * of each member, and can be written out and read back so that the pass
+ * need not be repeated.
+ *
+ * <p> Since an {@code Inflater} can only begin at a byte boundary, access
+ * points are limited to those positions at which a deflate block begins on
+ * a byte boundary: the start of each GZIP member, and the points following
+ * a {@linkplain Deflater#SYNC_FLUSH sync} or {@linkplain
+ * Deflater#FULL_FLUSH full flush}.  The index keeps an access point at
+ * most once in each <i>span</i> of uncompressed bytes; reading at any
+ * position then inflates little more than one span, provided the file
+ * was written with such points frequently enough.  {@link
+ * ParallelGZIPOutputStream} ends every block with a sync flush, and a
+ * series of GZIP members, each written by a {@link GZIPOutputStream}, also
+ * serves.  A file written as a single member without flushes has just the
+ * one access point at its start.
+ *
+ * <p> A channel is safe for use by multiple concurrent threads, although
+ * reads are serialized.
+ *
+ * @see         GZIPInputStream
+ * @since       1.8
+ */
+public final class SeekableGZIPChannel implements SeekableByteChannel {
+
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * File header flags.
+     */
+    private final static int FHCRC      = 2;    // Header CRC
+    private final static int FEXTRA     = 4;    // Extra field
+    private final static int FNAME      = 8;    // File name
+    private final static int FCOMMENT   = 16;   // File comment
+
+    /*
+     * Size of the deflate window, and so of the dictionary an access point
+     * needs.
+     */
+    private static final int WINDOW_SIZE = 32 * 1024;
+
+    /*
+     * Size of the buffers for compressed and uncompressed data.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * An index of the access points in a GZIP file.  An index is immutable,
+     * and may be shared by several channels over the same file.
+     *
+     * @since 1.8
+     */
+    public static final class Index {
+
+        /*
+         * Index file magic number and version.
+         */
+        private static final int INDEX_MAGIC = 0x475a4958;
+        private static final int INDEX_VERSION = 1;
+
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final long span;
+        private final Point[] points;
+
+        private Index(long compressedSize, long uncompressedSize, long span,
+                      Point[] points) {
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.span = span;
+            this.points = points;
+        }
+
+        /**
+         * Builds an index of the GZIP file read from the specified
+         * channel, starting at its beginning, keeping an access point at
+         * most once in each span of the specified number of uncompressed
+         * bytes.
+         *
+         * @param ch the channel from which to read the GZIP file
+         * @param span the least number of uncompressed bytes between
+         *        access points within a member
+         * @return the index
+         * @exception ZipException if a GZIP format error has occurred or
+         *            the compression method used is unsupported
+         * @exception IOException if an I/O error has occurred
+         * @exception IllegalArgumentException if {@code span <= 0}
+         */
+        public static Index build(SeekableByteChannel ch, long span)
+            throws IOException
+        {
+            if (span <= 0) {
+                throw new IllegalArgumentException("span <= 0");
+            }
+            return new Builder(ch, span).build();
+        }
+
+        /**
+         * Returns the size of the compressed file this index describes.
+         *
+         * @return the compressed size
+         */
+        public long compressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * Returns the total size of the uncompressed data.
+         *
+         * @return the uncompressed size
+         */
+        public long uncompressedSize() {
+            return uncompressedSize;
+        }
+
+        /**
+         * Returns the span with which this index was built.
+         *
+         * @return the least number of uncompressed bytes between access
+         *         points within a member
+         */
+        public long span() {
+            return span;
+        }
+
+        /**
+         * Returns the number of access points in this index.
+         *
+         * @return the number of access points
+         */
+        public int size() {
+            return points.length;
+        }
+
+        /**
+         * Writes this index to the specified output stream.  The stream is
+         * not closed.
+         *
+         * @param out the output stream
+         * @exception IOException if an I/O error has occurred
+         */
+        public void write(OutputStream out) throws IOException {
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeInt(INDEX_MAGIC);
+            dos.writeInt(INDEX_VERSION);
+            dos.writeLong(compressedSize);
+            dos.writeLong(uncompressedSize);
+            dos.writeLong(span);
+            dos.writeInt(points.length);
+            for (Point p : points) {
+                dos.writeLong(p.c);
+                dos.writeLong(p.u);
+                dos.writeInt(p.windowLength);
+                if (p.windowLength > 0) {
+                    dos.writeInt(p.window.length);
+                    dos.write(p.window);
+                }
+            }
+            dos.flush();
+        }
+
+        /**
+         * Reads an index previously written by {@link #write write} from
+         * the specified input stream.  The stream is not closed.
+         *
+         * @param in the input stream
+         * @return the index
+         * @exception IOException if an I/O error has occurred, or the
+         *            stream does not hold a valid index
+         */
+        public static Index read(InputStream in) throws IOException {
+            DataInputStream dis = new DataInputStream(in);
+            if (dis.readInt() != INDEX_MAGIC) {
+                throw new IOException("Not a GZIP index");
+            }
+            if (dis.readInt() != INDEX_VERSION) {
+                throw new IOException("Unsupported GZIP index version");
+            }
+            long compressedSize = dis.readLong();
+            long uncompressedSize = dis.readLong();
+            long span = dis.readLong();
+            int n = dis.readInt();
+            if (compressedSize < 0 || uncompressedSize < 0 || span <= 0
+                || n <= 0) {
+                throw new IOException("Invalid GZIP index");
+            }
+            ArrayList<Point> points = new ArrayList<>();
+            long lastC = -1, lastU = 0;
+            for (int i = 0; i < n; i++) {
+                long c = dis.readLong();
+                long u = dis.readLong();
+                int windowLength = dis.readInt();
+                byte[] window = null;
+                if (windowLength > 0) {
+                    int len = dis.readInt();
+                    if (windowLength > WINDOW_SIZE || len < 0
+                        || len > windowLength + (windowLength >>> 3) + 64) {
+                        throw new IOException("Invalid GZIP index");
+                    }
+                    window = new byte[len];
+                    dis.readFully(window);
+                }
+                if (c <= lastC || c >= compressedSize || u < lastU
+                    || u > uncompressedSize || windowLength < 0) {
+                    throw new IOException("Invalid GZIP index");
+                }
+                points.add(new Point(c, u, window, windowLength));
+                lastC = c;
+                lastU = u;
+            }
+            return new Index(compressedSize, uncompressedSize, span,
+                             points.toArray(new Point[n]));
+        }
+
+        /*
+         * Returns the index of the last access point at or before the
+         * given uncompressed position.
+         */
+        int floor(long position) {
+            int lo = 0, hi = points.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (points[mid].u <= position) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        /*
+         * Returns the index of the first access point after the given
+         * compressed position, or -1 if there is none.
+         */
+        int after(long c) {
+            int lo = 0, hi = points.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (points[mid].c <= c) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return (lo < points.length) ? lo : -1;
+        }
+
+        Point point(int i) {
+            return points[i];
+        }
+    }
+
+    /*
+     * An access point: the compressed offset at which a deflate block
+     * begins on a byte boundary, the uncompressed offset of its data, and
+     * the preceding data in the member, up to the window size, compressed
+     * as a raw deflate stream; or no window at the start of a member.
+     */
+    static final class Point {
+        final long c;
+        final long u;
+        final byte[] window;
+        final int windowLength;
+
+        Point(long c, long u, byte[] window, int windowLength) {
+            this.c = c;
+            this.u = u;
+            this.window = window;
+            this.windowLength = windowLength;
+        }
+    }
+
+    /*
+     * Builds an index in a single pass over a GZIP file.
+     */
+    private static final class Builder {
+
+        /*
+         * The number of bytes of inflated data after a candidate access
+         * point that must agree with data inflated from the point before
+         * it is accepted.
+         */
+        private static final int VERIFY_SIZE = 16 * 1024;
+
+        private final SeekableByteChannel ch;
+        private final long span;
+        private final long size;
+
+        private final ArrayList<Point> points = new ArrayList<>();
+        private final Inflater inf = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] in = new byte[BUFFER_SIZE];
+        private final byte[] out = new byte[BUFFER_SIZE];
+
+        /*
+         * The last WINDOW_SIZE bytes of the current member, as a ring.
+         */
+        private final byte[] window = new byte[WINDOW_SIZE];
+        private int windowPos;
+        private int windowLength;
+
+        /*
+         * A candidate access point, and the inflater started from it to
+         * check that it agrees with the data already being inflated.
+         */
+        private Inflater probe;
+        private long candidateC = -1;
+        private long candidateU;
+        private byte[] candidateWindow;
+        private byte[] expected;
+        private int expectedLength;
+        private byte[] probed;
+        private int probedLength;
+        private boolean probeFailed;
+
+        private long u;
+        private long lastU;
+
+        Builder(SeekableByteChannel ch, long span) throws IOException {
+            this.ch = ch;
+            this.span = span;
+            this.size = ch.size();
+        }
+
+        Index build() throws IOException {
+            try {
+                long c = 0;
+                long d;
+                while ((d = skipHeader(ch, c, points.isEmpty())) >= 0) {
+                    points.add(new Point(d, u, null, 0));
+                    c = inflateMember(d);
+                }
+            } finally {
+                inf.end();
+                if (probe != null) {
+                    probe.end();
+                }
+            }
+            return new Index(size, u, span,
+                             points.toArray(new Point[points.size()]));
+        }
+
+        /*
+         * Inflates the member whose deflate data begins at the given
+         * offset, adding access points, and returns the offset following
+         * its trailer.
+         */
+        private long inflateMember(long c) throws IOException {
+            inf.reset();
+            crc.reset();
+            windowPos = windowLength = 0;
+            lastU = u;
+            long memberU = u;
+            int kept = 0;   // unscanned bytes carried to the start of in
+            for (;;) {
+                int n = read(ch, c + kept, in, kept, in.length - kept);
+                if (n <= 0) {
+                    throw new EOFException(
+                        "Unexpected end of ZLIB input stream");
+                }
+                n += kept;
+                boolean atEnd = c + n >= size;
+                int off = 0;
+                while (off < n) {
+                    // feed up to and including the next sync marker, if
+                    // any; hold back a possibly split marker otherwise
+                    int end = marker(in, off, n);
+                    boolean marker = end > 0;
+                    if (!marker) {
+                        end = atEnd ? n : Math.max(off, n - 3);
+                        if (end == off) {
+                            break;
+                        }
+                    }
+                    inflate(off, end - off);
+                    if (inf.finished()) {
+                        long trailer = c + end - inf.getRemaining();
+                        checkCandidate(true);
+                        checkTrailer(trailer, u - memberU);
+                        return trailer + 8;
+                    }
+                    checkCandidate(false);
+                    if (marker && candidateC < 0 && u - lastU >= span) {
+                        startCandidate(c + end);
+                    }
+                    off = end;
+                }
+                // rescan the held back bytes together with the next read
+                kept = n - off;
+                System.arraycopy(in, off, in, 0, kept);
+                c += off;
+            }
+        }
+
+        /*
+         * Returns the offset following the first possible sync marker, the
+         * LEN and NLEN of an empty stored block, in the given range of the
+         * input, or -1 if there is none.
+         */
+        private static int marker(byte[] b, int off, int end) {
+            for (int i = off; i <= end - 4; i++) {
+                if (b[i] == 0 && b[i + 1] == 0 &&
+                    b[i + 2] == (byte)0xff && b[i + 3] == (byte)0xff) {
+                    return i + 4;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * Inflates the given input, and with it any candidate probe.
+         */
+        private void inflate(int off, int len) throws IOException {
+            inf.setInput(in, off, len);
+            try {
+                for (;;) {
+                    int n = inf.inflate(out, 0, out.length);
+                    if (n > 0) {
+                        crc.update(out, 0, n);
+                        appendWindow(out, n);
+                        if (candidateC >= 0 && expectedLength < VERIFY_SIZE) {
+                            int k = Math.min(n, VERIFY_SIZE - expectedLength);
+                            System.arraycopy(out, 0, expected, expectedLength, k);
+                            expectedLength += k;
+                        }
+                        u += n;
+                    } else if (inf.finished() || inf.needsInput()) {
+                        break;
+                    } else if (inf.needsDictionary()) {
+                        throw new ZipException("Unexpected preset dictionary");
+                    }
+                }
+            } catch (DataFormatException e) {
+                String s = e.getMessage();
+                throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+            }
+            if (candidateC >= 0 && !probeFailed) {
+                probe.setInput(in, off, len);
+                try {
+                    while (!probe.finished() && !probe.needsInput()) {
+                        int n = probe.inflate(out, 0, out.length);
+                        if (n > 0 && probedLength < VERIFY_SIZE) {
+                            int k = Math.min(n, VERIFY_SIZE - probedLength);
+                            System.arraycopy(out, 0, probed, probedLength, k);
+                            probedLength += k;
+                        } else if (n == 0 && probe.needsDictionary()) {
+                            probeFailed = true;
+                            break;
+                        }
+                    }
+                } catch (DataFormatException e) {
+                    probeFailed = true;
+                }
+            }
+        }
+
+        private void appendWindow(byte[] b, int len) {
+            windowLength = Math.min(WINDOW_SIZE, windowLength + len);
+            int off = 0;
+            if (len > WINDOW_SIZE) {
+                off = len - WINDOW_SIZE;
+                len = WINDOW_SIZE;
+            }
+            while (len > 0) {
+                int k = Math.min(len, WINDOW_SIZE - windowPos);
+                System.arraycopy(b, off, window, windowPos, k);
+                windowPos = (windowPos + k) & (WINDOW_SIZE - 1);
+                off += k;
+                len -= k;
+            }
+        }
+
+        /*
+         * Starts checking a candidate access point at the given offset,
+         * the current uncompressed position.
+         */
+        private void startCandidate(long c) {
+            byte[] w = new byte[windowLength];
+            int start = (windowPos - windowLength) & (WINDOW_SIZE - 1);
+            int k = Math.min(windowLength, WINDOW_SIZE - start);
+            System.arraycopy(window, start, w, 0, k);
+            System.arraycopy(window, 0, w, k, windowLength - k);
+            if (probe == null) {
+                probe = new Inflater(true);
+                expected = new byte[VERIFY_SIZE];
+                probed = new byte[VERIFY_SIZE];
+            } else {
+                probe.reset();
+            }
+            if (w.length > 0) {
+                probe.setDictionary(w);
+            }
+            candidateC = c;
+            candidateU = u;
+            candidateWindow = w;
+            expectedLength = probedLength = 0;
+            probeFailed = false;
+        }
+
+        /*
+         * Accepts or rejects the candidate access point once enough data
+         * has been inflated, or the member has ended.
+         */
+        private void checkCandidate(boolean memberEnd) {
+            if (candidateC < 0) {
+                return;
+            }
+            boolean accept;
+            if (probeFailed) {
+                accept = false;
+            } else if (memberEnd) {
+                accept = probe.finished() && probedLength == expectedLength
+                    && equal(expected, probed, expectedLength);
+            } else if (expectedLength == VERIFY_SIZE) {
+                accept = probedLength == VERIFY_SIZE
+                    && equal(expected, probed, VERIFY_SIZE);
+            } else {
+                return;
+            }
+            if (accept) {
+                points.add(new Point(candidateC, candidateU,
+                                     compress(candidateWindow),
+                                     candidateWindow.length));
+                lastU = candidateU;
+            }
+            candidateC = -1;
+            candidateWindow = null;
+        }
+
+        private static boolean equal(byte[] a, byte[] b, int len) {
+            for (int i = 0; i < len; i++) {
+                if (a[i] != b[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void checkTrailer(long pos, long memberSize) throws IOException {
+            byte[] b = new byte[8];
+            if (read(ch, pos, b, 0, 8) < 8) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            if (getInt(b, 0) != (int)crc.getValue()
+                || getInt(b, 4) != (int)memberSize) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+
+        private static int getInt(byte[] b, int off) {
+            return (b[off] & 0xff) | ((b[off + 1] & 0xff) << 8)
+                | ((b[off + 2] & 0xff) << 16) | ((b[off + 3] & 0xff) << 24);
+        }
+
+        private static byte[] compress(byte[] b) {
+            if (b.length == 0) {
+                return null;
+            }
+            Deflater def = new Deflater(Deflater.BEST_SPEED, true);
+            try {
+                def.setInput(b);
+                def.finish();
+                byte[] buf = new byte[b.length + (b.length >>> 3) + 64];
+                int n = 0;
+                while (!def.finished()) {
+                    n += def.deflate(buf, n, buf.length - n);
+                }
+                return Arrays.copyOf(buf, n);
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    private final SeekableByteChannel ch;
+    private final Index index;
+    private final Inflater inf = new Inflater(true);
+    private final byte[] in = new byte[BUFFER_SIZE];
+    private byte[] buf;
+
+    private boolean closed;
+    private long position;
+
+    /*
+     * The uncompressed position of the next byte the inflater produces,
+     * or -1 if it is not positioned, and the compressed position of the
+     * next input for it.
+     */
+    private long cursor = -1;
+    private long nextIn;
+
+    /**
+     * Creates a channel over the GZIP file read from the specified channel,
+     * using an index previously built for it.
+     *
+     * @param ch the channel from which to read the GZIP file
+     * @param index the index of the file
+     * @exception IOException if an I/O error has occurred, or the index
+     *            does not describe a file of the channel's size
+     */
+    public SeekableGZIPChannel(SeekableByteChannel ch, Index index)
+        throws IOException
+    {
+        if (ch.size() != index.compressedSize()) {
+            throw new IOException("Index does not match GZIP file");
+        }
+        this.ch = ch;
+        this.index = index;
+    }
+
+    /**
+     * Creates a channel over the GZIP file read from the specified channel,
+     * first building its index.
+     *
+     * @param ch the channel from which to read the GZIP file
+     * @param span the least number of uncompressed bytes between access
+     *        points within a member
+     * @return the channel
+     * @exception ZipException if a GZIP format error has occurred or
+     *            the compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if {@code span <= 0}
+     * @see Index#build
+     */
+    public static SeekableGZIPChannel open(SeekableByteChannel ch, long span)
+        throws IOException
+    {
+        return new SeekableGZIPChannel(ch, Index.build(ch, span));
+    }
+
+    /**
+     * Returns the index this channel uses.
+     *
+     * @return the index
+     */
+    public Index index() {
+        return index;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Reads a sequence of uncompressed bytes from this channel into the
+     * given buffer, starting at the channel's current position, and then
+     * updates the position with the number of bytes read.
+     *
+     * @param dst the buffer into which bytes are to be transferred
+     * @return the number of bytes read, possibly zero, or {@code -1} if
+     *         the position is at or beyond the end of the data
+     * @exception ZipException if a GZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (position >= index.uncompressedSize()) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        seek(position);
+        int n;
+        if (dst.hasArray()) {
+            n = inflate(dst.array(), dst.arrayOffset() + dst.position(),
+                        dst.remaining());
+            if (n > 0) {
+                dst.position(dst.position() + n);
+            }
+        } else {
+            byte[] b = buffer();
+            n = inflate(b, 0, Math.min(b.length, dst.remaining()));
+            if (n > 0) {
+                dst.put(b, 0, n);
+            }
+        }
+        if (n < 0) {
+            throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        position += n;
+        return n;
+    }
+
+    /**
+     * Throws {@code NonWritableChannelException}; the channel is
+     * read-only.
+     */
+    public int write(ByteBuffer src) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Returns this channel's position in the uncompressed data.
+     *
+     * @return the position
+     * @exception IOException if the channel is closed
+     */
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    /**
+     * Sets this channel's position in the uncompressed data.  Setting the
+     * position does no inflation; the next read restarts inflation as
+     * needed.
+     *
+     * @param newPosition the new position
+     * @return this channel
+     * @exception IllegalArgumentException if the new position is negative
+     * @exception IOException if the channel is closed
+     */
+    public synchronized SeekableGZIPChannel position(long newPosition)
+        throws IOException
+    {
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position");
+        }
+        ensureOpen();
+        position = newPosition;
+        return this;
+    }
+
+    /**
+     * Returns the size of the uncompressed data.
+     *
+     * @return the uncompressed size
+     * @exception IOException if the channel is closed
+     */
+    public long size() throws IOException {
+        ensureOpen();
+        return index.uncompressedSize();
+    }
+
+    /**
+     * Throws {@code NonWritableChannelException}; the channel is
+     * read-only.
+     */
+    public SeekableByteChannel truncate(long size) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    public synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Closes this channel and the underlying channel.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            inf.end();
+            ch.close();
+        }
+    }
+
+    private byte[] buffer() {
+        if (buf == null) {
+            buf = new byte[BUFFER_SIZE];
+        }
+        return buf;
+    }
+
+    /*
+     * Positions the inflater at the given uncompressed position, restarting
+     * from an access point unless it can get there sooner by inflating
+     * forward from where it is.
+     */
+    private void seek(long pos) throws IOException {
+        int i = index.floor(pos);
+        if (cursor < 0 || cursor > pos || cursor < index.point(i).u) {
+            restart(index.point(i));
+        }
+        while (cursor < pos) {
+            byte[] b = buffer();
+            if (inflate(b, 0, (int)Math.min(b.length, pos - cursor)) < 0) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+        }
+    }
+
+    private void restart(Point p) throws IOException {
+        inf.reset();
+        if (p.window != null) {
+            byte[] dict = new byte[p.windowLength];
+            inf.setInput(p.window);
+            try {
+                int n = 0;
+                while (n < dict.length && !inf.finished()) {
+                    int k = inf.inflate(dict, n, dict.length - n);
+                    if (k == 0 && (inf.needsInput() || inf.needsDictionary())) {
+                        break;
+                    }
+                    n += k;
+                }
+                if (n != dict.length) {
+                    throw new ZipException("Invalid GZIP index window");
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid GZIP index window");
+            }
+            inf.reset();
+            inf.setDictionary(dict);
+        }
+        cursor = p.u;
+        nextIn = p.c;
+    }
+
+    /*
+     * Inflates up to len bytes at the cursor, moving on to the next member
+     * at the end of each, and returns the number of bytes inflated, or -1
+     * at the end of the file.
+     */
+    private int inflate(byte[] b, int off, int len) throws IOException {
+        try {
+            for (;;) {
+                int n = inf.inflate(b, off, len);
+                if (n > 0) {
+                    cursor += n;
+                    return n;
+                }
+                if (inf.finished()) {
+                    int i = index.after(nextIn - inf.getRemaining());
+                    if (i < 0) {
+                        return -1;
+                    }
+                    restart(index.point(i));
+                } else if (inf.needsDictionary()) {
+                    throw new ZipException("Unexpected preset dictionary");
+                } else if (inf.needsInput()) {
+                    int k = read(ch, nextIn, in, 0, in.length);
+                    if (k <= 0) {
+                        throw new EOFException(
+                            "Unexpected end of ZLIB input stream");
+                    }
+                    inf.setInput(in, 0, k);
+                    nextIn += k;
+                }
+            }
+        } catch (DataFormatException e) {
+            String s = e.getMessage();
+            throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+        }
+    }
+
+    /*
+     * Reads up to len bytes at the given position of the channel, returning
+     * the number read, which is less than len only at the end of the
+     * channel.
+     */
+    private static int read(SeekableByteChannel ch, long pos,
+                            byte[] b, int off, int len) throws IOException {
+        ch.position(pos);
+        ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+        while (bb.hasRemaining()) {
+            if (ch.read(bb) < 0) {
+                break;
+            }
+        }
+        return bb.position() - off;
+    }
+
+    /*
+     * Skips the GZIP member header at the given position, returning the
+     * position of its deflate data, or -1 if there is no further member.
+     */
+    private static long skipHeader(SeekableByteChannel ch, long pos,
+                                   boolean first) throws IOException {
+        byte[] b = new byte[10];
+        int n = read(ch, pos, b, 0, 10);
+        if (!first && (n < 2 || (((b[1] & 0xff) << 8) | (b[0] & 0xff))
+                                != GZIP_MAGIC)) {
+            // trailing garbage after a member is ignored, as by
+            // GZIPInputStream
+            return -1;
+        }
+        if (n < 10) {
+            if (n >= 2 && (((b[1] & 0xff) << 8) | (b[0] & 0xff)) != GZIP_MAGIC) {
+                throw new ZipException("Not in GZIP format");
+            }
+            throw new EOFException();
+        }
+        if ((((b[1] & 0xff) << 8) | (b[0] & 0xff)) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if ((b[2] & 0xff) != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flg = b[3] & 0xff;
+        pos += 10;
+        if ((flg & FEXTRA) == FEXTRA) {
+            if (read(ch, pos, b, 0, 2) < 2) {
+                throw new EOFException();
+            }
+            pos += 2 + ((b[0] & 0xff) | ((b[1] & 0xff) << 8));
+        }
+        if ((flg & FNAME) == FNAME) {
+            pos = skipString(ch, pos);
+        }
+        if ((flg & FCOMMENT) == FCOMMENT) {
+            pos = skipString(ch, pos);
+        }
+        if ((flg & FHCRC) == FHCRC) {
+            pos += 2;
+        }
+        return pos;
+    }
+
+    /*
+     * Skips a zero-terminated string at the given position, returning the
+     * position that follows it.
+     */
+    private static long skipString(SeekableByteChannel ch, long pos)
+        throws IOException
+    {
+        byte[] b = new byte[256];
+        for (;;) {
+            int n = read(ch, pos, b, 0, b.length);
+            if (n <= 0) {
+                throw new EOFException();
+            }
+            for (int i = 0; i < n; i++) {
+                if (b[i] == 0) {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+    }
+}
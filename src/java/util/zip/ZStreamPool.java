@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A shared pool of {@link Inflater} and {@link Deflater} instances, and
+ * so of the native zlib streams behind them.  Creating a compressor or
+ * decompressor allocates and initializes a native stream, which is freed
+ * only when the object is {@linkplain Inflater#end() ended} or finalized;
+ * an application that decompresses many small inputs therefore does
+ * better to reset and reuse the same instances.
+ *
+ * <p> Inflaters are pooled separately according to whether they were
+ * created with <code>nowrap</code> set, and deflaters according to both
+ * their initial compression level and <code>nowrap</code>.  The pool
+ * retains at most a bounded number of idle inflaters, and of idle
+ * deflaters, in total across all kinds, given by the system property
+ * {@code java.util.zip.ZStreamPool.maxIdle} (by default 32); an instance
+ * released when the pool is full is ended.
+ *
+ * <p> The streams of this package that create their own compressor or
+ * decompressor, such as {@link GZIPInputStream} and {@link
+ * GZIPOutputStream}, as well as {@link ZipFile}, take it from this pool and
+ * release it back when closed, after which the stream refers to an ended
+ * instance instead.  A stream that is never closed leaves its instance to
+ * be ended by finalization, as before.
+ *
+ * <p> The pool also keeps counts of the instances it manages, and from
+ * them an estimate of the native memory they occupy.
+ *
+ * @since 1.8
+ */
+public final class ZStreamPool {
+
+    private ZStreamPool() {}
+
+    /*
+     * Approximate native memory, in bytes, of a zlib inflate stream, whose
+     * window of 32K is allocated at its first use, and of a zlib deflate
+     * stream with the default window size and memory level.
+     */
+    private static final long INFLATER_MEMORY = (1 << 15) + 7 * 1024;
+    private static final long DEFLATER_MEMORY = (1 << 17) + (1 << 17) + 6 * 1024;
+
+    private static final int MAX_IDLE = java.security.AccessController
+        .doPrivileged(new sun.security.action.GetIntegerAction(
+            "java.util.zip.ZStreamPool.maxIdle", 32));
+
+    /*
+     * The idle inflaters, without and with nowrap, and the idle deflaters
+     * for each level from DEFAULT_COMPRESSION up, without and with
+     * nowrap.  Each queue is its own lock.
+     */
+    @SuppressWarnings("unchecked")
+    private static final ArrayDeque<Inflater>[] inflaters = new ArrayDeque[2];
+    @SuppressWarnings("unchecked")
+    private static final ArrayDeque<Deflater>[] deflaters = new ArrayDeque[22];
+    static {
+        for (int i = 0; i < inflaters.length; i++) {
+            inflaters[i] = new ArrayDeque<>();
+        }
+        for (int i = 0; i < deflaters.length; i++) {
+            deflaters[i] = new ArrayDeque<>();
+        }
+    }
+
+    /*
+     * The numbers of instances managed by the pool and not yet ended, and
+     * of those that are idle.
+     */
+    private static final AtomicInteger liveInflaters = new AtomicInteger();
+    private static final AtomicInteger idleInflaters = new AtomicInteger();
+    private static final AtomicInteger liveDeflaters = new AtomicInteger();
+    private static final AtomicInteger idleDeflaters = new AtomicInteger();
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /*
+     * Ended instances, which a stream substitutes for the one it releases
+     * so that it cannot go on to use an instance another stream owns.
+     */
+    static final Inflater ENDED_INFLATER = new Inflater();
+    static final Deflater ENDED_DEFLATER = new Deflater();
+    static {
+        ENDED_INFLATER.end();
+        ENDED_DEFLATER.end();
+    }
+
+    /**
+     * Returns an idle inflater from the pool, or a new one if there is
+     * none.
+     *
+     * @param nowrap if true then support GZIP compatible compression
+     * @return an inflater, ready for new input
+     * @see Inflater#Inflater(boolean)
+     */
+    public static Inflater getInflater(boolean nowrap) {
+        ArrayDeque<Inflater> queue = inflaters[nowrap ? 1 : 0];
+        synchronized (queue) {
+            Inflater inf = queue.pollLast();
+            if (inf != null) {
+                inf.idle = false;
+                idleInflaters.decrementAndGet();
+                return inf;
+            }
+        }
+        Inflater inf = new Inflater(nowrap);
+        inf.pooled = true;
+        liveInflaters.incrementAndGet();
+        return inf;
+    }
+
+    /**
+     * Releases an inflater to the pool, resetting it, or ends it if the
+     * pool already holds as many idle inflaters as it retains.  The inflater need not have been obtained from the pool,
+     * but it must not be used by the caller once released.  An inflater
+     * that has been ended is ignored.
+     *
+     * @param inf the inflater
+     * @exception IllegalStateException if the inflater is already idle in
+     *            the pool
+     */
+    public static void releaseInflater(Inflater inf) {
+        if (inf.ended()) {
+            return;
+        }
+        inf.reset();
+        ArrayDeque<Inflater> queue = inflaters[inf.nowrap ? 1 : 0];
+        synchronized (queue) {
+            if (inf.idle) {
+                throw new IllegalStateException("Inflater already released");
+            }
+            if (!inf.pooled) {
+                inf.pooled = true;
+                liveInflaters.incrementAndGet();
+            }
+            if (reserveIdle(idleInflaters)) {
+                inf.idle = true;
+                queue.addLast(inf);
+                return;
+            }
+        }
+        inf.end();
+    }
+
+    /**
+     * Returns an idle deflater with the specified initial compression
+     * level from the pool, or a new one if there is none.
+     *
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param nowrap if true then use GZIP compatible compression
+     * @return a deflater, ready for new input
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid
+     * @see Deflater#Deflater(int, boolean)
+     */
+    public static Deflater getDeflater(int level, boolean nowrap) {
+        ArrayDeque<Deflater> queue = deflaters[index(level, nowrap)];
+        synchronized (queue) {
+            Deflater def = queue.pollLast();
+            if (def != null) {
+                def.idle = false;
+                idleDeflaters.decrementAndGet();
+                return def;
+            }
+        }
+        Deflater def = new Deflater(level, nowrap);
+        def.pooled = true;
+        liveDeflaters.incrementAndGet();
+        return def;
+    }
+
+    /**
+     * Releases a deflater to the pool, resetting it and restoring the
+     * compression level with which it was created and the default
+     * strategy, or ends it if the pool already holds as many idle
+     * deflaters as it retains.  The deflater need not have
+     * been obtained from the pool, but it must not be used by the caller
+     * once released.  A deflater that has been ended is ignored.
+     *
+     * @param def the deflater
+     * @exception IllegalStateException if the deflater is already idle in
+     *            the pool
+     */
+    public static void releaseDeflater(Deflater def) {
+        if (def.ended()) {
+            return;
+        }
+        def.reset();
+        def.setInput(EMPTY);
+        def.setLevel(def.initLevel);
+        def.setStrategy(Deflater.DEFAULT_STRATEGY);
+        ArrayDeque<Deflater> queue = deflaters[index(def.initLevel, def.nowrap)];
+        synchronized (queue) {
+            if (def.idle) {
+                throw new IllegalStateException("Deflater already released");
+            }
+            if (!def.pooled) {
+                def.pooled = true;
+                liveDeflaters.incrementAndGet();
+            }
+            if (reserveIdle(idleDeflaters)) {
+                def.idle = true;
+                queue.addLast(def);
+                return;
+            }
+        }
+        def.end();
+    }
+
+    /*
+     * Counts one more idle instance unless the pool already holds as many
+     * as it retains, in total across all kinds.
+     */
+    private static boolean reserveIdle(AtomicInteger idle) {
+        for (;;) {
+            int n = idle.get();
+            if (n >= MAX_IDLE) {
+                return false;
+            }
+            if (idle.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static int index(int level, boolean nowrap) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        return ((level + 1) << 1) | (nowrap ? 1 : 0);
+    }
+
+    /*
+     * Invoked as an inflater managed by the pool is ended.
+     */
+    static void ended(Inflater inf) {
+        liveInflaters.decrementAndGet();
+    }
+
+    /*
+     * Invoked as a deflater managed by the pool is ended.
+     */
+    static void ended(Deflater def) {
+        liveDeflaters.decrementAndGet();
+    }
+
+    /**
+     * Returns the number of inflaters managed by the pool that are in use:
+     * those obtained from or released to the pool that are neither idle
+     * nor ended.
+     *
+     * @return the number of inflaters in use
+     */
+    public static int inflatersInUse() {
+        return liveInflaters.get() - idleInflaters.get();
+    }
+
+    /**
+     * Returns the number of idle inflaters held by the pool.
+     *
+     * @return the number of idle inflaters
+     */
+    public static int idleInflaters() {
+        return idleInflaters.get();
+    }
+
+    /**
+     * Returns the number of deflaters managed by the pool that are in use:
+     * those obtained from or released to the pool that are neither idle
+     * nor ended.
+     *
+     * @return the number of deflaters in use
+     */
+    public static int deflatersInUse() {
+        return liveDeflaters.get() - idleDeflaters.get();
+    }
+
+    /**
+     * Returns the number of idle deflaters held by the pool.
+     *
+     * @return the number of idle deflaters
+     */
+    public static int idleDeflaters() {
+        return idleDeflaters.get();
+    }
+
+    /**
+     * Returns an estimate of the native memory, in bytes, held by the
+     * inflaters and deflaters managed by the pool, whether in use or idle.
+     * The estimate assumes zlib's default window size and memory level.
+     *
+     * @return the estimated native memory in bytes
+     */
+    public static long nativeMemoryEstimate() {
+        return liveInflaters.get() * INFLATER_MEMORY
+            + liveDeflaters.get() * DEFLATER_MEMORY;
+    }
+}
@@ -30,10 +30,18 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.EOFException;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -46,6 +54,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static java.util.zip.ZipConstants64.*;
+import static java.util.zip.ZipUtils.*;
 
 /**
  * This class is used to read entries from a zip file.
@@ -59,6 +68,7 @@ import static java.util.zip.ZipConstants64.*;
 public
 class ZipFile implements ZipConstants, Closeable {
     private long jzfile;  // address of jzfile data
+    private final Source source;   // contents if opened for concurrent reading
     private final String name;     // zip file name
     private final int total;       // total number of entries
     private final boolean locsig;  // if zip file starts with LOCSIG (usually true)
@@ -81,6 +91,19 @@ class ZipFile implements ZipConstants, Closeable {
      */
     public static final int OPEN_DELETE = 0x4;
 
+    /**
+     * Mode flag to open a zip file for concurrent reading.  The central
+     * directory is mapped into memory and indexed when the file is opened,
+     * and the data of entries is read at explicit positions in the file,
+     * so that threads may look up and read entries of the same zip file
+     * without waiting for one another.  It may be combined with
+     * <tt>OPEN_DELETE</tt>, in which case the file is deleted when the
+     * <tt>ZipFile</tt> is closed.
+     *
+     * @since 1.8
+     */
+    public static final int OPEN_CONCURRENT = 0x8;
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -129,7 +152,8 @@ class ZipFile implements ZipConstants, Closeable {
     /**
      * Opens a new <code>ZipFile</code> to read from the specified
      * <code>File</code> object in the specified mode.  The mode argument
-     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>.
+     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>,
+     * either of which may also include <tt>OPEN_CONCURRENT</tt>.
      *
      * <p>First, if there is a security manager, its <code>checkRead</code>
      * method is called with the <code>name</code> argument as its argument to
@@ -174,7 +198,8 @@ class ZipFile implements ZipConstants, Closeable {
     /**
      * Opens a new <code>ZipFile</code> to read from the specified
      * <code>File</code> object in the specified mode.  The mode argument
-     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>.
+     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>,
+     * either of which may also include <tt>OPEN_CONCURRENT</tt>.
      *
      * <p>First, if there is a security manager, its <code>checkRead</code>
      * method is called with the <code>name</code> argument as its argument to
@@ -206,7 +231,7 @@ class ZipFile implements ZipConstants, Closeable {
     public ZipFile(File file, int mode, Charset charset) throws IOException
     {
         if (((mode & OPEN_READ) == 0) ||
-            ((mode & ~(OPEN_READ | OPEN_DELETE)) != 0)) {
+            ((mode & ~(OPEN_READ | OPEN_DELETE | OPEN_CONCURRENT)) != 0)) {
             throw new IllegalArgumentException("Illegal mode: 0x"+
                                                Integer.toHexString(mode));
         }
@@ -222,12 +247,22 @@ class ZipFile implements ZipConstants, Closeable {
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
         long t0 = System.nanoTime();
-        jzfile = open(name, mode, file.lastModified(), usemmap);
+        if ((mode & OPEN_CONCURRENT) != 0) {
+            source = new Source(file, (mode & OPEN_DELETE) != 0);
+        } else {
+            source = null;
+            jzfile = open(name, mode, file.lastModified(), usemmap);
+        }
         sun.misc.PerfCounter.getZipFileOpenTime().addElapsedTimeFrom(t0);
         sun.misc.PerfCounter.getZipFileCount().increment();
         this.name = name;
-        this.total = getTotal(jzfile);
-        this.locsig = startsWithLOC(jzfile);
+        if (source != null) {
+            this.total = source.total;
+            this.locsig = source.locsig;
+        } else {
+            this.total = getTotal(jzfile);
+            this.locsig = startsWithLOC(jzfile);
+        }
     }
 
     /**
@@ -289,6 +324,13 @@ class ZipFile implements ZipConstants, Closeable {
      * Since 1.7
      */
     public String getComment() {
+        if (source != null) {
+            ensureOpen();
+            byte[] bcomm = source.comment;
+            if (bcomm == null)
+                return null;
+            return zc.toString(bcomm, bcomm.length);
+        }
         synchronized (this) {
             ensureOpen();
             byte[] bcomm = getCommentBytes(jzfile);
@@ -310,6 +352,16 @@ class ZipFile implements ZipConstants, Closeable {
         if (name == null) {
             throw new NullPointerException("name");
         }
+        if (source != null) {
+            ensureOpen();
+            int pos = source.getEntryPos(zc.getBytes(name), true);
+            if (pos == -1) {
+                return null;
+            }
+            // see below for the trailing slash
+            return ensuretrailingslash ? getZipEntry(null, source, pos)
+                                       : getZipEntry(name, source, pos);
+        }
         long jzentry = 0;
         synchronized (this) {
             ensureOpen();
@@ -360,41 +412,152 @@ class ZipFile implements ZipConstants, Closeable {
         if (entry == null) {
             throw new NullPointerException("entry");
         }
+        if (source != null) {
+            ensureOpen();
+            int pos = source.getEntryPos(getEntryNameBytes(entry), false);
+            if (pos == -1) {
+                return null;
+            }
+            return getInputStream(new ZipFileInputStream(source, pos),
+                                  source.getEntryMethod(pos),
+                                  source.getEntrySize(pos));
+        }
         long jzentry = 0;
-        ZipFileInputStream in = null;
         synchronized (this) {
             ensureOpen();
-            if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
-                jzentry = getEntry(jzfile, zc.getBytesUTF8(entry.name), false);
-            } else {
-                jzentry = getEntry(jzfile, zc.getBytes(entry.name), false);
+            jzentry = getEntry(jzfile, getEntryNameBytes(entry), false);
+            if (jzentry == 0) {
+                return null;
             }
+            return getInputStream(new ZipFileInputStream(jzentry),
+                                  getEntryMethod(jzentry),
+                                  getEntrySize(jzentry));
+        }
+    }
+
+    /*
+     * Returns an input stream for reading the data of the specified entry
+     * as stored in the zip file, without decompressing it, or null if the
+     * entry is not found.
+     */
+    InputStream getRawInputStream(ZipEntry entry) throws IOException {
+        if (entry == null) {
+            throw new NullPointerException("entry");
+        }
+        if (source != null) {
+            ensureOpen();
+            int pos = source.getEntryPos(getEntryNameBytes(entry), false);
+            if (pos == -1) {
+                return null;
+            }
+            return getInputStream(new ZipFileInputStream(source, pos),
+                                  STORED, 0);
+        }
+        long jzentry = 0;
+        synchronized (this) {
+            ensureOpen();
+            jzentry = getEntry(jzfile, getEntryNameBytes(entry), false);
             if (jzentry == 0) {
                 return null;
             }
-            in = new ZipFileInputStream(jzentry);
+            return getInputStream(new ZipFileInputStream(jzentry), STORED, 0);
+        }
+    }
 
-            switch (getEntryMethod(jzentry)) {
-            case STORED:
-                synchronized (streams) {
-                    streams.put(in, null);
-                }
-                return in;
-            case DEFLATED:
-                // MORE: Compute good size for inflater stream:
-                long size = getEntrySize(jzentry) + 2; // Inflater likes a bit of slack
-                if (size > 65536) size = 8192;
-                if (size <= 0) size = 4096;
-                Inflater inf = getInflater();
-                InputStream is =
-                    new ZipFileInflaterInputStream(in, inf, (int)size);
-                synchronized (streams) {
-                    streams.put(is, inf);
+    private byte[] getEntryNameBytes(ZipEntry entry) {
+        if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
+            return zc.getBytesUTF8(entry.name);
+        } else {
+            return zc.getBytes(entry.name);
+        }
+    }
+
+    private InputStream getInputStream(ZipFileInputStream in, int method,
+                                       long size)
+        throws ZipException
+    {
+        switch (method) {
+        case STORED:
+            synchronized (streams) {
+                streams.put(in, null);
+            }
+            return in;
+        case DEFLATED:
+            // MORE: Compute good size for inflater stream:
+            size = size + 2; // Inflater likes a bit of slack
+            if (size > 65536) size = 8192;
+            if (size <= 0) size = 4096;
+            Inflater inf = getInflater();
+            InputStream is =
+                new ZipFileInflaterInputStream(in, inf, (int)size);
+            synchronized (streams) {
+                streams.put(is, inf);
+            }
+            return is;
+        default:
+            throw new ZipException("invalid compression method");
+        }
+    }
+
+    /**
+     * Returns a read-only buffer holding the uncompressed data of the
+     * specified zip file entry.
+     *
+     * <p> If this zip file was opened with <tt>OPEN_CONCURRENT</tt> and
+     * the entry is <tt>STORED</tt>, the buffer is a direct buffer onto a
+     * mapping of the file into memory, so that its data is not copied.
+     * As with any {@link java.nio.MappedByteBuffer}, the buffer remains
+     * valid after this zip file is closed, and the behavior of accessing
+     * it if the file is modified or truncated is unspecified.  Otherwise,
+     * or if memory mapping has been disabled, the data is read or
+     * decompressed into a heap buffer.
+     *
+     * @param entry the zip file entry
+     * @return a read-only buffer holding the data of the entry, or null
+     *         if not found
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException if the zip file has been closed
+     * @throws OutOfMemoryError if the data of the entry is too large to be
+     *         held in a buffer
+     * @since 1.8
+     */
+    public ByteBuffer mapEntry(ZipEntry entry) throws IOException {
+        if (entry == null) {
+            throw new NullPointerException("entry");
+        }
+        if (source != null) {
+            ensureOpen();
+            int pos = source.getEntryPos(getEntryNameBytes(entry), false);
+            if (pos == -1) {
+                return null;
+            }
+            if (source.getEntryMethod(pos) == STORED) {
+                return source.map(source.getDataStart(pos),
+                                  source.getEntrySize(pos));
+            }
+        }
+        try (InputStream in = getInputStream(entry)) {
+            if (in == null) {
+                return null;
+            }
+            long size = entry.size;
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            byte[] buf = new byte[(size >= 0) ? (int)size + 1 : 8192];
+            int n = 0, nread;
+            while ((nread = in.read(buf, n, buf.length - n)) > 0) {
+                n += nread;
+                if (n == buf.length) {
+                    if (n >= Integer.MAX_VALUE - 8) {
+                        throw new OutOfMemoryError("Required array size too large");
+                    }
+                    buf = Arrays.copyOf(buf, (int)Math.min(
+                        (long)n << 1, Integer.MAX_VALUE - 8));
                 }
-                return is;
-            default:
-                throw new ZipException("invalid compression method");
             }
+            return ByteBuffer.wrap(buf, 0, n).slice().asReadOnlyBuffer();
         }
     }
 
@@ -454,36 +617,21 @@ class ZipFile implements ZipConstants, Closeable {
     }
 
     /*
-     * Gets an inflater from the list of available inflaters or allocates
-     * a new one.
+     * Gets an inflater from the shared pool of available inflaters, which
+     * allocates a new one if there is none.
      */
     private Inflater getInflater() {
-        Inflater inf;
-        synchronized (inflaterCache) {
-            while (null != (inf = inflaterCache.poll())) {
-                if (false == inf.ended()) {
-                    return inf;
-                }
-            }
-        }
-        return new Inflater(true);
+        return ZStreamPool.getInflater(true);
     }
 
     /*
-     * Releases the specified inflater to the list of available inflaters.
+     * Releases the specified inflater to the shared pool of available
+     * inflaters.
      */
     private void releaseInflater(Inflater inf) {
-        if (false == inf.ended()) {
-            inf.reset();
-            synchronized (inflaterCache) {
-                inflaterCache.add(inf);
-            }
-        }
+        ZStreamPool.releaseInflater(inf);
     }
 
-    // List of available Inflater objects for decompression
-    private Deque<Inflater> inflaterCache = new ArrayDeque<>();
-
     /**
      * Returns the path name of the ZIP file.
      * @return the path name of the ZIP file
@@ -504,6 +652,10 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public boolean hasNext() {
+            if (source != null) {
+                ensureOpen();
+                return i < total;
+            }
             synchronized (ZipFile.this) {
                 ensureOpen();
                 return i < total;
@@ -515,6 +667,13 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public ZipEntry next() {
+            if (source != null) {
+                ensureOpen();
+                if (i >= total) {
+                    throw new NoSuchElementException();
+                }
+                return getZipEntry(null, source, source.getEntryPos(i++));
+            }
             synchronized (ZipFile.this) {
                 ensureOpen();
                 if (i >= total) {
@@ -602,6 +761,40 @@ class ZipFile implements ZipConstants, Closeable {
         return e;
     }
 
+    private ZipEntry getZipEntry(String name, Source src, int pos) {
+        ZipEntry e = new ZipEntry();
+        e.flag = src.getEntryFlag(pos);  // get the flag first
+        if (name != null) {
+            e.name = name;
+        } else {
+            byte[] bname = src.getEntryBytes(pos, JZENTRY_NAME);
+            if (bname == null) {
+                e.name = "";             // length 0 empty name
+            } else if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+                e.name = zc.toStringUTF8(bname, bname.length);
+            } else {
+                e.name = zc.toString(bname, bname.length);
+            }
+        }
+        e.xdostime = src.getEntryTime(pos);
+        e.crc = src.getEntryCrc(pos);
+        e.size = src.getEntrySize(pos);
+        e.csize = src.getEntryCSize(pos);
+        e.method = src.getEntryMethod(pos);
+        e.setExtra0(src.getEntryBytes(pos, JZENTRY_EXTRA), false);
+        byte[] bcomm = src.getEntryBytes(pos, JZENTRY_COMMENT);
+        if (bcomm == null) {
+            e.comment = null;
+        } else {
+            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+                e.comment = zc.toStringUTF8(bcomm, bcomm.length);
+            } else {
+                e.comment = zc.toString(bcomm, bcomm.length);
+            }
+        }
+        return e;
+    }
+
     private static native long getNextEntry(long jzfile, int i);
 
     /**
@@ -643,14 +836,6 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             }
 
-            // Release cached inflaters
-            Inflater inf;
-            synchronized (inflaterCache) {
-                while (null != (inf = inflaterCache.poll())) {
-                    inf.end();
-                }
-            }
-
             if (jzfile != 0) {
                 // Close the zip file
                 long zf = this.jzfile;
@@ -658,6 +843,9 @@ class ZipFile implements ZipConstants, Closeable {
 
                 close(zf);
             }
+            if (source != null) {
+                source.close();
+            }
         }
     }
 
@@ -686,7 +874,7 @@ class ZipFile implements ZipConstants, Closeable {
             throw new IllegalStateException("zip file closed");
         }
 
-        if (jzfile == 0) {
+        if (jzfile == 0 && source == null) {
             throw new IllegalStateException("The object is not initialized.");
         }
     }
@@ -707,15 +895,59 @@ class ZipFile implements ZipConstants, Closeable {
         private   long pos;     // current position within entry data
         protected long rem;     // number of remaining bytes within entry
         protected long size;    // uncompressed size of this entry
+        private final Source src;   // source if opened for concurrent reading
+        private final int cenpos;   // position of CEN header in source
+        private long start = -1;    // position of entry data in source
 
         ZipFileInputStream(long jzentry) {
             pos = 0;
             rem = getEntryCSize(jzentry);
             size = getEntrySize(jzentry);
             this.jzentry = jzentry;
+            this.src = null;
+            this.cenpos = -1;
+        }
+
+        ZipFileInputStream(Source src, int cenpos) {
+            pos = 0;
+            rem = src.getEntryCSize(cenpos);
+            size = src.getEntrySize(cenpos);
+            this.src = src;
+            this.cenpos = cenpos;
         }
 
         public int read(byte b[], int off, int len) throws IOException {
+            if (src != null) {
+                // reads of other entries need not wait for this one
+                synchronized (this) {
+                    long rem = this.rem;
+                    long pos = this.pos;
+                    if (rem == 0) {
+                        return -1;
+                    }
+                    if (len <= 0) {
+                        return 0;
+                    }
+                    if (len > rem) {
+                        len = (int) rem;
+                    }
+                    ensureOpenOrZipException();
+                    if (start == -1) {
+                        start = src.getDataStart(cenpos);
+                    }
+                    len = src.read(start + pos, b, off, len);
+                    if (len == -1) {
+                        throw new ZipException("invalid entry data (unexpected end of file)");
+                    }
+                    this.pos = (pos + len);
+                    this.rem = (rem - len);
+                    if (this.rem != 0) {
+                        return len;
+                    }
+                }
+                close();
+                return len;
+            }
             synchronized (ZipFile.this) {
                 long rem = this.rem;
                 long pos = this.pos;
@@ -778,6 +1010,12 @@ class ZipFile implements ZipConstants, Closeable {
             zfisCloseRequested = true;
 
             rem = 0;
+            if (src != null) {
+                synchronized (streams) {
+                    streams.remove(this);
+                }
+                return;
+            }
             synchronized (ZipFile.this) {
                 if (jzentry != 0 && ZipFile.this.jzfile != 0) {
                     freeEntry(ZipFile.this.jzfile, jzentry);
@@ -794,6 +1032,505 @@ class ZipFile implements ZipConstants, Closeable {
         }
     }
 
+    /*
+     * The contents of a zip file opened for concurrent reading.  The
+     * central directory is mapped into memory (or read, if mapping is
+     * disabled) and indexed by a hash table of entry names, and entry data
+     * is read from a file channel at explicit positions, so that lookups
+     * and reads of different entries hold no common lock.
+     */
+    private static final class Source {
+        final int total;                // total number of entries
+        final boolean locsig;           // if zip file starts with LOCSIG
+        final byte[] comment;           // zip file comment, or null
+
+        private final File file;
+        private final boolean delete;   // if to delete the file when closed
+        private final long length;      // length of the file
+        private final ByteBuffer cen;   // central directory, little-endian
+        private final long locpos;      // position of first LOC header
+
+        /*
+         * The hash table: the index of the first entry of each chain, or
+         * -1, and for each entry, in central directory order, the hash of
+         * its name, the index of the next entry in its chain, or -1, and
+         * the position of its CEN header.
+         */
+        private final int[] table;
+        private final int[] entries;
+
+        private volatile FileChannel ch;
+        private volatile ByteBuffer mapped;  // the whole file, once mapped
+        private volatile boolean closed;
+
+        Source(File file, boolean delete) throws IOException {
+            this.file = file;
+            this.delete = delete;
+            FileChannel ch = openChannel();
+            try {
+                this.length = ch.size();
+                this.ch = ch;
+                if (length == 0) {
+                    throw new ZipException("zip file is empty");
+                }
+
+                // find the END header, which ends with the zip file comment
+                int buflen = (int)Math.min(length, ENDHDR + 0xFFFF);
+                byte[] buf = new byte[buflen];
+                readFully(length - buflen, buf, 0, buflen);
+                int end = -1;
+                for (int i = buflen - ENDHDR; i >= 0; i--) {
+                    if (get32(buf, i) == ENDSIG &&
+                        i + ENDHDR + get16(buf, i + ENDCOM) == buflen) {
+                        end = i;
+                        break;
+                    }
+                }
+                if (end == -1) {
+                    throw new ZipException("zip END header not found");
+                }
+                long endpos = length - buflen + end;
+                long cenlen = get32(buf, end + ENDSIZ);
+                long cenoff = get32(buf, end + ENDOFF);
+                long count = get16(buf, end + ENDTOT);
+                int clen = get16(buf, end + ENDCOM);
+                this.comment = (clen == 0) ? null
+                    : Arrays.copyOfRange(buf, end + ENDHDR, end + ENDHDR + clen);
+
+                if ((cenlen == ZIP64_MAGICVAL || cenoff == ZIP64_MAGICVAL ||
+                     count == ZIP64_MAGICCOUNT) && endpos >= ZIP64_LOCHDR) {
+                    byte[] loc = new byte[ZIP64_LOCHDR];
+                    readFully(endpos - ZIP64_LOCHDR, loc, 0, ZIP64_LOCHDR);
+                    if (get32(loc, 0) == ZIP64_LOCSIG) {
+                        long end64pos = get64(loc, ZIP64_LOCOFF);
+                        byte[] end64 = new byte[ZIP64_ENDHDR];
+                        if (end64pos < 0 || end64pos > endpos - ZIP64_ENDHDR) {
+                            throw new ZipException("invalid ZIP64 END header");
+                        }
+                        readFully(end64pos, end64, 0, ZIP64_ENDHDR);
+                        if (get32(end64, 0) != ZIP64_ENDSIG) {
+                            throw new ZipException("invalid ZIP64 END header");
+                        }
+                        cenlen = get64(end64, ZIP64_ENDSIZ);
+                        cenoff = get64(end64, ZIP64_ENDOFF);
+                        count = get64(end64, ZIP64_ENDTOT);
+                        endpos = end64pos;
+                    }
+                }
+
+                // prefixed data, such as a self-extractor, shifts every offset
+                long cenpos = endpos - cenlen;
+                this.locpos = cenpos - cenoff;
+                if (cenlen < 0 || cenlen > Integer.MAX_VALUE ||
+                    cenpos < 0 || locpos < 0) {
+                    throw new ZipException("invalid END header (bad central directory offset)");
+                }
+                if (count < 0 || count > cenlen / CENHDR) {
+                    throw new ZipException("invalid END header (bad entry count)");
+                }
+
+                byte[] sig = new byte[4];
+                this.locsig = length >= 4 && readFully(0, sig, 0, 4) &&
+                              get32(sig, 0) == LOCSIG;
+
+                // a mapped file cannot be deleted on some platforms
+                ByteBuffer cen;
+                if (usemmap && !delete) {
+                    cen = ch.map(FileChannel.MapMode.READ_ONLY, cenpos, cenlen);
+                } else {
+                    byte[] b = new byte[(int)cenlen];
+                    readFully(cenpos, b, 0, b.length);
+                    cen = ByteBuffer.wrap(b);
+                }
+                this.cen = cen.order(ByteOrder.LITTLE_ENDIAN);
+
+                // as in the native implementation, the CEN is walked to its
+                // end, and the entries recounted if the END header holds
+                // too few, as when more than 65535 entries were written
+                // without ZIP64
+                int n = (int)count;
+                int[] table;
+                int[] entries;
+                int i;
+                for (;;) {
+                    table = new int[(n / 2) | 1];
+                    entries = new int[n * 3];
+                    Arrays.fill(table, -1);
+                    int pos = 0;
+                    for (i = 0; i < n && pos <= cenlen - CENHDR; i++) {
+                        if ((cen.getInt(pos) & 0xffffffffL) != CENSIG) {
+                            throw new ZipException("invalid CEN header (bad signature)");
+                        }
+                        int method = cen.getShort(pos + CENHOW) & 0xffff;
+                        if (method != STORED && method != DEFLATED) {
+                            throw new ZipException("invalid CEN header (bad compression method)");
+                        }
+                        int nlen = cen.getShort(pos + CENNAM) & 0xffff;
+                        int next = pos + CENHDR + nlen
+                            + (cen.getShort(pos + CENEXT) & 0xffff)
+                            + (cen.getShort(pos + CENCOM) & 0xffff);
+                        if (next > cenlen) {
+                            throw new ZipException("invalid CEN header (bad header size)");
+                        }
+                        int hash = 0;
+                        for (int j = pos + CENHDR; j < pos + CENHDR + nlen; j++) {
+                            hash = 31 * hash + cen.get(j);
+                        }
+                        int slot = (hash & 0x7fffffff) % table.length;
+                        entries[i * 3] = hash;
+                        entries[i * 3 + 1] = table[slot];
+                        entries[i * 3 + 2] = pos;
+                        table[slot] = i;
+                        pos = next;
+                    }
+                    if (pos <= cenlen - CENHDR) {
+                        n = countCenHeaders(cen, (int)cenlen);
+                        continue;
+                    }
+                    if (pos != cenlen) {
+                        throw new ZipException("invalid CEN header (bad header size)");
+                    }
+                    break;
+                }
+                this.total = i;
+                this.table = table;
+                this.entries = entries;
+            } catch (IOException | RuntimeException x) {
+                ch.close();
+                throw x;
+            }
+        }
+
+        /*
+         * Counts the CEN headers in the first len bytes of the given
+         * central directory, stepping over each by the sizes it records.
+         */
+        private static int countCenHeaders(ByteBuffer cen, int len) {
+            int count = 0;
+            for (int pos = 0; pos <= len - CENHDR; count++) {
+                pos += CENHDR + (cen.getShort(pos + CENNAM) & 0xffff)
+                    + (cen.getShort(pos + CENEXT) & 0xffff)
+                    + (cen.getShort(pos + CENCOM) & 0xffff);
+            }
+            return count;
+        }
+
+        /*
+         * Returns the position of the CEN header of the entry with the
+         * given name, or of the given name with a slash appended if
+         * addSlash is set and the name is not found, or -1 if neither is.
+         */
+        int getEntryPos(byte[] name, boolean addSlash) {
+            int hash = 0;
+            for (byte b : name) {
+                hash = 31 * hash + b;
+            }
+            int pos = findEntry(name, hash, false);
+            if (pos == -1 && addSlash && name.length > 0 &&
+                name[name.length - 1] != '/') {
+                pos = findEntry(name, 31 * hash + '/', true);
+            }
+            return pos;
+        }
+
+        private int findEntry(byte[] name, int hash, boolean slash) {
+            int nlen = name.length + (slash ? 1 : 0);
+            int i = table[(hash & 0x7fffffff) % table.length];
+            outer:
+            for (; i != -1; i = entries[i * 3 + 1]) {
+                if (entries[i * 3] != hash) {
+                    continue;
+                }
+                int pos = entries[i * 3 + 2];
+                if ((cen.getShort(pos + CENNAM) & 0xffff) != nlen) {
+                    continue;
+                }
+                int off = pos + CENHDR;
+                for (int j = 0; j < name.length; j++) {
+                    if (cen.get(off + j) != name[j]) {
+                        continue outer;
+                    }
+                }
+                if (!slash || cen.get(off + name.length) == '/') {
+                    return pos;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * Returns the position of the CEN header of the i'th entry.
+         */
+        int getEntryPos(int i) {
+            return entries[i * 3 + 2];
+        }
+
+        int getEntryFlag(int pos) {
+            return cen.getShort(pos + CENFLG) & 0xffff;
+        }
+
+        int getEntryMethod(int pos) {
+            return cen.getShort(pos + CENHOW) & 0xffff;
+        }
+
+        long getEntryTime(int pos) {
+            return cen.getInt(pos + CENTIM) & 0xffffffffL;
+        }
+
+        long getEntryCrc(int pos) {
+            return cen.getInt(pos + CENCRC) & 0xffffffffL;
+        }
+
+        long getEntrySize(int pos) {
+            return getZip64Value(pos, CENLEN);
+        }
+
+        long getEntryCSize(int pos) {
+            // as in the native implementation, STORED data is its own size
+            return (getEntryMethod(pos) == STORED) ? getEntrySize(pos)
+                                                   : getZip64Value(pos, CENSIZ);
+        }
+
+        byte[] getEntryBytes(int pos, int type) {
+            int nlen = cen.getShort(pos + CENNAM) & 0xffff;
+            int elen = cen.getShort(pos + CENEXT) & 0xffff;
+            int clen = cen.getShort(pos + CENCOM) & 0xffff;
+            int off = pos + CENHDR;
+            int len = nlen;
+            if (type == JZENTRY_EXTRA) {
+                off += nlen;
+                len = elen;
+            } else if (type == JZENTRY_COMMENT) {
+                off += nlen + elen;
+                len = clen;
+            }
+            if (len == 0) {
+                return null;
+            }
+            byte[] b = new byte[len];
+            ByteBuffer bb = cen.duplicate();
+            bb.position(off);
+            bb.get(b);
+            return b;
+        }
+
+        /*
+         * Returns the size, compressed size or LOC header offset in the CEN
+         * header at the given position, taking it from the ZIP64 extra
+         * field if the header holds the magic value.  The extra field has
+         * only the values that are magic in the header, in this order.
+         */
+        private long getZip64Value(int pos, int field) {
+            long value = cen.getInt(pos + field) & 0xffffffffL;
+            if (value != ZIP64_MAGICVAL) {
+                return value;
+            }
+            int off = pos + CENHDR + (cen.getShort(pos + CENNAM) & 0xffff);
+            int end = off + (cen.getShort(pos + CENEXT) & 0xffff);
+            while (off + 4 <= end) {
+                int tag = cen.getShort(off) & 0xffff;
+                int sz = cen.getShort(off + 2) & 0xffff;
+                off += 4;
+                if (off + sz > end) {
+                    break;
+                }
+                if (tag == EXTID_ZIP64) {
+                    int p = off;
+                    for (int f : new int[] { CENLEN, CENSIZ, CENOFF }) {
+                        if ((cen.getInt(pos + f) & 0xffffffffL) == ZIP64_MAGICVAL) {
+                            if (f == field) {
+                                return (p + 8 <= off + sz) ? cen.getLong(p) : value;
+                            }
+                            p += 8;
+                        }
+                    }
+                }
+                off += sz;
+            }
+            return value;
+        }
+
+        /*
+         * Returns the position in the file of the data of the entry whose
+         * CEN header is at the given position, reading its LOC header.
+         */
+        long getDataStart(int pos) throws IOException {
+            long locoff = locpos + getZip64Value(pos, CENOFF);
+            byte[] loc = new byte[LOCHDR];
+            if (locoff < 0 || !readFully(locoff, loc, 0, LOCHDR) ||
+                get32(loc, 0) != LOCSIG) {
+                throw new ZipException("invalid LOC header (bad signature)");
+            }
+            return locoff + LOCHDR + get16(loc, LOCNAM) + get16(loc, LOCEXT);
+        }
+
+        /*
+         * Reads up to len bytes at the given position in the file, returning
+         * the number read or -1 at the end of the file.  The channel is
+         * closed if a thread using it is interrupted, so the interrupt
+         * status of the reading thread is cleared for the read and then
+         * restored, and should the channel be closed all the same, it is
+         * reopened and the read retried, so that an interrupt does not fail
+         * this or other threads' reads.
+         */
+        int read(long pos, byte[] b, int off, int len) throws IOException {
+            ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+            boolean interrupted = Thread.interrupted();
+            try {
+                for (;;) {
+                    FileChannel ch = this.ch;
+                    try {
+                        return ch.read(bb, pos);
+                    } catch (ClosedByInterruptException x) {
+                        interrupted |= Thread.interrupted();
+                        interrupted |= reopen(ch);
+                    } catch (ClosedChannelException x) {
+                        interrupted |= reopen(ch);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /*
+         * Reads len bytes at the given position, returning false if the
+         * end of the file is reached first.
+         */
+        private boolean readFully(long pos, byte[] b, int off, int len)
+            throws IOException
+        {
+            while (len > 0) {
+                int n = read(pos, b, off, len);
+                if (n == -1) {
+                    return false;
+                }
+                pos += n;
+                off += n;
+                len -= n;
+            }
+            return true;
+        }
+
+        /*
+         * Returns a read-only buffer holding the size bytes of the file at
+         * the given position, sliced from a mapping of the whole file if it
+         * can be mapped at once, or read into a heap buffer if mapping is
+         * disabled.
+         */
+        ByteBuffer map(long pos, long size) throws IOException {
+            if (size > Integer.MAX_VALUE) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            if (!usemmap || delete) {
+                byte[] b = new byte[(int)size];
+                if (!readFully(pos, b, 0, b.length)) {
+                    throw new ZipException("invalid entry data (unexpected end of file)");
+                }
+                return ByteBuffer.wrap(b).asReadOnlyBuffer();
+            }
+            if (pos < 0 || pos > length - size) {
+                throw new ZipException("invalid entry data (unexpected end of file)");
+            }
+            if (length > Integer.MAX_VALUE) {
+                return mapChannel(pos, size);
+            }
+            ByteBuffer m = mapped;
+            if (m == null) {
+                synchronized (this) {
+                    if ((m = mapped) == null) {
+                        mapped = m = mapChannel(0, length);
+                    }
+                }
+            }
+            ByteBuffer bb = m.duplicate();
+            bb.position((int)pos);
+            bb.limit((int)(pos + size));
+            return bb.slice();
+        }
+
+        private ByteBuffer mapChannel(long pos, long size) throws IOException {
+            boolean interrupted = Thread.interrupted();
+            try {
+                for (;;) {
+                    FileChannel ch = this.ch;
+                    try {
+                        return ch.map(FileChannel.MapMode.READ_ONLY, pos, size);
+                    } catch (ClosedByInterruptException x) {
+                        interrupted |= Thread.interrupted();
+                        interrupted |= reopen(ch);
+                    } catch (ClosedChannelException x) {
+                        interrupted |= reopen(ch);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /*
+         * Replaces the given channel, closed by an interrupt, unless it has
+         * already been replaced, or the zip file has been closed.  Returns
+         * whether the current thread was interrupted meanwhile, clearing
+         * its interrupt status.
+         */
+        private synchronized boolean reopen(FileChannel old)
+            throws IOException
+        {
+            boolean interrupted = Thread.interrupted();
+            while (ch == old) {
+                if (closed) {
+                    throw new ZipException("ZipFile closed");
+                }
+                FileChannel ch = openChannel();
+                try {
+                    if (ch.size() != length) {
+                        ch.close();
+                        throw new ZipException("ZipFile changed");
+                    }
+                    this.ch = ch;
+                } catch (ClosedByInterruptException x) {
+                    interrupted |= Thread.interrupted();
+                }
+            }
+            return interrupted;
+        }
+
+        private FileChannel openChannel() throws IOException {
+            try {
+                return AccessController.doPrivileged(
+                    new PrivilegedExceptionAction<FileChannel>() {
+                        public FileChannel run() throws IOException {
+                            return FileChannel.open(file.toPath(),
+                                                    StandardOpenOption.READ);
+                        }
+                    });
+            } catch (PrivilegedActionException e) {
+                throw (IOException)e.getException();
+            }
+        }
+
+        synchronized void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                ch.close();
+                if (delete) {
+                    AccessController.doPrivileged(
+                        new java.security.PrivilegedAction<Void>() {
+                            public Void run() {
+                                file.delete();
+                                return null;
+                            }
+                        });
+                }
+            }
+        }
+    }
+
     static {
         sun.misc.SharedSecrets.setJavaUtilZipFileAccess(
             new sun.misc.JavaUtilZipFileAccess() {
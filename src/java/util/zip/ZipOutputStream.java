@@ -25,6 +25,7 @@
 
 package java.util.zip;
 
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -130,7 +131,7 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      * @since 1.7
      */
     public ZipOutputStream(OutputStream out, Charset charset) {
-        super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        super(out, ZStreamPool.getDeflater(Deflater.DEFAULT_COMPRESSION, true));
         if (charset == null)
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
@@ -173,7 +174,8 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      * @exception IllegalArgumentException if the compression level is invalid
      */
     public void setLevel(int level) {
-        def.setLevel(level);
+        if (!released)
+            def.setLevel(level);
     }
 
     /**
@@ -303,6 +305,51 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         }
     }
 
+    /*
+     * Writes an entry whose data, already compressed by the entry's
+     * method, is read from the specified stream.  The size, compressed
+     * size and crc-32 of the entry must be set; they are written in the
+     * LOC header, so no data descriptor follows the data.  Closes the
+     * current entry if still active.
+     */
+    void writeRawEntry(ZipEntry e, InputStream in) throws IOException {
+        ensureOpen();
+        if (current != null) {
+            closeEntry();       // close previous entry
+        }
+        if (e.xdostime == -1) {
+            e.setTime(System.currentTimeMillis());
+        }
+        version(e);             // fails if the method is unsupported
+        if (e.size == -1 || e.csize == -1 || e.crc == -1) {
+            throw new ZipException(
+                "raw entry missing size, compressed size, or crc-32");
+        }
+        if (e.method == STORED && e.size != e.csize) {
+            throw new ZipException(
+                "STORED entry where compressed != uncompressed size");
+        }
+        if (! names.add(e.name)) {
+            throw new ZipException("duplicate entry: " + e.name);
+        }
+        e.flag = zc.isUTF8() ? EFS : 0;
+        XEntry xentry = new XEntry(e, written);
+        xentries.add(xentry);
+        writeLOC(xentry);
+        byte[] buf = new byte[8192];
+        long n = e.csize;
+        while (n > 0) {
+            int len = in.read(buf, 0, (int)Math.min(buf.length, n));
+            if (len == -1) {
+                throw new ZipException(
+                    "invalid entry compressed size (expected " + e.csize +
+                    " but got " + (e.csize - n) + " bytes)");
+            }
+            writeBytes(buf, 0, len);
+            n -= len;
+        }
+    }
+
     /**
      * Writes an array of bytes to the current ZIP entry data. This method
      * will block until all the bytes are written.
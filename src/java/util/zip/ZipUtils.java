@@ -144,4 +144,72 @@ class ZipUtils {
     public static final long get64(byte b[], int off) {
         return get32(b, off) | (get32(b, off+4) << 32);
     }
+
+    /**
+     * Returns the CRC of the concatenation of two sequences of bytes,
+     * given their CRCs and the length of the second, for a reflected CRC
+     * of 32 bits with the given reversed polynomial whose register is
+     * preset to and finally complemented with all ones, as CRC-32 and
+     * CRC-32C are.  The second CRC is shifted through the length of the
+     * first by repeatedly squaring the operator for a single zero bit.
+     */
+    static long crc32Combine(int poly, long crc1, long crc2, long len2) {
+        if (len2 < 0) {
+            throw new IllegalArgumentException("negative length");
+        }
+        if (len2 == 0) {
+            return crc1;
+        }
+        int[] even = new int[32];   // even-power-of-two zeros operator
+        int[] odd = new int[32];    // odd-power-of-two zeros operator
+
+        // put operator for one zero bit in odd
+        odd[0] = poly;
+        int row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+
+        // put operator for two zero bits in even, four zero bits in odd
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+
+        // apply len2 zeros to crc1 (the first square puts the operator
+        // for one zero byte, eight zero bits, in even)
+        int crc = (int)crc1;
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) {
+                crc = gf2MatrixTimes(even, crc);
+            }
+            len2 >>>= 1;
+            if (len2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) {
+                crc = gf2MatrixTimes(odd, crc);
+            }
+            len2 >>>= 1;
+        } while (len2 != 0);
+
+        return ((long)(crc ^ (int)crc2)) & 0xffffffffL;
+    }
+
+    private static int gf2MatrixTimes(int[] mat, int vec) {
+        int sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0) {
+                sum ^= mat[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(int[] square, int[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
 }